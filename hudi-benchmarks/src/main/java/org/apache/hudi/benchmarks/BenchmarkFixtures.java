@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.client.HoodieReadClient;
+import org.apache.hudi.client.HoodieWriteClient;
+import org.apache.hudi.client.SparkTaskContextSupplier;
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.config.HoodieCompactionConfig;
+import org.apache.hudi.config.HoodieIndexConfig;
+import org.apache.hudi.config.HoodieStorageConfig;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Local file-system fixtures shared by the benchmarks in this module. All tables and files are created under a fresh
+ * temporary directory so that benchmark runs never depend on an external cluster.
+ */
+public class BenchmarkFixtures {
+
+  public static final String PARTITION_PATH = "2020/01/01";
+  public static final String TABLE_NAME = "hoodie_benchmark";
+
+  public static final String SCHEMA_STR = "{\"type\": \"record\", \"name\": \"benchmark_rec\", \"fields\": [ "
+      + "{\"name\": \"timestamp\", \"type\": \"long\"}, "
+      + "{\"name\": \"_row_key\", \"type\": \"string\"}, "
+      + "{\"name\": \"partition_path\", \"type\": \"string\"}, "
+      + "{\"name\": \"rider\", \"type\": \"string\"}, "
+      + "{\"name\": \"driver\", \"type\": \"string\"}, "
+      + "{\"name\": \"begin_lat\", \"type\": \"double\"}, "
+      + "{\"name\": \"begin_lon\", \"type\": \"double\"}, "
+      + "{\"name\": \"end_lat\", \"type\": \"double\"}, "
+      + "{\"name\": \"end_lon\", \"type\": \"double\"}, "
+      + "{\"name\": \"fare\", \"type\": \"double\"}]}";
+
+  public static final Schema SCHEMA = new Schema.Parser().parse(SCHEMA_STR);
+
+  /**
+   * Creates a new temporary directory, which is deleted on JVM exit.
+   */
+  public static String createTempDir(String prefix) {
+    try {
+      File dir = Files.createTempDirectory(prefix).toFile();
+      dir.deleteOnExit();
+      return dir.getAbsolutePath();
+    } catch (IOException e) {
+      throw new HoodieException("Unable to create temp directory for benchmark", e);
+    }
+  }
+
+  public static void deleteDir(String path) {
+    try {
+      FileIOUtils.deleteDirectory(new File(path));
+    } catch (IOException e) {
+      throw new HoodieException("Unable to delete benchmark directory " + path, e);
+    }
+  }
+
+  /**
+   * Generates random (uuid) record keys from the given seed, so that runs are repeatable.
+   */
+  public static List<String> generateKeys(int numKeys, long seed) {
+    Random random = new Random(seed);
+    List<String> keys = new ArrayList<>(numKeys);
+    for (int i = 0; i < numKeys; i++) {
+      keys.add(new UUID(random.nextLong(), random.nextLong()).toString());
+    }
+    return keys;
+  }
+
+  public static GenericRecord generateRecord(String key, long timestamp, Random random) {
+    GenericRecord rec = new GenericData.Record(SCHEMA);
+    rec.put("timestamp", timestamp);
+    rec.put("_row_key", key);
+    rec.put("partition_path", PARTITION_PATH);
+    rec.put("rider", "rider-" + timestamp);
+    rec.put("driver", "driver-" + timestamp);
+    rec.put("begin_lat", random.nextDouble());
+    rec.put("begin_lon", random.nextDouble());
+    rec.put("end_lat", random.nextDouble());
+    rec.put("end_lon", random.nextDouble());
+    rec.put("fare", random.nextDouble() * 100);
+    return rec;
+  }
+
+  public static List<GenericRecord> generateRecords(List<String> keys, long timestamp, long seed) {
+    Random random = new Random(seed);
+    return keys.stream().map(key -> generateRecord(key, timestamp, random)).collect(Collectors.toList());
+  }
+
+  public static List<HoodieRecord<HoodieAvroPayload>> toHoodieRecords(List<GenericRecord> records) {
+    return records.stream()
+        .map(rec -> new HoodieRecord<>(new HoodieKey(rec.get("_row_key").toString(), PARTITION_PATH),
+            new HoodieAvroPayload(Option.of(rec))))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns shallow copies of the records, with no location set, so that they can be handed to a write handle again.
+   */
+  public static List<HoodieRecord<HoodieAvroPayload>> copyOf(List<HoodieRecord<HoodieAvroPayload>> records) {
+    return records.stream().map(rec -> new HoodieRecord<>(rec.getKey(), rec.getData())).collect(Collectors.toList());
+  }
+
+  public static HoodieWriteConfig getWriteConfig(String basePath) {
+    return HoodieWriteConfig.newBuilder().withPath(basePath).withSchema(SCHEMA_STR).forTable(TABLE_NAME)
+        .withParallelism(1, 1).withBulkInsertParallelism(1)
+        .withIndexConfig(HoodieIndexConfig.newBuilder().withIndexType(HoodieIndex.IndexType.BLOOM).build())
+        .withStorageConfig(HoodieStorageConfig.newBuilder().limitFileSize(1024 * 1024 * 1024L).build())
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().insertSplitSize(Integer.MAX_VALUE)
+            .autoTuneInsertSplits(false).build())
+        .withEmbeddedTimelineServerEnabled(false).build();
+  }
+
+  /**
+   * Creates a copy-on-write table at the base path, whose single partition holds one base file with the records. A
+   * local spark context is used only for the duration of the initial commit.
+   */
+  public static HoodieWriteConfig createCopyOnWriteTable(String basePath, List<HoodieRecord<HoodieAvroPayload>> records,
+      String instantTime) {
+    HoodieWriteConfig config = getWriteConfig(basePath);
+    SparkConf sparkConf = HoodieReadClient.addHoodieSupport(new SparkConf().setAppName("hoodie-benchmark-fixture")
+        .set("spark.serializer", "org.apache.spark.serializer.KryoSerializer").setMaster("local[1]"));
+    JavaSparkContext jsc = new JavaSparkContext(sparkConf);
+    try {
+      HoodieTableMetaClient.initTableType(jsc.hadoopConfiguration(), basePath, HoodieTableType.COPY_ON_WRITE,
+          TABLE_NAME, HoodieAvroPayload.class.getName());
+      try (HoodieWriteClient<HoodieAvroPayload> client = new HoodieWriteClient<>(jsc, config)) {
+        client.startCommitWithTime(instantTime);
+        JavaRDD<WriteStatus> statuses = client.bulkInsert(jsc.parallelize(copyOf(records), 1), instantTime);
+        if (statuses.filter(WriteStatus::hasErrors).count() > 0) {
+          throw new HoodieException("Errors while creating benchmark table at " + basePath);
+        }
+      }
+    } catch (IOException e) {
+      throw new HoodieException("Unable to create benchmark table at " + basePath, e);
+    } finally {
+      jsc.stop();
+    }
+    return config;
+  }
+
+  public static HoodieBaseFile getLatestBaseFile(HoodieWriteConfig config, Configuration hadoopConf) {
+    HoodieTable<HoodieAvroPayload> table = HoodieTable.create(config, hadoopConf);
+    return table.getBaseFileOnlyView().getLatestBaseFiles(PARTITION_PATH).findFirst()
+        .orElseThrow(() -> new HoodieException("No base file found for benchmark table " + config.getBasePath()));
+  }
+
+  /**
+   * Task context supplier for write handles that are driven outside of a spark task.
+   */
+  public static class LocalTaskContextSupplier extends SparkTaskContextSupplier {
+
+    @Override
+    public Supplier<Integer> getPartitionIdSupplier() {
+      return () -> 0;
+    }
+
+    @Override
+    public Supplier<Integer> getStageIdSupplier() {
+      return () -> 0;
+    }
+
+    @Override
+    public Supplier<Long> getAttemptIdSupplier() {
+      return () -> 0L;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BloomFilter#mightContain(String)} for the simple and dynamic bloom filter types, with half of the
+ * probed keys present in the filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BloomFilterBenchmark {
+
+  @Param({"60000"})
+  public int numEntries;
+
+  @Param({"SIMPLE", "DYNAMIC_V0"})
+  public String bloomFilterType;
+
+  private BloomFilter bloomFilter;
+  private String[] probeKeys;
+  private int index = 0;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    bloomFilter = BloomFilterFactory.createBloomFilter(numEntries, 0.000000001, numEntries * 2, bloomFilterType);
+    List<String> keys = BenchmarkFixtures.generateKeys(numEntries, 0L);
+    keys.forEach(bloomFilter::add);
+    List<String> probes = new ArrayList<>(keys.subList(0, numEntries / 2));
+    probes.addAll(BenchmarkFixtures.generateKeys(numEntries / 2, 1L));
+    probeKeys = probes.toArray(new String[0]);
+  }
+
+  @Benchmark
+  public boolean mightContain() {
+    index = (index + 1) % probeKeys.length;
+    return bloomFilter.mightContain(probeKeys[index]);
+  }
+
+  @Benchmark
+  public BloomFilter deserialize() {
+    return BloomFilterFactory.fromString(bloomFilter.serializeToString(), bloomFilterType);
+  }
+}
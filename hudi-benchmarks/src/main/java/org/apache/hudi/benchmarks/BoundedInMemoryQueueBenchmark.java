@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.common.util.AvroRecordSizeEstimator;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
+import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
+import org.apache.hudi.common.util.queue.BoundedInMemoryQueueProducer;
+import org.apache.hudi.common.util.queue.IteratorBasedQueueProducer;
+
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the throughput of records handed from producer threads to the consumer through a
+ * {@link BoundedInMemoryExecutor}, as done by copy-on-write merges and inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BoundedInMemoryQueueBenchmark {
+
+  @Param({"1000000"})
+  public int numRecords;
+
+  @Param({"1", "4"})
+  public int numProducers;
+
+  // matches the default of hoodie.write.buffer.limit.bytes
+  @Param({"4194304"})
+  public long bufferLimitInBytes;
+
+  @Param({"BLOCKING", "RING_BUFFER"})
+  public BoundedInMemoryExecutor.QueueType queueType;
+
+  private List<List<GenericRecord>> producerInputs;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // a small pool of distinct records is cycled over, the queue never looks into the payloads
+    List<GenericRecord> pool = BenchmarkFixtures.generateRecords(BenchmarkFixtures.generateKeys(1000, 0L), 1L, 0L);
+    int recordsPerProducer = numRecords / numProducers;
+    producerInputs = IntStream.range(0, numProducers)
+        .mapToObj(p -> IntStream.range(0, recordsPerProducer).mapToObj(i -> pool.get(i % pool.size()))
+            .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public Long produceAndConsume() {
+    List<BoundedInMemoryQueueProducer<GenericRecord>> producers = new ArrayList<>();
+    producerInputs.forEach(input -> producers.add(new IteratorBasedQueueProducer<>(input.iterator())));
+    BoundedInMemoryExecutor<GenericRecord, GenericRecord, Long> executor = new BoundedInMemoryExecutor<>(
+        bufferLimitInBytes, producers, Option.of(new CountingConsumer()), x -> x,
+        new AvroRecordSizeEstimator<>(), queueType);
+    try {
+      return executor.execute();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static class CountingConsumer extends BoundedInMemoryQueueConsumer<GenericRecord, Long> {
+
+    private long count = 0;
+
+    @Override
+    protected void consumeOneRecord(GenericRecord record) {
+      count++;
+    }
+
+    @Override
+    protected void finish() {
+    }
+
+    @Override
+    protected Long getResult() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ExternalSpillableMap#put} and {@link ExternalSpillableMap#get} with a memory budget that either holds
+ * all the records or forces most of them to spill to the local disk, for each implementation of the spilled map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ExternalSpillableMapBenchmark {
+
+  @Param({"100000"})
+  public int numRecords;
+
+  // 1MB spills nearly everything, 1GB keeps everything in memory
+  @Param({"1048576", "1073741824"})
+  public long maxInMemorySizeInBytes;
+
+  @Param({"DISK_BASED", "MEMORY_MAPPED"})
+  public ExternalSpillableMap.DiskMapType diskMapType;
+
+  private String spillPath;
+  private List<HoodieRecord<HoodieAvroPayload>> records;
+  private ExternalSpillableMap<String, HoodieRecord<HoodieAvroPayload>> populatedMap;
+  private ExternalSpillableMap<String, HoodieRecord<HoodieAvroPayload>> emptyMap;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    spillPath = BenchmarkFixtures.createTempDir("hoodie-spillable-map-benchmark");
+    records = BenchmarkFixtures.toHoodieRecords(
+        BenchmarkFixtures.generateRecords(BenchmarkFixtures.generateKeys(numRecords, 0L), 1L, 0L));
+    populatedMap = newMap();
+    records.forEach(rec -> populatedMap.put(rec.getRecordKey(), rec));
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareEmptyMap() throws IOException {
+    emptyMap = newMap();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkFixtures.deleteDir(spillPath);
+  }
+
+  private ExternalSpillableMap<String, HoodieRecord<HoodieAvroPayload>> newMap() throws IOException {
+    return new ExternalSpillableMap<>(maxInMemorySizeInBytes, spillPath, new DefaultSizeEstimator<>(),
+        new HoodieRecordSizeEstimator<>(BenchmarkFixtures.SCHEMA), diskMapType);
+  }
+
+  @Benchmark
+  public int put() {
+    for (HoodieRecord<HoodieAvroPayload> rec : records) {
+      emptyMap.put(rec.getRecordKey(), rec);
+    }
+    return emptyMap.size();
+  }
+
+  @Benchmark
+  public void get(Blackhole blackhole) {
+    for (HoodieRecord<HoodieAvroPayload> rec : records) {
+      blackhole.consume(populatedMap.get(rec.getRecordKey()));
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.table.log.HoodieLogFormat;
+import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding ({@link HoodieAvroDataBlock#getContentBytes()}) and decoding
+ * ({@link HoodieAvroDataBlock#getRecords()}) of avro data blocks, the latter read back from a log file on local disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HoodieAvroDataBlockBenchmark {
+
+  @Param({"10000"})
+  public int numRecords;
+
+  private String basePath;
+  private FileSystem fs;
+  private List<IndexedRecord> records;
+  private Map<HeaderMetadataType, String> header;
+  private HoodieLogFile logFile;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, InterruptedException {
+    basePath = BenchmarkFixtures.createTempDir("hoodie-log-block-benchmark");
+    fs = FSUtils.getFs(basePath, new Configuration());
+    records = new ArrayList<>(BenchmarkFixtures.generateRecords(BenchmarkFixtures.generateKeys(numRecords, 0L), 1L, 0L));
+    header = new HashMap<>();
+    header.put(HeaderMetadataType.INSTANT_TIME, "001");
+    header.put(HeaderMetadataType.SCHEMA, BenchmarkFixtures.SCHEMA_STR);
+
+    HoodieLogFormat.Writer writer = HoodieLogFormat.newWriterBuilder().onParentPath(new Path(basePath))
+        .withFileExtension(HoodieLogFile.DELTA_EXTENSION).withFileId("benchmark-fileid").overBaseCommit("001")
+        .withFs(fs).build();
+    writer.appendBlock(new HoodieAvroDataBlock(new ArrayList<>(records), header));
+    logFile = writer.getLogFile();
+    writer.close();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkFixtures.deleteDir(basePath);
+  }
+
+  @Benchmark
+  public byte[] getContentBytes() throws IOException {
+    // encoding drains the record list of the block, so each call gets its own copy
+    return new HoodieAvroDataBlock(new ArrayList<>(records), header).getContentBytes();
+  }
+
+  @Benchmark
+  public int getRecords() throws IOException {
+    int count = 0;
+    try (HoodieLogFormat.Reader reader = HoodieLogFormat.newReader(fs, logFile, BenchmarkFixtures.SCHEMA)) {
+      while (reader.hasNext()) {
+        count += ((HoodieAvroDataBlock) reader.next()).getRecords().size();
+      }
+    }
+    return count;
+  }
+}
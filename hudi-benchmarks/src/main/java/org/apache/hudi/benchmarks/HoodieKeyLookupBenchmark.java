@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.io.HoodieKeyLookupHandle;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HoodieKeyLookupHandle#checkCandidatesAgainstFile}, which reads the keys of a base file to weed out
+ * bloom filter false positives.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HoodieKeyLookupBenchmark {
+
+  @Param({"100000"})
+  public int numRecords;
+
+  @Param({"100", "10000"})
+  public int numCandidates;
+
+  private String basePath;
+  private Configuration hadoopConf;
+  private Path baseFilePath;
+  private List<String> candidateKeys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    basePath = BenchmarkFixtures.createTempDir("hoodie-key-lookup-benchmark");
+    List<String> keys = BenchmarkFixtures.generateKeys(numRecords, 0L);
+    HoodieWriteConfig config = BenchmarkFixtures.createCopyOnWriteTable(basePath,
+        BenchmarkFixtures.toHoodieRecords(BenchmarkFixtures.generateRecords(keys, 1L, 0L)), "001");
+    hadoopConf = new Configuration();
+    HoodieBaseFile baseFile = BenchmarkFixtures.getLatestBaseFile(config, hadoopConf);
+    baseFilePath = new Path(baseFile.getPath());
+    // half of the candidates exist in the file, the other half are false positives
+    candidateKeys = new ArrayList<>(keys.subList(0, numCandidates / 2));
+    candidateKeys.addAll(BenchmarkFixtures.generateKeys(numCandidates - candidateKeys.size(), 1L));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkFixtures.deleteDir(basePath);
+  }
+
+  @Benchmark
+  public List<String> checkCandidatesAgainstFile() {
+    return HoodieKeyLookupHandle.checkCandidatesAgainstFile(hadoopConf, candidateKeys, baseFilePath);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.util.ParquetUtils;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.io.HoodieMergeHandle;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HoodieMergeHandle#write(GenericRecord)} by merging a batch of updates into one existing base file,
+ * i.e the work done by a single copy-on-write update task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HoodieMergeHandleBenchmark {
+
+  @Param({"100000"})
+  public int numRecords;
+
+  @Param({"0.1", "0.5"})
+  public double updateFraction;
+
+  private String basePath;
+  private HoodieWriteConfig config;
+  private HoodieTable<HoodieAvroPayload> table;
+  private HoodieBaseFile baseFile;
+  private List<GenericRecord> oldRecords;
+  private List<HoodieRecord<HoodieAvroPayload>> updates;
+  private List<HoodieRecord<HoodieAvroPayload>> updatesForInvocation;
+  private int instantCounter = 1000;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    basePath = BenchmarkFixtures.createTempDir("hoodie-merge-benchmark");
+    List<String> keys = BenchmarkFixtures.generateKeys(numRecords, 0L);
+    config = BenchmarkFixtures.createCopyOnWriteTable(basePath,
+        BenchmarkFixtures.toHoodieRecords(BenchmarkFixtures.generateRecords(keys, 1L, 0L)), "001");
+    Configuration hadoopConf = new Configuration();
+    table = HoodieTable.create(config, hadoopConf);
+    baseFile = BenchmarkFixtures.getLatestBaseFile(config, hadoopConf);
+    oldRecords = ParquetUtils.readAvroRecords(hadoopConf, new Path(baseFile.getPath()));
+    updates = BenchmarkFixtures.toHoodieRecords(
+        BenchmarkFixtures.generateRecords(keys.subList(0, (int) (numRecords * updateFraction)), 2L, 1L));
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareUpdates() {
+    // handles set the new location on incoming records, so each invocation needs fresh copies
+    updatesForInvocation = BenchmarkFixtures.copyOf(updates);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkFixtures.deleteDir(basePath);
+  }
+
+  @Benchmark
+  public WriteStatus mergeBaseFile() {
+    HoodieMergeHandle<HoodieAvroPayload> handle = new HoodieMergeHandle<>(config, String.valueOf(instantCounter++),
+        table, updatesForInvocation.iterator(), BenchmarkFixtures.PARTITION_PATH, baseFile.getFileId(),
+        new BenchmarkFixtures.LocalTaskContextSupplier());
+    for (GenericRecord oldRecord : oldRecords) {
+      handle.write(oldRecord);
+    }
+    return handle.close();
+  }
+}
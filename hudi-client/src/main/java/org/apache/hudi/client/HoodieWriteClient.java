@@ -24,6 +24,7 @@ import org.apache.hudi.avro.model.HoodieCompactionPlan;
 import org.apache.hudi.avro.model.HoodieRestoreMetadata;
 import org.apache.hudi.avro.model.HoodieRollbackMetadata;
 import org.apache.hudi.client.embedded.EmbeddedTimelineService;
+import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodieKey;
 import org.apache.hudi.common.model.HoodieRecord;
@@ -45,18 +46,24 @@ import org.apache.hudi.exception.HoodieRestoreException;
 import org.apache.hudi.exception.HoodieRollbackException;
 import org.apache.hudi.exception.HoodieSavepointException;
 import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.index.HoodieIndex.IndexType;
+import org.apache.hudi.index.bloom.BloomIndexMetadataCache;
 import org.apache.hudi.metrics.HoodieMetrics;
+import org.apache.hudi.table.FileListingHelpers;
 import org.apache.hudi.table.HoodieTable;
 import org.apache.hudi.table.HoodieTimelineArchiveLog;
 import org.apache.hudi.table.UserDefinedBulkInsertPartitioner;
 import org.apache.hudi.table.action.HoodieWriteMetadata;
 import org.apache.hudi.table.action.compact.CompactHelpers;
 import org.apache.hudi.table.action.savepoint.SavepointHelpers;
+import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
 
 import java.io.IOException;
 import java.text.ParseException;
@@ -257,6 +264,30 @@ public class HoodieWriteClient<T extends HoodieRecordPayload> extends AbstractHo
     return postWrite(result, instantTime, table);
   }
 
+  /**
+   * Loads the given Spark rows, as inserts into the table, writing them to parquet without converting them to
+   * HoodieRecords. This is suitable for doing big bulk loads into a Hoodie table from a DataFrame, for the very first
+   * time.
+   * <p>
+   * Rows must be in the hoodie write schema, i.e. the meta columns followed by the columns of the table schema, with
+   * the record key and partition path meta columns populated. Every partition of the RDD is written into its own
+   * files, hence rows are expected sorted by partition path and record key, just like
+   * {@link HoodieWriteClient#bulkInsert(JavaRDD, String)} sorts records.
+   *
+   * @param sortedRows Rows to insert
+   * @param structType Schema of the rows
+   * @param instantTime Instant time of the commit
+   * @return JavaRDD[WriteStatus] - RDD of WriteStatus to inspect errors and counts
+   */
+  public JavaRDD<WriteStatus> bulkInsertRows(JavaRDD<InternalRow> sortedRows, StructType structType,
+      final String instantTime) {
+    HoodieTable<T> table = getTableAndInitCtx(WriteOperationType.BULK_INSERT);
+    table.validateInsertSchema();
+    setOperationType(WriteOperationType.BULK_INSERT);
+    HoodieWriteMetadata result = table.bulkInsertRows(jsc, instantTime, sortedRows, structType);
+    return postWrite(result, instantTime, table);
+  }
+
   /**
    * Loads the given HoodieRecords, as inserts into the table. This is suitable for doing big bulk loads into a Hoodie
    * table for the very first time (e.g: converting an existing table to Hoodie). The input records should contain no
@@ -327,6 +358,10 @@ public class HoodieWriteClient<T extends HoodieRecordPayload> extends AbstractHo
   protected void postCommit(HoodieCommitMetadata metadata, String instantTime,
       Option<Map<String, String>> extraMetadata) {
     try {
+      updateBloomIndexCache(metadata, instantTime);
+      if (config.isFileListingEnabled()) {
+        FileListingHelpers.bootstrapIfRequired(jsc, config, createMetaClient(true));
+      }
       // Do an inline compaction if enabled
       if (config.isInlineCompaction()) {
         metadata.addMetadata(HoodieCompactionConfig.INLINE_COMPACT_PROP, "true");
@@ -349,6 +384,21 @@ public class HoodieWriteClient<T extends HoodieRecordPayload> extends AbstractHo
     }
   }
 
+  /**
+   * Refreshes the bloom index cache of the partitions, in which the completed instant wrote new base files.
+   */
+  private void updateBloomIndexCache(HoodieCommitMetadata metadata, String instantTime) {
+    if (!config.getBloomIndexUseMetadataCache()
+        || (config.getIndexType() != IndexType.BLOOM && config.getIndexType() != IndexType.GLOBAL_BLOOM)) {
+      return;
+    }
+    List<String> partitionPaths = metadata.getPartitionToWriteStats().entrySet().stream()
+        .filter(e -> e.getValue().stream()
+            .anyMatch(stat -> stat.getPath() != null && !FSUtils.isLogFile(new Path(stat.getPath()))))
+        .map(Map.Entry::getKey).collect(Collectors.toList());
+    BloomIndexMetadataCache.update(jsc, HoodieTable.create(config, hadoopConf), partitionPaths, instantTime);
+  }
+
   /**
    * Create a savepoint based on the latest commit action on the timeline.
    *
@@ -605,6 +655,7 @@ public class HoodieWriteClient<T extends HoodieRecordPayload> extends AbstractHo
     finalizeWrite(table, compactionCommitTime, writeStats);
     LOG.info("Committing Compaction " + compactionCommitTime + ". Finished with result " + metadata);
     CompactHelpers.completeInflightCompaction(table, compactionCommitTime, metadata);
+    updateBloomIndexCache(metadata, compactionCommitTime);
 
     if (compactionTimer != null) {
       long durationInMs = metrics.getDurationInMs(compactionTimer.stop());
@@ -50,6 +50,8 @@ public class WriteStatus implements Serializable {
 
   private String partitionPath = null;
 
+  private String instantTime = null;
+
   private HoodieWriteStat stat = null;
 
   private long totalRecords = 0;
@@ -152,6 +154,14 @@ public class WriteStatus implements Serializable {
     this.partitionPath = partitionPath;
   }
 
+  public String getInstantTime() {
+    return instantTime;
+  }
+
+  public void setInstantTime(String instantTime) {
+    this.instantTime = instantTime;
+  }
+
   public long getTotalRecords() {
     return totalRecords;
   }
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.client.model;
+
+import org.apache.hudi.common.model.HoodieRecord;
+
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.util.ArrayData;
+import org.apache.spark.sql.catalyst.util.MapData;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.Decimal;
+import org.apache.spark.unsafe.types.CalendarInterval;
+import org.apache.spark.unsafe.types.UTF8String;
+
+/**
+ * {@link InternalRow} filling in the commit time, commit sequence number and file name meta columns of a row in the
+ * hoodie write schema, whose record key and partition path meta columns are already populated.
+ * <p>
+ * Commit time and file name are the same for all the rows written to a file, hence an instance is reused across the
+ * rows of a file by wrapping each of them in turn, saving an allocation per row.
+ */
+public class HoodieInternalRow extends InternalRow {
+
+  private static final int COMMIT_TIME_POS = HoodieRecord.HOODIE_META_COLUMNS.indexOf(
+      HoodieRecord.COMMIT_TIME_METADATA_FIELD);
+  private static final int COMMIT_SEQNO_POS = HoodieRecord.HOODIE_META_COLUMNS.indexOf(
+      HoodieRecord.COMMIT_SEQNO_METADATA_FIELD);
+  private static final int FILENAME_POS = HoodieRecord.HOODIE_META_COLUMNS.indexOf(
+      HoodieRecord.FILENAME_METADATA_FIELD);
+
+  private UTF8String commitTime;
+  private UTF8String commitSeqNo;
+  private UTF8String fileName;
+  private InternalRow row;
+
+  public HoodieInternalRow(UTF8String commitTime, UTF8String fileName) {
+    this.commitTime = commitTime;
+    this.fileName = fileName;
+  }
+
+  /**
+   * Makes this row expose the given row, with the given commit sequence number.
+   */
+  public HoodieInternalRow wrap(UTF8String commitSeqNo, InternalRow row) {
+    this.commitSeqNo = commitSeqNo;
+    this.row = row;
+    return this;
+  }
+
+  private UTF8String getMetaField(int ordinal) {
+    if (ordinal == COMMIT_TIME_POS) {
+      return commitTime;
+    } else if (ordinal == COMMIT_SEQNO_POS) {
+      return commitSeqNo;
+    } else if (ordinal == FILENAME_POS) {
+      return fileName;
+    }
+    throw new IllegalArgumentException("Not a meta column filled in by the writer: " + ordinal);
+  }
+
+  private static boolean isMetaField(int ordinal) {
+    return ordinal == COMMIT_TIME_POS || ordinal == COMMIT_SEQNO_POS || ordinal == FILENAME_POS;
+  }
+
+  @Override
+  public int numFields() {
+    return row.numFields();
+  }
+
+  @Override
+  public void setNullAt(int ordinal) {
+    update(ordinal, null);
+  }
+
+  @Override
+  public void update(int ordinal, Object value) {
+    if (ordinal == COMMIT_TIME_POS) {
+      commitTime = (UTF8String) value;
+    } else if (ordinal == COMMIT_SEQNO_POS) {
+      commitSeqNo = (UTF8String) value;
+    } else if (ordinal == FILENAME_POS) {
+      fileName = (UTF8String) value;
+    } else {
+      row.update(ordinal, value);
+    }
+  }
+
+  @Override
+  public boolean isNullAt(int ordinal) {
+    return isMetaField(ordinal) ? getMetaField(ordinal) == null : row.isNullAt(ordinal);
+  }
+
+  @Override
+  public boolean anyNull() {
+    return commitTime == null || commitSeqNo == null || fileName == null || row.anyNull();
+  }
+
+  @Override
+  public boolean getBoolean(int ordinal) {
+    return row.getBoolean(ordinal);
+  }
+
+  @Override
+  public byte getByte(int ordinal) {
+    return row.getByte(ordinal);
+  }
+
+  @Override
+  public short getShort(int ordinal) {
+    return row.getShort(ordinal);
+  }
+
+  @Override
+  public int getInt(int ordinal) {
+    return row.getInt(ordinal);
+  }
+
+  @Override
+  public long getLong(int ordinal) {
+    return row.getLong(ordinal);
+  }
+
+  @Override
+  public float getFloat(int ordinal) {
+    return row.getFloat(ordinal);
+  }
+
+  @Override
+  public double getDouble(int ordinal) {
+    return row.getDouble(ordinal);
+  }
+
+  @Override
+  public Decimal getDecimal(int ordinal, int precision, int scale) {
+    return row.getDecimal(ordinal, precision, scale);
+  }
+
+  @Override
+  public UTF8String getUTF8String(int ordinal) {
+    return isMetaField(ordinal) ? getMetaField(ordinal) : row.getUTF8String(ordinal);
+  }
+
+  @Override
+  public byte[] getBinary(int ordinal) {
+    return row.getBinary(ordinal);
+  }
+
+  @Override
+  public CalendarInterval getInterval(int ordinal) {
+    return row.getInterval(ordinal);
+  }
+
+  @Override
+  public InternalRow getStruct(int ordinal, int numFields) {
+    return row.getStruct(ordinal, numFields);
+  }
+
+  @Override
+  public ArrayData getArray(int ordinal) {
+    return row.getArray(ordinal);
+  }
+
+  @Override
+  public MapData getMap(int ordinal) {
+    return row.getMap(ordinal);
+  }
+
+  @Override
+  public Object get(int ordinal, DataType dataType) {
+    return isMetaField(ordinal) ? getMetaField(ordinal) : row.get(ordinal, dataType);
+  }
+
+  @Override
+  public InternalRow copy() {
+    return new HoodieInternalRow(commitTime, fileName).wrap(commitSeqNo, row.copy());
+  }
+}
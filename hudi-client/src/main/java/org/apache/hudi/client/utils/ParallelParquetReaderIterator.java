@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.client.utils;
+
+import org.apache.hudi.common.util.AvroRecordSizeEstimator;
+import org.apache.hudi.common.util.ParquetUtils;
+import org.apache.hudi.common.util.ValidationUtils;
+import org.apache.hudi.common.util.queue.MemoryBoundedQueue;
+import org.apache.hudi.common.util.queue.RingBufferQueue;
+import org.apache.hudi.exception.HoodieException;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Iterator over the records of a parquet file, whose row groups are read by several threads. It returns the records in
+ * the same order as {@link ParquetReaderIterator}.
+ *
+ * The footer of the file is read once, each row group is then read by its own {@link ParquetFileReader} opened over
+ * that footer, into its own memory bounded queue. Up to {@code parallelism} consecutive row groups are read at a time:
+ * the iterator drains the queue of the first one and starts reading the next row group once it is done. The buffer
+ * limit is shared by the row groups being read, so the reader threads can only get as far ahead of the consumer as the
+ * limit allows.
+ */
+public class ParallelParquetReaderIterator<T extends IndexedRecord> implements Iterator<T>, AutoCloseable {
+
+  private static final Logger LOG = LogManager.getLogger(ParallelParquetReaderIterator.class);
+
+  private final Configuration conf;
+  private final Path filePath;
+  private final FileMetaData fileMetaData;
+  private final List<BlockMetaData> rowGroups;
+  private final ReadSupport.ReadContext readContext;
+  private final long bufferLimitPerRowGroup;
+  private final ExecutorService executorService;
+  // row groups being read, in file order
+  private final Deque<RowGroupReading> readings = new ArrayDeque<>();
+  // next row group to start reading
+  private int nextRowGroup = 0;
+
+  public ParallelParquetReaderIterator(Configuration conf, Path filePath, int parallelism, long bufferLimitInBytes) {
+    ValidationUtils.checkArgument(parallelism > 0, "Parallelism must be positive");
+    this.conf = conf;
+    this.filePath = filePath;
+    ParquetMetadata footer = ParquetUtils.readMetadata(conf, filePath);
+    this.fileMetaData = footer.getFileMetaData();
+    this.rowGroups = footer.getBlocks();
+    Map<String, Set<String>> keyValueMetaData = fileMetaData.getKeyValueMetaData().entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> Collections.singleton(e.getValue())));
+    this.readContext = new AvroReadSupport<T>().init(new InitContext(conf, keyValueMetaData, fileMetaData.getSchema()));
+    int numThreads = Math.max(1, Math.min(parallelism, rowGroups.size()));
+    this.bufferLimitPerRowGroup = Math.max(1, bufferLimitInBytes / numThreads);
+    this.executorService = Executors.newFixedThreadPool(numThreads);
+    LOG.info("Reading " + rowGroups.size() + " row groups of " + filePath + " with " + numThreads + " threads");
+    for (int i = 0; i < numThreads; i++) {
+      startNextRowGroup();
+    }
+  }
+
+  private void startNextRowGroup() {
+    if (nextRowGroup >= rowGroups.size()) {
+      return;
+    }
+    BlockMetaData rowGroup = rowGroups.get(nextRowGroup++);
+    MemoryBoundedQueue<T, T> queue =
+        new RingBufferQueue<>(bufferLimitPerRowGroup, x -> x, new AvroRecordSizeEstimator<>(), false);
+    Future<Void> future = executorService.submit(() -> {
+      try {
+        readRowGroup(rowGroup, queue);
+      } catch (Exception e) {
+        LOG.error("error reading row group at " + rowGroup.getStartingPos() + " of " + filePath, e);
+        queue.markAsFailed(e);
+        throw e;
+      } finally {
+        queue.close();
+      }
+      return null;
+    });
+    readings.add(new RowGroupReading(queue, future));
+  }
+
+  private void readRowGroup(BlockMetaData rowGroup, MemoryBoundedQueue<T, T> queue) throws Exception {
+    MessageType fileSchema = fileMetaData.getSchema();
+    MessageType requestedSchema = readContext.getRequestedSchema();
+    // the file reader is handed the footer read upfront, instead of reading it again as a ParquetReader would
+    try (ParquetFileReader fileReader = new ParquetFileReader(conf, fileMetaData, filePath,
+        Collections.singletonList(rowGroup), requestedSchema.getColumns())) {
+      PageReadStore pages = fileReader.readNextRowGroup();
+      // record converters are stateful, hence one materializer per row group
+      RecordReader<T> recordReader = new ColumnIOFactory(fileMetaData.getCreatedBy())
+          .getColumnIO(requestedSchema, fileSchema, true)
+          .getRecordReader(pages, new AvroReadSupport<T>().prepareForRead(conf, fileMetaData.getKeyValueMetaData(),
+              fileSchema, readContext));
+      for (long i = 0; i < pages.getRowCount(); i++) {
+        T record = recordReader.read();
+        if (record != null && !recordReader.shouldSkipCurrentRecord()) {
+          queue.insertRecord(record);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!readings.isEmpty()) {
+      RowGroupReading reading = readings.peekFirst();
+      if (reading.queue.iterator().hasNext()) {
+        return true;
+      }
+      readings.removeFirst();
+      try {
+        reading.future.get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new HoodieException("Failed to read row group of " + filePath, e);
+      }
+      startNextRowGroup();
+    }
+    return false;
+  }
+
+  @Override
+  public T next() {
+    ValidationUtils.checkState(hasNext(), "No more records left to read from parquet file");
+    return readings.peekFirst().queue.iterator().next();
+  }
+
+  @Override
+  public void close() {
+    // stops the readers still waiting for the consumer
+    readings.forEach(reading -> reading.queue.markAsFailed(new HoodieException("Closed reader of " + filePath)));
+    readings.clear();
+    executorService.shutdownNow();
+  }
+
+  /**
+   * A row group being read, along with the queue its records are buffered in.
+   */
+  private class RowGroupReading {
+
+    private final MemoryBoundedQueue<T, T> queue;
+    private final Future<Void> future;
+
+    private RowGroupReading(MemoryBoundedQueue<T, T> queue, Future<Void> future) {
+      this.queue = queue;
+      this.future = future;
+    }
+  }
+}
@@ -93,6 +93,9 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
   // used to choose whether to enable reverse log reading (reverse log traversal)
   public static final String COMPACTION_REVERSE_LOG_READ_ENABLED_PROP = "hoodie.compaction.reverse.log.read";
   public static final String DEFAULT_COMPACTION_REVERSE_LOG_READ_ENABLED = "false";
+  // number of threads reading and decoding log files ahead of the merge, 0 to read them on the merging thread
+  public static final String COMPACTION_LOG_PREFETCH_THREADS_PROP = "hoodie.compaction.log.prefetch.threads";
+  public static final String DEFAULT_COMPACTION_LOG_PREFETCH_THREADS = "0";
   private static final String DEFAULT_CLEANER_POLICY = HoodieCleaningPolicy.KEEP_LATEST_COMMITS.name();
   private static final String DEFAULT_AUTO_CLEAN = "true";
   private static final String DEFAULT_INLINE_COMPACT = "false";
@@ -228,6 +231,11 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withCompactionLogPrefetchThreads(int compactionLogPrefetchThreads) {
+      props.setProperty(COMPACTION_LOG_PREFETCH_THREADS_PROP, String.valueOf(compactionLogPrefetchThreads));
+      return this;
+    }
+
     public Builder withTargetPartitionsPerDayBasedCompaction(int targetPartitionsPerCompaction) {
       props.setProperty(TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP, String.valueOf(targetPartitionsPerCompaction));
       return this;
@@ -276,6 +284,8 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
           COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP, DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED);
       setDefaultOnCondition(props, !props.containsKey(COMPACTION_REVERSE_LOG_READ_ENABLED_PROP),
           COMPACTION_REVERSE_LOG_READ_ENABLED_PROP, DEFAULT_COMPACTION_REVERSE_LOG_READ_ENABLED);
+      setDefaultOnCondition(props, !props.containsKey(COMPACTION_LOG_PREFETCH_THREADS_PROP),
+          COMPACTION_LOG_PREFETCH_THREADS_PROP, DEFAULT_COMPACTION_LOG_PREFETCH_THREADS);
       setDefaultOnCondition(props, !props.containsKey(TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP),
           TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP, DEFAULT_TARGET_PARTITIONS_PER_DAYBASED_COMPACTION);
       setDefaultOnCondition(props, !props.containsKey(COMMITS_ARCHIVAL_BATCH_SIZE_PROP),
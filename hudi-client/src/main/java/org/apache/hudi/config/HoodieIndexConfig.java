@@ -67,6 +67,15 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
   // 10M checks in 2500ms, thus amortizing the cost of reading bloom filter across partitions.
   public static final String BLOOM_INDEX_KEYS_PER_BUCKET_PROP = "hoodie.bloom.index.keys.per.bucket";
   public static final String DEFAULT_BLOOM_INDEX_KEYS_PER_BUCKET = "10000000";
+  // Serve bloom filters and key ranges from a consolidated file per partition, written on each commit, instead of
+  // reading the footer of every candidate base file.
+  public static final String BLOOM_INDEX_USE_METADATA_CACHE_PROP = "hoodie.bloom.index.use.metadata.cache";
+  public static final String DEFAULT_BLOOM_INDEX_USE_METADATA_CACHE = "false";
+
+  // ***** Simple Index configs *****
+  public static final String SIMPLE_INDEX_PARALLELISM_PROP = "hoodie.simple.index.parallelism";
+  // Disable explicit simple index parallelism setting by default - uses the parallelism of the input records
+  public static final String DEFAULT_SIMPLE_INDEX_PARALLELISM = "0";
 
   // ***** HBase Index Configs *****
   public static final String HBASE_ZKQUORUM_PROP = "hoodie.index.hbase.zkquorum";
@@ -77,6 +86,20 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
   public static final String HBASE_PUT_BATCH_SIZE_PROP = "hoodie.index.hbase.put.batch.size";
   public static final String DEFAULT_HBASE_BATCH_SIZE = "100";
 
+  // ***** Sorted Key Index configs *****
+  public static final String SORTED_KEY_INDEX_BLOCK_SIZE_PROP = "hoodie.index.sortedkey.block.size";
+  public static final String DEFAULT_SORTED_KEY_INDEX_BLOCK_SIZE = String.valueOf(64 * 1024);
+  public static final String SORTED_KEY_INDEX_MAX_FILE_SIZE_PROP = "hoodie.index.sortedkey.max.file.size";
+  public static final String DEFAULT_SORTED_KEY_INDEX_MAX_FILE_SIZE = String.valueOf(128 * 1024 * 1024);
+  // Disable explicit parallelism for writing index runs by default - uses the parallelism of the write statuses
+  public static final String SORTED_KEY_INDEX_UPDATE_PARALLELISM_PROP = "hoodie.index.sortedkey.update.parallelism";
+  public static final String DEFAULT_SORTED_KEY_INDEX_UPDATE_PARALLELISM = "0";
+  // Number of incremental runs, written by each commit, after which all runs are merged into a new base run
+  public static final String SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS_PROP = "hoodie.index.sortedkey.compaction.max.delta.runs";
+  public static final String DEFAULT_SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS = "10";
+  public static final String SORTED_KEY_INDEX_COMPACTION_ASYNC_PROP = "hoodie.index.sortedkey.compaction.async";
+  public static final String DEFAULT_SORTED_KEY_INDEX_COMPACTION_ASYNC = "true";
+
 
   public static final String BLOOM_INDEX_INPUT_STORAGE_LEVEL = "hoodie.bloom.index.input.storage.level";
   public static final String DEFAULT_BLOOM_INDEX_INPUT_STORAGE_LEVEL = "MEMORY_AND_DISK_SER";
@@ -176,6 +199,11 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder bloomIndexUseMetadataCache(boolean useMetadataCache) {
+      props.setProperty(BLOOM_INDEX_USE_METADATA_CACHE_PROP, String.valueOf(useMetadataCache));
+      return this;
+    }
+
     public Builder bloomIndexTreebasedFilter(boolean useTreeFilter) {
       props.setProperty(BLOOM_INDEX_TREE_BASED_FILTER_PROP, String.valueOf(useTreeFilter));
       return this;
@@ -201,6 +229,36 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder simpleIndexParallelism(int parallelism) {
+      props.setProperty(SIMPLE_INDEX_PARALLELISM_PROP, String.valueOf(parallelism));
+      return this;
+    }
+
+    public Builder sortedKeyIndexBlockSize(int blockSize) {
+      props.setProperty(SORTED_KEY_INDEX_BLOCK_SIZE_PROP, String.valueOf(blockSize));
+      return this;
+    }
+
+    public Builder sortedKeyIndexMaxFileSize(long maxFileSize) {
+      props.setProperty(SORTED_KEY_INDEX_MAX_FILE_SIZE_PROP, String.valueOf(maxFileSize));
+      return this;
+    }
+
+    public Builder sortedKeyIndexUpdateParallelism(int parallelism) {
+      props.setProperty(SORTED_KEY_INDEX_UPDATE_PARALLELISM_PROP, String.valueOf(parallelism));
+      return this;
+    }
+
+    public Builder sortedKeyIndexCompactionMaxDeltaRuns(int maxDeltaRuns) {
+      props.setProperty(SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS_PROP, String.valueOf(maxDeltaRuns));
+      return this;
+    }
+
+    public Builder sortedKeyIndexCompactionAsync(boolean async) {
+      props.setProperty(SORTED_KEY_INDEX_COMPACTION_ASYNC_PROP, String.valueOf(async));
+      return this;
+    }
+
     public HoodieIndexConfig build() {
       HoodieIndexConfig config = new HoodieIndexConfig(props);
       setDefaultOnCondition(props, !props.containsKey(INDEX_TYPE_PROP), INDEX_TYPE_PROP, DEFAULT_INDEX_TYPE);
@@ -214,6 +272,8 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
           BLOOM_INDEX_PRUNE_BY_RANGES_PROP, DEFAULT_BLOOM_INDEX_PRUNE_BY_RANGES);
       setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_USE_CACHING_PROP), BLOOM_INDEX_USE_CACHING_PROP,
           DEFAULT_BLOOM_INDEX_USE_CACHING);
+      setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_USE_METADATA_CACHE_PROP),
+          BLOOM_INDEX_USE_METADATA_CACHE_PROP, DEFAULT_BLOOM_INDEX_USE_METADATA_CACHE);
       setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_INPUT_STORAGE_LEVEL), BLOOM_INDEX_INPUT_STORAGE_LEVEL,
           DEFAULT_BLOOM_INDEX_INPUT_STORAGE_LEVEL);
       setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_UPDATE_PARTITION_PATH),
@@ -228,6 +288,18 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
           BLOOM_INDEX_FILTER_TYPE, DEFAULT_BLOOM_INDEX_FILTER_TYPE);
       setDefaultOnCondition(props, !props.contains(HOODIE_BLOOM_INDEX_FILTER_DYNAMIC_MAX_ENTRIES),
           HOODIE_BLOOM_INDEX_FILTER_DYNAMIC_MAX_ENTRIES, DEFAULT_HOODIE_BLOOM_INDEX_FILTER_DYNAMIC_MAX_ENTRIES);
+      setDefaultOnCondition(props, !props.containsKey(SIMPLE_INDEX_PARALLELISM_PROP),
+          SIMPLE_INDEX_PARALLELISM_PROP, DEFAULT_SIMPLE_INDEX_PARALLELISM);
+      setDefaultOnCondition(props, !props.containsKey(SORTED_KEY_INDEX_BLOCK_SIZE_PROP),
+          SORTED_KEY_INDEX_BLOCK_SIZE_PROP, DEFAULT_SORTED_KEY_INDEX_BLOCK_SIZE);
+      setDefaultOnCondition(props, !props.containsKey(SORTED_KEY_INDEX_MAX_FILE_SIZE_PROP),
+          SORTED_KEY_INDEX_MAX_FILE_SIZE_PROP, DEFAULT_SORTED_KEY_INDEX_MAX_FILE_SIZE);
+      setDefaultOnCondition(props, !props.containsKey(SORTED_KEY_INDEX_UPDATE_PARALLELISM_PROP),
+          SORTED_KEY_INDEX_UPDATE_PARALLELISM_PROP, DEFAULT_SORTED_KEY_INDEX_UPDATE_PARALLELISM);
+      setDefaultOnCondition(props, !props.containsKey(SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS_PROP),
+          SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS_PROP, DEFAULT_SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS);
+      setDefaultOnCondition(props, !props.containsKey(SORTED_KEY_INDEX_COMPACTION_ASYNC_PROP),
+          SORTED_KEY_INDEX_COMPACTION_ASYNC_PROP, DEFAULT_SORTED_KEY_INDEX_COMPACTION_ASYNC);
       // Throws IllegalArgumentException if the value set is not a known Hoodie Index Type
       HoodieIndex.IndexType.valueOf(props.getProperty(INDEX_TYPE_PROP));
       return config;
@@ -19,6 +19,7 @@
 package org.apache.hudi.config;
 
 import org.apache.hudi.common.config.DefaultHoodieConfig;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -55,6 +56,12 @@ public class HoodieMemoryConfig extends DefaultHoodieConfig {
   public static final String SPILLABLE_MAP_BASE_PATH_PROP = "hoodie.memory.spillable.map.path";
   // Default file path prefix for spillable file
   public static final String DEFAULT_SPILLABLE_MAP_BASE_PATH = "/tmp/";
+  // Property to choose how the spillable map stores the entries that do not fit in memory
+  public static final String SPILLABLE_MAP_DISK_TYPE_PROP = "hoodie.memory.spillable.map.disk.type";
+  public static final String DEFAULT_SPILLABLE_MAP_DISK_TYPE = ExternalSpillableMap.DiskMapType.DISK_BASED.name();
+  // Property to correct the estimated sizes of buffered and spillable records with sampled measurements
+  public static final String SIZE_ESTIMATION_CALIBRATION_ENABLED_PROP = "hoodie.memory.size.estimation.calibration.enabled";
+  public static final String DEFAULT_SIZE_ESTIMATION_CALIBRATION_ENABLED = "false";
 
   // Property to control how what fraction of the failed record, exceptions we report back to driver.
   public static final String WRITESTATUS_FAILURE_FRACTION_PROP = "hoodie.memory.writestatus.failure.fraction";
@@ -107,6 +114,16 @@ public class HoodieMemoryConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withSpillableMapDiskType(ExternalSpillableMap.DiskMapType diskMapType) {
+      props.setProperty(SPILLABLE_MAP_DISK_TYPE_PROP, diskMapType.name());
+      return this;
+    }
+
+    public Builder withSizeEstimationCalibration(boolean enabled) {
+      props.setProperty(SIZE_ESTIMATION_CALIBRATION_ENABLED_PROP, String.valueOf(enabled));
+      return this;
+    }
+
     public Builder withWriteStatusFailureFraction(double failureFraction) {
       props.setProperty(WRITESTATUS_FAILURE_FRACTION_PROP, String.valueOf(failureFraction));
       return this;
@@ -118,6 +135,10 @@ public class HoodieMemoryConfig extends DefaultHoodieConfig {
           String.valueOf(DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE));
       setDefaultOnCondition(props, !props.containsKey(SPILLABLE_MAP_BASE_PATH_PROP), SPILLABLE_MAP_BASE_PATH_PROP,
           DEFAULT_SPILLABLE_MAP_BASE_PATH);
+      setDefaultOnCondition(props, !props.containsKey(SPILLABLE_MAP_DISK_TYPE_PROP), SPILLABLE_MAP_DISK_TYPE_PROP,
+          DEFAULT_SPILLABLE_MAP_DISK_TYPE);
+      setDefaultOnCondition(props, !props.containsKey(SIZE_ESTIMATION_CALIBRATION_ENABLED_PROP),
+          SIZE_ESTIMATION_CALIBRATION_ENABLED_PROP, DEFAULT_SIZE_ESTIMATION_CALIBRATION_ENABLED);
       setDefaultOnCondition(props, !props.containsKey(WRITESTATUS_FAILURE_FRACTION_PROP),
           WRITESTATUS_FAILURE_FRACTION_PROP, String.valueOf(DEFAULT_WRITESTATUS_FAILURE_FRACTION));
       return config;
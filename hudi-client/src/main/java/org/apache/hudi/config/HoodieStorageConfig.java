@@ -19,6 +19,8 @@
 package org.apache.hudi.config;
 
 import org.apache.hudi.common.config.DefaultHoodieConfig;
+import org.apache.hudi.common.table.log.block.HoodieDataBlockCompressionCodec;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlockType;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -45,6 +47,16 @@ public class HoodieStorageConfig extends DefaultHoodieConfig {
   // used to size data blocks in log file
   public static final String LOGFILE_DATA_BLOCK_SIZE_MAX_BYTES = "hoodie.logfile.data.block.max.size";
   public static final String DEFAULT_LOGFILE_DATA_BLOCK_SIZE_MAX_BYTES = String.valueOf(256 * 1024 * 1024); // 256 MB
+  // type of the data blocks in log file, AVRO_DATA_BLOCK or the columnar PARQUET_DATA_BLOCK
+  public static final String LOGFILE_DATA_BLOCK_FORMAT = "hoodie.logfile.data.block.format";
+  public static final String DEFAULT_LOGFILE_DATA_BLOCK_FORMAT = HoodieLogBlockType.AVRO_DATA_BLOCK.name();
+  // compression of the avro data blocks in log file, NONE, DEFLATE or SNAPPY
+  public static final String LOGFILE_DATA_BLOCK_COMPRESSION_CODEC = "hoodie.logfile.data.block.compression.codec";
+  public static final String DEFAULT_LOGFILE_DATA_BLOCK_COMPRESSION_CODEC = HoodieDataBlockCompressionCodec.NONE.name();
+  // whether to write a bloom filter of the record keys in the footer of data blocks in log file
+  public static final String LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE =
+      "hoodie.logfile.data.block.key.bloom.filter.enable";
+  public static final String DEFAULT_LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE = "false";
   public static final String PARQUET_COMPRESSION_RATIO = "hoodie.parquet.compression.ratio";
   // Default compression ratio for parquet
   public static final String DEFAULT_STREAM_COMPRESSION_RATIO = String.valueOf(0.1);
@@ -99,6 +111,21 @@ public class HoodieStorageConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder logFileDataBlockFormat(HoodieLogBlockType dataBlockFormat) {
+      props.setProperty(LOGFILE_DATA_BLOCK_FORMAT, dataBlockFormat.name());
+      return this;
+    }
+
+    public Builder logFileDataBlockCompressionCodec(HoodieDataBlockCompressionCodec compressionCodec) {
+      props.setProperty(LOGFILE_DATA_BLOCK_COMPRESSION_CODEC, compressionCodec.name());
+      return this;
+    }
+
+    public Builder logFileDataBlockKeyBloomFilterEnable(boolean enable) {
+      props.setProperty(LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE, String.valueOf(enable));
+      return this;
+    }
+
     public Builder logFileMaxSize(int logFileSize) {
       props.setProperty(LOGFILE_SIZE_MAX_BYTES, String.valueOf(logFileSize));
       return this;
@@ -129,6 +156,12 @@ public class HoodieStorageConfig extends DefaultHoodieConfig {
           DEFAULT_PARQUET_PAGE_SIZE_BYTES);
       setDefaultOnCondition(props, !props.containsKey(LOGFILE_DATA_BLOCK_SIZE_MAX_BYTES),
           LOGFILE_DATA_BLOCK_SIZE_MAX_BYTES, DEFAULT_LOGFILE_DATA_BLOCK_SIZE_MAX_BYTES);
+      setDefaultOnCondition(props, !props.containsKey(LOGFILE_DATA_BLOCK_FORMAT), LOGFILE_DATA_BLOCK_FORMAT,
+          DEFAULT_LOGFILE_DATA_BLOCK_FORMAT);
+      setDefaultOnCondition(props, !props.containsKey(LOGFILE_DATA_BLOCK_COMPRESSION_CODEC),
+          LOGFILE_DATA_BLOCK_COMPRESSION_CODEC, DEFAULT_LOGFILE_DATA_BLOCK_COMPRESSION_CODEC);
+      setDefaultOnCondition(props, !props.containsKey(LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE),
+          LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE, DEFAULT_LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE);
       setDefaultOnCondition(props, !props.containsKey(LOGFILE_SIZE_MAX_BYTES), LOGFILE_SIZE_MAX_BYTES,
           DEFAULT_LOGFILE_SIZE_MAX_BYTES);
       setDefaultOnCondition(props, !props.containsKey(PARQUET_COMPRESSION_RATIO), PARQUET_COMPRESSION_RATIO,
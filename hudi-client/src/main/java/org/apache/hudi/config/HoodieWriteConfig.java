@@ -23,9 +23,13 @@ import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.common.config.DefaultHoodieConfig;
 import org.apache.hudi.common.fs.ConsistencyGuardConfig;
 import org.apache.hudi.common.model.HoodieCleaningPolicy;
+import org.apache.hudi.common.table.log.block.HoodieDataBlockCompressionCodec;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlockType;
 import org.apache.hudi.common.table.timeline.versioning.TimelineLayoutVersion;
 import org.apache.hudi.common.table.view.FileSystemViewStorageConfig;
 import org.apache.hudi.common.util.ReflectionUtils;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
 import org.apache.hudi.index.HoodieIndex;
 import org.apache.hudi.metrics.MetricsReporterType;
 import org.apache.hudi.table.action.compact.strategy.CompactionStrategy;
@@ -64,6 +68,11 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
   private static final String ROLLBACK_PARALLELISM = "hoodie.rollback.parallelism";
   private static final String WRITE_BUFFER_LIMIT_BYTES = "hoodie.write.buffer.limit.bytes";
   private static final String DEFAULT_WRITE_BUFFER_LIMIT_BYTES = String.valueOf(4 * 1024 * 1024);
+  private static final String WRITE_BUFFER_QUEUE_TYPE = "hoodie.write.buffer.queue.type";
+  private static final String DEFAULT_WRITE_BUFFER_QUEUE_TYPE = BoundedInMemoryExecutor.QueueType.BLOCKING.name();
+  // number of threads reading the row groups of the base file being merged, see ParallelParquetReaderIterator
+  private static final String MERGE_BASE_FILE_READER_PARALLELISM = "hoodie.merge.base.file.reader.parallelism";
+  private static final String DEFAULT_MERGE_BASE_FILE_READER_PARALLELISM = "1";
   private static final String COMBINE_BEFORE_INSERT_PROP = "hoodie.combine.before.insert";
   private static final String DEFAULT_COMBINE_BEFORE_INSERT = "false";
   private static final String COMBINE_BEFORE_UPSERT_PROP = "hoodie.combine.before.upsert";
@@ -84,6 +93,12 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
   private static final String EMBEDDED_TIMELINE_SERVER_ENABLED = "hoodie.embed.timeline.server";
   private static final String DEFAULT_EMBEDDED_TIMELINE_SERVER_ENABLED = "false";
 
+  // maintain a listing of the files of the table under the metadata folder, to avoid listing partitions
+  public static final String FILE_LISTING_ENABLE_PROP = "hoodie.file.listing.enable";
+  private static final String DEFAULT_FILE_LISTING_ENABLE = "false";
+  private static final String FILE_LISTING_PARALLELISM = "hoodie.file.listing.parallelism";
+  private static final String DEFAULT_FILE_LISTING_PARALLELISM = DEFAULT_PARALLELISM;
+
   private static final String FAIL_ON_TIMELINE_ARCHIVING_ENABLED_PROP = "hoodie.fail.on.timeline.archiving";
   private static final String DEFAULT_FAIL_ON_TIMELINE_ARCHIVING_ENABLED = "true";
   // time between successive attempts to ensure written data's metadata is consistent on storage
@@ -182,6 +197,15 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Integer.parseInt(props.getProperty(WRITE_BUFFER_LIMIT_BYTES, DEFAULT_WRITE_BUFFER_LIMIT_BYTES));
   }
 
+  public int getMergeBaseFileReaderParallelism() {
+    return Integer.parseInt(props.getProperty(MERGE_BASE_FILE_READER_PARALLELISM, DEFAULT_MERGE_BASE_FILE_READER_PARALLELISM));
+  }
+
+  public BoundedInMemoryExecutor.QueueType getWriteBufferQueueType() {
+    return BoundedInMemoryExecutor.QueueType.valueOf(
+        props.getProperty(WRITE_BUFFER_QUEUE_TYPE, DEFAULT_WRITE_BUFFER_QUEUE_TYPE));
+  }
+
   public boolean shouldCombineBeforeInsert() {
     return Boolean.parseBoolean(props.getProperty(COMBINE_BEFORE_INSERT_PROP));
   }
@@ -206,6 +230,14 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.parseBoolean(props.getProperty(EMBEDDED_TIMELINE_SERVER_ENABLED));
   }
 
+  public boolean isFileListingEnabled() {
+    return Boolean.parseBoolean(props.getProperty(FILE_LISTING_ENABLE_PROP));
+  }
+
+  public int getFileListingParallelism() {
+    return Integer.parseInt(props.getProperty(FILE_LISTING_PARALLELISM));
+  }
+
   public boolean isFailOnTimelineArchivingEnabled() {
     return Boolean.parseBoolean(props.getProperty(FAIL_ON_TIMELINE_ARCHIVING_ENABLED_PROP));
   }
@@ -297,6 +329,10 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.valueOf(props.getProperty(HoodieCompactionConfig.COMPACTION_REVERSE_LOG_READ_ENABLED_PROP));
   }
 
+  public int getCompactionLogPrefetchThreads() {
+    return Integer.parseInt(props.getProperty(HoodieCompactionConfig.COMPACTION_LOG_PREFETCH_THREADS_PROP));
+  }
+
   public String getPayloadClass() {
     return props.getProperty(HoodieCompactionConfig.PAYLOAD_CLASS_PROP);
   }
@@ -425,6 +461,10 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_USE_CACHING_PROP));
   }
 
+  public boolean getBloomIndexUseMetadataCache() {
+    return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_USE_METADATA_CACHE_PROP));
+  }
+
   public boolean useBloomIndexTreebasedFilter() {
     return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_TREE_BASED_FILTER_PROP));
   }
@@ -441,6 +481,30 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_UPDATE_PARTITION_PATH));
   }
 
+  public int getSimpleIndexParallelism() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.SIMPLE_INDEX_PARALLELISM_PROP));
+  }
+
+  public int getSortedKeyIndexBlockSize() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.SORTED_KEY_INDEX_BLOCK_SIZE_PROP));
+  }
+
+  public long getSortedKeyIndexMaxFileSize() {
+    return Long.parseLong(props.getProperty(HoodieIndexConfig.SORTED_KEY_INDEX_MAX_FILE_SIZE_PROP));
+  }
+
+  public int getSortedKeyIndexUpdateParallelism() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.SORTED_KEY_INDEX_UPDATE_PARALLELISM_PROP));
+  }
+
+  public int getSortedKeyIndexCompactionMaxDeltaRuns() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.SORTED_KEY_INDEX_COMPACTION_MAX_DELTA_RUNS_PROP));
+  }
+
+  public boolean isSortedKeyIndexCompactionAsync() {
+    return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.SORTED_KEY_INDEX_COMPACTION_ASYNC_PROP));
+  }
+
   /**
    * storage properties.
    */
@@ -460,6 +524,19 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Integer.parseInt(props.getProperty(HoodieStorageConfig.LOGFILE_DATA_BLOCK_SIZE_MAX_BYTES));
   }
 
+  public HoodieLogBlockType getLogFileDataBlockFormat() {
+    return HoodieLogBlockType.valueOf(props.getProperty(HoodieStorageConfig.LOGFILE_DATA_BLOCK_FORMAT));
+  }
+
+  public HoodieDataBlockCompressionCodec getLogFileDataBlockCompressionCodec() {
+    return HoodieDataBlockCompressionCodec.valueOf(
+        props.getProperty(HoodieStorageConfig.LOGFILE_DATA_BLOCK_COMPRESSION_CODEC));
+  }
+
+  public boolean isLogFileDataBlockKeyBloomFilterEnabled() {
+    return Boolean.parseBoolean(props.getProperty(HoodieStorageConfig.LOGFILE_DATA_BLOCK_KEY_BLOOM_FILTER_ENABLE));
+  }
+
   public int getLogFileMaxSize() {
     return Integer.parseInt(props.getProperty(HoodieStorageConfig.LOGFILE_SIZE_MAX_BYTES));
   }
@@ -518,6 +595,14 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return props.getProperty(HoodieMemoryConfig.SPILLABLE_MAP_BASE_PATH_PROP);
   }
 
+  public boolean shouldCalibrateSizeEstimation() {
+    return Boolean.parseBoolean(props.getProperty(HoodieMemoryConfig.SIZE_ESTIMATION_CALIBRATION_ENABLED_PROP));
+  }
+
+  public ExternalSpillableMap.DiskMapType getSpillableDiskMapType() {
+    return ExternalSpillableMap.DiskMapType.valueOf(props.getProperty(HoodieMemoryConfig.SPILLABLE_MAP_DISK_TYPE_PROP));
+  }
+
   public double getWriteStatusFailureFraction() {
     return Double.parseDouble(props.getProperty(HoodieMemoryConfig.WRITESTATUS_FAILURE_FRACTION_PROP));
   }
@@ -629,6 +714,16 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withMergeBaseFileReaderParallelism(int parallelism) {
+      props.setProperty(MERGE_BASE_FILE_READER_PARALLELISM, String.valueOf(parallelism));
+      return this;
+    }
+
+    public Builder withWriteBufferQueueType(BoundedInMemoryExecutor.QueueType queueType) {
+      props.setProperty(WRITE_BUFFER_QUEUE_TYPE, queueType.name());
+      return this;
+    }
+
     public Builder combineInput(boolean onInsert, boolean onUpsert) {
       props.setProperty(COMBINE_BEFORE_INSERT_PROP, String.valueOf(onInsert));
       props.setProperty(COMBINE_BEFORE_UPSERT_PROP, String.valueOf(onUpsert));
@@ -707,6 +802,16 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withFileListingEnabled(boolean enabled) {
+      props.setProperty(FILE_LISTING_ENABLE_PROP, String.valueOf(enabled));
+      return this;
+    }
+
+    public Builder withFileListingParallelism(int parallelism) {
+      props.setProperty(FILE_LISTING_PARALLELISM, String.valueOf(parallelism));
+      return this;
+    }
+
     public HoodieWriteConfig build() {
       // Check for mandatory properties
       setDefaultOnCondition(props, !props.containsKey(INSERT_PARALLELISM), INSERT_PARALLELISM, DEFAULT_PARALLELISM);
@@ -734,6 +839,10 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
           DEFAULT_FINALIZE_WRITE_PARALLELISM);
       setDefaultOnCondition(props, !props.containsKey(EMBEDDED_TIMELINE_SERVER_ENABLED),
           EMBEDDED_TIMELINE_SERVER_ENABLED, DEFAULT_EMBEDDED_TIMELINE_SERVER_ENABLED);
+      setDefaultOnCondition(props, !props.containsKey(FILE_LISTING_ENABLE_PROP), FILE_LISTING_ENABLE_PROP,
+          DEFAULT_FILE_LISTING_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(FILE_LISTING_PARALLELISM), FILE_LISTING_PARALLELISM,
+          DEFAULT_FILE_LISTING_PARALLELISM);
       setDefaultOnCondition(props, !props.containsKey(INITIAL_CONSISTENCY_CHECK_INTERVAL_MS_PROP),
           INITIAL_CONSISTENCY_CHECK_INTERVAL_MS_PROP, String.valueOf(DEFAULT_INITIAL_CONSISTENCY_CHECK_INTERVAL_MS));
       setDefaultOnCondition(props, !props.containsKey(MAX_CONSISTENCY_CHECK_INTERVAL_MS_PROP),
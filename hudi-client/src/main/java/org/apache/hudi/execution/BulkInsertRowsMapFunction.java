@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.execution;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.io.HoodieRowCreateHandle;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.unsafe.types.UTF8String;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Map function that handles a stream of rows sorted by partition path and record key, writing them into new files.
+ */
+public class BulkInsertRowsMapFunction<T extends HoodieRecordPayload>
+    implements Function2<Integer, Iterator<InternalRow>, Iterator<WriteStatus>> {
+
+  private String instantTime;
+  private HoodieWriteConfig config;
+  private HoodieTable<T> hoodieTable;
+  private List<String> fileIDPrefixes;
+  private StructType structType;
+
+  public BulkInsertRowsMapFunction(String instantTime, HoodieWriteConfig config, HoodieTable<T> hoodieTable,
+                                   List<String> fileIDPrefixes, StructType structType) {
+    this.instantTime = instantTime;
+    this.config = config;
+    this.hoodieTable = hoodieTable;
+    this.fileIDPrefixes = fileIDPrefixes;
+    this.structType = structType;
+  }
+
+  @Override
+  public Iterator<WriteStatus> call(Integer partition, Iterator<InternalRow> sortedRowItr) {
+    List<WriteStatus> statuses = new ArrayList<>();
+    String fileIdPrefix = fileIDPrefixes.get(partition);
+    int numFilesWritten = 0;
+    HoodieRowCreateHandle<T> handle = null;
+    UTF8String handlePartitionPath = null;
+    while (sortedRowItr.hasNext()) {
+      InternalRow row = sortedRowItr.next();
+      UTF8String partitionPath = row.getUTF8String(HoodieRowCreateHandle.PARTITION_PATH_META_FIELD_POS);
+      if (handle == null || !handle.canWrite() || !partitionPath.equals(handlePartitionPath)) {
+        if (handle != null) {
+          statuses.add(handle.close());
+        }
+        // rows are reused by the iterator, hence the partition path is copied out of it
+        handlePartitionPath = partitionPath.clone();
+        handle = new HoodieRowCreateHandle<>(config, instantTime, hoodieTable, handlePartitionPath.toString(),
+            String.format("%s-%d", fileIdPrefix, numFilesWritten++), structType,
+            hoodieTable.getSparkTaskContextSupplier());
+      }
+      handle.write(row);
+    }
+    if (handle != null) {
+      statuses.add(handle.close());
+    }
+    return statuses.iterator();
+  }
+}
@@ -23,7 +23,10 @@ import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.client.utils.LazyIterableIterator;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.util.AvroRecordSizeEstimator;
+import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SizeEstimator;
 import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
 import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
 import org.apache.hudi.config.HoodieWriteConfig;
@@ -100,6 +103,15 @@ public class LazyInsertIterable<T extends HoodieRecordPayload>
     return hoodieRecord -> new HoodieInsertValueGenResult(hoodieRecord, schema);
   }
 
+  /**
+   * Sizes the buffered records along with their insert values, without walking them.
+   */
+  static SizeEstimator<HoodieInsertValueGenResult<HoodieRecord>> getSizeEstimator() {
+    HoodieRecordSizeEstimator recordSizeEstimator = new HoodieRecordSizeEstimator();
+    return result -> recordSizeEstimator.sizeEstimate(result.record)
+        + (result.insertValue.isPresent() ? AvroRecordSizeEstimator.sizeOfRecord(result.insertValue.get()) : 0);
+  }
+
   @Override
   protected void start() {}
 
@@ -111,7 +123,8 @@ public class LazyInsertIterable<T extends HoodieRecordPayload>
     try {
       final Schema schema = new Schema.Parser().parse(hoodieConfig.getSchema());
       bufferedIteratorExecutor =
-          new SparkBoundedInMemoryExecutor<>(hoodieConfig, inputItr, getInsertHandler(), getTransformFunction(schema));
+          new SparkBoundedInMemoryExecutor<>(hoodieConfig, inputItr, getInsertHandler(), getTransformFunction(schema),
+              getSizeEstimator());
       final List<WriteStatus> result = bufferedIteratorExecutor.execute();
       assert result != null && !result.isEmpty() && !bufferedIteratorExecutor.isRemaining();
       return result;
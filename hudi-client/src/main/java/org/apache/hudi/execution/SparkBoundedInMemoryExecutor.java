@@ -18,7 +18,10 @@
 
 package org.apache.hudi.execution;
 
+import org.apache.hudi.common.util.CalibratedSizeEstimator;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SizeEstimator;
 import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
 import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
 import org.apache.hudi.common.util.queue.BoundedInMemoryQueueProducer;
@@ -28,6 +31,7 @@ import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.spark.TaskContext;
 import org.apache.spark.TaskContext$;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.function.Function;
 
@@ -44,7 +48,21 @@ public class SparkBoundedInMemoryExecutor<I, O, E> extends BoundedInMemoryExecut
 
   public SparkBoundedInMemoryExecutor(final HoodieWriteConfig hoodieConfig, BoundedInMemoryQueueProducer<I> producer,
       BoundedInMemoryQueueConsumer<O, E> consumer, Function<I, O> bufferedIteratorTransform) {
-    super(hoodieConfig.getWriteBufferLimitBytes(), producer, Option.of(consumer), bufferedIteratorTransform);
+    this(hoodieConfig, producer, consumer, bufferedIteratorTransform, new DefaultSizeEstimator<>());
+  }
+
+  public SparkBoundedInMemoryExecutor(final HoodieWriteConfig hoodieConfig, final Iterator<I> inputItr,
+      BoundedInMemoryQueueConsumer<O, E> consumer, Function<I, O> bufferedIteratorTransform,
+      SizeEstimator<O> sizeEstimator) {
+    this(hoodieConfig, new IteratorBasedQueueProducer<>(inputItr), consumer, bufferedIteratorTransform, sizeEstimator);
+  }
+
+  public SparkBoundedInMemoryExecutor(final HoodieWriteConfig hoodieConfig, BoundedInMemoryQueueProducer<I> producer,
+      BoundedInMemoryQueueConsumer<O, E> consumer, Function<I, O> bufferedIteratorTransform,
+      SizeEstimator<O> sizeEstimator) {
+    super(hoodieConfig.getWriteBufferLimitBytes(), Collections.singletonList(producer), Option.of(consumer),
+        bufferedIteratorTransform, hoodieConfig.shouldCalibrateSizeEstimation()
+            ? new CalibratedSizeEstimator<>(sizeEstimator) : sizeEstimator, hoodieConfig.getWriteBufferQueueType());
     this.sparkThreadTaskContext = TaskContext.get();
   }
 
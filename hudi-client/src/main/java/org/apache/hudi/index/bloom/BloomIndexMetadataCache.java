@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.ParquetUtils;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.exception.HoodieIOException;
+import org.apache.hudi.exception.HoodieIndexException;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Consolidates the bloom filters and min/max record keys of the latest base files of a partition into one file under
+ * {@code .hoodie/.bloom_index_cache/<partition_path>/<instant_time>.bloomcache}, so that index lookups do not have to
+ * read the footer of every candidate base file.
+ * <p>
+ * A cache file is written after a commit completes, for each partition written by the commit, by carrying over the
+ * entries of the previous cache file and reading the footers of the base files added since. The file holds the
+ * serialized bloom filters one after the other, followed by a footer listing, for each base file name, its key range
+ * and the position of its bloom filter. Only cache files of completed instants are served, and entries are looked up
+ * by base file name, which embeds the instant that wrote the file, so a cache file never answers for a base file it
+ * does not describe; such files simply fall back to reading their footers.
+ */
+public class BloomIndexMetadataCache {
+
+  private static final Logger LOG = LogManager.getLogger(BloomIndexMetadataCache.class);
+
+  public static final String CACHE_FOLDER_NAME = ".bloom_index_cache";
+  public static final String CACHE_FILE_EXTENSION = ".bloomcache";
+  private static final String TEMP_FILE_PREFIX = ".";
+
+  static final int MAGIC = 0x48424943;
+  // footer offset followed by the magic number
+  static final int TRAILER_SIZE = 8 + 4;
+
+  public static Path getPartitionCachePath(HoodieTableMetaClient metaClient, String partitionPath) {
+    Path cachePath = new Path(metaClient.getMetaPath(), CACHE_FOLDER_NAME);
+    return partitionPath.isEmpty() ? cachePath : new Path(cachePath, partitionPath);
+  }
+
+  /**
+   * Opens the most recent cache file of the partition written by a completed instant, if there is any.
+   */
+  public static Option<Reader> openLatest(HoodieTableMetaClient metaClient, String partitionPath) {
+    try {
+      Option<Pair<String, Path>> latest = getLatestCacheFile(metaClient, partitionPath);
+      if (!latest.isPresent()) {
+        return Option.empty();
+      }
+      return Option.of(new Reader(metaClient.getFs(), latest.get().getRight(), latest.get().getLeft()));
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to open bloom index cache of partition " + partitionPath, e);
+    }
+  }
+
+  /**
+   * Writes a new cache file for each of the given partitions, describing the latest base files as of the given
+   * completed instant. Failures are logged and leave the partition to footer reads, they never fail the commit.
+   */
+  public static void update(JavaSparkContext jsc, HoodieTable<?> table, Collection<String> partitionPaths,
+                            String instantTime) {
+    if (partitionPaths.isEmpty()) {
+      return;
+    }
+    List<String> partitions = new ArrayList<>(partitionPaths);
+    jsc.parallelize(partitions, partitions.size()).foreach(partitionPath -> {
+      try {
+        writePartition(table, partitionPath, instantTime);
+      } catch (HoodieException | IOException e) {
+        LOG.warn("Unable to update bloom index cache of partition " + partitionPath + " at " + instantTime, e);
+      }
+    });
+  }
+
+  static void writePartition(HoodieTable<?> table, String partitionPath, String instantTime) throws IOException {
+    HoodieTableMetaClient metaClient = table.getMetaClient();
+    FileSystem fs = metaClient.getFs();
+    Path cachePath = getPartitionCachePath(metaClient, partitionPath);
+    List<HoodieBaseFile> baseFiles = table.getBaseFileOnlyView()
+        .getLatestBaseFilesBeforeOrOn(partitionPath, instantTime).collect(Collectors.toList());
+    Option<Reader> previous = openLatest(metaClient, partitionPath);
+    try {
+      // carry over the entries still valid in the order they were written, so the previous file is read sequentially
+      List<Pair<HoodieBaseFile, Entry>> carriedOver = new ArrayList<>();
+      List<HoodieBaseFile> added = new ArrayList<>();
+      for (HoodieBaseFile baseFile : baseFiles) {
+        Option<Entry> entry = previous.isPresent() ? previous.get().getEntry(baseFile.getFileName()) : Option.empty();
+        if (entry.isPresent()) {
+          carriedOver.add(Pair.of(baseFile, entry.get()));
+        } else {
+          added.add(baseFile);
+        }
+      }
+      carriedOver.sort(Comparator.comparingLong(p -> p.getRight().getOffset()));
+
+      Path tempPath = new Path(cachePath, TEMP_FILE_PREFIX + instantTime + CACHE_FILE_EXTENSION);
+      List<Entry> entries = new ArrayList<>();
+      try (FSDataOutputStream outputStream = fs.create(tempPath, true)) {
+        for (Pair<HoodieBaseFile, Entry> pair : carriedOver) {
+          Entry entry = pair.getRight();
+          byte[] bloomFilter = previous.get().readBloomFilterBytes(entry);
+          entries.add(new Entry(entry.getFileName(), entry.getMinRecordKey(), entry.getMaxRecordKey(),
+              entry.getBloomFilterTypeCode(), outputStream.getPos(), bloomFilter.length));
+          outputStream.write(bloomFilter);
+        }
+        for (HoodieBaseFile baseFile : added) {
+          Path baseFilePath = new Path(baseFile.getPath());
+          BloomFilter bloomFilter = ParquetUtils.readBloomFilterFromParquetMetadata(table.getHadoopConf(), baseFilePath);
+          if (bloomFilter == null) {
+            LOG.warn("No bloom filter found in " + baseFilePath + ", leaving it out of the bloom index cache");
+            continue;
+          }
+          String[] minMaxKeys = readMinMaxKeys(table, baseFilePath);
+          byte[] bytes = bloomFilter.serializeToString().getBytes(StandardCharsets.UTF_8);
+          entries.add(new Entry(baseFile.getFileName(), minMaxKeys[0], minMaxKeys[1],
+              bloomFilter.getBloomFilterTypeCode().name(), outputStream.getPos(), bytes.length));
+          outputStream.write(bytes);
+        }
+        writeFooter(outputStream, entries);
+      }
+      Path finalPath = new Path(cachePath, instantTime + CACHE_FILE_EXTENSION);
+      if (!fs.rename(tempPath, finalPath)) {
+        throw new HoodieIOException("Unable to rename " + tempPath + " to " + finalPath);
+      }
+      LOG.info(String.format("Wrote bloom index cache %s with %d entries, %d carried over", finalPath, entries.size(),
+          carriedOver.size()));
+    } finally {
+      if (previous.isPresent()) {
+        previous.get().close();
+      }
+    }
+    // the previous file stays around for lookups which may still be reading it
+    if (previous.isPresent()) {
+      deleteCacheFilesBefore(fs, cachePath, previous.get().getInstantTime());
+    }
+  }
+
+  private static String[] readMinMaxKeys(HoodieTable<?> table, Path baseFilePath) {
+    try {
+      return ParquetUtils.readMinMaxRecordKeys(table.getHadoopConf(), baseFilePath);
+    } catch (HoodieException e) {
+      // files written before key ranges were tracked, these are compared against all keys of the partition
+      LOG.warn("Unable to find range metadata in file :" + baseFilePath);
+      return new String[] {null, null};
+    }
+  }
+
+  private static void writeFooter(FSDataOutputStream outputStream, List<Entry> entries) throws IOException {
+    long footerOffset = outputStream.getPos();
+    ByteArrayOutputStream footer = new ByteArrayOutputStream();
+    DataOutputStream footerOutput = new DataOutputStream(footer);
+    footerOutput.writeInt(entries.size());
+    for (Entry entry : entries) {
+      footerOutput.writeUTF(entry.getFileName());
+      footerOutput.writeBoolean(entry.hasKeyRange());
+      if (entry.hasKeyRange()) {
+        footerOutput.writeUTF(entry.getMinRecordKey());
+        footerOutput.writeUTF(entry.getMaxRecordKey());
+      }
+      footerOutput.writeUTF(entry.getBloomFilterTypeCode());
+      footerOutput.writeLong(entry.getOffset());
+      footerOutput.writeInt(entry.getLength());
+    }
+    footerOutput.flush();
+    outputStream.write(footer.toByteArray());
+    outputStream.writeLong(footerOffset);
+    outputStream.writeInt(MAGIC);
+  }
+
+  private static Option<Pair<String, Path>> getLatestCacheFile(HoodieTableMetaClient metaClient, String partitionPath)
+      throws IOException {
+    FileSystem fs = metaClient.getFs();
+    Path cachePath = getPartitionCachePath(metaClient, partitionPath);
+    if (!fs.exists(cachePath)) {
+      return Option.empty();
+    }
+    HoodieTimeline completedCommitsTimeline = metaClient.getCommitsTimeline().filterCompletedInstants();
+    Pair<String, Path> latest = null;
+    for (FileStatus status : fs.listStatus(cachePath)) {
+      String fileName = status.getPath().getName();
+      if (fileName.startsWith(TEMP_FILE_PREFIX) || !fileName.endsWith(CACHE_FILE_EXTENSION)) {
+        continue;
+      }
+      String instantTime = fileName.substring(0, fileName.length() - CACHE_FILE_EXTENSION.length());
+      // files of rolled back instants are never served
+      if (completedCommitsTimeline.containsOrBeforeTimelineStarts(instantTime) && (latest == null
+          || HoodieTimeline.compareTimestamps(instantTime, HoodieTimeline.GREATER_THAN, latest.getLeft()))) {
+        latest = Pair.of(instantTime, status.getPath());
+      }
+    }
+    return Option.ofNullable(latest);
+  }
+
+  private static void deleteCacheFilesBefore(FileSystem fs, Path cachePath, String instantTime) throws IOException {
+    for (FileStatus status : fs.listStatus(cachePath)) {
+      String fileName = status.getPath().getName();
+      if (!fileName.endsWith(CACHE_FILE_EXTENSION)) {
+        continue;
+      }
+      String fileInstantTime = fileName.substring(fileName.startsWith(TEMP_FILE_PREFIX) ? TEMP_FILE_PREFIX.length() : 0,
+          fileName.length() - CACHE_FILE_EXTENSION.length());
+      if (HoodieTimeline.compareTimestamps(fileInstantTime, HoodieTimeline.LESSER_THAN, instantTime)) {
+        fs.delete(status.getPath(), false);
+      }
+    }
+  }
+
+  /**
+   * Location and key range of the bloom filter of one base file, within a cache file.
+   */
+  public static class Entry implements Serializable {
+
+    private final String fileName;
+    private final String minRecordKey;
+    private final String maxRecordKey;
+    private final String bloomFilterTypeCode;
+    private final long offset;
+    private final int length;
+
+    Entry(String fileName, String minRecordKey, String maxRecordKey, String bloomFilterTypeCode, long offset,
+          int length) {
+      this.fileName = fileName;
+      this.minRecordKey = minRecordKey;
+      this.maxRecordKey = maxRecordKey;
+      this.bloomFilterTypeCode = bloomFilterTypeCode;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public String getFileName() {
+      return fileName;
+    }
+
+    public boolean hasKeyRange() {
+      return minRecordKey != null && maxRecordKey != null;
+    }
+
+    public String getMinRecordKey() {
+      return minRecordKey;
+    }
+
+    public String getMaxRecordKey() {
+      return maxRecordKey;
+    }
+
+    public String getBloomFilterTypeCode() {
+      return bloomFilterTypeCode;
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    int getLength() {
+      return length;
+    }
+  }
+
+  /**
+   * Reads a cache file. The footer is read once when opening, bloom filters are read on demand. Instances are not
+   * thread-safe.
+   */
+  public static class Reader implements Closeable {
+
+    private final Path path;
+    private final String instantTime;
+    private final FSDataInputStream inputStream;
+    private final Map<String, Entry> entries;
+
+    Reader(FileSystem fs, Path path, String instantTime) throws IOException {
+      this.path = path;
+      this.instantTime = instantTime;
+      long fileLength = fs.getFileStatus(path).getLen();
+      if (fileLength < TRAILER_SIZE) {
+        throw new HoodieIndexException("Not a bloom index cache file, too short: " + path);
+      }
+      this.inputStream = fs.open(path);
+      try {
+        byte[] trailer = new byte[TRAILER_SIZE];
+        inputStream.readFully(fileLength - TRAILER_SIZE, trailer);
+        DataInputStream trailerInput = new DataInputStream(new ByteArrayInputStream(trailer));
+        long footerOffset = trailerInput.readLong();
+        if (trailerInput.readInt() != MAGIC) {
+          throw new HoodieIndexException("Not a bloom index cache file, bad magic: " + path);
+        }
+        byte[] footer = new byte[(int) (fileLength - TRAILER_SIZE - footerOffset)];
+        inputStream.readFully(footerOffset, footer);
+        DataInputStream footerInput = new DataInputStream(new ByteArrayInputStream(footer));
+        int numEntries = footerInput.readInt();
+        this.entries = new HashMap<>(numEntries * 2);
+        for (int i = 0; i < numEntries; i++) {
+          String fileName = footerInput.readUTF();
+          boolean hasKeyRange = footerInput.readBoolean();
+          String minRecordKey = hasKeyRange ? footerInput.readUTF() : null;
+          String maxRecordKey = hasKeyRange ? footerInput.readUTF() : null;
+          String bloomFilterTypeCode = footerInput.readUTF();
+          long offset = footerInput.readLong();
+          int length = footerInput.readInt();
+          entries.put(fileName,
+              new Entry(fileName, minRecordKey, maxRecordKey, bloomFilterTypeCode, offset, length));
+        }
+      } catch (IOException | RuntimeException e) {
+        inputStream.close();
+        throw e;
+      }
+    }
+
+    public String getInstantTime() {
+      return instantTime;
+    }
+
+    public Option<Entry> getEntry(String baseFileName) {
+      return Option.ofNullable(entries.get(baseFileName));
+    }
+
+    /**
+     * Returns the bloom filter of the given base file, if the cache file describes it.
+     */
+    public Option<BloomFilter> readBloomFilter(String baseFileName) throws IOException {
+      Entry entry = entries.get(baseFileName);
+      if (entry == null) {
+        return Option.empty();
+      }
+      String serialized = new String(readBloomFilterBytes(entry), StandardCharsets.UTF_8);
+      return Option.of(BloomFilterFactory.fromString(serialized, entry.getBloomFilterTypeCode()));
+    }
+
+    byte[] readBloomFilterBytes(Entry entry) throws IOException {
+      byte[] bytes = new byte[entry.getLength()];
+      inputStream.readFully(entry.getOffset(), bytes);
+      return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+      inputStream.close();
+    }
+
+    @Override
+    public String toString() {
+      return "BloomIndexMetadataCache.Reader{path=" + path + ", entries=" + entries.size() + "}";
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.hudi.index.bloom;
 
 import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.client.utils.SparkConfigUtils;
+import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieKey;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordLocation;
@@ -45,6 +46,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import scala.Tuple2;
@@ -207,22 +209,70 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
 
     if (config.getBloomIndexPruneByRanges()) {
       // also obtain file ranges, if range pruning is enabled
-      return jsc.parallelize(partitionPathFileIDList, Math.max(partitionPathFileIDList.size(), 1)).mapToPair(pf -> {
-        try {
-          HoodieRangeInfoHandle<T> rangeInfoHandle = new HoodieRangeInfoHandle<T>(config, hoodieTable, pf);
-          String[] minMaxKeys = rangeInfoHandle.getMinMaxKeys();
-          return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue(), minMaxKeys[0], minMaxKeys[1]));
-        } catch (MetadataNotFoundException me) {
-          LOG.warn("Unable to find range metadata in file :" + pf);
-          return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue()));
-        }
-      }).collect();
+      List<Tuple2<String, BloomIndexFileInfo>> fileInfoList = new ArrayList<>();
+      List<Pair<String, String>> filesToRead = partitionPathFileIDList;
+      if (config.getBloomIndexUseMetadataCache()) {
+        fileInfoList.addAll(loadCachedFileInfos(partitions, jsc, hoodieTable));
+        Set<Pair<String, String>> cachedFiles = fileInfoList.stream()
+            .map(t -> Pair.of(t._1(), t._2().getFileId())).collect(Collectors.toSet());
+        filesToRead = partitionPathFileIDList.stream().filter(pf -> !cachedFiles.contains(pf)).collect(toList());
+        LOG.info("Key ranges of " + cachedFiles.size() + " files found in the bloom index cache, reading "
+            + filesToRead.size() + " footers");
+      }
+      if (!filesToRead.isEmpty()) {
+        fileInfoList.addAll(jsc.parallelize(filesToRead, filesToRead.size()).mapToPair(pf -> {
+          try {
+            HoodieRangeInfoHandle<T> rangeInfoHandle = new HoodieRangeInfoHandle<T>(config, hoodieTable, pf);
+            String[] minMaxKeys = rangeInfoHandle.getMinMaxKeys();
+            return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue(), minMaxKeys[0], minMaxKeys[1]));
+          } catch (MetadataNotFoundException me) {
+            LOG.warn("Unable to find range metadata in file :" + pf);
+            return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue()));
+          }
+        }).collect());
+      }
+      return fileInfoList;
     } else {
       return partitionPathFileIDList.stream()
           .map(pf -> new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue()))).collect(toList());
     }
   }
 
+  /**
+   * Obtains the key ranges of the latest base files of the partitions from the bloom index cache, reading the footer
+   * of a single cache file per partition. Files which the cache does not describe are left out.
+   */
+  private List<Tuple2<String, BloomIndexFileInfo>> loadCachedFileInfos(List<String> partitions,
+                                                                      final JavaSparkContext jsc,
+                                                                      final HoodieTable hoodieTable) {
+    return jsc.parallelize(partitions, Math.max(partitions.size(), 1)).flatMap(partitionPath -> {
+      Option<HoodieInstant> latestCommitTime =
+          hoodieTable.getMetaClient().getCommitsTimeline().filterCompletedInstants().lastInstant();
+      Option<BloomIndexMetadataCache.Reader> metadataCache =
+          BloomIndexMetadataCache.openLatest(hoodieTable.getMetaClient(), partitionPath);
+      List<Tuple2<String, BloomIndexFileInfo>> fileInfos = new ArrayList<>();
+      if (!latestCommitTime.isPresent() || !metadataCache.isPresent()) {
+        return fileInfos.iterator();
+      }
+      try (BloomIndexMetadataCache.Reader reader = metadataCache.get()) {
+        List<HoodieBaseFile> baseFiles = ((HoodieTable<T>) hoodieTable).getBaseFileOnlyView()
+            .getLatestBaseFilesBeforeOrOn(partitionPath, latestCommitTime.get().getTimestamp()).collect(toList());
+        for (HoodieBaseFile baseFile : baseFiles) {
+          Option<BloomIndexMetadataCache.Entry> entry = reader.getEntry(baseFile.getFileName());
+          if (!entry.isPresent()) {
+            continue;
+          }
+          BloomIndexFileInfo fileInfo = entry.get().hasKeyRange()
+              ? new BloomIndexFileInfo(baseFile.getFileId(), entry.get().getMinRecordKey(),
+                  entry.get().getMaxRecordKey())
+              : new BloomIndexFileInfo(baseFile.getFileId());
+          fileInfos.add(new Tuple2<>(partitionPath, fileInfo));
+        }
+      }
+      return fileInfos.iterator();
+    }).collect();
+  }
+
   @Override
   public boolean rollbackCommit(String instantTime) {
     // Nope, don't need to do anything.
@@ -20,9 +20,11 @@ package org.apache.hudi.index.bloom;
 
 import org.apache.hudi.client.utils.LazyIterableIterator;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.collection.Pair;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.exception.HoodieIOException;
 import org.apache.hudi.exception.HoodieIndexException;
 import org.apache.hudi.io.HoodieKeyLookupHandle;
 import org.apache.hudi.io.HoodieKeyLookupHandle.KeyLookupResult;
@@ -30,9 +32,12 @@ import org.apache.hudi.table.HoodieTable;
 
 import org.apache.spark.api.java.function.Function2;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import scala.Tuple2;
 
@@ -61,6 +66,9 @@ public class HoodieBloomIndexCheckFunction
 
     private HoodieKeyLookupHandle keyLookupHandle;
 
+    // bloom index cache files opened by this task, by partition path
+    private final Map<String, Option<BloomIndexMetadataCache.Reader>> metadataCaches = new HashMap<>();
+
     LazyKeyCheckIterator(Iterator<Tuple2<String, HoodieKey>> filePartitionRecordKeyTripletItr) {
       super(filePartitionRecordKeyTripletItr);
     }
@@ -84,7 +92,7 @@ public class HoodieBloomIndexCheckFunction
 
           // lazily init state
           if (keyLookupHandle == null) {
-            keyLookupHandle = new HoodieKeyLookupHandle(config, hoodieTable, partitionPathFilePair);
+            keyLookupHandle = createLookupHandle(partitionPathFilePair);
           }
 
           // if continue on current file
@@ -93,7 +101,7 @@ public class HoodieBloomIndexCheckFunction
           } else {
             // do the actual checking of file & break out
             ret.add(keyLookupHandle.getLookupResult());
-            keyLookupHandle = new HoodieKeyLookupHandle(config, hoodieTable, partitionPathFilePair);
+            keyLookupHandle = createLookupHandle(partitionPathFilePair);
             keyLookupHandle.addKey(recordKey);
             break;
           }
@@ -113,8 +121,27 @@ public class HoodieBloomIndexCheckFunction
       return ret;
     }
 
+    private HoodieKeyLookupHandle createLookupHandle(Pair<String, String> partitionPathFilePair) {
+      if (!config.getBloomIndexUseMetadataCache()) {
+        return new HoodieKeyLookupHandle(config, hoodieTable, partitionPathFilePair);
+      }
+      Option<BloomIndexMetadataCache.Reader> metadataCache = metadataCaches.computeIfAbsent(
+          partitionPathFilePair.getLeft(), p -> BloomIndexMetadataCache.openLatest(hoodieTable.getMetaClient(), p));
+      return new HoodieKeyLookupHandle(config, hoodieTable, partitionPathFilePair, metadataCache);
+    }
+
     @Override
     protected void end() {
+      for (Option<BloomIndexMetadataCache.Reader> metadataCache : metadataCaches.values()) {
+        if (metadataCache.isPresent()) {
+          try {
+            metadataCache.get().close();
+          } catch (IOException e) {
+            throw new HoodieIOException("Unable to close " + metadataCache.get(), e);
+          }
+        }
+      }
+      metadataCaches.clear();
     }
   }
 }
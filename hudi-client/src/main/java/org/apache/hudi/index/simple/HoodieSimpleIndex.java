@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.simple;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.io.HoodieKeyLocationFetchHandle;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.HashPartitioner;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import scala.Tuple2;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A simple index which reads the record keys of the latest base files of the partitions touched by the incoming
+ * records, and joins them with the incoming records. Suits update heavy workloads which touch most files anyway, where
+ * a single scan of the record key column is cheaper than checking bloom filters and then reading candidate keys.
+ */
+public class HoodieSimpleIndex<T extends HoodieRecordPayload> extends HoodieIndex<T> {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieSimpleIndex.class);
+
+  public HoodieSimpleIndex(HoodieWriteConfig config) {
+    super(config);
+  }
+
+  @Override
+  public JavaRDD<HoodieRecord<T>> tagLocation(JavaRDD<HoodieRecord<T>> recordRDD, JavaSparkContext jsc,
+                                              HoodieTable<T> hoodieTable) {
+    // The input is read once to find the affected partitions, and again by the join once the caller materializes the
+    // tagged records. It is not cached here, since it could only be released after that. The records passed in by the
+    // write path are usually the output of the de-duplication shuffle, which the second read reuses.
+    JavaPairRDD<HoodieKey, HoodieRecord<T>> keyedInputRecordRDD = recordRDD.mapToPair(record -> new Tuple2<>(record.getKey(), record));
+    JavaPairRDD<HoodieKey, HoodieRecordLocation> existingLocationsRDD =
+        fetchRecordLocations(recordRDD.map(HoodieRecord::getPartitionPath), jsc, hoodieTable);
+
+    JavaRDD<HoodieRecord<T>> taggedRecordRDD = keyedInputRecordRDD
+        .leftOuterJoin(existingLocationsRDD, new HashPartitioner(getJoinParallelism(recordRDD)))
+        .values().map(recordLocation -> {
+          HoodieRecord<T> record = recordLocation._1;
+          if (recordLocation._2.isPresent()) {
+            record.unseal();
+            record.setCurrentLocation(recordLocation._2.get());
+            record.seal();
+          }
+          return record;
+        });
+
+    return taggedRecordRDD;
+  }
+
+  @Override
+  public JavaPairRDD<HoodieKey, Option<Pair<String, String>>> fetchRecordLocation(JavaRDD<HoodieKey> hoodieKeys,
+                                                                                  JavaSparkContext jsc, HoodieTable<T> hoodieTable) {
+    JavaPairRDD<HoodieKey, HoodieRecordLocation> existingLocationsRDD =
+        fetchRecordLocations(hoodieKeys.map(HoodieKey::getPartitionPath), jsc, hoodieTable);
+    return hoodieKeys.mapToPair(key -> new Tuple2<>(key, null))
+        .leftOuterJoin(existingLocationsRDD, new HashPartitioner(getJoinParallelism(hoodieKeys)))
+        .mapToPair(keyLocation -> {
+          Option<Pair<String, String>> partitionPathFileIdPair = keyLocation._2._2.isPresent()
+              ? Option.of(Pair.of(keyLocation._1.getPartitionPath(), keyLocation._2._2.get().getFileId()))
+              : Option.empty();
+          return new Tuple2<>(keyLocation._1, partitionPathFileIdPair);
+        });
+  }
+
+  private int getJoinParallelism(JavaRDD<?> inputRDD) {
+    return Math.max(inputRDD.getNumPartitions(), config.getSimpleIndexParallelism());
+  }
+
+  /**
+   * Returns the location of every record of the latest base files, in the given partitions.
+   */
+  private JavaPairRDD<HoodieKey, HoodieRecordLocation> fetchRecordLocations(JavaRDD<String> partitionPathRDD,
+                                                                           JavaSparkContext jsc, HoodieTable<T> hoodieTable) {
+    List<String> affectedPartitionPaths = partitionPathRDD.distinct().collect();
+    List<Pair<String, HoodieBaseFile>> baseFiles = getLatestBaseFiles(affectedPartitionPaths, jsc, hoodieTable);
+    LOG.info("Fetching the record keys of " + baseFiles.size() + " base files in " + affectedPartitionPaths.size()
+        + " partitions");
+    if (baseFiles.isEmpty()) {
+      return JavaPairRDD.fromJavaRDD(jsc.emptyRDD());
+    }
+    int fetchParallelism = Math.max(1, Math.min(baseFiles.size(), getJoinParallelism(partitionPathRDD)));
+    return jsc.parallelize(baseFiles, fetchParallelism)
+        .flatMapToPair(partitionPathBaseFile -> new HoodieKeyLocationFetchHandle<>(config, hoodieTable, partitionPathBaseFile).locations());
+  }
+
+  /**
+   * Obtains the latest base files of the given partitions, as of the last completed commit.
+   */
+  List<Pair<String, HoodieBaseFile>> getLatestBaseFiles(List<String> partitions, JavaSparkContext jsc,
+                                                        HoodieTable<T> hoodieTable) {
+    Option<HoodieInstant> latestCommitTime =
+        hoodieTable.getMetaClient().getCommitsTimeline().filterCompletedInstants().lastInstant();
+    if (partitions.isEmpty() || !latestCommitTime.isPresent()) {
+      return new ArrayList<>();
+    }
+    String maxCommitTime = latestCommitTime.get().getTimestamp();
+    return jsc.parallelize(partitions, Math.max(partitions.size(), 1))
+        .flatMap(partitionPath -> hoodieTable.getBaseFileOnlyView()
+            .getLatestBaseFilesBeforeOrOn(partitionPath, maxCommitTime)
+            .map(baseFile -> Pair.of(partitionPath, baseFile)).collect(toList()).iterator())
+        .collect();
+  }
+
+  @Override
+  public JavaRDD<WriteStatus> updateLocation(JavaRDD<WriteStatus> writeStatusRDD, JavaSparkContext jsc,
+                                             HoodieTable<T> hoodieTable) {
+    return writeStatusRDD;
+  }
+
+  @Override
+  public boolean rollbackCommit(String instantTime) {
+    return true;
+  }
+
+  /**
+   * This is not global, since we depend on the partitionPath to do the lookup.
+   */
+  @Override
+  public boolean isGlobal() {
+    return false;
+  }
+
+  /**
+   * No indexes into log files yet.
+   */
+  @Override
+  public boolean canIndexLogFiles() {
+    return false;
+  }
+
+  /**
+   * Index lives in the base files, no explicit update needed.
+   */
+  @Override
+  public boolean isImplicitWithStorage() {
+    return true;
+  }
+}
@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.client.utils.LazyIterableIterator;
+import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieIndexException;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.index.sortedkey.SortedKeyIndexRun.RunFile;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.Function2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import scala.Tuple2;
+
+/**
+ * A global index keeping the mapping of record keys to their (partition path, file id) in immutable sorted key files,
+ * under the meta path of the table. No external system is needed, and each key is resolved with a point lookup in a
+ * handful of files instead of checking candidate base files as the bloom index does.
+ * <p>
+ * Every {@link #updateLocation} writes the inserted and deleted keys of the instant its write statuses were written by
+ * as a new delta run of the index. Lookups only consider the runs of completed instants, newest first, so the index is
+ * rolled back along with the timeline. Once enough delta runs have piled up, they are merged with the base run into a
+ * new base run, in the background by default.
+ */
+public class HoodieSortedKeyIndex<T extends HoodieRecordPayload> extends HoodieIndex<T> {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieSortedKeyIndex.class);
+
+  public static final String INDEX_FOLDER_NAME = ".key_index";
+
+  // index instances are created per table instance, so compactions are tracked per table across them
+  private static final ExecutorService COMPACTION_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "sorted-key-index-compactor");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private static final Map<String, Future<?>> PENDING_COMPACTIONS = new ConcurrentHashMap<>();
+
+  public HoodieSortedKeyIndex(HoodieWriteConfig config) {
+    super(config);
+  }
+
+  public static Path getIndexPath(HoodieTableMetaClient metaClient) {
+    return new Path(metaClient.getMetaPath(), INDEX_FOLDER_NAME);
+  }
+
+  @Override
+  public JavaPairRDD<HoodieKey, Option<Pair<String, String>>> fetchRecordLocation(JavaRDD<HoodieKey> hoodieKeys,
+      JavaSparkContext jsc, HoodieTable<T> hoodieTable) {
+    return lookupLocations(hoodieKeys.mapToPair(key -> new Tuple2<>(key.getRecordKey(), key)), hoodieTable,
+        (key, location) -> new Tuple2<>(key, location.map(loc -> Pair.of(loc.getPartitionPath(), loc.getFileId()))))
+        .mapToPair(t -> t);
+  }
+
+  @Override
+  public JavaRDD<HoodieRecord<T>> tagLocation(JavaRDD<HoodieRecord<T>> recordRDD, JavaSparkContext jsc,
+      HoodieTable<T> hoodieTable) {
+    return lookupLocations(recordRDD.mapToPair(record -> new Tuple2<>(record.getRecordKey(), record)), hoodieTable,
+        (record, location) -> {
+          if (!location.isPresent()) {
+            return record;
+          }
+          HoodieRecord<T> taggedRecord = record;
+          // the index is global, records are tagged with the partition path they were first written to
+          if (!location.get().getPartitionPath().equals(record.getPartitionPath())) {
+            taggedRecord = new HoodieRecord<>(new HoodieKey(record.getRecordKey(), location.get().getPartitionPath()),
+                record.getData());
+          }
+          taggedRecord.unseal();
+          taggedRecord.setCurrentLocation(new HoodieRecordLocation(location.get().getInstantTime(), location.get().getFileId()));
+          taggedRecord.seal();
+          return taggedRecord;
+        });
+  }
+
+  /**
+   * Sorts the given values by record key, so that each partition looks up a contiguous range of keys, reading every
+   * block of the index files overlapping the range at most once.
+   */
+  private <V, O> JavaRDD<O> lookupLocations(JavaPairRDD<String, V> keyedValues, HoodieTable<T> hoodieTable,
+      Function2<V, Option<IndexedKeyLocation>, O> tagger) {
+    HoodieTableMetaClient metaClient = hoodieTable.getMetaClient();
+    HoodieTimeline completedCommitsTimeline = getCompletedCommitsTimeline(metaClient);
+    List<SortedKeyIndexRun> runs;
+    try {
+      runs = getVisibleRuns(SortedKeyIndexRun.listRuns(metaClient.getFs(), getIndexPath(metaClient)),
+          completedCommitsTimeline);
+    } catch (IOException e) {
+      throw new HoodieIndexException("Failed to list the runs of the sorted key index", e);
+    }
+    if (runs.isEmpty()) {
+      return keyedValues.map(t -> tagger.call(t._2, Option.empty()));
+    }
+    SerializableConfiguration hadoopConf = new SerializableConfiguration(hoodieTable.getHadoopConf());
+    String indexPath = getIndexPath(metaClient).toString();
+    return keyedValues.sortByKey(true, Math.max(1, keyedValues.getNumPartitions()))
+        .mapPartitions(entries -> new LookupIterator<>(entries, new SortedKeyIndexLookup(
+            FSUtils.getFs(indexPath, hadoopConf.get()), runs, completedCommitsTimeline), tagger));
+  }
+
+  @Override
+  public JavaRDD<WriteStatus> updateLocation(JavaRDD<WriteStatus> writeStatusRDD, JavaSparkContext jsc,
+      HoodieTable<T> hoodieTable) {
+    HoodieTableMetaClient metaClient = hoodieTable.getMetaClient();
+    // the run is named after the instant the statuses were written by, other instants may be pending concurrently
+    List<String> instantTimes = writeStatusRDD.map(WriteStatus::getInstantTime).filter(Objects::nonNull).distinct()
+        .collect();
+    if (instantTimes.isEmpty()) {
+      return writeStatusRDD;
+    }
+    if (instantTimes.size() > 1) {
+      throw new HoodieIndexException("Write statuses of several instants to update the sorted key index for: "
+          + instantTimes);
+    }
+    String instantTime = instantTimes.get(0);
+    JavaPairRDD<String, IndexedKeyLocation> entries = writeStatusRDD.flatMapToPair(writeStatus -> {
+      List<Tuple2<String, IndexedKeyLocation>> statusEntries = new ArrayList<>();
+      for (HoodieRecord record : writeStatus.getWrittenRecords()) {
+        if (writeStatus.isErrored(record.getKey())) {
+          continue;
+        }
+        Option<HoodieRecordLocation> newLocation = record.getNewLocation();
+        if (!newLocation.isPresent()) {
+          // a deleted record, shadow the location held by older runs
+          statusEntries.add(new Tuple2<>(record.getRecordKey(), IndexedKeyLocation.TOMBSTONE));
+        } else if (record.getCurrentLocation() == null) {
+          // an inserted record, updates stay in their file group and need no new entry
+          statusEntries.add(new Tuple2<>(record.getRecordKey(), new IndexedKeyLocation(record.getPartitionPath(),
+              newLocation.get().getFileId(), newLocation.get().getInstantTime())));
+        }
+      }
+      return statusEntries.iterator();
+    });
+
+    Path runPath = SortedKeyIndexRun.getRunPath(getIndexPath(metaClient), false, instantTime);
+    SerializableConfiguration hadoopConf = new SerializableConfiguration(hoodieTable.getHadoopConf());
+    String runPathStr = runPath.toString();
+    int blockSize = config.getSortedKeyIndexBlockSize();
+    int parallelism = config.getSortedKeyIndexUpdateParallelism() > 0 ? config.getSortedKeyIndexUpdateParallelism()
+        : Math.max(1, writeStatusRDD.getNumPartitions());
+    try {
+      FileSystem fs = metaClient.getFs();
+      // a retried update of the same instant starts over
+      fs.delete(runPath, true);
+      List<RunFile> files = entries.sortByKey(true, parallelism).mapPartitionsWithIndex((partition, sortedEntries) -> {
+        if (!sortedEntries.hasNext()) {
+          return Collections.emptyIterator();
+        }
+        String fileName = SortedKeyIndexRun.getFileName(partition);
+        Path filePath = new Path(runPathStr, fileName);
+        SortedKeyFileWriter writer = new SortedKeyFileWriter(FSUtils.getFs(runPathStr, hadoopConf.get()), filePath, blockSize);
+        try {
+          String lastKey = null;
+          while (sortedEntries.hasNext()) {
+            Tuple2<String, IndexedKeyLocation> entry = sortedEntries.next();
+            // a write may hold several records of a key, e.g. inserts when hoodie.combine.before.insert is off, while
+            // files need strictly increasing keys, so a single entry is kept per key
+            if (!entry._1.equals(lastKey)) {
+              writer.append(entry._1, entry._2);
+              lastKey = entry._1;
+            }
+          }
+        } finally {
+          writer.close();
+        }
+        return Collections.singletonList(new RunFile(fileName, writer.getMinKey(), writer.getMaxKey(),
+            writer.getNumEntries())).iterator();
+      }, true).collect();
+      if (files.isEmpty()) {
+        fs.delete(runPath, true);
+      } else {
+        SortedKeyIndexRun.writeManifest(fs, runPath, files);
+        LOG.info("Wrote sorted key index run " + runPath + " with " + files.size() + " files");
+      }
+    } catch (IOException e) {
+      throw new HoodieIndexException("Failed to write sorted key index run " + runPath, e);
+    }
+    scheduleCompactionIfNeeded(metaClient);
+    return writeStatusRDD;
+  }
+
+  private void scheduleCompactionIfNeeded(HoodieTableMetaClient metaClient) {
+    long numDeltaRuns;
+    try {
+      numDeltaRuns = getVisibleRuns(SortedKeyIndexRun.listRuns(metaClient.getFs(), getIndexPath(metaClient)),
+          getCompletedCommitsTimeline(metaClient)).stream().filter(run -> !run.isBase()).count();
+    } catch (IOException e) {
+      throw new HoodieIndexException("Failed to list the runs of the sorted key index", e);
+    }
+    if (numDeltaRuns < config.getSortedKeyIndexCompactionMaxDeltaRuns()) {
+      return;
+    }
+    String basePath = metaClient.getBasePath();
+    if (!config.isSortedKeyIndexCompactionAsync()) {
+      compact(metaClient);
+      return;
+    }
+    Configuration hadoopConf = new Configuration(metaClient.getHadoopConf());
+    PENDING_COMPACTIONS.compute(basePath, (path, pending) -> pending != null && !pending.isDone() ? pending
+        : COMPACTION_EXECUTOR.submit(() -> {
+          try {
+            compact(new HoodieTableMetaClient(hadoopConf, basePath));
+          } catch (Exception e) {
+            LOG.error("Failed to compact the sorted key index of " + basePath, e);
+          }
+        }));
+  }
+
+  /**
+   * Merges the visible runs into a new base run, then deletes the runs no lookup can need anymore.
+   */
+  private void compact(HoodieTableMetaClient metaClient) {
+    FileSystem fs = metaClient.getFs();
+    Path indexPath = getIndexPath(metaClient);
+    try {
+      metaClient.reloadActiveTimeline();
+      HoodieTimeline completedCommitsTimeline = getCompletedCommitsTimeline(metaClient);
+      List<SortedKeyIndexRun> runs = getVisibleRuns(SortedKeyIndexRun.listRuns(fs, indexPath), completedCommitsTimeline);
+      Collections.reverse(runs);
+      new SortedKeyIndexCompactor(fs, indexPath, config.getSortedKeyIndexBlockSize(), config.getSortedKeyIndexMaxFileSize())
+          .compact(runs, completedCommitsTimeline);
+      cleanRuns(fs, indexPath, metaClient);
+    } catch (IOException e) {
+      throw new HoodieIndexException("Failed to compact the sorted key index of " + metaClient.getBasePath(), e);
+    }
+  }
+
+  /**
+   * Deletes base runs older than the previous one, delta runs merged into it, and runs of instants which are neither
+   * pending nor completed. The previous base run is retained for lookups which listed the runs before the latest one
+   * was committed.
+   */
+  private static void cleanRuns(FileSystem fs, Path indexPath, HoodieTableMetaClient metaClient) throws IOException {
+    // runs are listed before loading the timeline, so that the instant of any run being written shows up as pending
+    List<SortedKeyIndexRun> runs = SortedKeyIndexRun.listRuns(fs, indexPath);
+    HoodieTimeline commitsTimeline = metaClient.reloadActiveTimeline().getCommitsTimeline();
+    HoodieTimeline completedCommitsTimeline = commitsTimeline.filterCompletedInstants();
+    Set<String> pendingInstants = commitsTimeline.filterInflightsAndRequested().getInstants()
+        .map(HoodieInstant::getTimestamp).collect(Collectors.toSet());
+    List<String> baseInstants = runs.stream().filter(run -> run.isBase() && run.isCommitted())
+        .map(SortedKeyIndexRun::getInstantTime).collect(Collectors.toList());
+    String retainedBaseInstant = baseInstants.size() >= 2 ? baseInstants.get(baseInstants.size() - 2) : null;
+
+    for (SortedKeyIndexRun run : runs) {
+      boolean superseded = retainedBaseInstant != null && (run.isBase()
+          ? run.getInstantTime().compareTo(retainedBaseInstant) < 0 : run.getInstantTime().compareTo(retainedBaseInstant) <= 0);
+      boolean orphaned = run.isBase() ? !run.isCommitted() : !pendingInstants.contains(run.getInstantTime())
+          && !(run.isCommitted() && completedCommitsTimeline.containsOrBeforeTimelineStarts(run.getInstantTime()));
+      if (superseded || orphaned) {
+        LOG.info("Deleting sorted key index run " + run.getRunPath());
+        fs.delete(run.getRunPath(), true);
+      }
+    }
+  }
+
+  /**
+   * Returns the runs visible to lookups, newest first: the latest base run, and the committed delta runs of completed
+   * instants after it.
+   *
+   * @param runs all the runs of the index, oldest first
+   */
+  static List<SortedKeyIndexRun> getVisibleRuns(List<SortedKeyIndexRun> runs, HoodieTimeline completedCommitsTimeline) {
+    SortedKeyIndexRun base = null;
+    for (SortedKeyIndexRun run : runs) {
+      if (run.isBase() && run.isCommitted()) {
+        base = run;
+      }
+    }
+    List<SortedKeyIndexRun> visibleRuns = new ArrayList<>();
+    if (base != null) {
+      visibleRuns.add(base);
+    }
+    for (SortedKeyIndexRun run : runs) {
+      if (!run.isBase() && run.isCommitted() && (base == null || run.getInstantTime().compareTo(base.getInstantTime()) > 0)
+          && completedCommitsTimeline.containsOrBeforeTimelineStarts(run.getInstantTime())) {
+        visibleRuns.add(run);
+      }
+    }
+    Collections.reverse(visibleRuns);
+    return visibleRuns;
+  }
+
+  private static HoodieTimeline getCompletedCommitsTimeline(HoodieTableMetaClient metaClient) {
+    return metaClient.getActiveTimeline().getCommitsTimeline().filterCompletedInstants();
+  }
+
+  @Override
+  public boolean rollbackCommit(String instantTime) {
+    // Lookups ignore the runs and entries of instants no longer on the timeline, and compaction deletes them
+    return true;
+  }
+
+  /**
+   * Only global, in the sense that it maps a record key to a single partition path.
+   */
+  @Override
+  public boolean isGlobal() {
+    return true;
+  }
+
+  /**
+   * Mapping is available for inserts written to log files, as for base files.
+   */
+  @Override
+  public boolean canIndexLogFiles() {
+    return true;
+  }
+
+  /**
+   * Index needs to be explicitly updated after storage write.
+   */
+  @Override
+  public boolean isImplicitWithStorage() {
+    return false;
+  }
+
+  /**
+   * Waits for the background compaction of the index of this table, if any.
+   */
+  @Override
+  public void close() {
+    Future<?> pending = PENDING_COMPACTIONS.get(config.getBasePath());
+    if (pending != null) {
+      try {
+        pending.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        LOG.warn("Background compaction of the sorted key index failed", e);
+      }
+    }
+  }
+
+  /**
+   * Looks up the location of each key, in a partition sorted by key.
+   */
+  private static class LookupIterator<V, O> extends LazyIterableIterator<Tuple2<String, V>, O> {
+
+    private final SortedKeyIndexLookup lookup;
+    private final Function2<V, Option<IndexedKeyLocation>, O> tagger;
+
+    LookupIterator(Iterator<Tuple2<String, V>> entries, SortedKeyIndexLookup lookup,
+        Function2<V, Option<IndexedKeyLocation>, O> tagger) {
+      super(entries);
+      this.lookup = lookup;
+      this.tagger = tagger;
+    }
+
+    @Override
+    protected void start() {
+    }
+
+    @Override
+    protected O computeNext() {
+      Tuple2<String, V> entry = inputItr.next();
+      try {
+        return tagger.call(entry._2, lookup.lookup(entry._1));
+      } catch (Exception e) {
+        throw new HoodieIndexException("Failed to look up key " + entry._1 + " in the sorted key index", e);
+      }
+    }
+
+    @Override
+    protected void end() {
+      try {
+        lookup.close();
+      } catch (IOException e) {
+        throw new HoodieIndexException("Failed to close the sorted key index files", e);
+      }
+    }
+  }
+}
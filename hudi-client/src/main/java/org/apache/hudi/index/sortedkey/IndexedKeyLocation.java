@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Location of a record key, as stored in the sorted key index. A tombstone records that the key was deleted, and
+ * shadows any location of the key held by older index runs.
+ */
+public class IndexedKeyLocation implements Serializable {
+
+  public static final IndexedKeyLocation TOMBSTONE = new IndexedKeyLocation(null, null, null);
+
+  private final String partitionPath;
+  private final String fileId;
+  private final String instantTime;
+
+  public IndexedKeyLocation(String partitionPath, String fileId, String instantTime) {
+    this.partitionPath = partitionPath;
+    this.fileId = fileId;
+    this.instantTime = instantTime;
+  }
+
+  public String getPartitionPath() {
+    return partitionPath;
+  }
+
+  public String getFileId() {
+    return fileId;
+  }
+
+  public String getInstantTime() {
+    return instantTime;
+  }
+
+  public boolean isTombstone() {
+    return fileId == null;
+  }
+
+  /**
+   * Whether the entry still holds. Tombstones hold as long as their run is visible, locations only if they were written
+   * by an instant that is still on the timeline of completed commits, or is older than it.
+   */
+  public boolean isValid(HoodieTimeline completedCommitsTimeline) {
+    return isTombstone() || completedCommitsTimeline.containsOrBeforeTimelineStarts(instantTime);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    IndexedKeyLocation that = (IndexedKeyLocation) o;
+    return Objects.equals(partitionPath, that.partitionPath) && Objects.equals(fileId, that.fileId)
+        && Objects.equals(instantTime, that.instantTime);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(partitionPath, fileId, instantTime);
+  }
+
+  @Override
+  public String toString() {
+    return isTombstone() ? "IndexedKeyLocation {TOMBSTONE}"
+        : "IndexedKeyLocation {partitionPath=" + partitionPath + ", fileId=" + fileId + ", instantTime=" + instantTime + '}';
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieIndexException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a file written by {@link SortedKeyFileWriter}. Only the footer is kept in memory, data blocks are read on demand.
+ * <p>
+ * The last block read stays decoded, so that looking up keys in increasing order reads each block of the file at most
+ * once. Instances are not thread-safe.
+ */
+public class SortedKeyFileReader implements Closeable {
+
+  private final Path path;
+  private final FSDataInputStream inputStream;
+
+  private final IndexedKeyLocation[] locations;
+  private final String[] blockFirstKeys;
+  private final long[] blockOffsets;
+  private final int[] blockLengths;
+  private final long numEntries;
+  private final String minKey;
+  private final String maxKey;
+
+  private int currentBlock = -1;
+  private String[] currentKeys;
+  private int[] currentLocationIds;
+
+  public SortedKeyFileReader(FileSystem fs, Path path) throws IOException {
+    this.path = path;
+    long fileLength = fs.getFileStatus(path).getLen();
+    if (fileLength < SortedKeyFileWriter.TRAILER_SIZE) {
+      throw new HoodieIndexException("Not a sorted key file, too short: " + path);
+    }
+    this.inputStream = fs.open(path);
+    try {
+      byte[] trailer = new byte[SortedKeyFileWriter.TRAILER_SIZE];
+      inputStream.readFully(fileLength - SortedKeyFileWriter.TRAILER_SIZE, trailer);
+      DataInputStream trailerInput = new DataInputStream(new ByteArrayInputStream(trailer));
+      long footerOffset = trailerInput.readLong();
+      if (trailerInput.readInt() != SortedKeyFileWriter.MAGIC) {
+        throw new HoodieIndexException("Not a sorted key file, bad magic: " + path);
+      }
+      byte[] footer = new byte[(int) (fileLength - SortedKeyFileWriter.TRAILER_SIZE - footerOffset)];
+      inputStream.readFully(footerOffset, footer);
+      DataInputStream footerInput = new DataInputStream(new ByteArrayInputStream(footer));
+
+      this.locations = new IndexedKeyLocation[WritableUtils.readVInt(footerInput) + 1];
+      this.locations[SortedKeyFileWriter.TOMBSTONE_ID] = IndexedKeyLocation.TOMBSTONE;
+      for (int i = 1; i < locations.length; i++) {
+        locations[i] = new IndexedKeyLocation(readString(footerInput), readString(footerInput), readString(footerInput));
+      }
+      int numBlocks = WritableUtils.readVInt(footerInput);
+      this.blockFirstKeys = new String[numBlocks];
+      this.blockOffsets = new long[numBlocks];
+      this.blockLengths = new int[numBlocks];
+      for (int i = 0; i < numBlocks; i++) {
+        blockFirstKeys[i] = readString(footerInput);
+        blockOffsets[i] = WritableUtils.readVLong(footerInput);
+        blockLengths[i] = WritableUtils.readVInt(footerInput);
+      }
+      this.numEntries = WritableUtils.readVLong(footerInput);
+      this.minKey = readString(footerInput);
+      this.maxKey = readString(footerInput);
+    } catch (IOException | RuntimeException e) {
+      inputStream.close();
+      throw e;
+    }
+  }
+
+  public long getNumEntries() {
+    return numEntries;
+  }
+
+  public String getMinKey() {
+    return minKey;
+  }
+
+  public String getMaxKey() {
+    return maxKey;
+  }
+
+  /**
+   * Looks up the location of the given key, which is {@link IndexedKeyLocation#TOMBSTONE} if the key was recorded as
+   * deleted, and empty if the file has no entry for the key.
+   */
+  public Option<IndexedKeyLocation> lookup(String key) throws IOException {
+    if (numEntries == 0 || key.compareTo(minKey) < 0 || key.compareTo(maxKey) > 0) {
+      return Option.empty();
+    }
+    int block = Arrays.binarySearch(blockFirstKeys, key);
+    // when not found, the key can only be in the block preceding the insertion point
+    block = block >= 0 ? block : -block - 2;
+    if (block < 0) {
+      return Option.empty();
+    }
+    loadBlock(block);
+    int pos = Arrays.binarySearch(currentKeys, key);
+    return pos >= 0 ? Option.of(locations[currentLocationIds[pos]]) : Option.empty();
+  }
+
+  /**
+   * Returns all the entries of the file, in key order.
+   */
+  public Iterator<Pair<String, IndexedKeyLocation>> iterator() {
+    return new Iterator<Pair<String, IndexedKeyLocation>>() {
+
+      private int block = 0;
+      private int pos = 0;
+
+      @Override
+      public boolean hasNext() {
+        return block < blockFirstKeys.length;
+      }
+
+      @Override
+      public Pair<String, IndexedKeyLocation> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        try {
+          loadBlock(block);
+        } catch (IOException e) {
+          throw new HoodieIndexException("Failed to read block " + block + " of " + path, e);
+        }
+        Pair<String, IndexedKeyLocation> entry = Pair.of(currentKeys[pos], locations[currentLocationIds[pos]]);
+        if (++pos == currentKeys.length) {
+          block++;
+          pos = 0;
+        }
+        return entry;
+      }
+    };
+  }
+
+  private void loadBlock(int block) throws IOException {
+    if (block == currentBlock) {
+      return;
+    }
+    byte[] bytes = new byte[blockLengths[block]];
+    inputStream.readFully(blockOffsets[block], bytes);
+    DataInputStream blockInput = new DataInputStream(new ByteArrayInputStream(bytes));
+    String[] keys = new String[16];
+    int[] locationIds = new int[16];
+    int count = 0;
+    byte[] previousKey = new byte[0];
+    while (blockInput.available() > 0) {
+      int shared = WritableUtils.readVInt(blockInput);
+      int suffixLength = WritableUtils.readVInt(blockInput);
+      byte[] key = Arrays.copyOf(previousKey, shared + suffixLength);
+      blockInput.readFully(key, shared, suffixLength);
+      if (count == keys.length) {
+        keys = Arrays.copyOf(keys, count * 2);
+        locationIds = Arrays.copyOf(locationIds, count * 2);
+      }
+      keys[count] = new String(key, StandardCharsets.UTF_8);
+      locationIds[count] = WritableUtils.readVInt(blockInput);
+      count++;
+      previousKey = key;
+    }
+    currentKeys = Arrays.copyOf(keys, count);
+    currentLocationIds = Arrays.copyOf(locationIds, count);
+    currentBlock = block;
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    byte[] bytes = new byte[WritableUtils.readVInt(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.exception.HoodieIndexException;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an immutable file of record keys, appended in strictly increasing {@link String} order, mapped to their
+ * {@link IndexedKeyLocation}.
+ * <p>
+ * The file is a sequence of data blocks followed by a footer and a fixed size trailer:
+ * <pre>
+ *   data block  : entries of [shared prefix length][suffix length][key suffix][location id], keys being prefix
+ *                 compressed against the previous key of the block
+ *   footer      : location dictionary, block index (first key, offset and length of each block), entry count, min
+ *                 and max keys
+ *   trailer     : footer offset (long) and magic (int)
+ * </pre>
+ * Location ids index the dictionary, starting from 1; id 0 is a tombstone. Since all the entries of a file usually point
+ * to a handful of file groups, the dictionary keeps the entries down to little more than the keys themselves.
+ */
+public class SortedKeyFileWriter implements Closeable {
+
+  static final int MAGIC = 0x484b4958;
+  static final int TRAILER_SIZE = 12;
+  static final int TOMBSTONE_ID = 0;
+
+  private final FSDataOutputStream outputStream;
+  private final int blockSize;
+
+  private final Map<IndexedKeyLocation, Integer> locationIds = new HashMap<>();
+  private final List<IndexedKeyLocation> locations = new ArrayList<>();
+  private final List<byte[]> blockFirstKeys = new ArrayList<>();
+  private final List<Long> blockOffsets = new ArrayList<>();
+  private final List<Integer> blockLengths = new ArrayList<>();
+
+  private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream();
+  private final DataOutputStream blockOutput = new DataOutputStream(blockBuffer);
+
+  private String firstKey;
+  private String lastKey;
+  private byte[] blockLastKey;
+  private long numEntries = 0;
+
+  public SortedKeyFileWriter(FileSystem fs, Path path, int blockSize) throws IOException {
+    this.outputStream = fs.create(path, false);
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Appends the location of the given key, which must be greater than all the keys appended so far.
+   */
+  public void append(String key, IndexedKeyLocation location) throws IOException {
+    if (lastKey != null && lastKey.compareTo(key) >= 0) {
+      throw new HoodieIndexException("Keys must be appended in strictly increasing order, got " + key + " after " + lastKey);
+    }
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    if (blockLastKey == null) {
+      blockFirstKeys.add(keyBytes);
+    }
+    int shared = blockLastKey == null ? 0 : sharedPrefixLength(blockLastKey, keyBytes);
+    WritableUtils.writeVInt(blockOutput, shared);
+    WritableUtils.writeVInt(blockOutput, keyBytes.length - shared);
+    blockOutput.write(keyBytes, shared, keyBytes.length - shared);
+    WritableUtils.writeVInt(blockOutput, locationId(location));
+
+    if (firstKey == null) {
+      firstKey = key;
+    }
+    lastKey = key;
+    blockLastKey = keyBytes;
+    numEntries++;
+    if (blockBuffer.size() >= blockSize) {
+      flushBlock();
+    }
+  }
+
+  /**
+   * Returns the number of bytes written so far, excluding the pending data block and the footer.
+   */
+  public long getWrittenBytes() throws IOException {
+    return outputStream.getPos() + blockBuffer.size();
+  }
+
+  public long getNumEntries() {
+    return numEntries;
+  }
+
+  public String getMinKey() {
+    return firstKey;
+  }
+
+  public String getMaxKey() {
+    return lastKey;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flushBlock();
+      long footerOffset = outputStream.getPos();
+      WritableUtils.writeVInt(outputStream, locations.size());
+      for (IndexedKeyLocation location : locations) {
+        writeString(outputStream, location.getPartitionPath());
+        writeString(outputStream, location.getFileId());
+        writeString(outputStream, location.getInstantTime());
+      }
+      WritableUtils.writeVInt(outputStream, blockFirstKeys.size());
+      for (int i = 0; i < blockFirstKeys.size(); i++) {
+        writeBytes(outputStream, blockFirstKeys.get(i));
+        WritableUtils.writeVLong(outputStream, blockOffsets.get(i));
+        WritableUtils.writeVInt(outputStream, blockLengths.get(i));
+      }
+      WritableUtils.writeVLong(outputStream, numEntries);
+      writeString(outputStream, firstKey == null ? "" : firstKey);
+      writeString(outputStream, lastKey == null ? "" : lastKey);
+      outputStream.writeLong(footerOffset);
+      outputStream.writeInt(MAGIC);
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private void flushBlock() throws IOException {
+    if (blockBuffer.size() == 0) {
+      return;
+    }
+    blockOffsets.add(outputStream.getPos());
+    blockLengths.add(blockBuffer.size());
+    blockBuffer.writeTo(outputStream);
+    blockBuffer.reset();
+    blockLastKey = null;
+  }
+
+  private int locationId(IndexedKeyLocation location) {
+    if (location.isTombstone()) {
+      return TOMBSTONE_ID;
+    }
+    return locationIds.computeIfAbsent(location, loc -> {
+      locations.add(loc);
+      return locations.size();
+    });
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    WritableUtils.writeVInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static int sharedPrefixLength(byte[] a, byte[] b) {
+    int length = Math.min(a.length, b.length);
+    int i = 0;
+    while (i < length && a[i] == b[i]) {
+      i++;
+    }
+    return i;
+  }
+}
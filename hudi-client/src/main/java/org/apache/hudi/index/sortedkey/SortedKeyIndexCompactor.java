@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.index.sortedkey.SortedKeyIndexRun.RunFile;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges runs of the sorted key index into a new base run, so that lookups only have to go through a bounded number of
+ * runs.
+ * <p>
+ * Runs are merged with a streaming k-way merge, keeping for each key the entry of the newest run that is still valid.
+ * Entries written by instants that are no longer on the timeline are skipped in favor of older ones, and keys whose
+ * newest valid entry is a tombstone are dropped, since the new base run has no older run left to shadow.
+ */
+public class SortedKeyIndexCompactor {
+
+  private static final Logger LOG = LogManager.getLogger(SortedKeyIndexCompactor.class);
+
+  private final FileSystem fs;
+  private final Path indexPath;
+  private final int blockSize;
+  private final long maxFileSize;
+
+  public SortedKeyIndexCompactor(FileSystem fs, Path indexPath, int blockSize, long maxFileSize) {
+    this.fs = fs;
+    this.indexPath = indexPath;
+    this.blockSize = blockSize;
+    this.maxFileSize = maxFileSize;
+  }
+
+  /**
+   * Merges the given committed runs, oldest first, into a base run at the instant of the newest of them.
+   */
+  public void compact(List<SortedKeyIndexRun> runs, HoodieTimeline completedCommitsTimeline) throws IOException {
+    String instantTime = runs.get(runs.size() - 1).getInstantTime();
+    Path runPath = SortedKeyIndexRun.getRunPath(indexPath, true, instantTime);
+    LOG.info("Merging " + runs.size() + " sorted key index runs into " + runPath);
+    fs.delete(runPath, true);
+
+    List<RunIterator> iterators = new ArrayList<>();
+    List<RunFile> files = new ArrayList<>();
+    SortedKeyFileWriter writer = null;
+    try {
+      // the newest run gets the highest rank, and comes first among entries of the same key
+      PriorityQueue<RunIterator> heads = new PriorityQueue<>(Comparator.comparing(RunIterator::currentKey)
+          .thenComparing(Comparator.comparingInt(RunIterator::getRank).reversed()));
+      for (int i = 0; i < runs.size(); i++) {
+        RunIterator iterator = new RunIterator(runs.get(i), i);
+        iterators.add(iterator);
+        if (iterator.advance()) {
+          heads.add(iterator);
+        }
+      }
+      while (!heads.isEmpty()) {
+        String key = heads.peek().currentKey();
+        // go through the entries of the key newest first, the first valid one shadows the others
+        IndexedKeyLocation location = null;
+        while (!heads.isEmpty() && heads.peek().currentKey().equals(key)) {
+          RunIterator iterator = heads.poll();
+          if (location == null && iterator.currentLocation().isValid(completedCommitsTimeline)) {
+            location = iterator.currentLocation();
+          }
+          if (iterator.advance()) {
+            heads.add(iterator);
+          }
+        }
+        if (location == null || location.isTombstone()) {
+          continue;
+        }
+        if (writer == null) {
+          writer = new SortedKeyFileWriter(fs, new Path(runPath, SortedKeyIndexRun.getFileName(files.size())), blockSize);
+        }
+        writer.append(key, location);
+        if (writer.getWrittenBytes() >= maxFileSize) {
+          closeWriter(writer, files);
+          writer = null;
+        }
+      }
+      if (writer != null) {
+        closeWriter(writer, files);
+        writer = null;
+      }
+    } finally {
+      if (writer != null) {
+        writer.close();
+      }
+      for (RunIterator iterator : iterators) {
+        iterator.close();
+      }
+    }
+    fs.mkdirs(runPath);
+    SortedKeyIndexRun.writeManifest(fs, runPath, files);
+    LOG.info("Wrote sorted key index run " + runPath + " with " + files.size() + " files");
+  }
+
+  private static void closeWriter(SortedKeyFileWriter writer, List<RunFile> files) throws IOException {
+    writer.close();
+    files.add(new RunFile(SortedKeyIndexRun.getFileName(files.size()), writer.getMinKey(), writer.getMaxKey(),
+        writer.getNumEntries()));
+  }
+
+  /**
+   * Iterates over all the entries of a run, in key order, keeping a single file open at a time.
+   */
+  private class RunIterator implements Closeable {
+
+    private final SortedKeyIndexRun run;
+    private final int rank;
+    private int fileIndex = 0;
+    private SortedKeyFileReader reader;
+    private Iterator<Pair<String, IndexedKeyLocation>> entries;
+    private Pair<String, IndexedKeyLocation> current;
+
+    RunIterator(SortedKeyIndexRun run, int rank) {
+      this.run = run;
+      this.rank = rank;
+    }
+
+    int getRank() {
+      return rank;
+    }
+
+    String currentKey() {
+      return current.getKey();
+    }
+
+    IndexedKeyLocation currentLocation() {
+      return current.getValue();
+    }
+
+    boolean advance() throws IOException {
+      while (entries == null || !entries.hasNext()) {
+        close();
+        if (fileIndex == run.getFiles().size()) {
+          current = null;
+          return false;
+        }
+        reader = new SortedKeyFileReader(fs, new Path(run.getRunPath(), run.getFiles().get(fileIndex++).getFileName()));
+        entries = reader.iterator();
+      }
+      current = entries.next();
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (reader != null) {
+        reader.close();
+        reader = null;
+        entries = null;
+      }
+    }
+  }
+}
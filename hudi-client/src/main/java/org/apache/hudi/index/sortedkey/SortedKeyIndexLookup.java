@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.index.sortedkey.SortedKeyIndexRun.RunFile;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Looks up keys, given in increasing order, across the visible runs of the sorted key index.
+ * <p>
+ * Each run is read through a cursor over its files, so that every file, and every block within it, is opened at most
+ * once per lookup. The newest run holding a valid entry for a key wins, entries written by instants that are no longer
+ * on the timeline of completed commits are skipped. The location is returned unless the winning entry is a tombstone.
+ */
+public class SortedKeyIndexLookup implements Closeable {
+
+  private final List<RunCursor> cursors;
+  private final HoodieTimeline completedCommitsTimeline;
+
+  /**
+   * @param runs runs to look up, newest first
+   */
+  public SortedKeyIndexLookup(FileSystem fs, List<SortedKeyIndexRun> runs, HoodieTimeline completedCommitsTimeline) {
+    this.cursors = runs.stream().map(run -> new RunCursor(fs, run)).collect(Collectors.toList());
+    this.completedCommitsTimeline = completedCommitsTimeline;
+  }
+
+  /**
+   * Returns the location of the given key, which must not be less than any key looked up before.
+   */
+  public Option<IndexedKeyLocation> lookup(String key) throws IOException {
+    for (RunCursor cursor : cursors) {
+      Option<IndexedKeyLocation> location = cursor.lookup(key);
+      // entries of instants rolled back since their run was written leave the key to older runs
+      if (location.isPresent() && location.get().isValid(completedCommitsTimeline)) {
+        return location.get().isTombstone() ? Option.empty() : location;
+      }
+    }
+    return Option.empty();
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (RunCursor cursor : cursors) {
+      cursor.closeReader();
+    }
+  }
+
+  private static class RunCursor {
+
+    private final FileSystem fs;
+    private final Path runPath;
+    private final List<RunFile> files;
+    private int fileIndex = 0;
+    private SortedKeyFileReader reader;
+
+    RunCursor(FileSystem fs, SortedKeyIndexRun run) {
+      this.fs = fs;
+      this.runPath = run.getRunPath();
+      this.files = run.getFiles();
+    }
+
+    Option<IndexedKeyLocation> lookup(String key) throws IOException {
+      // files of a run have disjoint key ranges, skip past the ones ending before the key
+      while (fileIndex < files.size() && files.get(fileIndex).getMaxKey().compareTo(key) < 0) {
+        closeReader();
+        fileIndex++;
+      }
+      if (fileIndex == files.size() || files.get(fileIndex).getMinKey().compareTo(key) > 0) {
+        return Option.empty();
+      }
+      if (reader == null) {
+        reader = new SortedKeyFileReader(fs, new Path(runPath, files.get(fileIndex).getFileName()));
+      }
+      return reader.lookup(key);
+    }
+
+    void closeReader() throws IOException {
+      if (reader != null) {
+        reader.close();
+        reader = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.util.Option;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A run of the sorted key index: a directory of sorted key files with disjoint key ranges, written either by the
+ * {@link HoodieSortedKeyIndex#updateLocation} of a single instant (a delta run), or by merging all the runs up to an
+ * instant (a base run).
+ * <p>
+ * A run is only visible once its manifest, listing the files of the run with their key ranges, has been written.
+ */
+public class SortedKeyIndexRun implements Serializable {
+
+  public static final String BASE_RUN_PREFIX = "base_";
+  public static final String DELTA_RUN_PREFIX = "delta_";
+  public static final String MANIFEST_FILE_NAME = "_MANIFEST";
+  public static final String FILE_EXTENSION = ".keyidx";
+
+  private final String instantTime;
+  private final boolean base;
+  private final String runPath;
+  private final Option<List<RunFile>> files;
+
+  private SortedKeyIndexRun(String instantTime, boolean base, String runPath, Option<List<RunFile>> files) {
+    this.instantTime = instantTime;
+    this.base = base;
+    this.runPath = runPath;
+    this.files = files;
+  }
+
+  public String getInstantTime() {
+    return instantTime;
+  }
+
+  public boolean isBase() {
+    return base;
+  }
+
+  public Path getRunPath() {
+    return new Path(runPath);
+  }
+
+  /**
+   * Whether the manifest of the run has been written.
+   */
+  public boolean isCommitted() {
+    return files.isPresent();
+  }
+
+  /**
+   * Files of a committed run, in key order.
+   */
+  public List<RunFile> getFiles() {
+    return files.get();
+  }
+
+  public static Path getRunPath(Path indexPath, boolean base, String instantTime) {
+    return new Path(indexPath, (base ? BASE_RUN_PREFIX : DELTA_RUN_PREFIX) + instantTime);
+  }
+
+  public static String getFileName(int fileNum) {
+    return String.format("part-%05d%s", fileNum, FILE_EXTENSION);
+  }
+
+  /**
+   * Commits a run by writing its manifest. Files must be given in key order.
+   */
+  public static void writeManifest(FileSystem fs, Path runPath, List<RunFile> files) throws IOException {
+    Path tmpPath = new Path(runPath, "." + MANIFEST_FILE_NAME + ".tmp");
+    try (FSDataOutputStream out = fs.create(tmpPath, true)) {
+      out.writeInt(files.size());
+      for (RunFile file : files) {
+        out.writeUTF(file.getFileName());
+        out.writeUTF(file.getMinKey());
+        out.writeUTF(file.getMaxKey());
+        out.writeLong(file.getNumEntries());
+      }
+    }
+    if (!fs.rename(tmpPath, new Path(runPath, MANIFEST_FILE_NAME))) {
+      throw new IOException("Failed to commit sorted key index run " + runPath);
+    }
+  }
+
+  /**
+   * Lists all the runs under the index path, committed or not, oldest first.
+   */
+  public static List<SortedKeyIndexRun> listRuns(FileSystem fs, Path indexPath) throws IOException {
+    FileStatus[] statuses;
+    try {
+      statuses = fs.listStatus(indexPath);
+    } catch (FileNotFoundException e) {
+      return Collections.emptyList();
+    }
+    List<SortedKeyIndexRun> runs = new ArrayList<>();
+    for (FileStatus status : statuses) {
+      String name = status.getPath().getName();
+      if (!status.isDirectory() || !(name.startsWith(BASE_RUN_PREFIX) || name.startsWith(DELTA_RUN_PREFIX))) {
+        continue;
+      }
+      boolean base = name.startsWith(BASE_RUN_PREFIX);
+      String instantTime = name.substring(base ? BASE_RUN_PREFIX.length() : DELTA_RUN_PREFIX.length());
+      runs.add(new SortedKeyIndexRun(instantTime, base, status.getPath().toString(),
+          readManifest(fs, status.getPath())));
+    }
+    // a base run includes the delta run of the same instant, so it sorts after it
+    runs.sort((r1, r2) -> {
+      int cmp = r1.instantTime.compareTo(r2.instantTime);
+      return cmp != 0 ? cmp : Boolean.compare(r1.base, r2.base);
+    });
+    return runs;
+  }
+
+  private static Option<List<RunFile>> readManifest(FileSystem fs, Path runPath) throws IOException {
+    Path manifestPath = new Path(runPath, MANIFEST_FILE_NAME);
+    List<RunFile> files = new ArrayList<>();
+    try (FSDataInputStream in = fs.open(manifestPath)) {
+      int numFiles = in.readInt();
+      for (int i = 0; i < numFiles; i++) {
+        files.add(new RunFile(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong()));
+      }
+    } catch (FileNotFoundException e) {
+      return Option.empty();
+    }
+    return Option.of(files);
+  }
+
+  @Override
+  public String toString() {
+    return "SortedKeyIndexRun {runPath=" + runPath + ", committed=" + isCommitted() + '}';
+  }
+
+  /**
+   * A sorted key file of a run, with its key range.
+   */
+  public static class RunFile implements Serializable {
+
+    private final String fileName;
+    private final String minKey;
+    private final String maxKey;
+    private final long numEntries;
+
+    public RunFile(String fileName, String minKey, String maxKey, long numEntries) {
+      this.fileName = fileName;
+      this.minKey = minKey;
+      this.maxKey = maxKey;
+      this.numEntries = numEntries;
+    }
+
+    public String getFileName() {
+      return fileName;
+    }
+
+    public String getMinKey() {
+      return minKey;
+    }
+
+    public String getMaxKey() {
+      return maxKey;
+    }
+
+    public long getNumEntries() {
+      return numEntries;
+    }
+  }
+}
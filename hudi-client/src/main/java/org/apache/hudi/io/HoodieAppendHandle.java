@@ -21,6 +21,9 @@ package org.apache.hudi.io;
 import org.apache.hudi.avro.HoodieAvroUtils;
 import org.apache.hudi.client.SparkTaskContextSupplier;
 import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+import org.apache.hudi.common.bloom.BloomFilterTypeCode;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieDeltaWriteStat;
@@ -35,13 +38,17 @@ import org.apache.hudi.common.model.HoodieWriteStat.RuntimeStats;
 import org.apache.hudi.common.table.log.HoodieLogFormat;
 import org.apache.hudi.common.table.log.HoodieLogFormat.Writer;
 import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieDataBlockCompressionCodec;
 import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
+import org.apache.hudi.common.table.log.block.HoodieParquetDataBlock;
 import org.apache.hudi.common.table.view.TableFileSystemView.SliceView;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieAppendException;
+import org.apache.hudi.exception.HoodieNotSupportedException;
 import org.apache.hudi.exception.HoodieUpsertException;
 import org.apache.hudi.table.HoodieTable;
 
@@ -176,6 +183,10 @@ public class HoodieAppendHandle<T extends HoodieRecordPayload> extends HoodieWri
         recordsWritten++;
       } else {
         recordsDeleted++;
+        // the record has no location any more, which indexes tracking their own locations rely on
+        hoodieRecord.unseal();
+        hoodieRecord.clearNewLocation();
+        hoodieRecord.seal();
       }
 
       writeStatus.markSuccess(hoodieRecord, recordMetadata);
@@ -202,12 +213,46 @@ public class HoodieAppendHandle<T extends HoodieRecordPayload> extends HoodieWri
     estimatedNumberOfBytesWritten += averageRecordSize * numberOfRecords;
   }
 
+  private HoodieDataBlock createDataBlock(List<IndexedRecord> records, Map<HeaderMetadataType, String> header) {
+    Map<HeaderMetadataType, String> footer = createDataBlockFooter(records);
+    switch (config.getLogFileDataBlockFormat()) {
+      case AVRO_DATA_BLOCK:
+        HoodieDataBlockCompressionCodec compressionCodec = config.getLogFileDataBlockCompressionCodec();
+        if (compressionCodec != HoodieDataBlockCompressionCodec.NONE) {
+          // Only data blocks are compressed, the header is shared with the delete block
+          Map<HeaderMetadataType, String> dataBlockHeader = new HashMap<>(header);
+          dataBlockHeader.put(HeaderMetadataType.COMPRESSION_CODEC, compressionCodec.name());
+          return new HoodieAvroDataBlock(records, dataBlockHeader, footer);
+        }
+        return new HoodieAvroDataBlock(records, header, footer);
+      case PARQUET_DATA_BLOCK:
+        return new HoodieParquetDataBlock(records, header, footer, config.getParquetCompressionCodec());
+      default:
+        throw new HoodieNotSupportedException("Unsupported log data block format " + config.getLogFileDataBlockFormat());
+    }
+  }
+
+  /**
+   * Creates the footer of a data block, holding a bloom filter of the record keys when enabled.
+   */
+  private Map<HeaderMetadataType, String> createDataBlockFooter(List<IndexedRecord> records) {
+    if (!config.isLogFileDataBlockKeyBloomFilterEnabled()) {
+      return new HashMap<>();
+    }
+    BloomFilter bloomFilter = BloomFilterFactory.createBloomFilter(records.size(), config.getBloomFilterFPP(),
+        config.getDynamicBloomFilterMaxNumEntries(), BloomFilterTypeCode.SIMPLE.name());
+    for (IndexedRecord record : records) {
+      bloomFilter.add(((GenericRecord) record).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString());
+    }
+    return HoodieDataBlock.createRecordKeyBloomFilterFooter(bloomFilter);
+  }
+
   private void doAppend(Map<HeaderMetadataType, String> header) {
     try {
       header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, instantTime);
       header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, writerSchema.toString());
       if (recordList.size() > 0) {
-        writer = writer.appendBlock(new HoodieAvroDataBlock(recordList, header));
+        writer = writer.appendBlock(createDataBlock(recordList, header));
         recordList.clear();
       }
       if (keysToDelete.size() > 0) {
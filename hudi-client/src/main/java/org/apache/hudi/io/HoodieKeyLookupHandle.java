@@ -23,10 +23,13 @@ import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.model.HoodieTableType;
 import org.apache.hudi.common.util.HoodieTimer;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.ParquetUtils;
 import org.apache.hudi.common.util.collection.Pair;
 import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieIOException;
 import org.apache.hudi.exception.HoodieIndexException;
+import org.apache.hudi.index.bloom.BloomIndexMetadataCache;
 import org.apache.hudi.table.HoodieTable;
 
 import org.apache.hadoop.conf.Configuration;
@@ -34,6 +37,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -56,14 +60,45 @@ public class HoodieKeyLookupHandle<T extends HoodieRecordPayload> extends Hoodie
 
   public HoodieKeyLookupHandle(HoodieWriteConfig config, HoodieTable<T> hoodieTable,
                                Pair<String, String> partitionPathFilePair) {
+    this(config, hoodieTable, partitionPathFilePair, Option.empty());
+  }
+
+  /**
+   * Reads the bloom filter out of the given bloom index cache of the partition, if it describes the latest base file
+   * of the file group, instead of the footer of the base file.
+   */
+  public HoodieKeyLookupHandle(HoodieWriteConfig config, HoodieTable<T> hoodieTable,
+                               Pair<String, String> partitionPathFilePair,
+                               Option<BloomIndexMetadataCache.Reader> metadataCache) {
     super(config, null, hoodieTable, partitionPathFilePair);
     this.tableType = hoodieTable.getMetaClient().getTableType();
     this.candidateRecordKeys = new ArrayList<>();
     this.totalKeysChecked = 0;
     HoodieTimer timer = new HoodieTimer().startTimer();
-    this.bloomFilter = ParquetUtils.readBloomFilterFromParquetMetadata(hoodieTable.getHadoopConf(),
-        new Path(getLatestDataFile().getPath()));
-    LOG.info(String.format("Read bloom filter from %s in %d ms", partitionPathFilePair, timer.endTimer()));
+    HoodieBaseFile dataFile = getLatestDataFile();
+    Option<BloomFilter> cachedBloomFilter = readCachedBloomFilter(metadataCache, dataFile);
+    if (cachedBloomFilter.isPresent()) {
+      this.bloomFilter = cachedBloomFilter.get();
+      LOG.info(String.format("Read bloom filter of %s from %s in %d ms", partitionPathFilePair, metadataCache.get(),
+          timer.endTimer()));
+    } else {
+      this.bloomFilter = ParquetUtils.readBloomFilterFromParquetMetadata(hoodieTable.getHadoopConf(),
+          new Path(dataFile.getPath()));
+      LOG.info(String.format("Read bloom filter from %s in %d ms", partitionPathFilePair, timer.endTimer()));
+    }
+  }
+
+  private static Option<BloomFilter> readCachedBloomFilter(Option<BloomIndexMetadataCache.Reader> metadataCache,
+                                                           HoodieBaseFile dataFile) {
+    if (!metadataCache.isPresent()) {
+      return Option.empty();
+    }
+    try {
+      return metadataCache.get().readBloomFilter(dataFile.getFileName());
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to read bloom filter of " + dataFile.getFileName() + " from "
+          + metadataCache.get(), e);
+    }
   }
 
   /**
@@ -30,7 +30,9 @@ import org.apache.hudi.common.model.HoodieRecordLocation;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.model.HoodieWriteStat;
 import org.apache.hudi.common.model.HoodieWriteStat.RuntimeStats;
+import org.apache.hudi.common.util.CalibratedSizeEstimator;
 import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.HoodieRecordSerializer;
 import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.collection.ExternalSpillableMap;
@@ -150,7 +152,10 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
       long memoryForMerge = SparkConfigUtils.getMaxMemoryPerPartitionMerge(config.getProps());
       LOG.info("MaxMemoryPerPartitionMerge => " + memoryForMerge);
       this.keyToNewRecords = new ExternalSpillableMap<>(memoryForMerge, config.getSpillableMapBasePath(),
-          new DefaultSizeEstimator(), new HoodieRecordSizeEstimator(originalSchema));
+          new DefaultSizeEstimator(), config.shouldCalibrateSizeEstimation()
+              ? new CalibratedSizeEstimator<>(new HoodieRecordSizeEstimator()) : new HoodieRecordSizeEstimator(),
+          config.getSpillableDiskMapType(),
+          new HoodieRecordSerializer<>());
     } catch (IOException io) {
       throw new HoodieIOException("Cannot instantiate an ExternalSpillableMap", io);
     }
@@ -194,6 +199,10 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
         recordsWritten++;
       } else {
         recordsDeleted++;
+        // the record has no location any more, which indexes tracking their own locations rely on
+        hoodieRecord.unseal();
+        hoodieRecord.clearNewLocation();
+        hoodieRecord.seal();
       }
 
       writeStatus.markSuccess(hoodieRecord, recordMetadata);
@@ -274,7 +283,11 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
           insertRecordsWritten++;
         }
       }
-      keyToNewRecords.clear();
+      if (keyToNewRecords instanceof ExternalSpillableMap) {
+        ((ExternalSpillableMap) keyToNewRecords).close();
+      } else {
+        keyToNewRecords.clear();
+      }
       writtenRecordKeys.clear();
 
       if (storageWriter != null) {
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.io;
+
+import org.apache.hudi.client.SparkTaskContextSupplier;
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.client.model.HoodieInternalRow;
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodiePartitionMetadata;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.model.HoodieWriteStat.RuntimeStats;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieInsertException;
+import org.apache.hudi.io.storage.HoodieRowParquetWriteSupport;
+import org.apache.hudi.io.storage.HoodieRowParquetWriter;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.unsafe.types.UTF8String;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Create handle writing Spark {@link InternalRow}s straight into a new parquet file, without converting them to avro.
+ * <p>
+ * Rows are expected in the hoodie write schema, i.e. the meta columns followed by the data columns, with the record
+ * key and partition path meta columns populated. The other meta columns are filled in while writing.
+ */
+public class HoodieRowCreateHandle<T extends HoodieRecordPayload> extends HoodieWriteHandle<T> {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieRowCreateHandle.class);
+
+  public static final int RECORD_KEY_META_FIELD_POS =
+      HoodieRecord.HOODIE_META_COLUMNS.indexOf(HoodieRecord.RECORD_KEY_METADATA_FIELD);
+  public static final int PARTITION_PATH_META_FIELD_POS =
+      HoodieRecord.HOODIE_META_COLUMNS.indexOf(HoodieRecord.PARTITION_PATH_METADATA_FIELD);
+
+  private static AtomicLong recordIndex = new AtomicLong(1);
+
+  private final HoodieRowParquetWriter fileWriter;
+  private final HoodieInternalRow hoodieRow;
+  private final Path path;
+  private long recordsWritten = 0;
+
+  public HoodieRowCreateHandle(HoodieWriteConfig config, String instantTime, HoodieTable<T> hoodieTable,
+      String partitionPath, String fileId, StructType structType, SparkTaskContextSupplier sparkTaskContextSupplier) {
+    super(config, instantTime, partitionPath, fileId, hoodieTable, sparkTaskContextSupplier);
+    writeStatus.setFileId(fileId);
+    writeStatus.setPartitionPath(partitionPath);
+
+    this.path = makeNewPath(partitionPath);
+
+    try {
+      HoodiePartitionMetadata partitionMetadata = new HoodiePartitionMetadata(fs, instantTime,
+          new Path(config.getBasePath()), FSUtils.getPartitionPath(config.getBasePath(), partitionPath));
+      partitionMetadata.trySave(getPartitionId());
+      createMarkerFile(partitionPath);
+      BloomFilter filter = BloomFilterFactory
+          .createBloomFilter(config.getBloomFilterNumEntries(), config.getBloomFilterFPP(),
+              config.getDynamicBloomFilterMaxNumEntries(),
+              config.getBloomFilterType());
+      HoodieRowParquetWriteSupport writeSupport =
+          new HoodieRowParquetWriteSupport(hoodieTable.getHadoopConf(), structType, filter);
+      this.fileWriter = new HoodieRowParquetWriter(path, writeSupport, config);
+    } catch (IOException e) {
+      throw new HoodieInsertException("Failed to initialize HoodieRowParquetWriter for path " + path, e);
+    }
+    this.hoodieRow = new HoodieInternalRow(UTF8String.fromString(instantTime), UTF8String.fromString(path.getName()));
+    LOG.info("New RowCreateHandle for partition :" + partitionPath + " with fileId " + fileId);
+  }
+
+  public String getPartitionPath() {
+    return partitionPath;
+  }
+
+  public boolean canWrite() {
+    return fileWriter.canWrite();
+  }
+
+  /**
+   * Writes the given row into the backing file. Unlike with records, a row failing to be written fails the write, as
+   * there is no {@link HoodieRecord} to report the failure against.
+   */
+  public void write(InternalRow row) {
+    String recordKey = row.getUTF8String(RECORD_KEY_META_FIELD_POS).toString();
+    String seqId = HoodieRecord.generateSequenceId(instantTime, getPartitionId(), recordIndex.getAndIncrement());
+    try {
+      fileWriter.writeRow(recordKey, hoodieRow.wrap(UTF8String.fromString(seqId), row));
+      recordsWritten++;
+    } catch (Throwable t) {
+      throw new HoodieInsertException("Failed to write record with key " + recordKey + " into " + path, t);
+    }
+  }
+
+  @Override
+  public WriteStatus getWriteStatus() {
+    return writeStatus;
+  }
+
+  /**
+   * Performs actions to durably, persist the current changes and returns a WriteStatus object.
+   */
+  @Override
+  public WriteStatus close() {
+    LOG.info("Closing the file " + writeStatus.getFileId() + " as we are done with all the rows " + recordsWritten);
+    try {
+      fileWriter.close();
+
+      HoodieWriteStat stat = new HoodieWriteStat();
+      stat.setPartitionPath(writeStatus.getPartitionPath());
+      stat.setNumWrites(recordsWritten);
+      stat.setNumDeletes(0);
+      stat.setNumInserts(recordsWritten);
+      stat.setPrevCommit(HoodieWriteStat.NULL_COMMIT);
+      stat.setFileId(writeStatus.getFileId());
+      stat.setPath(new Path(config.getBasePath()), path);
+      long fileSizeInBytes = FSUtils.getFileSize(fs, path);
+      stat.setTotalWriteBytes(fileSizeInBytes);
+      stat.setFileSizeInBytes(fileSizeInBytes);
+      stat.setTotalWriteErrors(0);
+      RuntimeStats runtimeStats = new RuntimeStats();
+      runtimeStats.setTotalCreateTime(timer.endTimer());
+      stat.setRuntimeStats(runtimeStats);
+      writeStatus.setStat(stat);
+      writeStatus.setTotalRecords(recordsWritten);
+
+      LOG.info(String.format("RowCreateHandle for partitionPath %s fileID %s, took %d ms.", stat.getPartitionPath(),
+          stat.getFileId(), runtimeStats.getTotalCreateTime()));
+
+      return writeStatus;
+    } catch (IOException e) {
+      throw new HoodieInsertException("Failed to close the Row Create Handle for path " + path, e);
+    }
+  }
+}
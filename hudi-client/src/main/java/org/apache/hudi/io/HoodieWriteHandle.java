@@ -67,6 +67,7 @@ public abstract class HoodieWriteHandle<T extends HoodieRecordPayload> extends H
     this.timer = new HoodieTimer().startTimer();
     this.writeStatus = (WriteStatus) ReflectionUtils.loadClass(config.getWriteStatusClassName(),
         !hoodieTable.getIndex().isImplicitWithStorage(), config.getWriteStatusFailureFraction());
+    this.writeStatus.setInstantTime(instantTime);
     this.sparkTaskContextSupplier = sparkTaskContextSupplier;
     this.writeToken = makeWriteToken();
   }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.io.storage;
+
+import org.apache.hudi.common.fs.HoodieWrapperFileSystem;
+import org.apache.hudi.config.HoodieWriteConfig;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.spark.sql.catalyst.InternalRow;
+
+import java.io.IOException;
+
+/**
+ * Counterpart of {@link HoodieParquetWriter} for Spark {@link InternalRow}s, limiting the size of the underlying file
+ * through <code>canWrite()</code>.
+ */
+public class HoodieRowParquetWriter extends ParquetWriter<InternalRow> {
+
+  private final Path file;
+  private final HoodieWrapperFileSystem fs;
+  private final long maxFileSize;
+  private final HoodieRowParquetWriteSupport writeSupport;
+
+  public HoodieRowParquetWriter(Path file, HoodieRowParquetWriteSupport writeSupport, HoodieWriteConfig config)
+      throws IOException {
+    super(HoodieWrapperFileSystem.convertToHoodiePath(file, writeSupport.getHadoopConf()),
+        ParquetFileWriter.Mode.CREATE, writeSupport, config.getParquetCompressionCodec(),
+        config.getParquetBlockSize(), config.getParquetPageSize(), config.getParquetPageSize(),
+        ParquetWriter.DEFAULT_IS_DICTIONARY_ENABLED, ParquetWriter.DEFAULT_IS_VALIDATING_ENABLED,
+        ParquetWriter.DEFAULT_WRITER_VERSION,
+        HoodieParquetWriter.registerFileSystem(file, writeSupport.getHadoopConf()));
+    this.file = HoodieWrapperFileSystem.convertToHoodiePath(file, writeSupport.getHadoopConf());
+    this.fs = (HoodieWrapperFileSystem) this.file.getFileSystem(
+        HoodieParquetWriter.registerFileSystem(file, writeSupport.getHadoopConf()));
+    // Same conservative allowance for the compressed size as HoodieParquetWriter
+    this.maxFileSize = config.getParquetMaxFileSize()
+        + Math.round(config.getParquetMaxFileSize() * config.getParquetCompressionRatio());
+    this.writeSupport = writeSupport;
+  }
+
+  /**
+   * Writes a row holding all the meta columns, with the given record key.
+   */
+  public void writeRow(String recordKey, InternalRow row) throws IOException {
+    super.write(row);
+    writeSupport.add(recordKey);
+  }
+
+  public boolean canWrite() {
+    return fs.getBytesWritten(file) < maxFileSize;
+  }
+}
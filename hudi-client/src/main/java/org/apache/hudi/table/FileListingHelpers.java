@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.table;
+
+import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodiePartitionMetadata;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import scala.Tuple2;
+
+/**
+ * Maintains the {@link HoodieFileListing} of a table on the write path.
+ */
+public class FileListingHelpers {
+
+  private static final Logger LOG = LogManager.getLogger(FileListingHelpers.class);
+
+  /**
+   * Creates the file listing of the table by listing its partitions once, if the table does not have one yet. Later
+   * instants keep the listing current through the timeline.
+   */
+  public static void bootstrapIfRequired(JavaSparkContext jsc, HoodieWriteConfig config,
+      HoodieTableMetaClient metaClient) {
+    try {
+      if (metaClient.getFs().exists(HoodieFileListing.getListingPath(metaClient))) {
+        return;
+      }
+      List<String> partitionPaths = FSUtils.getAllPartitionPaths(metaClient.getFs(), metaClient.getBasePath(),
+          config.shouldAssumeDatePartitioning());
+      LOG.info("Bootstrapping file listing of " + metaClient.getBasePath() + " from " + partitionPaths.size()
+          + " partitions");
+      Map<String, Map<String, Long>> listedPartitions = new HashMap<>();
+      if (!partitionPaths.isEmpty()) {
+        SerializableConfiguration hadoopConf = new SerializableConfiguration(metaClient.getHadoopConf());
+        String basePath = metaClient.getBasePath();
+        listedPartitions.putAll(jsc.parallelize(partitionPaths, Math.min(partitionPaths.size(),
+            config.getFileListingParallelism()))
+            .mapToPair(partitionPath -> new Tuple2<>(partitionPath,
+                listPartition(FSUtils.getFs(basePath, hadoopConf.get()), basePath, partitionPath)))
+            .collectAsMap());
+      }
+      HoodieFileListing.bootstrap(metaClient, listedPartitions);
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to bootstrap the file listing of " + metaClient.getBasePath(), e);
+    }
+  }
+
+  private static HashMap<String, Long> listPartition(FileSystem fs, String basePath, String partitionPath)
+      throws IOException {
+    HashMap<String, Long> files = new HashMap<>();
+    for (FileStatus status : fs.listStatus(FSUtils.getPartitionPath(basePath, partitionPath))) {
+      String fileName = status.getPath().getName();
+      if (status.isFile() && !fileName.equals(HoodiePartitionMetadata.HOODIE_PARTITION_METAFILE)) {
+        files.put(fileName, status.getLen());
+      }
+    }
+    return files;
+  }
+}
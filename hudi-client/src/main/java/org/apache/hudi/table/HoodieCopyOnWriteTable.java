@@ -27,6 +27,7 @@ import org.apache.hudi.avro.model.HoodieRestoreMetadata;
 import org.apache.hudi.avro.model.HoodieRollbackMetadata;
 import org.apache.hudi.avro.model.HoodieSavepointMetadata;
 import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.client.utils.ParallelParquetReaderIterator;
 import org.apache.hudi.client.utils.ParquetReaderIterator;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
@@ -37,6 +38,7 @@ import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.AvroRecordSizeEstimator;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
 import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
@@ -51,6 +53,7 @@ import org.apache.hudi.table.action.clean.CleanActionExecutor;
 import org.apache.hudi.table.action.HoodieWriteMetadata;
 import org.apache.hudi.table.action.commit.BulkInsertCommitActionExecutor;
 import org.apache.hudi.table.action.commit.BulkInsertPreppedCommitActionExecutor;
+import org.apache.hudi.table.action.commit.BulkInsertRowsCommitActionExecutor;
 import org.apache.hudi.table.action.commit.DeleteCommitActionExecutor;
 import org.apache.hudi.table.action.commit.InsertCommitActionExecutor;
 import org.apache.hudi.table.action.commit.InsertPreppedCommitActionExecutor;
@@ -66,6 +69,8 @@ import org.apache.parquet.avro.AvroReadSupport;
 import org.apache.parquet.hadoop.ParquetReader;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -108,6 +113,12 @@ public class HoodieCopyOnWriteTable<T extends HoodieRecordPayload> extends Hoodi
         this, instantTime, records, bulkInsertPartitioner).execute();
   }
 
+  @Override
+  public HoodieWriteMetadata bulkInsertRows(JavaSparkContext jsc, String instantTime, JavaRDD<InternalRow> sortedRows,
+      StructType structType) {
+    return new BulkInsertRowsCommitActionExecutor<>(jsc, config, this, instantTime, sortedRows, structType).execute();
+  }
+
   @Override
   public HoodieWriteMetadata delete(JavaSparkContext jsc, String instantTime, JavaRDD<HoodieKey> keys) {
     return new DeleteCommitActionExecutor<>(jsc, config, this, instantTime, keys).execute();
@@ -157,10 +168,17 @@ public class HoodieCopyOnWriteTable<T extends HoodieRecordPayload> extends Hoodi
     } else {
       AvroReadSupport.setAvroReadSchema(getHadoopConf(), upsertHandle.getWriterSchema());
       BoundedInMemoryExecutor<GenericRecord, GenericRecord, Void> wrapper = null;
-      try (ParquetReader<IndexedRecord> reader =
-          AvroParquetReader.<IndexedRecord>builder(upsertHandle.getOldFilePath()).withConf(getHadoopConf()).build()) {
-        wrapper = new SparkBoundedInMemoryExecutor(config, new ParquetReaderIterator(reader),
-            new UpdateHandler(upsertHandle), x -> x);
+      // the parallel reader reads the row groups of the file by itself, the single reader is only opened otherwise
+      boolean parallelRead = config.getMergeBaseFileReaderParallelism() > 1;
+      try (ParquetReader<IndexedRecord> reader = parallelRead ? null
+          : AvroParquetReader.<IndexedRecord>builder(upsertHandle.getOldFilePath()).withConf(getHadoopConf()).build();
+          ParallelParquetReaderIterator<IndexedRecord> parallelReaderIterator = parallelRead
+              ? new ParallelParquetReaderIterator<>(getHadoopConf(), upsertHandle.getOldFilePath(),
+                  config.getMergeBaseFileReaderParallelism(), config.getWriteBufferLimitBytes()) : null) {
+        Iterator<IndexedRecord> readerIterator =
+            parallelReaderIterator != null ? parallelReaderIterator : new ParquetReaderIterator<>(reader);
+        wrapper = new SparkBoundedInMemoryExecutor(config, readerIterator,
+            new UpdateHandler(upsertHandle), x -> x, new AvroRecordSizeEstimator<>());
         wrapper.execute();
       } catch (Exception e) {
         throw new HoodieException(e);
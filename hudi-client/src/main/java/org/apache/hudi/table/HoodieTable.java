@@ -63,6 +63,8 @@ import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -160,6 +162,17 @@ public abstract class HoodieTable<T extends HoodieRecordPayload> implements Seri
   public abstract HoodieWriteMetadata bulkInsert(JavaSparkContext jsc, String instantTime,
       JavaRDD<HoodieRecord<T>> records, Option<UserDefinedBulkInsertPartitioner> bulkInsertPartitioner);
 
+  /**
+   * Bulk Insert a batch of new rows into Hoodie table at the supplied instantTime, without converting them to records.
+   * @param jsc    Java Spark Context jsc
+   * @param instantTime Instant Time for the action
+   * @param sortedRows  JavaRDD of rows in the hoodie write schema, sorted by partition path and record key
+   * @param structType Schema of the rows
+   * @return HoodieWriteMetadata
+   */
+  public abstract HoodieWriteMetadata bulkInsertRows(JavaSparkContext jsc, String instantTime,
+      JavaRDD<InternalRow> sortedRows, StructType structType);
+
   /**
    * Deletes a list of {@link HoodieKey}s from the Hoodie table, at the supplied instantTime {@link HoodieKey}s will be
    * de-duped and non existent keys will be removed before deleting.
@@ -28,6 +28,7 @@ import org.apache.hudi.common.model.HoodieArchivedLogFile;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodieRollingStatMetadata;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
 import org.apache.hudi.common.table.log.HoodieLogFormat;
 import org.apache.hudi.common.table.log.HoodieLogFormat.Writer;
 import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
@@ -118,6 +119,8 @@ public class HoodieTimelineArchiveLog {
 
       boolean success = true;
       if (!instantsToArchive.isEmpty()) {
+        // the file listing replays the active timeline, so snapshot it before instants leave it
+        HoodieFileListing.writeSnapshot(metaClient);
         this.writer = openWriter();
         LOG.info("Archiving instants " + instantsToArchive);
         archive(instantsToArchive);
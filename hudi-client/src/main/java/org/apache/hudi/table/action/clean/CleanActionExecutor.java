@@ -46,6 +46,7 @@ import scala.Tuple2;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -81,9 +82,15 @@ public class CleanActionExecutor extends BaseActionExecutor<HoodieCleanMetadata>
       int cleanerParallelism = Math.min(partitionsToClean.size(), config.getCleanerParallelism());
       LOG.info("Using cleanerParallelism: " + cleanerParallelism);
 
+      // each task looks up the file groups of all its partitions with a single call to the file-system view
       Map<String, List<String>> cleanOps = jsc
           .parallelize(partitionsToClean, cleanerParallelism)
-          .map(partitionPathToClean -> Pair.of(partitionPathToClean, planner.getDeletePaths(partitionPathToClean)))
+          .mapPartitions(partitionPathsToClean -> {
+            List<String> partitionPaths = new ArrayList<>();
+            partitionPathsToClean.forEachRemaining(partitionPaths::add);
+            return planner.getDeletePaths(partitionPaths).entrySet().stream()
+                .map(entry -> Pair.of(entry.getKey(), entry.getValue())).iterator();
+          })
           .collect().stream()
           .collect(Collectors.toMap(Pair::getKey, Pair::getValue));
 
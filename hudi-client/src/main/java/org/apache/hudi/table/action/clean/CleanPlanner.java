@@ -20,7 +20,6 @@ package org.apache.hudi.table.action.clean;
 
 import org.apache.hudi.avro.model.HoodieCleanMetadata;
 import org.apache.hudi.avro.model.HoodieSavepointMetadata;
-import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.CompactionOperation;
 import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieBaseFile;
@@ -31,6 +30,7 @@ import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.table.timeline.TimelineMetadataUtils;
@@ -48,6 +48,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -180,8 +181,7 @@ public class CleanPlanner<T extends HoodieRecordPayload<T>> implements Serializa
    */
   private List<String> getPartitionPathsForFullCleaning() throws IOException {
     // Go to brute force mode of scanning all partitions
-    return FSUtils.getAllPartitionPaths(hoodieTable.getMetaClient().getFs(), hoodieTable.getMetaClient().getBasePath(),
-        config.shouldAssumeDatePartitioning());
+    return HoodieFileListing.getAllPartitionPaths(hoodieTable.getMetaClient(), config.shouldAssumeDatePartitioning());
   }
 
   /**
@@ -189,10 +189,9 @@ public class CleanPlanner<T extends HoodieRecordPayload<T>> implements Serializa
    * policy is useful, if you are simply interested in querying the table, and you don't want too many versions for a
    * single file (i.e run it with versionsRetained = 1)
    */
-  private List<String> getFilesToCleanKeepingLatestVersions(String partitionPath) {
+  private List<String> getFilesToCleanKeepingLatestVersions(String partitionPath, List<HoodieFileGroup> fileGroups) {
     LOG.info("Cleaning " + partitionPath + ", retaining latest " + config.getCleanerFileVersionsRetained()
         + " file versions. ");
-    List<HoodieFileGroup> fileGroups = fileSystemView.getAllFileGroups(partitionPath).collect(Collectors.toList());
     List<String> deletePaths = new ArrayList<>();
     // Collect all the datafiles savepointed by all the savepoints
     List<String> savepointedFiles = hoodieTable.getSavepoints().stream()
@@ -249,7 +248,7 @@ public class CleanPlanner<T extends HoodieRecordPayload<T>> implements Serializa
    * <p>
    * This policy is the default.
    */
-  private List<String> getFilesToCleanKeepingLatestCommits(String partitionPath) {
+  private List<String> getFilesToCleanKeepingLatestCommits(String partitionPath, List<HoodieFileGroup> fileGroups) {
     int commitsRetained = config.getCleanerCommitsRetained();
     LOG.info("Cleaning " + partitionPath + ", retaining latest " + commitsRetained + " commits. ");
     List<String> deletePaths = new ArrayList<>();
@@ -260,9 +259,8 @@ public class CleanPlanner<T extends HoodieRecordPayload<T>> implements Serializa
         .collect(Collectors.toList());
 
     // determine if we have enough commits, to start cleaning.
-    if (commitTimeline.countInstants() > commitsRetained) {
+    if (hasEnoughCommitsToClean()) {
       HoodieInstant earliestCommitToRetain = getEarliestCommitToRetain().get();
-      List<HoodieFileGroup> fileGroups = fileSystemView.getAllFileGroups(partitionPath).collect(Collectors.toList());
       for (HoodieFileGroup fileGroup : fileGroups) {
         List<FileSlice> fileSliceList = fileGroup.getAllFileSlices().collect(Collectors.toList());
 
@@ -326,22 +324,41 @@ public class CleanPlanner<T extends HoodieRecordPayload<T>> implements Serializa
     return null;
   }
 
+  private boolean hasEnoughCommitsToClean() {
+    return commitTimeline.countInstants() > config.getCleanerCommitsRetained();
+  }
+
   /**
    * Returns files to be cleaned for the given partitionPath based on cleaning policy.
    */
   public List<String> getDeletePaths(String partitionPath) {
+    return getDeletePaths(Collections.singletonList(partitionPath)).get(partitionPath);
+  }
+
+  /**
+   * Returns files to be cleaned for each of the given partitionPaths based on cleaning policy. The file groups of all
+   * the partitions are fetched from the file-system view in a single call.
+   */
+  public Map<String, List<String>> getDeletePaths(List<String> partitionPaths) {
     HoodieCleaningPolicy policy = config.getCleanerPolicy();
-    List<String> deletePaths;
-    if (policy == HoodieCleaningPolicy.KEEP_LATEST_COMMITS) {
-      deletePaths = getFilesToCleanKeepingLatestCommits(partitionPath);
-    } else if (policy == HoodieCleaningPolicy.KEEP_LATEST_FILE_VERSIONS) {
-      deletePaths = getFilesToCleanKeepingLatestVersions(partitionPath);
-    } else {
+    if (policy != HoodieCleaningPolicy.KEEP_LATEST_COMMITS
+        && policy != HoodieCleaningPolicy.KEEP_LATEST_FILE_VERSIONS) {
       throw new IllegalArgumentException("Unknown cleaning policy : " + policy.name());
     }
-    LOG.info(deletePaths.size() + " patterns used to delete in partition path:" + partitionPath);
+    boolean needsFileGroups = policy == HoodieCleaningPolicy.KEEP_LATEST_FILE_VERSIONS || hasEnoughCommitsToClean();
+    Map<String, List<HoodieFileGroup>> partitionToFileGroups =
+        needsFileGroups ? fileSystemView.getAllFileGroups(partitionPaths) : Collections.emptyMap();
 
-    return deletePaths;
+    Map<String, List<String>> partitionToDeletePaths = new HashMap<>();
+    for (String partitionPath : partitionPaths) {
+      List<HoodieFileGroup> fileGroups = partitionToFileGroups.getOrDefault(partitionPath, Collections.emptyList());
+      List<String> deletePaths = policy == HoodieCleaningPolicy.KEEP_LATEST_COMMITS
+          ? getFilesToCleanKeepingLatestCommits(partitionPath, fileGroups)
+          : getFilesToCleanKeepingLatestVersions(partitionPath, fileGroups);
+      LOG.info(deletePaths.size() + " patterns used to delete in partition path:" + partitionPath);
+      partitionToDeletePaths.put(partitionPath, deletePaths);
+    }
+    return partitionToDeletePaths;
   }
 
   /**
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.table.action.commit;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.model.WriteOperationType;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieInstant.State;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieInsertException;
+import org.apache.hudi.exception.HoodieNotSupportedException;
+import org.apache.hudi.execution.BulkInsertRowsMapFunction;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.hudi.table.action.HoodieWriteMetadata;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk inserts Spark {@link InternalRow}s, already sorted by partition path and record key, into new parquet files.
+ */
+public class BulkInsertRowsCommitActionExecutor<T extends HoodieRecordPayload<T>>
+    extends CommitActionExecutor<T> {
+
+  private final JavaRDD<InternalRow> sortedRows;
+  private final StructType structType;
+
+  public BulkInsertRowsCommitActionExecutor(JavaSparkContext jsc,
+      HoodieWriteConfig config, HoodieTable table,
+      String instantTime, JavaRDD<InternalRow> sortedRows, StructType structType) {
+    super(jsc, config, table, instantTime, WriteOperationType.BULK_INSERT);
+    this.sortedRows = sortedRows;
+    this.structType = structType;
+  }
+
+  @Override
+  public HoodieWriteMetadata execute() {
+    // Written files are only found through the index if it looks up base files
+    if (!table.getIndex().isImplicitWithStorage()) {
+      throw new HoodieNotSupportedException("Bulk inserting rows is not supported with index "
+          + config.getIndexType() + ", which does not look up records in the written files");
+    }
+    try {
+      HoodieWriteMetadata result = new HoodieWriteMetadata();
+      // generate new file ID prefixes for each output partition
+      final List<String> fileIDPrefixes = IntStream.range(0, sortedRows.getNumPartitions())
+          .mapToObj(i -> FSUtils.createNewFileIdPfx()).collect(Collectors.toList());
+
+      table.getActiveTimeline().transitionRequestedToInflight(new HoodieInstant(State.REQUESTED,
+          table.getMetaClient().getCommitActionType(), instantTime), Option.empty());
+
+      JavaRDD<WriteStatus> writeStatusRDD = sortedRows.mapPartitionsWithIndex(
+          new BulkInsertRowsMapFunction<T>(instantTime, config, (HoodieTable<T>) table, fileIDPrefixes, structType),
+          true);
+
+      updateIndexAndCommitIfNeeded(writeStatusRDD, result);
+      return result;
+    } catch (Throwable e) {
+      if (e instanceof HoodieInsertException) {
+        throw e;
+      }
+      throw new HoodieInsertException("Failed to bulk insert rows for commit time " + instantTime, e);
+    }
+  }
+}
@@ -19,11 +19,13 @@
 package org.apache.hudi.table.action.commit;
 
 import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.client.utils.ParallelParquetReaderIterator;
 import org.apache.hudi.client.utils.ParquetReaderIterator;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.model.WriteOperationType;
+import org.apache.hudi.common.util.AvroRecordSizeEstimator;
 import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
 import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
 import org.apache.hudi.config.HoodieWriteConfig;
@@ -91,10 +93,18 @@ public abstract class CommitActionExecutor<T extends HoodieRecordPayload<T>>
     } else {
       AvroReadSupport.setAvroReadSchema(table.getHadoopConf(), upsertHandle.getWriterSchema());
       BoundedInMemoryExecutor<GenericRecord, GenericRecord, Void> wrapper = null;
-      try (ParquetReader<IndexedRecord> reader =
-          AvroParquetReader.<IndexedRecord>builder(upsertHandle.getOldFilePath()).withConf(table.getHadoopConf()).build()) {
-        wrapper = new SparkBoundedInMemoryExecutor(config, new ParquetReaderIterator(reader),
-            new UpdateHandler(upsertHandle), x -> x);
+      // the parallel reader reads the row groups of the file by itself, the single reader is only opened otherwise
+      boolean parallelRead = config.getMergeBaseFileReaderParallelism() > 1;
+      try (ParquetReader<IndexedRecord> reader = parallelRead ? null
+          : AvroParquetReader.<IndexedRecord>builder(upsertHandle.getOldFilePath()).withConf(table.getHadoopConf())
+              .build();
+          ParallelParquetReaderIterator<IndexedRecord> parallelReaderIterator = parallelRead
+              ? new ParallelParquetReaderIterator<>(table.getHadoopConf(), upsertHandle.getOldFilePath(),
+                  config.getMergeBaseFileReaderParallelism(), config.getWriteBufferLimitBytes()) : null) {
+        Iterator<IndexedRecord> readerIterator =
+            parallelReaderIterator != null ? parallelReaderIterator : new ParquetReaderIterator<>(reader);
+        wrapper = new SparkBoundedInMemoryExecutor(config, readerIterator,
+            new UpdateHandler(upsertHandle), x -> x, new AvroRecordSizeEstimator<>());
         wrapper.execute();
       } catch (Exception e) {
         throw new HoodieException(e);
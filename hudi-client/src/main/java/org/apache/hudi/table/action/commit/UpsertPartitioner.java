@@ -38,16 +38,16 @@ import org.apache.log4j.Logger;
 import org.apache.spark.Partitioner;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
-import org.apache.spark.api.java.function.PairFunction;
+import org.apache.spark.api.java.function.PairFlatMapFunction;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import scala.Tuple2;
 
@@ -210,40 +210,50 @@ public class UpsertPartitioner<T extends HoodieRecordPayload<T>> extends Partiti
 
     Map<String, List<SmallFile>> partitionSmallFilesMap = new HashMap<>();
     if (partitionPaths != null && partitionPaths.size() > 0) {
-      JavaRDD<String> partitionPathRdds = jsc.parallelize(partitionPaths, partitionPaths.size());
-      partitionSmallFilesMap = partitionPathRdds.mapToPair((PairFunction<String, String, List<SmallFile>>)
-          partitionPath -> new Tuple2<>(partitionPath, getSmallFiles(partitionPath))).collectAsMap();
+      // each task looks up the small files of all its partitions with a single call to the file-system view
+      JavaRDD<String> partitionPathRdds =
+          jsc.parallelize(partitionPaths, Math.min(partitionPaths.size(), jsc.defaultParallelism()));
+      partitionSmallFilesMap = partitionPathRdds.mapPartitionsToPair(
+          (PairFlatMapFunction<Iterator<String>, String, List<SmallFile>>) partitionPathsOfTask -> {
+            List<String> taskPartitionPaths = new ArrayList<>();
+            partitionPathsOfTask.forEachRemaining(taskPartitionPaths::add);
+            return getSmallFiles(taskPartitionPaths).entrySet().stream()
+                .map(entry -> new Tuple2<>(entry.getKey(), entry.getValue())).iterator();
+          }).collectAsMap();
     }
 
     return partitionSmallFilesMap;
   }
 
   /**
-   * Returns a list of small files in the given partition path.
+   * Returns the list of small files in each of the given partition paths, the latest base files of all the partitions
+   * are fetched from the file-system view in a single call.
    */
-  protected List<SmallFile> getSmallFiles(String partitionPath) {
+  protected Map<String, List<SmallFile>> getSmallFiles(List<String> partitionPaths) {
+    HoodieTimeline commitTimeline = table.getMetaClient().getCommitsTimeline().filterCompletedInstants();
 
-    // smallFiles only for partitionPath
-    List<SmallFile> smallFileLocations = new ArrayList<>();
+    // if we have some commits
+    Map<String, List<HoodieBaseFile>> partitionBaseFiles = commitTimeline.empty() ? Collections.emptyMap()
+        : table.getHoodieView().getLatestBaseFilesBeforeOrOn(partitionPaths,
+            commitTimeline.lastInstant().get().getTimestamp());
 
-    HoodieTimeline commitTimeline = table.getMetaClient().getCommitsTimeline().filterCompletedInstants();
+    Map<String, List<SmallFile>> partitionSmallFiles = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> partitionSmallFiles.put(partitionPath,
+        getSmallBaseFiles(partitionBaseFiles.getOrDefault(partitionPath, Collections.emptyList()))));
+    return partitionSmallFiles;
+  }
 
-    if (!commitTimeline.empty()) { // if we have some commits
-      HoodieInstant latestCommitTime = commitTimeline.lastInstant().get();
-      List<HoodieBaseFile> allFiles = table.getBaseFileOnlyView()
-          .getLatestBaseFilesBeforeOrOn(partitionPath, latestCommitTime.getTimestamp()).collect(Collectors.toList());
-
-      for (HoodieBaseFile file : allFiles) {
-        if (file.getFileSize() < config.getParquetSmallFileLimit()) {
-          String filename = file.getFileName();
-          SmallFile sf = new SmallFile();
-          sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
-          sf.sizeBytes = file.getFileSize();
-          smallFileLocations.add(sf);
-        }
+  private List<SmallFile> getSmallBaseFiles(List<HoodieBaseFile> allFiles) {
+    List<SmallFile> smallFileLocations = new ArrayList<>();
+    for (HoodieBaseFile file : allFiles) {
+      if (file.getFileSize() < config.getParquetSmallFileLimit()) {
+        String filename = file.getFileName();
+        SmallFile sf = new SmallFile();
+        sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
+        sf.sizeBytes = file.getFileSize();
+        smallFileLocations.add(sf);
       }
     }
-
     return smallFileLocations;
   }
 
@@ -25,15 +25,17 @@ import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.client.utils.SparkConfigUtils;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.CompactionOperation;
+import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodieTableType;
 import org.apache.hudi.common.model.HoodieWriteStat.RuntimeStats;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
 import org.apache.hudi.common.table.log.HoodieMergedLogRecordScanner;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
-import org.apache.hudi.common.table.view.TableFileSystemView.SliceView;
+import org.apache.hudi.common.table.view.SyncableFileSystemView;
 import org.apache.hudi.common.util.CollectionUtils;
 import org.apache.hudi.common.util.CompactionUtils;
 import org.apache.hudi.common.util.Option;
@@ -58,8 +60,10 @@ import org.apache.spark.util.LongAccumulator;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -124,41 +128,45 @@ public class HoodieMergeOnReadTableCompactor implements HoodieCompactor {
     HoodieMergedLogRecordScanner scanner = new HoodieMergedLogRecordScanner(fs, metaClient.getBasePath(), logFiles,
         readerSchema, maxInstantTime, maxMemoryPerCompaction, config.getCompactionLazyBlockReadEnabled(),
         config.getCompactionReverseLogReadEnabled(), config.getMaxDFSStreamBufferSize(),
-        config.getSpillableMapBasePath());
-    if (!scanner.iterator().hasNext()) {
-      return new ArrayList<>();
+        config.getSpillableMapBasePath(), config.getSpillableDiskMapType(), config.getCompactionLogPrefetchThreads());
+    try {
+      if (!scanner.iterator().hasNext()) {
+        return new ArrayList<>();
+      }
+
+      Option<HoodieBaseFile> oldDataFileOpt =
+          operation.getBaseFile(metaClient.getBasePath(), operation.getPartitionPath());
+
+      // Compacting is very similar to applying updates to existing file
+      Iterator<List<WriteStatus>> result;
+      // If the dataFile is present, there is a base parquet file present, perform updates else perform inserts into a
+      // new base parquet file.
+      if (oldDataFileOpt.isPresent()) {
+        result = hoodieCopyOnWriteTable.handleUpdate(instantTime, operation.getPartitionPath(),
+                operation.getFileId(), scanner.getRecords(),
+            oldDataFileOpt.get());
+      } else {
+        result = hoodieCopyOnWriteTable.handleInsert(instantTime, operation.getPartitionPath(), operation.getFileId(),
+            scanner.iterator());
+      }
+      Iterable<List<WriteStatus>> resultIterable = () -> result;
+      return StreamSupport.stream(resultIterable.spliterator(), false).flatMap(Collection::stream).peek(s -> {
+        s.getStat().setTotalUpdatedRecordsCompacted(scanner.getNumMergedRecordsInLog());
+        s.getStat().setTotalLogFilesCompacted(scanner.getTotalLogFiles());
+        s.getStat().setTotalLogRecords(scanner.getTotalLogRecords());
+        s.getStat().setPartitionPath(operation.getPartitionPath());
+        s.getStat()
+            .setTotalLogSizeCompacted(operation.getMetrics().get(CompactionStrategy.TOTAL_LOG_FILE_SIZE).longValue());
+        s.getStat().setTotalLogBlocks(scanner.getTotalLogBlocks());
+        s.getStat().setTotalCorruptLogBlock(scanner.getTotalCorruptBlocks());
+        s.getStat().setTotalRollbackBlocks(scanner.getTotalRollbacks());
+        RuntimeStats runtimeStats = new RuntimeStats();
+        runtimeStats.setTotalScanTime(scanner.getTotalTimeTakenToReadAndMergeBlocks());
+        s.getStat().setRuntimeStats(runtimeStats);
+      }).collect(toList());
+    } finally {
+      scanner.close();
     }
-
-    Option<HoodieBaseFile> oldDataFileOpt =
-        operation.getBaseFile(metaClient.getBasePath(), operation.getPartitionPath());
-
-    // Compacting is very similar to applying updates to existing file
-    Iterator<List<WriteStatus>> result;
-    // If the dataFile is present, there is a base parquet file present, perform updates else perform inserts into a
-    // new base parquet file.
-    if (oldDataFileOpt.isPresent()) {
-      result = hoodieCopyOnWriteTable.handleUpdate(instantTime, operation.getPartitionPath(),
-              operation.getFileId(), scanner.getRecords(),
-          oldDataFileOpt.get());
-    } else {
-      result = hoodieCopyOnWriteTable.handleInsert(instantTime, operation.getPartitionPath(), operation.getFileId(),
-          scanner.iterator());
-    }
-    Iterable<List<WriteStatus>> resultIterable = () -> result;
-    return StreamSupport.stream(resultIterable.spliterator(), false).flatMap(Collection::stream).peek(s -> {
-      s.getStat().setTotalUpdatedRecordsCompacted(scanner.getNumMergedRecordsInLog());
-      s.getStat().setTotalLogFilesCompacted(scanner.getTotalLogFiles());
-      s.getStat().setTotalLogRecords(scanner.getTotalLogRecords());
-      s.getStat().setPartitionPath(operation.getPartitionPath());
-      s.getStat()
-          .setTotalLogSizeCompacted(operation.getMetrics().get(CompactionStrategy.TOTAL_LOG_FILE_SIZE).longValue());
-      s.getStat().setTotalLogBlocks(scanner.getTotalLogBlocks());
-      s.getStat().setTotalCorruptLogBlock(scanner.getTotalCorruptBlocks());
-      s.getStat().setTotalRollbackBlocks(scanner.getTotalRollbacks());
-      RuntimeStats runtimeStats = new RuntimeStats();
-      runtimeStats.setTotalScanTime(scanner.getTotalTimeTakenToReadAndMergeBlocks());
-      s.getStat().setRuntimeStats(runtimeStats);
-    }).collect(toList());
   }
 
   @Override
@@ -179,7 +187,7 @@ public class HoodieMergeOnReadTableCompactor implements HoodieCompactor {
     // TODO - rollback any compactions in flight
     HoodieTableMetaClient metaClient = hoodieTable.getMetaClient();
     LOG.info("Compacting " + metaClient.getBasePath() + " with commit " + compactionCommitTime);
-    List<String> partitionPaths = FSUtils.getAllPartitionPaths(metaClient.getFs(), metaClient.getBasePath(),
+    List<String> partitionPaths = HoodieFileListing.getAllPartitionPaths(metaClient,
         config.shouldAssumeDatePartitioning());
 
     // filter the partition paths if needed to reduce list status
@@ -190,23 +198,30 @@ public class HoodieMergeOnReadTableCompactor implements HoodieCompactor {
       return null;
     }
 
-    SliceView fileSystemView = hoodieTable.getSliceView();
+    SyncableFileSystemView fileSystemView = hoodieTable.getHoodieView();
     LOG.info("Compaction looking for files to compact in " + partitionPaths + " partitions");
-    List<HoodieCompactionOperation> operations = jsc.parallelize(partitionPaths, partitionPaths.size())
-        .flatMap((FlatMapFunction<String, CompactionOperation>) partitionPath -> fileSystemView
-            .getLatestFileSlices(partitionPath)
-            .filter(slice -> !fgIdsInPendingCompactions.contains(slice.getFileGroupId())).map(s -> {
-              List<HoodieLogFile> logFiles =
-                  s.getLogFiles().sorted(HoodieLogFile.getLogFileComparator()).collect(Collectors.toList());
-              totalLogFiles.add((long) logFiles.size());
-              totalFileSlices.add(1L);
-              // Avro generated classes are not inheriting Serializable. Using CompactionOperation POJO
-              // for spark Map operations and collecting them finally in Avro generated classes for storing
-              // into meta files.
-              Option<HoodieBaseFile> dataFile = s.getBaseFile();
-              return new CompactionOperation(dataFile, partitionPath, logFiles,
-                  config.getCompactionStrategy().captureMetrics(config, dataFile, partitionPath, logFiles));
-            }).filter(c -> !c.getDeltaFileNames().isEmpty()).collect(toList()).iterator())
+    // each task looks up the latest file slices of all its partitions with a single call to the file-system view
+    List<HoodieCompactionOperation> operations = jsc
+        .parallelize(partitionPaths, Math.min(partitionPaths.size(), jsc.defaultParallelism()))
+        .mapPartitions((FlatMapFunction<Iterator<String>, CompactionOperation>) partitionPathsOfTask -> {
+          List<String> taskPartitionPaths = new ArrayList<>();
+          partitionPathsOfTask.forEachRemaining(taskPartitionPaths::add);
+          Map<String, List<FileSlice>> partitionFileSlices = fileSystemView.getLatestFileSlices(taskPartitionPaths);
+          return taskPartitionPaths.stream().flatMap(partitionPath -> partitionFileSlices
+              .getOrDefault(partitionPath, Collections.emptyList()).stream()
+              .filter(slice -> !fgIdsInPendingCompactions.contains(slice.getFileGroupId())).map(s -> {
+                List<HoodieLogFile> logFiles =
+                    s.getLogFiles().sorted(HoodieLogFile.getLogFileComparator()).collect(Collectors.toList());
+                totalLogFiles.add((long) logFiles.size());
+                totalFileSlices.add(1L);
+                // Avro generated classes are not inheriting Serializable. Using CompactionOperation POJO
+                // for spark Map operations and collecting them finally in Avro generated classes for storing
+                // into meta files.
+                Option<HoodieBaseFile> dataFile = s.getBaseFile();
+                return new CompactionOperation(dataFile, partitionPath, logFiles,
+                    config.getCompactionStrategy().captureMetrics(config, dataFile, partitionPath, logFiles));
+              })).filter(c -> !c.getDeltaFileNames().isEmpty()).collect(toList()).iterator();
+        })
         .collect().stream().map(CompactionUtils::buildHoodieCompactionOperation).collect(toList());
     LOG.info("Total of " + operations.size() + " compactions are retrieved");
     LOG.info("Total number of latest files slices " + totalFileSlices.value());
@@ -23,7 +23,6 @@ import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodieRecordLocation;
 import org.apache.hudi.common.model.HoodieRecordPayload;
-import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.config.HoodieWriteConfig;
@@ -35,7 +34,10 @@ import org.apache.hudi.table.action.commit.UpsertPartitioner;
 import org.apache.spark.api.java.JavaSparkContext;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -50,64 +52,67 @@ public class UpsertDeltaCommitPartitioner<T extends HoodieRecordPayload<T>> exte
   }
 
   @Override
-  protected List<SmallFile> getSmallFiles(String partitionPath) {
-
-    // smallFiles only for partitionPath
-    List<SmallFile> smallFileLocations = new ArrayList<>();
-
+  protected Map<String, List<SmallFile>> getSmallFiles(List<String> partitionPaths) {
     // Init here since this class (and member variables) might not have been initialized
     HoodieTimeline commitTimeline = table.getCompletedCommitsTimeline();
+    boolean canIndexLogFiles = table.getIndex().canIndexLogFiles();
 
-    // Find out all eligible small file slices
-    if (!commitTimeline.empty()) {
-      HoodieInstant latestCommitTime = commitTimeline.lastInstant().get();
-      // find smallest file in partition and append to it
-      List<FileSlice> allSmallFileSlices = new ArrayList<>();
-      // If we cannot index log files, then we choose the smallest parquet file in the partition and add inserts to
-      // it. Doing this overtime for a partition, we ensure that we handle small file issues
-      if (!table.getIndex().canIndexLogFiles()) {
-        // TODO : choose last N small files since there can be multiple small files written to a single partition
-        // by different spark partitions in a single batch
-        Option<FileSlice> smallFileSlice = Option.fromJavaOptional(table.getSliceView()
-            .getLatestFileSlicesBeforeOrOn(partitionPath, latestCommitTime.getTimestamp(), false)
-            .filter(
-                fileSlice -> fileSlice.getLogFiles().count() < 1 && fileSlice.getBaseFile().get().getFileSize() < config
-                    .getParquetSmallFileLimit())
-            .min((FileSlice left, FileSlice right) ->
-                left.getBaseFile().get().getFileSize() < right.getBaseFile().get().getFileSize() ? -1 : 1));
-        if (smallFileSlice.isPresent()) {
-          allSmallFileSlices.add(smallFileSlice.get());
-        }
-      } else {
-        // If we can index log files, we can add more inserts to log files for fileIds including those under
-        // pending compaction.
-        List<FileSlice> allFileSlices =
-            table.getSliceView().getLatestFileSlicesBeforeOrOn(partitionPath, latestCommitTime.getTimestamp(), true)
-                .collect(Collectors.toList());
-        for (FileSlice fileSlice : allFileSlices) {
-          if (isSmallFile(fileSlice)) {
-            allSmallFileSlices.add(fileSlice);
-          }
-        }
+    // Find out all eligible small file slices, the latest file slices of all the partitions are fetched from the
+    // file-system view in a single call
+    Map<String, List<FileSlice>> partitionFileSlices = commitTimeline.empty() ? Collections.emptyMap()
+        : table.getHoodieView().getLatestFileSlicesBeforeOrOn(partitionPaths,
+            commitTimeline.lastInstant().get().getTimestamp(), canIndexLogFiles);
+
+    Map<String, List<SmallFile>> partitionSmallFiles = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> partitionSmallFiles.put(partitionPath, getSmallFileSlices(
+        partitionFileSlices.getOrDefault(partitionPath, Collections.emptyList()), canIndexLogFiles)));
+    return partitionSmallFiles;
+  }
+
+  private List<SmallFile> getSmallFileSlices(List<FileSlice> latestFileSlices, boolean canIndexLogFiles) {
+    List<SmallFile> smallFileLocations = new ArrayList<>();
+    // find smallest file in partition and append to it
+    List<FileSlice> allSmallFileSlices = new ArrayList<>();
+    // If we cannot index log files, then we choose the smallest parquet file in the partition and add inserts to
+    // it. Doing this overtime for a partition, we ensure that we handle small file issues
+    if (!canIndexLogFiles) {
+      // TODO : choose last N small files since there can be multiple small files written to a single partition
+      // by different spark partitions in a single batch
+      Option<FileSlice> smallFileSlice = Option.fromJavaOptional(latestFileSlices.stream()
+          .filter(
+              fileSlice -> fileSlice.getLogFiles().count() < 1 && fileSlice.getBaseFile().get().getFileSize() < config
+                  .getParquetSmallFileLimit())
+          .min((FileSlice left, FileSlice right) ->
+              left.getBaseFile().get().getFileSize() < right.getBaseFile().get().getFileSize() ? -1 : 1));
+      if (smallFileSlice.isPresent()) {
+        allSmallFileSlices.add(smallFileSlice.get());
       }
-      // Create SmallFiles from the eligible file slices
-      for (FileSlice smallFileSlice : allSmallFileSlices) {
-        SmallFile sf = new SmallFile();
-        if (smallFileSlice.getBaseFile().isPresent()) {
-          // TODO : Move logic of file name, file id, base commit time handling inside file slice
-          String filename = smallFileSlice.getBaseFile().get().getFileName();
-          sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
-          sf.sizeBytes = getTotalFileSize(smallFileSlice);
-          smallFileLocations.add(sf);
-        } else {
-          HoodieLogFile logFile = smallFileSlice.getLogFiles().findFirst().get();
-          sf.location = new HoodieRecordLocation(FSUtils.getBaseCommitTimeFromLogPath(logFile.getPath()),
-              FSUtils.getFileIdFromLogPath(logFile.getPath()));
-          sf.sizeBytes = getTotalFileSize(smallFileSlice);
-          smallFileLocations.add(sf);
+    } else {
+      // If we can index log files, we can add more inserts to log files for fileIds including those under
+      // pending compaction, which the file slices were fetched with.
+      for (FileSlice fileSlice : latestFileSlices) {
+        if (isSmallFile(fileSlice)) {
+          allSmallFileSlices.add(fileSlice);
         }
       }
     }
+    // Create SmallFiles from the eligible file slices
+    for (FileSlice smallFileSlice : allSmallFileSlices) {
+      SmallFile sf = new SmallFile();
+      if (smallFileSlice.getBaseFile().isPresent()) {
+        // TODO : Move logic of file name, file id, base commit time handling inside file slice
+        String filename = smallFileSlice.getBaseFile().get().getFileName();
+        sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
+        sf.sizeBytes = getTotalFileSize(smallFileSlice);
+        smallFileLocations.add(sf);
+      } else {
+        HoodieLogFile logFile = smallFileSlice.getLogFiles().findFirst().get();
+        sf.location = new HoodieRecordLocation(FSUtils.getBaseCommitTimeFromLogPath(logFile.getPath()),
+            FSUtils.getFileIdFromLogPath(logFile.getPath()));
+        sf.sizeBytes = getTotalFileSize(smallFileSlice);
+        smallFileLocations.add(sf);
+      }
+    }
     return smallFileLocations;
   }
 
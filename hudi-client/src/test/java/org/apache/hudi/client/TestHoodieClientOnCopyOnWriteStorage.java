@@ -24,13 +24,16 @@ import org.apache.hudi.common.TestRawTripPayload;
 import org.apache.hudi.common.fs.ConsistencyGuardConfig;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieCleaningPolicy;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodiePartitionMetadata;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRollingStat;
 import org.apache.hudi.common.model.HoodieRollingStatMetadata;
 import org.apache.hudi.common.model.HoodieTestUtils;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
@@ -398,6 +401,41 @@ public class TestHoodieClientOnCopyOnWriteStorage extends TestHoodieClientBase {
         HoodieWriteClient::upsert, true, 50, 150, 2);
   }
 
+  /**
+   * Test the file listing is kept in sync with the files of the table, across cleaning and archival.
+   */
+  @Test
+  public void testUpsertsWithFileListing() throws Exception {
+    HoodieWriteConfig cfg = getConfigBuilder().withFileListingEnabled(true)
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder()
+            .withCleanerPolicy(HoodieCleaningPolicy.KEEP_LATEST_COMMITS).retainCommits(1)
+            .archiveCommitsWith(2, 3).build()).build();
+    HoodieWriteClient client = getHoodieWriteClient(cfg, false);
+    String prevCommitTime = "000";
+    for (int i = 1; i <= 5; i++) {
+      String newCommitTime = "00" + i;
+      List<HoodieRecord> records = i == 1 ? dataGen.generateInserts(newCommitTime, 100)
+          : dataGen.generateUpdates(newCommitTime, 100);
+      client.startCommitWithTime(newCommitTime);
+      assertNoWriteErrors(client.upsert(jsc.parallelize(records, 1), newCommitTime).collect());
+      prevCommitTime = newCommitTime;
+    }
+
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+    HoodieFileListing listing = HoodieFileListing.load(metaClient).get();
+    assertTrue(HoodieTimeline.compareTimestamps(listing.getSnapshotInstantTime(), HoodieTimeline.LESSER_THAN,
+        prevCommitTime), "Archival should have snapshotted the listing before the last commit");
+    for (String partitionPath : dataGen.getPartitionPaths()) {
+      Set<String> listedFiles = Arrays.stream(fs.listStatus(new Path(basePath, partitionPath)))
+          .map(status -> status.getPath().getName())
+          .filter(name -> !name.equals(HoodiePartitionMetadata.HOODIE_PARTITION_METAFILE))
+          .collect(Collectors.toSet());
+      Set<String> filesInListing = Arrays.stream(listing.getFileStatuses(partitionPath))
+          .map(status -> status.getPath().getName()).collect(Collectors.toSet());
+      assertEquals(listedFiles, filesInListing, "Listing should match the files of partition " + partitionPath);
+    }
+  }
+
   /**
    * Test update of a record to different partition with Global Index.
    */
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.client.utils;
+
+import org.apache.hudi.common.HoodieTestDataGenerator;
+import org.apache.hudi.common.util.ParquetUtils;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestParallelParquetReaderIterator {
+
+  private static final int NUM_RECORDS = 5000;
+
+  @TempDir
+  public java.nio.file.Path basePath;
+
+  private final Configuration conf = new Configuration();
+  private Path filePath;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    filePath = new Path(basePath.toString(), "test.parquet");
+    // small row groups, so the file has many of them
+    try (ParquetWriter<GenericRecord> writer = AvroParquetWriter.<GenericRecord>builder(filePath)
+        .withSchema(HoodieTestDataGenerator.AVRO_SCHEMA).withConf(conf).withRowGroupSize(16 * 1024)
+        .withPageSize(1024).build()) {
+      for (int i = 0; i < NUM_RECORDS; i++) {
+        writer.write(HoodieTestDataGenerator.generateGenericRecord(String.format("key%06d", i), "rider", "driver", i));
+      }
+    }
+    assertTrue(ParquetUtils.readMetadata(conf, filePath).getBlocks().size() > 4);
+  }
+
+  @Test
+  public void testRecordsInFileOrder() throws IOException {
+    List<GenericRecord> expected = new ArrayList<>();
+    try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(filePath).withConf(conf).build()) {
+      new ParquetReaderIterator<>(reader).forEachRemaining(expected::add);
+    }
+    assertEquals(NUM_RECORDS, expected.size());
+
+    for (int parallelism : new int[] {1, 3, 100}) {
+      // a small buffer, so that the readers have to wait for the consumer
+      try (ParallelParquetReaderIterator<GenericRecord> iterator =
+          new ParallelParquetReaderIterator<>(conf, filePath, parallelism, 64 * 1024)) {
+        for (GenericRecord record : expected) {
+          assertTrue(iterator.hasNext());
+          assertEquals(record, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseBeforeExhausted() {
+    ParallelParquetReaderIterator<GenericRecord> iterator = new ParallelParquetReaderIterator<>(conf, filePath, 4, 1024);
+    assertTrue(iterator.hasNext());
+    iterator.next();
+    // the readers blocked on the full buffers must not keep the iterator from closing
+    iterator.close();
+  }
+}
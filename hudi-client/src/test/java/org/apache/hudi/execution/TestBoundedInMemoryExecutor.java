@@ -23,6 +23,7 @@ import org.apache.hudi.common.HoodieTestDataGenerator;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor.QueueType;
 import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.execution.LazyInsertIterable.HoodieInsertValueGenResult;
@@ -30,7 +31,8 @@ import org.apache.hudi.execution.LazyInsertIterable.HoodieInsertValueGenResult;
 import org.apache.avro.generic.IndexedRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.List;
 
@@ -56,13 +58,15 @@ public class TestBoundedInMemoryExecutor extends HoodieClientTestHarness {
     cleanupTestDataGenerator();
   }
 
-  @Test
-  public void testExecutor() {
+  @ParameterizedTest
+  @EnumSource(QueueType.class)
+  public void testExecutor(QueueType queueType) {
 
     final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, 100);
 
     HoodieWriteConfig hoodieWriteConfig = mock(HoodieWriteConfig.class);
     when(hoodieWriteConfig.getWriteBufferLimitBytes()).thenReturn(1024);
+    when(hoodieWriteConfig.getWriteBufferQueueType()).thenReturn(queueType);
     BoundedInMemoryQueueConsumer<HoodieInsertValueGenResult<HoodieRecord>, Integer> consumer =
         new BoundedInMemoryQueueConsumer<HoodieInsertValueGenResult<HoodieRecord>, Integer>() {
 
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.execution;
+
+import org.apache.hudi.common.HoodieClientTestHarness;
+import org.apache.hudi.common.HoodieTestDataGenerator;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.queue.BoundedInMemoryQueueProducer;
+import org.apache.hudi.common.util.queue.FunctionBasedQueueProducer;
+import org.apache.hudi.common.util.queue.IteratorBasedQueueProducer;
+import org.apache.hudi.common.util.queue.RingBufferQueue;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.execution.LazyInsertIterable.HoodieInsertValueGenResult;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import scala.Tuple2;
+
+import static org.apache.hudi.execution.LazyInsertIterable.getTransformFunction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestRingBufferQueue extends HoodieClientTestHarness {
+
+  private final String instantTime = HoodieActiveTimeline.createNewInstantTime();
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initTestDataGenerator();
+    initExecutorServiceWithFixedThreadPool(2);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupTestDataGenerator();
+    cleanupExecutorService();
+  }
+
+  // Test to ensure that records are read in order across batches and laps of the ring, including the last partial batch.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testRecordReading() throws Exception {
+    final int numRecords = 1001;
+    final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, numRecords);
+    final RingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue = new RingBufferQueue(
+        FileIOUtils.KB, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA), new DefaultSizeEstimator<>(),
+        false, 8, 4);
+    // Produce
+    Future<Boolean> resFuture = executorService.submit(() -> {
+      new IteratorBasedQueueProducer<>(hoodieRecords.iterator()).produce(queue);
+      queue.close();
+      return true;
+    });
+    final Iterator<HoodieRecord> originalRecordIterator = hoodieRecords.iterator();
+    int recordsRead = 0;
+    while (queue.iterator().hasNext()) {
+      // Ensure that record ordering is guaranteed.
+      assertEquals(originalRecordIterator.next(), queue.iterator().next().record);
+      recordsRead++;
+    }
+    assertFalse(queue.iterator().hasNext() || originalRecordIterator.hasNext());
+    assertEquals(numRecords, recordsRead);
+    assertEquals(0, queue.size());
+    // should not throw any exceptions.
+    resFuture.get();
+  }
+
+  // Test to ensure that all records are read, in order for each producer, when producers compete for the ring.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testCompositeProducerRecordReading() throws Exception {
+    final int numRecords = 1000;
+    final int numProducers = 8;
+    cleanupExecutorService();
+    initExecutorServiceWithFixedThreadPool(numProducers + 1);
+    final RingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue = new RingBufferQueue(
+        FileIOUtils.KB, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA), new DefaultSizeEstimator<>(),
+        true, 16, 8);
+
+    // Record Key to <Producer Index, Rec Index within a producer>
+    Map<String, Tuple2<Integer, Integer>> keyToProducerAndIndexMap = new HashMap<>();
+    List<BoundedInMemoryQueueProducer<HoodieRecord>> producers = new ArrayList<>();
+    for (int i = 0; i < numProducers; i++) {
+      List<HoodieRecord> pRecs = dataGen.generateInserts(instantTime, numRecords);
+      for (int j = 0; j < pRecs.size(); j++) {
+        keyToProducerAndIndexMap.put(pRecs.get(j).getRecordKey(), new Tuple2<>(i, j));
+      }
+      // Alternate between pull and push based iterators
+      if (i % 2 == 0) {
+        producers.add(new IteratorBasedQueueProducer<>(pRecs.iterator()));
+      } else {
+        producers.add(new FunctionBasedQueueProducer<>((buf) -> {
+          for (HoodieRecord r : pRecs) {
+            try {
+              buf.insertRecord(r);
+            } catch (Exception e) {
+              throw new HoodieException(e);
+            }
+          }
+          return true;
+        }));
+      }
+    }
+
+    final List<Future<Boolean>> futureList = producers.stream().map(producer -> executorService.submit(() -> {
+      producer.produce(queue);
+      return true;
+    })).collect(Collectors.toList());
+
+    // Close queue, once all the producers are done
+    Future<Boolean> closeFuture = executorService.submit(() -> {
+      for (Future<Boolean> f : futureList) {
+        f.get();
+      }
+      queue.close();
+      return true;
+    });
+
+    // Used to ensure that consumer sees the records generated by a single producer in FIFO order
+    int[] lastSeen = new int[numProducers];
+    Arrays.fill(lastSeen, -1);
+    int recordsRead = 0;
+    while (queue.iterator().hasNext()) {
+      Tuple2<Integer, Integer> producerPos = keyToProducerAndIndexMap.get(queue.iterator().next().record.getRecordKey());
+      assertEquals(lastSeen[producerPos._1()] + 1, producerPos._2().intValue());
+      lastSeen[producerPos._1()] = producerPos._2();
+      recordsRead++;
+    }
+    assertEquals(numProducers * numRecords, recordsRead);
+    closeFuture.get();
+  }
+
+  // Test to ensure that producers wait once the published batches reach the memory limit.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testMemoryLimitForBuffering() throws Exception {
+    final int numRecords = 128;
+    final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, numRecords);
+    HoodieInsertValueGenResult<HoodieRecord> payload =
+        getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA).apply(hoodieRecords.get(0));
+    final long objSize = new DefaultSizeEstimator<>().sizeEstimate(payload);
+    // batches are published every 2 records, as they reach an eighth of the limit
+    final int recordLimit = 10;
+    final RingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue = new RingBufferQueue(
+        recordLimit * objSize, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA), new DefaultSizeEstimator<>(),
+        false, 8, 64);
+
+    // Produce
+    executorService.submit(() -> {
+      new IteratorBasedQueueProducer<>(hoodieRecords.iterator()).produce(queue);
+      return true;
+    });
+    waitForQueuedRecords(queue, recordLimit);
+
+    // reading the records of a batch frees its memory once the next batch is read
+    assertEquals(hoodieRecords.get(0), queue.iterator().next().record);
+    assertEquals(hoodieRecords.get(1), queue.iterator().next().record);
+    assertEquals(hoodieRecords.get(2), queue.iterator().next().record);
+    waitForQueuedRecords(queue, recordLimit);
+  }
+
+  // Test to ensure that exception in either the producer or the consumer is propagated to the other side.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testException() throws Exception {
+    final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, 256);
+    final RingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue1 = new RingBufferQueue(
+        FileIOUtils.KB, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA), new DefaultSizeEstimator<>(),
+        false, 2, 2);
+
+    // the producer fills the queue and waits for the consumer
+    Future<Boolean> resFuture = executorService.submit(() -> {
+      new IteratorBasedQueueProducer<>(hoodieRecords.iterator()).produce(queue1);
+      return true;
+    });
+    while (queue1.size() == 0) {
+      Thread.sleep(10);
+    }
+    // notify queueing thread of an exception and ensure that it exits.
+    final Exception e = new Exception("Failing it :)");
+    queue1.markAsFailed(e);
+    final Throwable thrown1 = assertThrows(ExecutionException.class, resFuture::get, "exception is expected");
+    assertEquals(HoodieException.class, thrown1.getCause().getClass());
+    assertEquals(e, thrown1.getCause().getCause());
+
+    // a failing producer stops the consumer waiting for records
+    final RuntimeException expectedException = new RuntimeException("failing record reading");
+    final Iterator<HoodieRecord> mockHoodieRecordsIterator = mock(Iterator.class);
+    when(mockHoodieRecordsIterator.hasNext()).thenReturn(true);
+    when(mockHoodieRecordsIterator.next()).thenThrow(expectedException);
+    final RingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue2 = new RingBufferQueue(
+        FileIOUtils.KB, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA), new DefaultSizeEstimator<>(),
+        false);
+    Future<Boolean> res = executorService.submit(() -> {
+      try {
+        new IteratorBasedQueueProducer<>(mockHoodieRecordsIterator).produce(queue2);
+      } catch (Exception ex) {
+        queue2.markAsFailed(ex);
+        throw ex;
+      }
+      return true;
+    });
+    final Throwable thrown2 = assertThrows(Exception.class, () -> queue2.iterator().hasNext(), "exception is expected");
+    assertEquals(expectedException, thrown2.getCause());
+    final Throwable thrown3 = assertThrows(ExecutionException.class, res::get, "exception is expected");
+    assertEquals(expectedException, thrown3.getCause());
+  }
+
+  private static void waitForQueuedRecords(RingBufferQueue<?, ?> queue, int numRecords) throws InterruptedException {
+    while (queue.size() < numRecords) {
+      Thread.sleep(10);
+    }
+    // the producer must not get past the limit
+    Thread.sleep(100);
+    assertEquals(numRecords, queue.size());
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.client.HoodieWriteClient;
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.HoodieClientTestHarness;
+import org.apache.hudi.common.HoodieClientTestUtils;
+import org.apache.hudi.common.HoodieTestDataGenerator;
+import org.apache.hudi.common.TestRawTripPayload;
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.config.HoodieIndexConfig;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.api.java.JavaRDD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import scala.Tuple2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBloomIndexMetadataCache extends HoodieClientTestHarness {
+
+  private static final String PARTITION = "2016/01/31";
+
+  private Schema schema;
+  private HoodieRecord record1;
+  private HoodieRecord record2;
+  private HoodieRecord record3;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initSparkContexts("TestBloomIndexMetadataCache");
+    initPath();
+    initFileSystem();
+    String schemaStr = FileIOUtils.readAsUTFString(getClass().getResourceAsStream("/exampleSchema.txt"));
+    schema = HoodieAvroUtils.addMetadataFields(new Schema.Parser().parse(schemaStr));
+    initMetaClient();
+
+    record1 = makeRecord("{\"_row_key\":\"1eb5b87a-1feh-4edd-87b4-6ec96dc405a0\","
+        + "\"time\":\"2016-01-31T03:16:41.415Z\",\"number\":12}");
+    record2 = makeRecord("{\"_row_key\":\"2eb5b87b-1feu-4edd-87b4-6ec96dc405a0\","
+        + "\"time\":\"2016-01-31T03:20:41.415Z\",\"number\":100}");
+    record3 = makeRecord("{\"_row_key\":\"3eb5b87c-1fej-4edd-87b4-6ec96dc405a0\","
+        + "\"time\":\"2016-01-31T03:16:41.415Z\",\"number\":15}");
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupResources();
+  }
+
+  private static HoodieRecord makeRecord(String recordStr) throws Exception {
+    TestRawTripPayload payload = new TestRawTripPayload(recordStr);
+    return new HoodieRecord(new HoodieKey(payload.getRowKey(), payload.getPartitionPath()), payload);
+  }
+
+  private HoodieWriteConfig makeConfig() {
+    return HoodieWriteConfig.newBuilder().withPath(basePath)
+        .withIndexConfig(HoodieIndexConfig.newBuilder().bloomIndexUseMetadataCache(true).build())
+        .build();
+  }
+
+  private HoodieTable reloadTable(HoodieWriteConfig config) {
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+    return HoodieTable.create(metaClient, config, hadoopConf);
+  }
+
+  private String writeFile(String instantTime, String fileId, List<HoodieRecord> records) throws Exception {
+    String fileName = FSUtils.makeDataFileName(instantTime, "1-0-1", fileId);
+    return HoodieClientTestUtils.writeParquetFile(basePath, PARTITION, fileName, records, schema, null, true);
+  }
+
+  @Test
+  public void testWriteAndReadPartition() throws Exception {
+    HoodieWriteConfig config = makeConfig();
+    String fileName1 = writeFile("20160131010101", UUID.randomUUID().toString(), Arrays.asList(record1, record2));
+    String fileName2 = writeFile("20160131010101", UUID.randomUUID().toString(), Collections.singletonList(record3));
+
+    assertFalse(BloomIndexMetadataCache.openLatest(metaClient, PARTITION).isPresent());
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131010101");
+
+    Option<BloomIndexMetadataCache.Reader> reader = BloomIndexMetadataCache.openLatest(metaClient, PARTITION);
+    assertTrue(reader.isPresent());
+    try (BloomIndexMetadataCache.Reader cache = reader.get()) {
+      assertEquals("20160131010101", cache.getInstantTime());
+      BloomIndexMetadataCache.Entry entry1 = cache.getEntry(fileName1).get();
+      assertEquals(record1.getRecordKey(), entry1.getMinRecordKey());
+      assertEquals(record2.getRecordKey(), entry1.getMaxRecordKey());
+      BloomIndexMetadataCache.Entry entry2 = cache.getEntry(fileName2).get();
+      assertEquals(record3.getRecordKey(), entry2.getMinRecordKey());
+      assertEquals(record3.getRecordKey(), entry2.getMaxRecordKey());
+
+      BloomFilter bloomFilter1 = cache.readBloomFilter(fileName1).get();
+      assertTrue(bloomFilter1.mightContain(record1.getRecordKey()));
+      assertTrue(bloomFilter1.mightContain(record2.getRecordKey()));
+      assertFalse(bloomFilter1.mightContain(record3.getRecordKey()));
+      assertTrue(cache.readBloomFilter(fileName2).get().mightContain(record3.getRecordKey()));
+      assertFalse(cache.readBloomFilter("unknown.parquet").isPresent());
+    }
+  }
+
+  @Test
+  public void testUpdateCarriesOverEntriesAndDropsOldFiles() throws Exception {
+    HoodieWriteConfig config = makeConfig();
+    String fileId = UUID.randomUUID().toString();
+    String fileName1 = writeFile("20160131010101", fileId, Collections.singletonList(record1));
+    String fileName2 = writeFile("20160131010101", UUID.randomUUID().toString(), Collections.singletonList(record2));
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131010101");
+
+    // a new version of the first file group
+    String fileName3 = writeFile("20160131020202", fileId, Arrays.asList(record1, record3));
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131020202");
+    try (BloomIndexMetadataCache.Reader cache = BloomIndexMetadataCache.openLatest(metaClient, PARTITION).get()) {
+      assertEquals("20160131020202", cache.getInstantTime());
+      assertFalse(cache.getEntry(fileName1).isPresent());
+      assertTrue(cache.readBloomFilter(fileName2).get().mightContain(record2.getRecordKey()));
+      assertTrue(cache.readBloomFilter(fileName3).get().mightContain(record3.getRecordKey()));
+    }
+
+    writeFile("20160131030303", UUID.randomUUID().toString(), Collections.singletonList(record2));
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131030303");
+    // only the file being replaced is kept besides the new one
+    Path cachePath = BloomIndexMetadataCache.getPartitionCachePath(metaClient, PARTITION);
+    assertFalse(fs.exists(new Path(cachePath, "20160131010101" + BloomIndexMetadataCache.CACHE_FILE_EXTENSION)));
+    assertTrue(fs.exists(new Path(cachePath, "20160131020202" + BloomIndexMetadataCache.CACHE_FILE_EXTENSION)));
+    assertTrue(fs.exists(new Path(cachePath, "20160131030303" + BloomIndexMetadataCache.CACHE_FILE_EXTENSION)));
+  }
+
+  @Test
+  public void testCacheFileOfIncompleteInstantIsIgnored() throws Exception {
+    HoodieWriteConfig config = makeConfig();
+    writeFile("20160131010101", UUID.randomUUID().toString(), Collections.singletonList(record1));
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131010101");
+
+    // a base file and cache file written by an instant which never completed
+    String fileName = FSUtils.makeDataFileName("20160131020202", "1-0-1", UUID.randomUUID().toString());
+    HoodieClientTestUtils.writeParquetFile(basePath, PARTITION, fileName, Collections.singletonList(record2), schema,
+        null, false);
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131020202");
+
+    try (BloomIndexMetadataCache.Reader cache = BloomIndexMetadataCache.openLatest(metaClient, PARTITION).get()) {
+      assertEquals("20160131010101", cache.getInstantTime());
+    }
+  }
+
+  @Test
+  public void testCacheWrittenOnCommit() throws Exception {
+    HoodieWriteConfig config = HoodieWriteConfig.newBuilder().withPath(basePath)
+        .withSchema(HoodieTestDataGenerator.TRIP_EXAMPLE_SCHEMA).withParallelism(2, 2)
+        .withIndexConfig(HoodieIndexConfig.newBuilder().bloomIndexUseMetadataCache(true).build()).build();
+    HoodieTestDataGenerator dataGen = new HoodieTestDataGenerator();
+    try (HoodieWriteClient client = new HoodieWriteClient(jsc, config)) {
+      for (String instantTime : Arrays.asList("001", "002")) {
+        client.startCommitWithTime(instantTime);
+        List<HoodieRecord> records = instantTime.equals("001") ? dataGen.generateInserts(instantTime, 100)
+            : dataGen.generateUpdates(instantTime, 50);
+        List<WriteStatus> statuses = client.upsert(jsc.parallelize(records, 2), instantTime).collect();
+        assertTrue(statuses.stream().noneMatch(WriteStatus::hasErrors));
+      }
+    }
+
+    HoodieTable table = reloadTable(config);
+    for (String partitionPath : HoodieTestDataGenerator.DEFAULT_PARTITION_PATHS) {
+      List<HoodieBaseFile> baseFiles = (List<HoodieBaseFile>) table.getBaseFileOnlyView()
+          .getLatestBaseFiles(partitionPath).collect(Collectors.toList());
+      assertFalse(baseFiles.isEmpty());
+      try (BloomIndexMetadataCache.Reader cache = BloomIndexMetadataCache.openLatest(metaClient, partitionPath).get()) {
+        assertEquals("002", cache.getInstantTime());
+        for (HoodieBaseFile baseFile : baseFiles) {
+          assertTrue(cache.getEntry(baseFile.getFileName()).get().hasKeyRange());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTagLocationWithCache() throws Exception {
+    HoodieWriteConfig config = makeConfig();
+    String fileId1 = UUID.randomUUID().toString();
+    String fileId2 = UUID.randomUUID().toString();
+    writeFile("20160131010101", fileId1, Collections.singletonList(record1));
+    BloomIndexMetadataCache.writePartition(reloadTable(config), PARTITION, "20160131010101");
+    // not described by the cache, its footer is read instead
+    writeFile("20160131020202", fileId2, Collections.singletonList(record2));
+
+    JavaRDD<HoodieRecord> recordRDD = jsc.parallelize(Arrays.asList(record1, record2, record3));
+    List<HoodieRecord> taggedRecords = new HoodieBloomIndex(config).tagLocation(recordRDD, jsc, reloadTable(config))
+        .collect();
+    assertEquals(3, taggedRecords.size());
+    for (HoodieRecord record : taggedRecords) {
+      if (record.getRecordKey().equals(record1.getRecordKey())) {
+        assertEquals(new Tuple2<>(fileId1, "20160131010101"),
+            new Tuple2<>(record.getCurrentLocation().getFileId(), record.getCurrentLocation().getInstantTime()));
+      } else if (record.getRecordKey().equals(record2.getRecordKey())) {
+        assertEquals(fileId2, record.getCurrentLocation().getFileId());
+      } else {
+        assertFalse(record.isCurrentLocationKnown());
+      }
+    }
+  }
+}
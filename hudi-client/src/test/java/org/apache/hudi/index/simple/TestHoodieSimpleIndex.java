@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.simple;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.HoodieClientTestHarness;
+import org.apache.hudi.common.HoodieClientTestUtils;
+import org.apache.hudi.common.TestRawTripPayload;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieIndexConfig;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.avro.Schema;
+import org.apache.spark.api.java.JavaRDD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import scala.Tuple2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestHoodieSimpleIndex extends HoodieClientTestHarness {
+
+  private Schema schema;
+  private HoodieRecord record1;
+  private HoodieRecord record2;
+  private HoodieRecord record3;
+  private HoodieRecord record4;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initSparkContexts("TestHoodieSimpleIndex");
+    initPath();
+    initFileSystem();
+    String schemaStr = FileIOUtils.readAsUTFString(getClass().getResourceAsStream("/exampleSchema.txt"));
+    schema = HoodieAvroUtils.addMetadataFields(new Schema.Parser().parse(schemaStr));
+    initMetaClient();
+
+    String rowKey1 = UUID.randomUUID().toString();
+    String rowKey2 = UUID.randomUUID().toString();
+    String rowKey3 = UUID.randomUUID().toString();
+    record1 = makeRecord("{\"_row_key\":\"" + rowKey1 + "\",\"time\":\"2016-01-31T03:16:41.415Z\",\"number\":12}");
+    record2 = makeRecord("{\"_row_key\":\"" + rowKey2 + "\",\"time\":\"2016-01-31T03:20:41.415Z\",\"number\":100}");
+    record3 = makeRecord("{\"_row_key\":\"" + rowKey3 + "\",\"time\":\"2016-01-31T03:16:41.415Z\",\"number\":15}");
+    // same row key under a different partition
+    record4 = makeRecord("{\"_row_key\":\"" + rowKey1 + "\",\"time\":\"2015-01-31T03:16:41.415Z\",\"number\":32}");
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupResources();
+  }
+
+  private static HoodieRecord makeRecord(String recordStr) throws Exception {
+    TestRawTripPayload payload = new TestRawTripPayload(recordStr);
+    return new HoodieRecord(new HoodieKey(payload.getRowKey(), payload.getPartitionPath()), payload);
+  }
+
+  private HoodieWriteConfig makeConfig() {
+    return HoodieWriteConfig.newBuilder().withPath(basePath)
+        .withIndexConfig(HoodieIndexConfig.newBuilder().withIndexType(HoodieIndex.IndexType.SIMPLE)
+            .simpleIndexParallelism(2).build())
+        .build();
+  }
+
+  private HoodieTable reloadTable(HoodieWriteConfig config) {
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+    return HoodieTable.create(metaClient, config, hadoopConf);
+  }
+
+  @Test
+  public void testTagLocation() throws Exception {
+    JavaRDD<HoodieRecord> recordRDD = jsc.parallelize(Arrays.asList(record1, record2, record3, record4));
+    HoodieWriteConfig config = makeConfig();
+    HoodieSimpleIndex index = new HoodieSimpleIndex(config);
+
+    // Should not find any files
+    for (HoodieRecord record : (List<HoodieRecord>) index.tagLocation(recordRDD, jsc, reloadTable(config)).collect()) {
+      assertFalse(record.isCurrentLocationKnown());
+    }
+
+    // the first file group of 2016/01/31 has two versions, records are tagged with the latest one
+    String fileId1 = UUID.randomUUID().toString();
+    HoodieClientTestUtils.writeParquetFile(basePath, "2016/01/31", FSUtils.makeDataFileName("20160131010101", "1-0-1", fileId1),
+        Collections.singletonList(record1), schema, null, true);
+    HoodieClientTestUtils.writeParquetFile(basePath, "2016/01/31", FSUtils.makeDataFileName("20160131020202", "1-0-1", fileId1),
+        Arrays.asList(record1, record3), schema, null, true);
+    String filename2 = HoodieClientTestUtils.writeParquetFile(basePath, "2016/01/31", Collections.singletonList(record2),
+        schema, null, true);
+    String filename3 = HoodieClientTestUtils.writeParquetFile(basePath, "2015/01/31", Collections.singletonList(record4),
+        schema, null, true);
+
+    List<HoodieRecord> taggedRecords = index.tagLocation(recordRDD, jsc, reloadTable(config)).collect();
+    assertEquals(4, taggedRecords.size());
+    for (HoodieRecord record : taggedRecords) {
+      assertTrue(record.isCurrentLocationKnown());
+      if (record.getPartitionPath().equals("2015/01/31")) {
+        assertEquals(FSUtils.getFileId(filename3), record.getCurrentLocation().getFileId());
+      } else if (record.getRecordKey().equals(record2.getRecordKey())) {
+        assertEquals(FSUtils.getFileId(filename2), record.getCurrentLocation().getFileId());
+      } else {
+        assertEquals(fileId1, record.getCurrentLocation().getFileId());
+        assertEquals("20160131020202", record.getCurrentLocation().getInstantTime());
+      }
+    }
+  }
+
+  @Test
+  public void testFetchRecordLocation() throws Exception {
+    HoodieWriteConfig config = makeConfig();
+    HoodieSimpleIndex index = new HoodieSimpleIndex(config);
+    String filename1 = HoodieClientTestUtils.writeParquetFile(basePath, "2016/01/31", Arrays.asList(record1, record2),
+        schema, null, true);
+
+    JavaRDD<HoodieKey> keys = jsc.parallelize(Arrays.asList(record1.getKey(), record2.getKey(), record3.getKey(),
+        record4.getKey()));
+    List<Tuple2<HoodieKey, Option<Pair<String, String>>>> locations =
+        index.fetchRecordLocation(keys, jsc, reloadTable(config)).collect();
+    assertEquals(4, locations.size());
+    for (Tuple2<HoodieKey, Option<Pair<String, String>>> location : locations) {
+      if (location._1.equals(record1.getKey()) || location._1.equals(record2.getKey())) {
+        assertEquals(Pair.of("2016/01/31", FSUtils.getFileId(filename1)), location._2.get());
+      } else {
+        assertFalse(location._2.isPresent());
+      }
+    }
+  }
+
+  @Test
+  public void testFeatureSupport() {
+    HoodieSimpleIndex index = new HoodieSimpleIndex(makeConfig());
+    assertFalse(index.isGlobal());
+    assertFalse(index.canIndexLogFiles());
+    assertTrue(index.isImplicitWithStorage());
+  }
+}
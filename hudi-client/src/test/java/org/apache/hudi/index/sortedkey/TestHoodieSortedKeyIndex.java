@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.client.HoodieWriteClient;
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.HoodieClientTestHarness;
+import org.apache.hudi.common.HoodieTestDataGenerator;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieCompactionConfig;
+import org.apache.hudi.config.HoodieIndexConfig;
+import org.apache.hudi.config.HoodieStorageConfig;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import scala.Tuple2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link HoodieSortedKeyIndex}.
+ */
+public class TestHoodieSortedKeyIndex extends HoodieClientTestHarness {
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initSparkContexts("TestHoodieSortedKeyIndex");
+    initPath();
+    initFileSystem();
+    initTestDataGenerator();
+    initMetaClient();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupResources();
+  }
+
+  private HoodieWriteConfig getConfig(int compactionMaxDeltaRuns) {
+    return HoodieWriteConfig.newBuilder().withPath(basePath).withSchema(HoodieTestDataGenerator.TRIP_EXAMPLE_SCHEMA)
+        .withParallelism(2, 2)
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().compactionSmallFileSize(1024 * 1024)
+            .withInlineCompaction(false).build())
+        .withAutoCommit(false).withStorageConfig(HoodieStorageConfig.newBuilder().limitFileSize(1024 * 1024).build())
+        .forTable("test-trip-table")
+        .withIndexConfig(HoodieIndexConfig.newBuilder().withIndexType(HoodieIndex.IndexType.SORTED_KEY)
+            .sortedKeyIndexBlockSize(1024).sortedKeyIndexUpdateParallelism(3)
+            .sortedKeyIndexCompactionMaxDeltaRuns(compactionMaxDeltaRuns).sortedKeyIndexCompactionAsync(false).build())
+        .build();
+  }
+
+  private HoodieTable getHoodieTable(HoodieWriteConfig config) {
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+    return HoodieTable.create(metaClient, config, hadoopConf);
+  }
+
+  private Map<String, HoodieRecord> tagLocation(HoodieWriteConfig config, List<HoodieRecord> records) {
+    HoodieSortedKeyIndex index = new HoodieSortedKeyIndex(config);
+    @SuppressWarnings("unchecked")
+    JavaRDD<HoodieRecord> taggedRecords = index.tagLocation(jsc.parallelize(records, 2), jsc, getHoodieTable(config));
+    return taggedRecords.filter(HoodieRecord::isCurrentLocationKnown).collect().stream()
+        .collect(Collectors.toMap(HoodieRecord::getRecordKey, r -> r));
+  }
+
+  private void assertNoWriteErrors(List<WriteStatus> statuses) {
+    for (WriteStatus status : statuses) {
+      assertFalse(status.hasErrors(), "Errors found in write of " + status.getFileId());
+    }
+  }
+
+  @Test
+  public void testTagLocationAndUpdate() throws Exception {
+    HoodieWriteConfig config = getConfig(10);
+    List<HoodieRecord> records = dataGen.generateInserts("001", 200);
+    assertTrue(tagLocation(config, records).isEmpty());
+
+    try (HoodieWriteClient writeClient = new HoodieWriteClient(jsc, config)) {
+      writeClient.startCommitWithTime("001");
+      JavaRDD<WriteStatus> writeStatuses = writeClient.upsert(jsc.parallelize(records, 2), "001");
+      assertNoWriteErrors(writeStatuses.collect());
+
+      // the index run of a pending commit is not visible
+      assertTrue(tagLocation(config, records).isEmpty());
+
+      writeClient.commit("001", writeStatuses);
+      Map<String, HoodieRecord> taggedRecords = tagLocation(config, records);
+      assertEquals(200, taggedRecords.size());
+      Map<String, String> writtenFileIds = writeStatuses.collect().stream()
+          .flatMap(status -> status.getWrittenRecords().stream())
+          .collect(Collectors.toMap(HoodieRecord::getRecordKey, r -> ((HoodieRecordLocation) r.getNewLocation().get()).getFileId()));
+      for (HoodieRecord record : records) {
+        HoodieRecord taggedRecord = taggedRecords.get(record.getRecordKey());
+        assertEquals("001", taggedRecord.getCurrentLocation().getInstantTime());
+        assertEquals(writtenFileIds.get(record.getRecordKey()), taggedRecord.getCurrentLocation().getFileId());
+        assertEquals(record.getPartitionPath(), taggedRecord.getPartitionPath());
+      }
+
+      // fetchRecordLocation resolves the same locations
+      List<HoodieKey> keys = records.stream().map(HoodieRecord::getKey).collect(Collectors.toList());
+      keys.addAll(dataGen.generateInserts("002", 10).stream().map(HoodieRecord::getKey).collect(Collectors.toList()));
+      @SuppressWarnings("unchecked")
+      List<Tuple2<HoodieKey, Option<Pair<String, String>>>> locations = new HoodieSortedKeyIndex(config)
+          .fetchRecordLocation(jsc.parallelize(keys, 2), jsc, getHoodieTable(config)).collect();
+      assertEquals(210, locations.size());
+      assertEquals(200, locations.stream().filter(t -> t._2.isPresent()).count());
+      locations.stream().filter(t -> t._2.isPresent()).forEach(t -> {
+        assertEquals(t._1.getPartitionPath(), t._2.get().getLeft());
+        assertEquals(writtenFileIds.get(t._1.getRecordKey()), t._2.get().getRight());
+      });
+    }
+  }
+
+  @Test
+  public void testUpdatesAndDeletes() throws Exception {
+    HoodieWriteConfig config = getConfig(10);
+    List<HoodieRecord> records = dataGen.generateInserts("001", 100);
+    try (HoodieWriteClient writeClient = new HoodieWriteClient(jsc, config)) {
+      writeClient.startCommitWithTime("001");
+      JavaRDD<WriteStatus> writeStatuses = writeClient.upsert(jsc.parallelize(records, 2), "001");
+      writeClient.commit("001", writeStatuses);
+
+      // updates moving records to another partition stay in the partition they were inserted to
+      List<HoodieRecord> updates = dataGen.generateUpdatesWithDiffPartition("002", records.subList(0, 50));
+      writeClient.startCommitWithTime("002");
+      writeStatuses = writeClient.upsert(jsc.parallelize(updates, 2), "002");
+      assertNoWriteErrors(writeStatuses.collect());
+      writeClient.commit("002", writeStatuses);
+      Map<String, HoodieRecord> taggedRecords = tagLocation(config, updates);
+      assertEquals(50, taggedRecords.size());
+      for (HoodieRecord record : records.subList(0, 50)) {
+        assertEquals(record.getPartitionPath(), taggedRecords.get(record.getRecordKey()).getPartitionPath());
+      }
+
+      List<HoodieKey> deletes = records.subList(80, 100).stream().map(HoodieRecord::getKey).collect(Collectors.toList());
+      writeClient.startCommitWithTime("003");
+      writeStatuses = writeClient.delete(jsc.parallelize(deletes, 2), "003");
+      assertNoWriteErrors(writeStatuses.collect());
+      writeClient.commit("003", writeStatuses);
+      Map<String, HoodieRecord> remainingRecords = tagLocation(config, records);
+      assertEquals(80, remainingRecords.size());
+      deletes.forEach(key -> assertFalse(remainingRecords.containsKey(key.getRecordKey())));
+    }
+  }
+
+  @Test
+  public void testUpdateWithLaterPendingInstant() throws Exception {
+    HoodieWriteConfig config = getConfig(10);
+    List<HoodieRecord> records = dataGen.generateInserts("001", 100);
+    try (HoodieWriteClient writeClient = new HoodieWriteClient(jsc, config)) {
+      writeClient.startCommitWithTime("001");
+      // a concurrent writer starting a later instant must not get the run of this one
+      writeClient.startCommitWithTime("002");
+      JavaRDD<WriteStatus> writeStatuses = writeClient.upsert(jsc.parallelize(records, 2), "001");
+      assertNoWriteErrors(writeStatuses.collect());
+      writeClient.commit("001", writeStatuses);
+
+      Map<String, HoodieRecord> taggedRecords = tagLocation(config, records);
+      assertEquals(100, taggedRecords.size());
+      taggedRecords.values().forEach(record -> assertEquals("001", record.getCurrentLocation().getInstantTime()));
+    }
+  }
+
+  @Test
+  public void testRollback() throws Exception {
+    HoodieWriteConfig config = getConfig(10);
+    List<HoodieRecord> records = dataGen.generateInserts("001", 100);
+    try (HoodieWriteClient writeClient = new HoodieWriteClient(jsc, config)) {
+      writeClient.startCommitWithTime("001");
+      writeClient.commit("001", writeClient.upsert(jsc.parallelize(records, 2), "001"));
+
+      List<HoodieRecord> newRecords = dataGen.generateInserts("002", 50);
+      writeClient.startCommitWithTime("002");
+      writeClient.commit("002", writeClient.upsert(jsc.parallelize(newRecords, 2), "002"));
+      List<HoodieRecord> allRecords = new ArrayList<>(records);
+      allRecords.addAll(newRecords);
+      assertEquals(150, tagLocation(config, allRecords).size());
+
+      // the run of the rolled back commit is no longer visible
+      assertTrue(writeClient.rollback("002"));
+      Map<String, HoodieRecord> taggedRecords = tagLocation(config, allRecords);
+      assertEquals(100, taggedRecords.size());
+      records.forEach(record -> assertTrue(taggedRecords.containsKey(record.getRecordKey())));
+    }
+  }
+
+  @Test
+  public void testCompaction() throws Exception {
+    HoodieWriteConfig config = getConfig(2);
+    List<HoodieRecord> allRecords = new ArrayList<>();
+    try (HoodieWriteClient writeClient = new HoodieWriteClient(jsc, config)) {
+      for (int i = 1; i <= 6; i++) {
+        String instantTime = String.format("%03d", i);
+        List<HoodieRecord> records = dataGen.generateInserts(instantTime, 50);
+        // each commit also deletes a few records of the previous one
+        List<HoodieKey> deletes = i == 1 ? new ArrayList<>() : allRecords.subList(allRecords.size() - 5, allRecords.size())
+            .stream().map(HoodieRecord::getKey).collect(Collectors.toList());
+        writeClient.startCommitWithTime(instantTime);
+        writeClient.commit(instantTime, writeClient.upsert(jsc.parallelize(records, 2), instantTime));
+        if (!deletes.isEmpty()) {
+          String deleteInstantTime = instantTime + "5";
+          writeClient.startCommitWithTime(deleteInstantTime);
+          writeClient.commit(deleteInstantTime, writeClient.delete(jsc.parallelize(deletes, 2), deleteInstantTime));
+          allRecords = new ArrayList<>(allRecords.subList(0, allRecords.size() - 5));
+        }
+        allRecords.addAll(records);
+      }
+    }
+
+    List<SortedKeyIndexRun> runs = SortedKeyIndexRun.listRuns(fs, HoodieSortedKeyIndex.getIndexPath(metaClient));
+    List<SortedKeyIndexRun> baseRuns = runs.stream().filter(SortedKeyIndexRun::isBase).collect(Collectors.toList());
+    assertFalse(baseRuns.isEmpty());
+    // the previous base run is the oldest one retained, along with the delta runs after it
+    assertTrue(baseRuns.size() <= 2);
+    String oldestBaseInstant = baseRuns.get(0).getInstantTime();
+    assertTrue(runs.stream().filter(run -> !run.isBase()).allMatch(run -> run.getInstantTime().compareTo(oldestBaseInstant) > 0));
+    assertTrue(runs.stream().allMatch(SortedKeyIndexRun::isCommitted));
+
+    Map<String, HoodieRecord> taggedRecords = tagLocation(config, allRecords);
+    assertEquals(allRecords.size(), taggedRecords.size());
+    // deleted records are not in the index any more
+    assertEquals(6 * 50 - 5 * 5, allRecords.size());
+  }
+
+  @Test
+  public void testFeatureSupport() {
+    HoodieSortedKeyIndex index = new HoodieSortedKeyIndex(getConfig(10));
+    assertTrue(index.isGlobal());
+    assertTrue(index.canIndexLogFiles());
+    assertFalse(index.isImplicitWithStorage());
+  }
+
+  @Test
+  public void testVisibleRunsWithoutIndex() throws IOException {
+    assertTrue(SortedKeyIndexRun.listRuns(fs, HoodieSortedKeyIndex.getIndexPath(metaClient)).isEmpty());
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieIndexException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link SortedKeyFileWriter} and {@link SortedKeyFileReader}.
+ */
+public class TestSortedKeyFile {
+
+  private static final int NUM_KEYS = 10000;
+
+  @TempDir
+  public java.nio.file.Path basePath;
+
+  private FileSystem fs;
+  private Path filePath;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    fs = FileSystem.getLocal(new Configuration());
+    filePath = new Path(basePath.toString(), SortedKeyIndexRun.getFileName(0));
+  }
+
+  private static String key(int i) {
+    return String.format("2020/03/%02d-key-%08d", i % 30, i * 2);
+  }
+
+  private static IndexedKeyLocation location(int i) {
+    return i % 7 == 0 ? IndexedKeyLocation.TOMBSTONE
+        : new IndexedKeyLocation("2020/03/" + (i % 3), "file-" + (i % 11), "00" + (i % 5));
+  }
+
+  private List<String> writeKeys() throws IOException {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      keys.add(key(i));
+    }
+    keys.sort(String::compareTo);
+    // small blocks, so the file has many of them
+    SortedKeyFileWriter writer = new SortedKeyFileWriter(fs, filePath, 1024);
+    try {
+      for (String key : keys) {
+        writer.append(key, location(Integer.parseInt(key.substring(key.length() - 8)) / 2));
+      }
+    } finally {
+      writer.close();
+    }
+    assertEquals(NUM_KEYS, writer.getNumEntries());
+    return keys;
+  }
+
+  @Test
+  public void testLookup() throws IOException {
+    List<String> keys = writeKeys();
+    try (SortedKeyFileReader reader = new SortedKeyFileReader(fs, filePath)) {
+      assertEquals(NUM_KEYS, reader.getNumEntries());
+      assertEquals(keys.get(0), reader.getMinKey());
+      assertEquals(keys.get(NUM_KEYS - 1), reader.getMaxKey());
+      // keys present, in increasing and decreasing order
+      for (int i = 0; i < NUM_KEYS; i++) {
+        assertEquals(location(i), reader.lookup(key(i)).get());
+      }
+      for (int i = NUM_KEYS - 1; i >= 0; i--) {
+        assertEquals(location(i), reader.lookup(key(i)).get());
+      }
+      // keys absent, between and outside of the keys of the file
+      for (int i = 0; i < NUM_KEYS; i++) {
+        String key = key(i);
+        assertFalse(reader.lookup(key + "0").isPresent());
+      }
+      assertFalse(reader.lookup("").isPresent());
+      assertFalse(reader.lookup("0000").isPresent());
+      assertFalse(reader.lookup("9999").isPresent());
+    }
+  }
+
+  @Test
+  public void testIterator() throws IOException {
+    List<String> keys = writeKeys();
+    try (SortedKeyFileReader reader = new SortedKeyFileReader(fs, filePath)) {
+      Iterator<Pair<String, IndexedKeyLocation>> iterator = reader.iterator();
+      for (String key : keys) {
+        assertTrue(iterator.hasNext());
+        Pair<String, IndexedKeyLocation> entry = iterator.next();
+        assertEquals(key, entry.getKey());
+        assertEquals(location(Integer.parseInt(key.substring(key.length() - 8)) / 2), entry.getValue());
+      }
+      assertFalse(iterator.hasNext());
+    }
+  }
+
+  @Test
+  public void testEmptyFile() throws IOException {
+    new SortedKeyFileWriter(fs, filePath, 1024).close();
+    try (SortedKeyFileReader reader = new SortedKeyFileReader(fs, filePath)) {
+      assertEquals(0, reader.getNumEntries());
+      assertFalse(reader.lookup("key").isPresent());
+      assertFalse(reader.iterator().hasNext());
+    }
+  }
+
+  @Test
+  public void testKeysOutOfOrder() throws IOException {
+    try (SortedKeyFileWriter writer = new SortedKeyFileWriter(fs, filePath, 1024)) {
+      writer.append("key2", location(1));
+      assertThrows(HoodieIndexException.class, () -> writer.append("key1", location(1)));
+      assertThrows(HoodieIndexException.class, () -> writer.append("key2", location(1)));
+    }
+  }
+}
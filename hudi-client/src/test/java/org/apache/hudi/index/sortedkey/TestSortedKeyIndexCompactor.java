@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.sortedkey;
+
+import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.index.sortedkey.SortedKeyIndexRun.RunFile;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests {@link SortedKeyIndexLookup} and {@link SortedKeyIndexCompactor} over runs holding entries of instants that
+ * are no longer on the timeline.
+ */
+public class TestSortedKeyIndexCompactor {
+
+  private static final IndexedKeyLocation LOCATION_1 = new IndexedKeyLocation("2020/03/01", "file-1", "001");
+  private static final IndexedKeyLocation LOCATION_2 = new IndexedKeyLocation("2020/03/01", "file-2", "002");
+  // written by an instant rolled back since
+  private static final IndexedKeyLocation ROLLED_BACK = new IndexedKeyLocation("2020/03/01", "file-3", "003");
+
+  @TempDir
+  public java.nio.file.Path basePath;
+
+  private FileSystem fs;
+  private Path indexPath;
+  // 003 was rolled back, 004 completed after it
+  private final HoodieTimeline completedCommitsTimeline = new HoodieDefaultTimeline(Stream.of("001", "002", "004")
+      .map(ts -> new HoodieInstant(false, HoodieTimeline.COMMIT_ACTION, ts)), instant -> Option.empty());
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    fs = FileSystem.getLocal(new Configuration());
+    indexPath = new Path(basePath.toString());
+    writeRun("001", Arrays.asList(Pair.of("key-a", LOCATION_1), Pair.of("key-b", LOCATION_1),
+        Pair.of("key-c", LOCATION_1)));
+    writeRun("002", Arrays.asList(Pair.of("key-b", IndexedKeyLocation.TOMBSTONE), Pair.of("key-d", LOCATION_2)));
+    writeRun("004", Arrays.asList(Pair.of("key-a", ROLLED_BACK), Pair.of("key-b", ROLLED_BACK),
+        Pair.of("key-c", LOCATION_2), Pair.of("key-e", ROLLED_BACK)));
+  }
+
+  private void writeRun(String instantTime, List<Pair<String, IndexedKeyLocation>> entries) throws IOException {
+    Path runPath = SortedKeyIndexRun.getRunPath(indexPath, false, instantTime);
+    SortedKeyFileWriter writer = new SortedKeyFileWriter(fs, new Path(runPath, SortedKeyIndexRun.getFileName(0)), 1024);
+    try {
+      for (Pair<String, IndexedKeyLocation> entry : entries) {
+        writer.append(entry.getKey(), entry.getValue());
+      }
+    } finally {
+      writer.close();
+    }
+    SortedKeyIndexRun.writeManifest(fs, runPath, Collections.singletonList(new RunFile(SortedKeyIndexRun.getFileName(0),
+        writer.getMinKey(), writer.getMaxKey(), writer.getNumEntries())));
+  }
+
+  private List<Option<IndexedKeyLocation>> lookupAll(List<SortedKeyIndexRun> runsNewestFirst) throws IOException {
+    List<Option<IndexedKeyLocation>> locations = new ArrayList<>();
+    try (SortedKeyIndexLookup lookup = new SortedKeyIndexLookup(fs, runsNewestFirst, completedCommitsTimeline)) {
+      for (String key : Arrays.asList("key-a", "key-b", "key-c", "key-d", "key-e")) {
+        locations.add(lookup.lookup(key));
+      }
+    }
+    return locations;
+  }
+
+  private void assertLocations(List<Option<IndexedKeyLocation>> locations) {
+    // the rolled back entry of key-a leaves it to its older location
+    assertEquals(LOCATION_1, locations.get(0).get());
+    // key-b was deleted before the rolled back instant wrote it again
+    assertFalse(locations.get(1).isPresent());
+    assertEquals(LOCATION_2, locations.get(2).get());
+    assertEquals(LOCATION_2, locations.get(3).get());
+    // key-e was only written by the rolled back instant
+    assertFalse(locations.get(4).isPresent());
+  }
+
+  @Test
+  public void testLookupSkipsRolledBackEntries() throws IOException {
+    List<SortedKeyIndexRun> runs = SortedKeyIndexRun.listRuns(fs, indexPath);
+    Collections.reverse(runs);
+    assertLocations(lookupAll(runs));
+  }
+
+  @Test
+  public void testCompactionKeepsOlderValidEntries() throws IOException {
+    new SortedKeyIndexCompactor(fs, indexPath, 1024, 1024 * 1024)
+        .compact(SortedKeyIndexRun.listRuns(fs, indexPath), completedCommitsTimeline);
+    List<SortedKeyIndexRun> baseRuns = new ArrayList<>();
+    for (SortedKeyIndexRun run : SortedKeyIndexRun.listRuns(fs, indexPath)) {
+      if (run.isBase()) {
+        baseRuns.add(run);
+      }
+    }
+    assertEquals(1, baseRuns.size());
+    assertEquals("004", baseRuns.get(0).getInstantTime());
+    // only the three live keys are left in the base run
+    assertEquals(3, baseRuns.get(0).getFiles().get(0).getNumEntries());
+    assertLocations(lookupAll(baseRuns));
+  }
+}
@@ -54,6 +54,7 @@ import org.apache.hudi.common.util.collection.Pair;
 import org.apache.hudi.config.HoodieCompactionConfig;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.table.action.clean.CleanPlanner;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RemoteIterator;
@@ -598,6 +599,57 @@ public class TestCleaner extends TestHoodieClientBase {
         file2P0L0, Option.of(2)));
   }
 
+  /**
+   * Test the delete paths of several partitions planned with a single file-system view call match those planned one
+   * partition at a time, and that a single clean task handles several partitions.
+   */
+  @Test
+  public void testCleanPlanOfSeveralPartitions() throws IOException {
+    HoodieWriteConfig config =
+        HoodieWriteConfig.newBuilder().withPath(basePath).withAssumeDatePartitioning(true)
+            .withCompactionConfig(HoodieCompactionConfig.newBuilder()
+                .withCleanerPolicy(HoodieCleaningPolicy.KEEP_LATEST_FILE_VERSIONS).retainFileVersions(1)
+                .withCleanerParallelism(1).build())
+            .build();
+    List<String> partitionPaths = Arrays.asList(HoodieTestDataGenerator.DEFAULT_FIRST_PARTITION_PATH,
+        HoodieTestDataGenerator.DEFAULT_SECOND_PARTITION_PATH, HoodieTestDataGenerator.DEFAULT_THIRD_PARTITION_PATH);
+
+    // make 2 commits, updating 1 file in each of the first two partitions, the third partition is empty
+    HoodieTestUtils.createCommitFiles(basePath, "000");
+    String file1P0C0 =
+        HoodieTestUtils.createNewDataFile(basePath, HoodieTestDataGenerator.DEFAULT_FIRST_PARTITION_PATH, "000");
+    String file1P1C0 =
+        HoodieTestUtils.createNewDataFile(basePath, HoodieTestDataGenerator.DEFAULT_SECOND_PARTITION_PATH, "000");
+    HoodieTestUtils.createCommitFiles(basePath, "001");
+    HoodieTestUtils.createDataFile(basePath, HoodieTestDataGenerator.DEFAULT_FIRST_PARTITION_PATH, "001", file1P0C0);
+    HoodieTestUtils.createDataFile(basePath, HoodieTestDataGenerator.DEFAULT_SECOND_PARTITION_PATH, "001", file1P1C0);
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+
+    HoodieTable table = HoodieTable.create(metaClient, config, hadoopConf);
+    CleanPlanner planner = new CleanPlanner(table, config);
+    Map<String, List<String>> deletePaths = planner.getDeletePaths(partitionPaths);
+    assertEquals(new HashSet<>(partitionPaths), deletePaths.keySet(), "Every partition must have its delete paths");
+    for (String partitionPath : partitionPaths) {
+      assertEquals(planner.getDeletePaths(partitionPath), deletePaths.get(partitionPath),
+          "Delete paths must match those planned for the partition alone");
+    }
+    assertEquals(1, deletePaths.get(HoodieTestDataGenerator.DEFAULT_FIRST_PARTITION_PATH).size());
+    assertEquals(1, deletePaths.get(HoodieTestDataGenerator.DEFAULT_SECOND_PARTITION_PATH).size());
+    assertTrue(deletePaths.get(HoodieTestDataGenerator.DEFAULT_THIRD_PARTITION_PATH).isEmpty());
+
+    List<HoodieCleanStat> hoodieCleanStats = runCleaner(config);
+    assertEquals(1,
+        getCleanStat(hoodieCleanStats, HoodieTestDataGenerator.DEFAULT_FIRST_PARTITION_PATH).getSuccessDeleteFiles()
+            .size(), "Must clean 1 file");
+    assertEquals(1,
+        getCleanStat(hoodieCleanStats, HoodieTestDataGenerator.DEFAULT_SECOND_PARTITION_PATH).getSuccessDeleteFiles()
+            .size(), "Must clean 1 file");
+    assertFalse(HoodieTestUtils.doesDataFileExist(basePath, HoodieTestDataGenerator.DEFAULT_FIRST_PARTITION_PATH, "000",
+        file1P0C0));
+    assertFalse(HoodieTestUtils.doesDataFileExist(basePath, HoodieTestDataGenerator.DEFAULT_SECOND_PARTITION_PATH,
+        "000", file1P1C0));
+  }
+
   @Test
   public void testUpgradeDowngrade() {
     String instantTime = "000";
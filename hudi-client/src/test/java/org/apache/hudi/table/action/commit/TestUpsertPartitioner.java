@@ -39,12 +39,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import scala.Tuple2;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestUpsertPartitioner extends HoodieClientTestHarness {
 
@@ -144,6 +148,45 @@ public class TestUpsertPartitioner extends HoodieClientTestHarness {
     assertEquals(200.0 / 2400, insertBuckets.get(0).weight, 0.01, "First insert bucket should have weight 0.5");
   }
 
+  @Test
+  public void testGetSmallFilesOfSeveralPartitions() throws Exception {
+    final String[] partitionPaths = {"2016/09/26", "2016/09/27", "2016/09/28"};
+    HoodieWriteConfig config = makeHoodieClientConfigBuilder()
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().compactionSmallFileSize(1000 * 1024).build())
+        .withStorageConfig(HoodieStorageConfig.newBuilder().limitFileSize(1000 * 1024).build()).build();
+
+    // a small file in the first partition, a large one in the second and none in the third
+    HoodieClientTestUtils.fakeCommitFile(basePath, "001");
+    HoodieClientTestUtils.fakeDataFile(basePath, partitionPaths[0], "001", "file1", 100 * 1024);
+    HoodieClientTestUtils.fakeDataFile(basePath, partitionPaths[1], "001", "file2", 2000 * 1024);
+    new File(basePath + "/" + partitionPaths[2]).mkdirs();
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+    HoodieCopyOnWriteTable table = (HoodieCopyOnWriteTable) HoodieTable.create(metaClient, config, hadoopConf);
+
+    HoodieTestDataGenerator dataGenerator = new HoodieTestDataGenerator(partitionPaths);
+    WorkloadProfile profile = new WorkloadProfile(jsc.parallelize(dataGenerator.generateInserts("001", 300)));
+    UpsertPartitioner partitioner = new UpsertPartitioner(profile, jsc, table, config);
+
+    // the latest base files of all the partitions are looked up at once
+    Map<String, List<SmallFile>> partitionSmallFiles = partitioner.getSmallFiles(Arrays.asList(partitionPaths));
+    assertEquals(3, partitionSmallFiles.size(), "Every partition must have its small files");
+    assertEquals(1, partitionSmallFiles.get(partitionPaths[0]).size(), "Only the small file is picked");
+    SmallFile smallFile = partitionSmallFiles.get(partitionPaths[0]).get(0);
+    assertEquals(new HoodieRecordLocation("001", "file1"), smallFile.location);
+    assertEquals(100 * 1024, smallFile.sizeBytes);
+    assertTrue(partitionSmallFiles.get(partitionPaths[1]).isEmpty(), "Large files are not small files");
+    assertTrue(partitionSmallFiles.get(partitionPaths[2]).isEmpty(), "Empty partitions have no small files");
+
+    // inserts of the first partition are packed into its small file first
+    List<InsertBucket> insertBuckets = partitioner.getInsertBuckets(partitionPaths[0]);
+    BucketInfo bucketInfo = partitioner.getBucketInfo(insertBuckets.get(0).bucketNumber);
+    assertEquals(BucketType.UPDATE, bucketInfo.bucketType, "First insert bucket must be the small file");
+    assertEquals("file1", bucketInfo.fileIdPrefix);
+    insertBuckets = partitioner.getInsertBuckets(partitionPaths[1]);
+    assertEquals(BucketType.INSERT, partitioner.getBucketInfo(insertBuckets.get(0).bucketNumber).bucketType,
+        "Partitions without small files only get new files");
+  }
+
   private HoodieWriteConfig.Builder makeHoodieClientConfigBuilder() throws Exception {
     // Prepare the AvroParquetIO
     String schemaStr = FileIOUtils.readAsUTFString(getClass().getResourceAsStream("/exampleSchema.txt"));
@@ -47,7 +47,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -183,6 +185,46 @@ public class TestHoodieCompactor extends HoodieClientTestHarness {
     }
   }
 
+  @Test
+  public void testCompactionPlanOfSeveralPartitions() throws Exception {
+    // insert 100 records across all the partitions
+    HoodieWriteConfig config = getConfig();
+    try (HoodieWriteClient writeClient = getWriteClient(config)) {
+      String newCommitTime = "100";
+      writeClient.startCommitWithTime(newCommitTime);
+
+      List<HoodieRecord> records = dataGen.generateInserts(newCommitTime, 100);
+      JavaRDD<HoodieRecord> recordsRDD = jsc.parallelize(records, 1);
+      writeClient.insert(recordsRDD, newCommitTime).collect();
+
+      // Update all the 100 records into log files
+      HoodieTable table = HoodieTable.create(config, hadoopConf);
+      newCommitTime = "101";
+      writeClient.startCommitWithTime(newCommitTime);
+      List<HoodieRecord> updatedRecords = dataGen.generateUpdates(newCommitTime, records);
+      JavaRDD<HoodieRecord> updatedRecordsRDD = jsc.parallelize(updatedRecords, 1);
+      HoodieIndex index = new HoodieBloomIndex<>(config);
+      updatedRecords = index.tagLocation(updatedRecordsRDD, jsc, table).collect();
+      HoodieTestUtils.writeRecordsToLogFiles(fs, metaClient.getBasePath(),
+          HoodieTestDataGenerator.AVRO_SCHEMA_WITH_METADATA_FIELDS, updatedRecords);
+      HoodieTestUtils.createDeltaCommitFiles(basePath, newCommitTime);
+
+      // the latest file slices of the partitions are looked up in batches, every one of them must be planned
+      table = HoodieTable.create(config, hadoopConf);
+      Set<String> expectedFileIds = new HashSet<>();
+      for (String partitionPath : dataGen.getPartitionPaths()) {
+        table.getSliceView().getLatestFileSlices(partitionPath)
+            .forEach(fileSlice -> expectedFileIds.add(partitionPath + "/" + ((FileSlice) fileSlice).getFileId()));
+      }
+      Option<HoodieCompactionPlan> plan = table.scheduleCompaction(jsc, "102", Option.empty());
+      assertTrue(plan.isPresent(), "All the file slices have log files to compact");
+      Set<String> plannedFileIds = plan.get().getOperations().stream()
+          .map(operation -> operation.getPartitionPath() + "/" + operation.getFileId()).collect(Collectors.toSet());
+      assertEquals(expectedFileIds, plannedFileIds, "Every file slice of every partition must be compacted");
+      assertEquals(expectedFileIds.size(), plan.get().getOperations().size(), "File slices must be planned once");
+    }
+  }
+
   @Override
   protected HoodieTableType getTableType() {
     return HoodieTableType.MERGE_ON_READ;
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.table.action.deltacommit;
+
+import org.apache.hudi.common.HoodieClientTestHarness;
+import org.apache.hudi.common.HoodieClientTestUtils;
+import org.apache.hudi.common.HoodieTestDataGenerator;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.model.HoodieTestUtils;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.config.HoodieCompactionConfig;
+import org.apache.hudi.config.HoodieStorageConfig;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.table.HoodieTable;
+import org.apache.hudi.table.WorkloadProfile;
+import org.apache.hudi.table.action.commit.SmallFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestUpsertDeltaCommitPartitioner extends HoodieClientTestHarness {
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initSparkContexts("TestUpsertDeltaCommitPartitioner");
+    initPath();
+    initMetaClient();
+    initTestDataGenerator();
+    initFileSystem();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupSparkContexts();
+    cleanupMetaClient();
+    cleanupFileSystem();
+    cleanupTestDataGenerator();
+  }
+
+  @Test
+  public void testGetSmallFilesOfSeveralPartitions() throws Exception {
+    final String[] partitionPaths = {"2016/09/26", "2016/09/27", "2016/09/28"};
+    String schemaStr = FileIOUtils.readAsUTFString(getClass().getResourceAsStream("/exampleSchema.txt"));
+    HoodieWriteConfig config = HoodieWriteConfig.newBuilder().withPath(basePath).withSchema(schemaStr)
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().compactionSmallFileSize(1000 * 1024).build())
+        .withStorageConfig(HoodieStorageConfig.newBuilder().limitFileSize(1000 * 1024).build()).build();
+
+    // two small files in the first partition, and a smaller one that already has a log file, which the bloom index
+    // cannot append inserts to. A large file in the second partition and none in the third.
+    HoodieClientTestUtils.fakeCommitFile(basePath, "001");
+    HoodieClientTestUtils.fakeDataFile(basePath, partitionPaths[0], "001", "file1", 200 * 1024);
+    HoodieClientTestUtils.fakeDataFile(basePath, partitionPaths[0], "001", "file2", 100 * 1024);
+    HoodieClientTestUtils.fakeDataFile(basePath, partitionPaths[0], "001", "file3", 10 * 1024);
+    HoodieTestUtils.createNewLogFile(fs, basePath, partitionPaths[0], "001", "file3", Option.empty());
+    HoodieClientTestUtils.fakeDataFile(basePath, partitionPaths[1], "001", "file4", 2000 * 1024);
+    new File(basePath + "/" + partitionPaths[2]).mkdirs();
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+    HoodieTable table = HoodieTable.create(metaClient, config, hadoopConf);
+
+    HoodieTestDataGenerator dataGenerator = new HoodieTestDataGenerator(partitionPaths);
+    WorkloadProfile profile = new WorkloadProfile(jsc.parallelize(dataGenerator.generateInserts("001", 300)));
+    UpsertDeltaCommitPartitioner partitioner = new UpsertDeltaCommitPartitioner(profile, jsc, table, config);
+
+    // the latest file slices of all the partitions are looked up at once, the smallest base file without log files
+    // of each partition is picked
+    Map<String, List<SmallFile>> partitionSmallFiles = partitioner.getSmallFiles(Arrays.asList(partitionPaths));
+    assertEquals(3, partitionSmallFiles.size(), "Every partition must have its small files");
+    assertEquals(1, partitionSmallFiles.get(partitionPaths[0]).size(), "Only the smallest file is picked");
+    SmallFile smallFile = partitionSmallFiles.get(partitionPaths[0]).get(0);
+    assertEquals(new HoodieRecordLocation("001", "file2"), smallFile.location);
+    assertEquals(100 * 1024, smallFile.sizeBytes);
+    assertTrue(partitionSmallFiles.get(partitionPaths[1]).isEmpty(), "Large files are not small files");
+    assertTrue(partitionSmallFiles.get(partitionPaths[2]).isEmpty(), "Empty partitions have no small files");
+
+    assertEquals(Collections.singletonList("file2"), partitioner.getSmallFileIds(),
+        "Inserts must only be assigned to the smallest file");
+  }
+
+  @Override
+  protected HoodieTableType getTableType() {
+    return HoodieTableType.MERGE_ON_READ;
+  }
+}
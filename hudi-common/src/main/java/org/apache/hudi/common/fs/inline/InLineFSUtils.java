@@ -78,9 +78,9 @@ public class InLineFSUtils {
    * @param inlinePath
    * @return
    */
-  public static int startOffset(Path inlinePath) {
+  public static long startOffset(Path inlinePath) {
     String[] slices = inlinePath.toString().split("[?&=]");
-    return Integer.parseInt(slices[slices.length - 3]);
+    return Long.parseLong(slices[slices.length - 3]);
   }
 
   /**
@@ -90,9 +90,9 @@ public class InLineFSUtils {
    * @param inlinePath
    * @return
    */
-  public static int length(Path inlinePath) {
+  public static long length(Path inlinePath) {
     String[] slices = inlinePath.toString().split("[?&=]");
-    return Integer.parseInt(slices[slices.length - 1]);
+    return Long.parseLong(slices[slices.length - 1]);
   }
 
 }
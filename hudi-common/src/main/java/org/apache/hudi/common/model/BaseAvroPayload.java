@@ -31,6 +31,12 @@ import java.io.Serializable;
  * Base class for all AVRO record based payloads, that can be ordered based on a field.
  */
 public abstract class BaseAvroPayload implements Serializable {
+
+  /**
+   * Ordering value of payloads built without one, it orders before any other value.
+   */
+  public static final Comparable NATURAL_ORDER = new NaturalOrder();
+
   /**
    * Avro data extracted from the source converted to bytes.
    */
@@ -58,4 +64,60 @@ public abstract class BaseAvroPayload implements Serializable {
       throw new HoodieException("Ordering value is null for record: " + record);
     }
   }
+
+  /**
+   * Instantiate {@link BaseAvroPayload} over a record already converted to bytes, e.g. when reading it back from a
+   * spill file.
+   *
+   * @param recordBytes Avro binary of the record, empty for a delete.
+   * @param orderingVal {@link Comparable} to be used in pre combine.
+   */
+  protected BaseAvroPayload(byte[] recordBytes, Comparable orderingVal) {
+    this.recordBytes = recordBytes;
+    this.orderingVal = orderingVal;
+    if (orderingVal == null) {
+      throw new HoodieException("Ordering value is null for record bytes");
+    }
+  }
+
+  public Comparable getOrderingVal() {
+    return orderingVal;
+  }
+
+  /**
+   * Compares two ordering values, either of which may be {@link #NATURAL_ORDER}.
+   */
+  @SuppressWarnings("unchecked")
+  protected static int compareOrderingVals(Comparable orderingVal1, Comparable orderingVal2) {
+    // other values do not know how to compare against the natural order
+    if (orderingVal2 instanceof NaturalOrder) {
+      return -orderingVal2.compareTo(orderingVal1);
+    }
+    return orderingVal1.compareTo(orderingVal2);
+  }
+
+  /**
+   * Lower than any other value and equal to itself, survives serialization unlike a lambda.
+   */
+  private static final class NaturalOrder implements Comparable<Object>, Serializable {
+
+    @Override
+    public int compareTo(Object o) {
+      return o instanceof NaturalOrder ? 0 : -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof NaturalOrder;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    private Object readResolve() {
+      return NATURAL_ORDER;
+    }
+  }
 }
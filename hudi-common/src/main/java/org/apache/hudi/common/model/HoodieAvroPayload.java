@@ -50,6 +50,13 @@ public class HoodieAvroPayload implements HoodieRecordPayload<HoodieAvroPayload>
     }
   }
 
+  /**
+   * Wraps a record already serialized as avro binary, as returned by {@link #getRecordBytes()}.
+   */
+  public HoodieAvroPayload(byte[] recordBytes) {
+    this.recordBytes = recordBytes;
+  }
+
   @Override
   public HoodieAvroPayload preCombine(HoodieAvroPayload another) {
     return this;
@@ -67,4 +74,11 @@ public class HoodieAvroPayload implements HoodieRecordPayload<HoodieAvroPayload>
     }
     return Option.of(HoodieAvroUtils.bytesToAvro(recordBytes, schema));
   }
+
+  /**
+   * The record serialized as avro binary, empty for a delete.
+   */
+  public byte[] getRecordBytes() {
+    return recordBytes;
+  }
 }
@@ -99,6 +99,10 @@ public class HoodieRecord<T extends HoodieRecordPayload> implements Serializable
     this.data = null;
   }
 
+  public boolean isDeflated() {
+    return data == null;
+  }
+
   /**
    * Sets the current currentLocation of the record. This should happen exactly-once
    */
@@ -123,6 +127,15 @@ public class HoodieRecord<T extends HoodieRecordPayload> implements Serializable
     return this;
   }
 
+  /**
+   * Clears the new location of a record which turned out to be deleted when written, so that indexes drop its key.
+   */
+  public HoodieRecord clearNewLocation() {
+    checkState();
+    this.newLocation = null;
+    return this;
+  }
+
   public Option<HoodieRecordLocation> getNewLocation() {
     return Option.ofNullable(this.newLocation);
   }
@@ -181,6 +194,10 @@ public class HoodieRecord<T extends HoodieRecordPayload> implements Serializable
     this.sealed = false;
   }
 
+  public boolean isSealed() {
+    return sealed;
+  }
+
   public void checkState() {
     if (sealed) {
       throw new UnsupportedOperationException("Not allowed to modify after sealed");
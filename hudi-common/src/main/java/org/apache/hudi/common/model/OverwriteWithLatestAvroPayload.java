@@ -44,13 +44,17 @@ public class OverwriteWithLatestAvroPayload extends BaseAvroPayload
   }
 
   public OverwriteWithLatestAvroPayload(Option<GenericRecord> record) {
-    this(record.isPresent() ? record.get() : null, (record1) -> 0); // natural order
+    this(record.isPresent() ? record.get() : null, NATURAL_ORDER);
+  }
+
+  public OverwriteWithLatestAvroPayload(byte[] recordBytes, Comparable orderingVal) {
+    super(recordBytes, orderingVal);
   }
 
   @Override
   public OverwriteWithLatestAvroPayload preCombine(OverwriteWithLatestAvroPayload another) {
     // pick the payload with greatest ordering value
-    if (another.orderingVal.compareTo(orderingVal) > 0) {
+    if (compareOrderingVals(another.orderingVal, orderingVal) > 0) {
       return another;
     } else {
       return this;
@@ -0,0 +1,536 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.listing;
+
+import org.apache.hudi.avro.model.HoodieCleanMetadata;
+import org.apache.hudi.avro.model.HoodieRestoreMetadata;
+import org.apache.hudi.avro.model.HoodieRollbackMetadata;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.table.timeline.TimelineMetadataUtils;
+import org.apache.hudi.common.util.CleanerUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Listing of the files of a table, derived from the timeline instead of the file system.
+ * <p>
+ * The listing is a snapshot file under {@code .hoodie/.file_listing}, holding the files of every partition as of a
+ * completed instant, combined with the instants completed since: the write stats of commits, delta commits and
+ * compactions add files, while cleans, rollbacks and restores remove the files they deleted and add the log files they
+ * appended rollback command blocks to. Rollbacks are not part of the active timeline, and are taken from the completed
+ * rollbacks the active timeline keeps aside when loaded. Since every instant carries its own changes, the listing moves atomically with the timeline and never shows
+ * files of pending or failed instants. Snapshots only bound how many instants have to be replayed, and have to be
+ * rewritten before the instants they do not cover are archived.
+ * <p>
+ * The listing is used wherever the table is listed, as soon as a snapshot exists for the table. A listing loaded once
+ * can be advanced to a later timeline by only applying the instants completed since.
+ */
+public class HoodieFileListing implements Serializable {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieFileListing.class);
+
+  public static final String LISTING_FOLDER_NAME = ".file_listing";
+  public static final String SNAPSHOT_FILE_EXTENSION = ".listing";
+  private static final String TEMP_FILE_PREFIX = ".";
+  // instant time of the snapshot of an empty timeline
+  private static final String INIT_INSTANT_TS = "00000000000000";
+  // older snapshots are kept for readers which may still be reading them
+  private static final int NUM_SNAPSHOTS_TO_RETAIN = 2;
+
+  private static final int MAGIC = 0x48464c53;
+  private static final int VERSION = 2;
+
+  private final String basePath;
+  private final String snapshotInstantTime;
+  // instants from this time on are applied unless already in the applied instants
+  private final String replayFromInstantTime;
+  private final Set<String> appliedInstants;
+  // partition path -> file name -> file size
+  private final Map<String, Map<String, Long>> partitionToFiles;
+  // partitions whose files are shared with the listing this one was advanced from, copied before being changed
+  private final Set<String> sharedPartitions;
+
+  private HoodieFileListing(String basePath, String snapshotInstantTime, String replayFromInstantTime,
+                            Set<String> appliedInstants, Map<String, Map<String, Long>> partitionToFiles,
+                            Set<String> sharedPartitions) {
+    this.basePath = basePath;
+    this.snapshotInstantTime = snapshotInstantTime;
+    this.replayFromInstantTime = replayFromInstantTime;
+    this.appliedInstants = appliedInstants;
+    this.partitionToFiles = partitionToFiles;
+    this.sharedPartitions = sharedPartitions;
+  }
+
+  public static Path getListingPath(HoodieTableMetaClient metaClient) {
+    return new Path(metaClient.getMetaPath(), LISTING_FOLDER_NAME);
+  }
+
+  /**
+   * Loads the listing of the table as of the completed instants of its active timeline, if a snapshot exists.
+   */
+  public static Option<HoodieFileListing> load(HoodieTableMetaClient metaClient) {
+    // the active timeline of the meta client is only loaded for tables with a listing
+    return load(metaClient, Option.empty());
+  }
+
+  /**
+   * Loads the listing of the table as of the completed instants of the given timeline, if a snapshot exists.
+   */
+  public static Option<HoodieFileListing> load(HoodieTableMetaClient metaClient, HoodieTimeline timeline) {
+    return load(metaClient, Option.of(timeline));
+  }
+
+  private static Option<HoodieFileListing> load(HoodieTableMetaClient metaClient, Option<HoodieTimeline> timelineOpt) {
+    try {
+      Option<String> snapshotInstantTime = getLatestSnapshotInstantTime(metaClient);
+      if (!snapshotInstantTime.isPresent()) {
+        return Option.empty();
+      }
+      HoodieTimeline timeline = timelineOpt.isPresent() ? timelineOpt.get() : metaClient.getActiveTimeline();
+      long beginTs = System.currentTimeMillis();
+      Snapshot snapshot = readSnapshot(metaClient.getFs(), getSnapshotPath(metaClient, snapshotInstantTime.get()), true);
+      HoodieFileListing listing = new HoodieFileListing(metaClient.getBasePath(), snapshotInstantTime.get(),
+          snapshot.replayFromInstantTime, snapshot.appliedInstants, snapshot.partitionToFiles, new HashSet<>());
+      int numInstantsApplied = listing.applyNewInstants(metaClient, timeline);
+      LOG.info(String.format("Loaded file listing of %s from snapshot %s and %d instants in %d ms",
+          metaClient.getBasePath(), snapshotInstantTime.get(), numInstantsApplied,
+          System.currentTimeMillis() - beginTs));
+      return Option.of(listing);
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to load file listing of " + metaClient.getBasePath(), e);
+    }
+  }
+
+  /**
+   * Returns the listing of the table as of the completed instants of a later timeline than the one this listing was
+   * loaded with, by only applying the instants completed since. This listing is left unchanged, and the partitions not
+   * changed by these instants are shared with it.
+   */
+  public HoodieFileListing advance(HoodieTableMetaClient metaClient, HoodieTimeline timeline) {
+    HoodieFileListing listing = new HoodieFileListing(basePath, snapshotInstantTime, replayFromInstantTime,
+        new HashSet<>(appliedInstants), new HashMap<>(partitionToFiles), new HashSet<>(partitionToFiles.keySet()));
+    try {
+      int numInstantsApplied = listing.applyNewInstants(metaClient, timeline);
+      LOG.info("Advanced file listing of " + basePath + " by " + numInstantsApplied + " instants");
+      return listing;
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to advance file listing of " + basePath, e);
+    }
+  }
+
+  /**
+   * Applies the completed instants of the timeline not applied yet.
+   *
+   * @return the number of instants applied
+   */
+  private int applyNewInstants(HoodieTableMetaClient metaClient, HoodieTimeline timeline) throws IOException {
+    List<HoodieInstant> instantsToApply = getInstantsToApply(metaClient, timeline, replayFromInstantTime,
+        appliedInstants);
+    for (HoodieInstant instant : instantsToApply) {
+      apply(metaClient, timeline, instant);
+      appliedInstants.add(getInstantKey(instant));
+    }
+    return instantsToApply.size();
+  }
+
+  /**
+   * Returns the completed instants of the timeline not applied yet to a listing, ordered by time.
+   */
+  private static List<HoodieInstant> getInstantsToApply(HoodieTableMetaClient metaClient, HoodieTimeline timeline,
+      String replayFromInstantTime, Set<String> appliedInstants) {
+    return getCompletedInstants(metaClient, timeline).stream()
+        .filter(instant -> HoodieTimeline.compareTimestamps(instant.getTimestamp(),
+            HoodieTimeline.GREATER_THAN_OR_EQUALS, replayFromInstantTime)
+            && !appliedInstants.contains(getInstantKey(instant)))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns all the partition paths of the table, from its file listing if it has one and by listing the file system
+   * otherwise.
+   */
+  public static List<String> getAllPartitionPaths(HoodieTableMetaClient metaClient, boolean assumeDatePartitioning)
+      throws IOException {
+    Option<String> snapshotInstantTime = getLatestSnapshotInstantTime(metaClient);
+    if (!snapshotInstantTime.isPresent()) {
+      return FSUtils.getAllPartitionPaths(metaClient.getFs(), metaClient.getBasePath(), assumeDatePartitioning);
+    }
+    // only the partitions of the snapshot are read, files are not. Partitions are never removed, and are only added by
+    // the write stats of commits and delta commits
+    HoodieTimeline timeline = metaClient.getActiveTimeline();
+    Snapshot snapshot = readSnapshot(metaClient.getFs(), getSnapshotPath(metaClient, snapshotInstantTime.get()), false);
+    Set<String> partitionPaths = new HashSet<>(snapshot.partitionPaths);
+    for (HoodieInstant instant : getInstantsToApply(metaClient, timeline, snapshot.replayFromInstantTime,
+        snapshot.appliedInstants)) {
+      getCommitMetadata(timeline, instant).ifPresent(metadata -> metadata.getPartitionToWriteStats().values()
+          .forEach(stats -> stats.stream().filter(stat -> stat.getPath() != null)
+              .forEach(stat -> partitionPaths.add(getPartitionPath(stat)))));
+    }
+    return new ArrayList<>(partitionPaths);
+  }
+
+  public String getSnapshotInstantTime() {
+    return snapshotInstantTime;
+  }
+
+  public List<String> getAllPartitionPaths() {
+    return new ArrayList<>(partitionToFiles.keySet());
+  }
+
+  /**
+   * Returns the statuses of the files in the partition, as {@link FileSystem#listStatus(Path)} would. Only the path
+   * and the length of the statuses are set.
+   */
+  public FileStatus[] getFileStatuses(String partitionPath) {
+    Map<String, Long> files = partitionToFiles.getOrDefault(partitionPath, Collections.emptyMap());
+    Path partition = FSUtils.getPartitionPath(basePath, partitionPath);
+    return files.entrySet().stream()
+        .map(e -> new FileStatus(e.getValue(), false, 0, 0, 0, new Path(partition, e.getKey())))
+        .toArray(FileStatus[]::new);
+  }
+
+  private void apply(HoodieTableMetaClient metaClient, HoodieTimeline timeline, HoodieInstant instant)
+      throws IOException {
+    switch (instant.getAction()) {
+      case HoodieTimeline.COMMIT_ACTION:
+      case HoodieTimeline.DELTA_COMMIT_ACTION:
+        getCommitMetadata(timeline, instant).ifPresent(metadata ->
+            metadata.getPartitionToWriteStats().values().forEach(stats -> stats.forEach(this::addFile)));
+        break;
+      case HoodieTimeline.CLEAN_ACTION:
+        HoodieCleanMetadata cleanMetadata = CleanerUtils.getCleanerMetadata(metaClient, instant);
+        cleanMetadata.getPartitionMetadata().forEach((partitionPath, partitionMetadata) ->
+            removeFiles(partitionPath, partitionMetadata.getSuccessDeleteFiles()));
+        break;
+      case HoodieTimeline.ROLLBACK_ACTION:
+        applyRollback(TimelineMetadataUtils.deserializeHoodieRollbackMetadata(
+            timeline.getInstantDetails(instant).get()));
+        break;
+      case HoodieTimeline.RESTORE_ACTION:
+        HoodieRestoreMetadata restoreMetadata = TimelineMetadataUtils.deserializeAvroMetadata(
+            timeline.getInstantDetails(instant).get(), HoodieRestoreMetadata.class);
+        restoreMetadata.getHoodieRestoreMetadata().values().forEach(rollbacks -> rollbacks.forEach(this::applyRollback));
+        break;
+      default:
+        // savepoints and compaction plans do not change the files of the table
+        break;
+    }
+  }
+
+  /**
+   * Returns the metadata of a commit or delta commit, empty for commits without metadata.
+   */
+  private static Option<HoodieCommitMetadata> getCommitMetadata(HoodieTimeline timeline, HoodieInstant instant)
+      throws IOException {
+    if (!HoodieTimeline.COMMIT_ACTION.equals(instant.getAction())
+        && !HoodieTimeline.DELTA_COMMIT_ACTION.equals(instant.getAction())) {
+      return Option.empty();
+    }
+    Option<byte[]> details = timeline.getInstantDetails(instant);
+    if (!details.isPresent() || details.get().length == 0) {
+      return Option.empty();
+    }
+    return Option.of(HoodieCommitMetadata.fromBytes(details.get(), HoodieCommitMetadata.class));
+  }
+
+  private void applyRollback(HoodieRollbackMetadata rollbackMetadata) {
+    rollbackMetadata.getPartitionMetadata().forEach((partitionPath, partitionMetadata) -> {
+      removeFiles(partitionPath, partitionMetadata.getSuccessDeleteFiles());
+      // rollbacks of merge-on-read tables append command blocks to log files, possibly creating new ones
+      if (partitionMetadata.getRollbackLogFiles() != null) {
+        getFilesToUpdate(partitionPath).putAll(partitionMetadata.getRollbackLogFiles());
+      }
+    });
+  }
+
+  private void addFile(HoodieWriteStat stat) {
+    if (stat.getPath() == null) {
+      return;
+    }
+    // appends to log files replace their previous size
+    String fileName = stat.getPath().substring(stat.getPath().lastIndexOf(Path.SEPARATOR) + 1);
+    getFilesToUpdate(getPartitionPath(stat)).put(fileName, stat.getFileSizeInBytes());
+  }
+
+  /**
+   * Returns the partition of the file written, as paths of write stats are relative to the base path.
+   */
+  private static String getPartitionPath(HoodieWriteStat stat) {
+    int separatorIndex = stat.getPath().lastIndexOf(Path.SEPARATOR);
+    return separatorIndex < 0 ? "" : stat.getPath().substring(0, separatorIndex);
+  }
+
+  private void removeFiles(String partitionPath, List<String> deletedFiles) {
+    if (partitionToFiles.containsKey(partitionPath)) {
+      Map<String, Long> files = getFilesToUpdate(partitionPath);
+      // deleted files are recorded either by name or by full path
+      deletedFiles.forEach(deletedFile -> files.remove(new Path(deletedFile).getName()));
+    }
+  }
+
+  /**
+   * Returns the files of the partition to be changed, copying them first if shared with another listing.
+   */
+  private Map<String, Long> getFilesToUpdate(String partitionPath) {
+    if (sharedPartitions.remove(partitionPath)) {
+      partitionToFiles.put(partitionPath, new HashMap<>(partitionToFiles.get(partitionPath)));
+    }
+    return partitionToFiles.computeIfAbsent(partitionPath, p -> new HashMap<>());
+  }
+
+  /**
+   * Writes a snapshot of the current listing of the table, so that the instants up to the last completed one no
+   * longer have to be replayed. Does nothing for tables without a file listing.
+   */
+  public static void writeSnapshot(HoodieTableMetaClient metaClient) throws IOException {
+    HoodieTimeline timeline = metaClient.getActiveTimeline();
+    Option<HoodieFileListing> listing = load(metaClient, timeline);
+    if (listing.isPresent()) {
+      writeSnapshot(metaClient, timeline, listing.get().partitionToFiles);
+    }
+  }
+
+  /**
+   * Creates the file listing of a table from a listing of its partitions on the file system. Only the files of
+   * completed instants are kept, the files of pending instants are added when these complete.
+   *
+   * @param listedPartitions partition path -> file name -> file size, as listed from the file system
+   */
+  public static void bootstrap(HoodieTableMetaClient metaClient, Map<String, Map<String, Long>> listedPartitions)
+      throws IOException {
+    HoodieTimeline timeline = metaClient.getActiveTimeline();
+    Set<String> pendingInstants = getPendingInstantTimes(timeline);
+    String baseFileExtension = metaClient.getTableConfig().getBaseFileFormat().getFileExtension();
+    String logFileExtension = metaClient.getTableConfig().getLogFileFormat().getFileExtension();
+    Map<String, Map<String, Long>> partitionToFiles = new HashMap<>();
+    listedPartitions.forEach((partitionPath, files) -> {
+      Map<String, Long> committedFiles = new HashMap<>();
+      files.forEach((fileName, size) -> {
+        // log files may hold blocks of pending instants, these are skipped when reading them
+        boolean isLogFile = fileName.contains(logFileExtension) && FSUtils.isLogFile(new Path(fileName));
+        if (isLogFile || (fileName.contains(baseFileExtension)
+            && !pendingInstants.contains(FSUtils.getCommitTime(fileName)))) {
+          committedFiles.put(fileName, size);
+        }
+      });
+      partitionToFiles.put(partitionPath, committedFiles);
+    });
+    writeSnapshot(metaClient, timeline, partitionToFiles);
+  }
+
+  private static void writeSnapshot(HoodieTableMetaClient metaClient, HoodieTimeline timeline,
+                                    Map<String, Map<String, Long>> partitionToFiles) throws IOException {
+    String instantTime = timeline.filterCompletedInstants().lastInstant().map(HoodieInstant::getTimestamp)
+        .orElse(INIT_INSTANT_TS);
+    // instants from the earliest pending one on are replayed unless the snapshot applied them already. This covers
+    // pending instants completing later as well as instants sharing the time of the snapshot, like inline cleans
+    String replayFromInstantTime = getPendingInstantTimes(timeline).stream()
+        .filter(ts -> HoodieTimeline.compareTimestamps(ts, HoodieTimeline.LESSER_THAN, instantTime))
+        .min(String::compareTo).orElse(instantTime);
+    List<String> appliedInstants = getCompletedInstants(metaClient, timeline).stream()
+        .filter(instant -> HoodieTimeline.compareTimestamps(instant.getTimestamp(),
+            HoodieTimeline.GREATER_THAN_OR_EQUALS, replayFromInstantTime))
+        .map(HoodieFileListing::getInstantKey).collect(Collectors.toList());
+
+    FileSystem fs = metaClient.getFs();
+    Path listingPath = getListingPath(metaClient);
+    Path tempPath = new Path(listingPath, TEMP_FILE_PREFIX + instantTime + SNAPSHOT_FILE_EXTENSION);
+    try (FSDataOutputStream fsOutputStream = fs.create(tempPath, true);
+         DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+             new GZIPOutputStream(fsOutputStream)))) {
+      outputStream.writeInt(MAGIC);
+      outputStream.writeInt(VERSION);
+      outputStream.writeUTF(instantTime);
+      outputStream.writeUTF(replayFromInstantTime);
+      outputStream.writeInt(appliedInstants.size());
+      for (String appliedInstant : appliedInstants) {
+        outputStream.writeUTF(appliedInstant);
+      }
+      // partitions come ahead of their files, so that these can be read without reading the files
+      List<String> partitionPaths = new ArrayList<>(partitionToFiles.keySet());
+      outputStream.writeInt(partitionPaths.size());
+      for (String partitionPath : partitionPaths) {
+        outputStream.writeUTF(partitionPath);
+      }
+      for (String partitionPath : partitionPaths) {
+        Map<String, Long> files = partitionToFiles.get(partitionPath);
+        outputStream.writeInt(files.size());
+        for (Map.Entry<String, Long> file : files.entrySet()) {
+          outputStream.writeUTF(file.getKey());
+          outputStream.writeLong(file.getValue());
+        }
+      }
+    }
+    Path snapshotPath = getSnapshotPath(metaClient, instantTime);
+    if (fs.exists(snapshotPath)) {
+      fs.delete(snapshotPath, false);
+    }
+    if (!fs.rename(tempPath, snapshotPath)) {
+      throw new HoodieIOException("Unable to rename " + tempPath + " to " + snapshotPath);
+    }
+    LOG.info("Wrote file listing snapshot " + snapshotPath + " with " + partitionToFiles.size() + " partitions");
+
+    List<String> snapshotInstantTimes = listSnapshotInstantTimes(metaClient);
+    for (int i = 0; i < snapshotInstantTimes.size() - NUM_SNAPSHOTS_TO_RETAIN; i++) {
+      fs.delete(new Path(listingPath, snapshotInstantTimes.get(i) + SNAPSHOT_FILE_EXTENSION), false);
+    }
+  }
+
+  private static Path getSnapshotPath(HoodieTableMetaClient metaClient, String instantTime) {
+    return new Path(getListingPath(metaClient), instantTime + SNAPSHOT_FILE_EXTENSION);
+  }
+
+  /**
+   * Reads a snapshot, along with the files of its partitions if asked for.
+   */
+  private static Snapshot readSnapshot(FileSystem fs, Path snapshotPath, boolean readFiles) throws IOException {
+    try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(fs.open(snapshotPath))))) {
+      if (inputStream.readInt() != MAGIC) {
+        throw new IOException("Not a file listing snapshot, bad magic: " + snapshotPath);
+      }
+      int version = inputStream.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported file listing snapshot version " + version + ": " + snapshotPath);
+      }
+      inputStream.readUTF();
+      String replayFromInstantTime = inputStream.readUTF();
+      Set<String> appliedInstants = new HashSet<>();
+      int numAppliedInstants = inputStream.readInt();
+      for (int i = 0; i < numAppliedInstants; i++) {
+        appliedInstants.add(inputStream.readUTF());
+      }
+      int numPartitions = inputStream.readInt();
+      List<String> partitionPaths = new ArrayList<>(numPartitions);
+      for (int i = 0; i < numPartitions; i++) {
+        partitionPaths.add(inputStream.readUTF());
+      }
+      Map<String, Map<String, Long>> partitionToFiles = new HashMap<>(numPartitions * 2);
+      if (readFiles) {
+        for (String partitionPath : partitionPaths) {
+          int numFiles = inputStream.readInt();
+          Map<String, Long> files = new HashMap<>(numFiles * 2);
+          for (int j = 0; j < numFiles; j++) {
+            files.put(inputStream.readUTF(), inputStream.readLong());
+          }
+          partitionToFiles.put(partitionPath, files);
+        }
+      }
+      return new Snapshot(replayFromInstantTime, appliedInstants, partitionPaths, partitionToFiles);
+    }
+  }
+
+  /**
+   * Returns the completed instants of the timeline, along with the completed rollbacks, ordered by time. Rollbacks are
+   * not part of the active timeline, these are kept aside by the active timeline the given timeline was loaded with.
+   */
+  private static List<HoodieInstant> getCompletedInstants(HoodieTableMetaClient metaClient, HoodieTimeline timeline) {
+    HoodieActiveTimeline activeTimeline = timeline instanceof HoodieActiveTimeline ? (HoodieActiveTimeline) timeline
+        : metaClient.getActiveTimeline();
+    return Stream.concat(timeline.filterCompletedInstants().getInstants(),
+        activeTimeline.getCompletedRollbackInstants().stream()).distinct()
+        .sorted(Comparator.comparing(HoodieInstant::getTimestamp)).collect(Collectors.toList());
+  }
+
+  private static Set<String> getPendingInstantTimes(HoodieTimeline timeline) {
+    return timeline.filterInflightsAndRequested().getInstants().map(HoodieInstant::getTimestamp)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Identifies a completed instant, since instants of different actions may share the same time.
+   */
+  private static String getInstantKey(HoodieInstant instant) {
+    return instant.getTimestamp() + "." + instant.getAction();
+  }
+
+  private static Option<String> getLatestSnapshotInstantTime(HoodieTableMetaClient metaClient) throws IOException {
+    List<String> snapshotInstantTimes = listSnapshotInstantTimes(metaClient);
+    return snapshotInstantTimes.isEmpty() ? Option.empty()
+        : Option.of(snapshotInstantTimes.get(snapshotInstantTimes.size() - 1));
+  }
+
+  /**
+   * Lists the instant times of the snapshots of the table, oldest first.
+   */
+  private static List<String> listSnapshotInstantTimes(HoodieTableMetaClient metaClient) throws IOException {
+    FileSystem fs = metaClient.getFs();
+    Path listingPath = getListingPath(metaClient);
+    if (!fs.exists(listingPath)) {
+      return Collections.emptyList();
+    }
+    return Arrays.stream(fs.listStatus(listingPath)).map(status -> status.getPath().getName())
+        .filter(name -> !name.startsWith(TEMP_FILE_PREFIX) && name.endsWith(SNAPSHOT_FILE_EXTENSION))
+        .map(name -> name.substring(0, name.length() - SNAPSHOT_FILE_EXTENSION.length()))
+        .sorted().collect(Collectors.toList());
+  }
+
+  /**
+   * Contents of a snapshot file.
+   */
+  private static class Snapshot {
+
+    private final String replayFromInstantTime;
+    private final Set<String> appliedInstants;
+    private final List<String> partitionPaths;
+    // empty unless the files were read
+    private final Map<String, Map<String, Long>> partitionToFiles;
+
+    Snapshot(String replayFromInstantTime, Set<String> appliedInstants, List<String> partitionPaths,
+             Map<String, Map<String, Long>> partitionToFiles) {
+      this.replayFromInstantTime = replayFromInstantTime;
+      this.appliedInstants = appliedInstants;
+      this.partitionPaths = partitionPaths;
+      this.partitionToFiles = partitionToFiles;
+    }
+  }
+}
@@ -23,12 +23,13 @@ import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
-import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieCommandBlock;
+import org.apache.hudi.common.table.log.block.HoodieDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.SpillableMapUtils;
+import org.apache.hudi.common.util.ValidationUtils;
 import org.apache.hudi.exception.HoodieIOException;
 
 import org.apache.avro.Schema;
@@ -63,11 +64,20 @@ import static org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlo
  * Block N Metadata | | Read Block N Data |
  * <p>
  * This results in two I/O passes over the log file.
+ * <p>
+ * With prefetch threads, the blocks of upcoming log files are read and decoded on these threads while the blocks read
+ * before are merged, see {@link HoodiePrefetchingLogFormatReader}. Blocks are then always read eagerly, and the blocks
+ * read ahead are bounded by maxPrefetchedBytes.
  */
 public abstract class AbstractHoodieLogRecordScanner {
 
   private static final Logger LOG = LogManager.getLogger(AbstractHoodieLogRecordScanner.class);
 
+  // Blocks read ahead of the merge in each log file being prefetched
+  private static final int MAX_PREFETCHED_BLOCKS_PER_LOG_FILE = 2;
+  // Fraction of the memory of a scan given to the blocks read ahead, when prefetching
+  private static final double MEMORY_FRACTION_FOR_PREFETCH = 0.2;
+
   // Reader schema for the records
   protected final Schema readerSchema;
   // Latest valid instant time
@@ -85,6 +95,10 @@ public abstract class AbstractHoodieLogRecordScanner {
   private final boolean reverseReader;
   // Buffer Size for log file reader
   private final int bufferSize;
+  // Number of threads reading log files ahead of the merge, 0 to read them on the merging thread
+  private final int numPrefetchThreads;
+  // Bound on the size of the blocks read ahead of the log file being merged
+  private final long maxPrefetchedBytes;
   // FileSystem
   private final FileSystem fs;
   // Total log files read - for metrics
@@ -105,6 +119,18 @@ public abstract class AbstractHoodieLogRecordScanner {
   // TODO (NA) - Change this to a builder, this constructor is too long
   public AbstractHoodieLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
       String latestInstantTime, boolean readBlocksLazily, boolean reverseReader, int bufferSize) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize, 0,
+        0L);
+  }
+
+  public AbstractHoodieLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, boolean readBlocksLazily, boolean reverseReader, int bufferSize,
+      int numPrefetchThreads, long maxPrefetchedBytes) {
+    ValidationUtils.checkArgument(numPrefetchThreads <= 0 || !reverseReader,
+        "Log files cannot be read in reverse with prefetch threads");
+    if (numPrefetchThreads > 0 && readBlocksLazily) {
+      LOG.warn("Log blocks are read eagerly by the " + numPrefetchThreads + " prefetch threads, lazy reading is ignored");
+    }
     this.readerSchema = readerSchema;
     this.latestInstantTime = latestInstantTime;
     this.hoodieTableMetaClient = new HoodieTableMetaClient(fs.getConf(), basePath);
@@ -116,18 +142,33 @@ public abstract class AbstractHoodieLogRecordScanner {
     this.reverseReader = reverseReader;
     this.fs = fs;
     this.bufferSize = bufferSize;
+    this.numPrefetchThreads = numPrefetchThreads;
+    this.maxPrefetchedBytes = maxPrefetchedBytes;
+  }
+
+  /**
+   * Returns the share of the memory of a scan to give to the blocks read ahead, none without prefetch threads.
+   */
+  public static long getMaxPrefetchedBytes(long maxMemorySizeInBytes, int numPrefetchThreads) {
+    return numPrefetchThreads > 0 ? (long) (maxMemorySizeInBytes * MEMORY_FRACTION_FOR_PREFETCH) : 0L;
   }
 
   /**
    * Scan Log files.
    */
   public void scan() {
-    HoodieLogFormatReader logFormatReaderWrapper = null;
+    HoodieLogFormat.Reader logFormatReaderWrapper = null;
     try {
       // iterate over the paths
-      logFormatReaderWrapper = new HoodieLogFormatReader(fs,
-          logFilePaths.stream().map(logFile -> new HoodieLogFile(new Path(logFile))).collect(Collectors.toList()),
-          readerSchema, readBlocksLazily, reverseReader, bufferSize);
+      List<HoodieLogFile> logFiles =
+          logFilePaths.stream().map(logFile -> new HoodieLogFile(new Path(logFile))).collect(Collectors.toList());
+      if (numPrefetchThreads > 0) {
+        logFormatReaderWrapper = new HoodiePrefetchingLogFormatReader(fs, logFiles, readerSchema, bufferSize,
+            numPrefetchThreads, MAX_PREFETCHED_BLOCKS_PER_LOG_FILE, maxPrefetchedBytes);
+      } else {
+        logFormatReaderWrapper =
+            new HoodieLogFormatReader(fs, logFiles, readerSchema, readBlocksLazily, reverseReader, bufferSize);
+      }
       Set<HoodieLogFile> scannedLogFiles = new HashSet<>();
       while (logFormatReaderWrapper.hasNext()) {
         HoodieLogFile logFile = logFormatReaderWrapper.getLogFile();
@@ -145,9 +186,10 @@ public abstract class AbstractHoodieLogRecordScanner {
         }
         switch (r.getBlockType()) {
           case AVRO_DATA_BLOCK:
+          case PARQUET_DATA_BLOCK:
             LOG.info("Reading a data block from file " + logFile.getPath());
-            if (isNewInstantBlock(r) && !readBlocksLazily) {
-              // If this is an avro data block belonging to a different commit/instant,
+            if (isNewInstantBlock(r) && !isReadingLazily()) {
+              // If this is a data block belonging to a different commit/instant,
               // then merge the last blocks and records into the main result
               processQueuedBlocksForInstant(currentInstantLogBlocks, scannedLogFiles.size());
             }
@@ -156,7 +198,7 @@ public abstract class AbstractHoodieLogRecordScanner {
             break;
           case DELETE_BLOCK:
             LOG.info("Reading a delete block from file " + logFile.getPath());
-            if (isNewInstantBlock(r) && !readBlocksLazily) {
+            if (isNewInstantBlock(r) && !isReadingLazily()) {
               // If this is a delete data block belonging to a different commit/instant,
               // then merge the last blocks and records into the main result
               processQueuedBlocksForInstant(currentInstantLogBlocks, scannedLogFiles.size());
@@ -254,6 +296,13 @@ public abstract class AbstractHoodieLogRecordScanner {
     }
   }
 
+  /**
+   * Whether blocks are read lazily, and hence merged only once all of them are read.
+   */
+  private boolean isReadingLazily() {
+    return readBlocksLazily && numPrefetchThreads <= 0;
+  }
+
   /**
    * Checks if the current logblock belongs to a later instant.
    */
@@ -267,8 +316,8 @@ public abstract class AbstractHoodieLogRecordScanner {
    * Iterate over the GenericRecord in the block, read the hoodie key and partition path and call subclass processors to
    * handle it.
    */
-  private void processAvroDataBlock(HoodieAvroDataBlock dataBlock) throws Exception {
-    // TODO (NA) - Implement getRecordItr() in HoodieAvroDataBlock and use that here
+  private void processDataBlock(HoodieDataBlock dataBlock) throws Exception {
+    // TODO (NA) - Implement getRecordItr() in HoodieDataBlock and use that here
     List<IndexedRecord> recs = dataBlock.getRecords();
     totalLogRecords.addAndGet(recs.size());
     for (IndexedRecord rec : recs) {
@@ -302,7 +351,8 @@ public abstract class AbstractHoodieLogRecordScanner {
       HoodieLogBlock lastBlock = lastBlocks.pollLast();
       switch (lastBlock.getBlockType()) {
         case AVRO_DATA_BLOCK:
-          processAvroDataBlock((HoodieAvroDataBlock) lastBlock);
+        case PARQUET_DATA_BLOCK:
+          processDataBlock((HoodieDataBlock) lastBlock);
           break;
         case DELETE_BLOCK:
           Arrays.stream(((HoodieDeleteBlock) lastBlock).getKeysToDelete()).forEach(this::processNextDeletedKey);
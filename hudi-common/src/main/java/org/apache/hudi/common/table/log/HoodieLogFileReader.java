@@ -18,15 +18,20 @@
 
 package org.apache.hudi.common.table.log;
 
+import org.apache.hudi.common.bloom.BloomFilter;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieCommandBlock;
 import org.apache.hudi.common.table.log.block.HoodieCorruptBlock;
+import org.apache.hudi.common.table.log.block.HoodieDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlockType;
+import org.apache.hudi.common.table.log.block.HoodieParquetDataBlock;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.ValidationUtils;
 import org.apache.hudi.exception.CorruptedLogFileException;
@@ -34,6 +39,8 @@ import org.apache.hudi.exception.HoodieIOException;
 import org.apache.hudi.exception.HoodieNotSupportedException;
 
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
 import org.apache.hadoop.fs.BufferedFSInputStream;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSInputStream;
@@ -43,10 +50,14 @@ import org.apache.log4j.Logger;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Scans a log file and provides block level iterator on the log file Loads the entire block contents in memory Can emit
@@ -196,6 +207,9 @@ class HoodieLogFileReader implements HoodieLogFormat.Reader {
           return HoodieAvroDataBlock.getBlock(logFile, inputStream, Option.ofNullable(content), readBlockLazily,
               contentPosition, contentLength, blockEndPos, readerSchema, header, footer);
         }
+      case PARQUET_DATA_BLOCK:
+        return HoodieParquetDataBlock.getBlock(logFile, inputStream, Option.ofNullable(content), readBlockLazily,
+            contentPosition, contentLength, blockEndPos, readerSchema, header, footer);
       case DELETE_BLOCK:
         return HoodieDeleteBlock.getBlock(logFile, inputStream, Option.ofNullable(content), readBlockLazily,
             contentPosition, contentLength, blockEndPos, header, footer);
@@ -282,6 +296,73 @@ class HoodieLogFileReader implements HoodieLogFormat.Reader {
     }
   }
 
+  /**
+   * Returns the keys among the given ones held by the valid data blocks of the log file. As when scanning the log
+   * file, blocks are skipped from the first one of an instant later than latestInstantTime, rollback command blocks
+   * drop the blocks they roll back, and blocks of instants not completed in the given timeline are ignored. Delete
+   * blocks are not applied. Data blocks with a record key bloom filter in their footer are decoded only when the filter
+   * may contain one of the keys, so the reader should read blocks lazily. This consumes the reader.
+   */
+  public Set<String> lookupKeys(Set<String> keys, String latestInstantTime, HoodieTimeline completedInstantsTimeline) {
+    // blocks are only decoded once all of them are read, as rollbacks apply to the blocks read before them
+    Deque<HoodieLogBlock> validBlocks = new ArrayDeque<>();
+    while (hasNext()) {
+      HoodieLogBlock block = next();
+      if (block.getBlockType() != HoodieLogBlockType.CORRUPT_BLOCK && !HoodieTimeline.compareTimestamps(
+          block.getLogBlockHeader().get(HeaderMetadataType.INSTANT_TIME), HoodieTimeline.LESSER_THAN_OR_EQUALS,
+          latestInstantTime)) {
+        break;
+      }
+      if (block.getBlockType() == HoodieLogBlockType.COMMAND_BLOCK) {
+        rollbackBlocks(validBlocks, (HoodieCommandBlock) block);
+      } else {
+        validBlocks.push(block);
+      }
+    }
+
+    Set<String> foundKeys = new HashSet<>();
+    int numBlocks = 0;
+    int numDecodedBlocks = 0;
+    while (foundKeys.size() < keys.size() && !validBlocks.isEmpty()) {
+      HoodieLogBlock block = validBlocks.pollLast();
+      if (!(block instanceof HoodieDataBlock) || !completedInstantsTimeline.containsOrBeforeTimelineStarts(
+          block.getLogBlockHeader().get(HeaderMetadataType.INSTANT_TIME))) {
+        continue;
+      }
+      numBlocks++;
+      HoodieDataBlock dataBlock = (HoodieDataBlock) block;
+      Option<BloomFilter> bloomFilter = dataBlock.getRecordKeyBloomFilter();
+      if (bloomFilter.isPresent()
+          && keys.stream().noneMatch(key -> !foundKeys.contains(key) && bloomFilter.get().mightContain(key))) {
+        continue;
+      }
+      numDecodedBlocks++;
+      for (IndexedRecord record : dataBlock.getRecords()) {
+        String recordKey = ((GenericRecord) record).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString();
+        if (keys.contains(recordKey)) {
+          foundKeys.add(recordKey);
+        }
+      }
+    }
+    LOG.info("Looked up " + keys.size() + " keys in " + logFile + ", decoded " + numDecodedBlocks + " out of "
+        + numBlocks + " data blocks, found " + foundKeys.size() + " keys");
+    return foundKeys;
+  }
+
+  /**
+   * Drops the last read blocks rolled back by the command block, the same way as when scanning the log file.
+   */
+  private void rollbackBlocks(Deque<HoodieLogBlock> blocks, HoodieCommandBlock commandBlock) {
+    if (commandBlock.getType() != HoodieCommandBlock.HoodieCommandBlockTypeEnum.ROLLBACK_PREVIOUS_BLOCK) {
+      throw new UnsupportedOperationException("Command type not yet supported.");
+    }
+    String targetInstantTime = commandBlock.getLogBlockHeader().get(HeaderMetadataType.TARGET_INSTANT_TIME);
+    while (!blocks.isEmpty() && (blocks.peek().getBlockType() == HoodieLogBlockType.CORRUPT_BLOCK
+        || targetInstantTime.contentEquals(blocks.peek().getLogBlockHeader().get(HeaderMetadataType.INSTANT_TIME)))) {
+      blocks.pop();
+    }
+  }
+
   @Override
   public void close() throws IOException {
     if (!closed) {
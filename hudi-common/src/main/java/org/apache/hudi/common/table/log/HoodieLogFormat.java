@@ -21,6 +21,7 @@ package org.apache.hudi.common.table.log;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.collection.Pair;
 
@@ -33,6 +34,7 @@ import org.apache.log4j.Logger;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.Set;
 
 /**
  * File Format for Hoodie Log Files. The File Format consists of blocks each separated with a MAGIC sync marker. A Block
@@ -266,6 +268,19 @@ public interface HoodieLogFormat {
         reverseReader);
   }
 
+  /**
+   * Returns the keys among the given ones held by the valid data blocks of the log file, see
+   * {@link HoodieLogFileReader#lookupKeys(Set, String, HoodieTimeline)}. Blocks are read lazily, so data blocks
+   * skipped through their record key bloom filter are not read.
+   */
+  static Set<String> lookupKeys(FileSystem fs, HoodieLogFile logFile, Set<String> keys, String latestInstantTime,
+      HoodieTimeline completedInstantsTimeline) throws IOException {
+    try (HoodieLogFileReader reader = new HoodieLogFileReader(fs, logFile, null,
+        HoodieLogFileReader.DEFAULT_BUFFER_SIZE, true, false)) {
+      return reader.lookupKeys(keys, latestInstantTime, completedInstantsTimeline);
+    }
+  }
+
   /**
    * A set of feature flags associated with a log format. Versions are changed when the log format changes. TODO(na) -
    * Implement policies around major/minor versions
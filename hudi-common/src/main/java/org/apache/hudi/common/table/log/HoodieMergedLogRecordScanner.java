@@ -22,10 +22,12 @@ import org.apache.hudi.common.model.HoodieKey;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.HoodieRecordSerializer;
 import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
 import org.apache.hudi.common.util.HoodieTimer;
 import org.apache.hudi.common.util.SpillableMapUtils;
 import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType;
 import org.apache.hudi.exception.HoodieIOException;
 
 import org.apache.avro.Schema;
@@ -67,15 +69,32 @@ public class HoodieMergedLogRecordScanner extends AbstractHoodieLogRecordScanner
   // A timer for calculating elapsed time in millis
   public final HoodieTimer timer = new HoodieTimer();
 
-  @SuppressWarnings("unchecked")
   public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
       String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
       int bufferSize, String spillableMapBasePath) {
-    super(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize);
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, maxMemorySizeInBytes, readBlocksLazily,
+        reverseReader, bufferSize, spillableMapBasePath, DiskMapType.DISK_BASED);
+  }
+
+  public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
+      int bufferSize, String spillableMapBasePath, DiskMapType diskMapType) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, maxMemorySizeInBytes, readBlocksLazily,
+        reverseReader, bufferSize, spillableMapBasePath, diskMapType, 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
+      int bufferSize, String spillableMapBasePath, DiskMapType diskMapType, int numPrefetchThreads) {
+    super(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize,
+        numPrefetchThreads, getMaxPrefetchedBytes(maxMemorySizeInBytes, numPrefetchThreads));
     try {
-      // Store merged records for all versions for this log file, set the in-memory footprint to maxInMemoryMapSize
-      this.records = new ExternalSpillableMap<>(maxMemorySizeInBytes, spillableMapBasePath, new DefaultSizeEstimator(),
-          new HoodieRecordSizeEstimator(readerSchema));
+      // Store merged records for all versions for this log file, set the in-memory footprint to maxInMemoryMapSize,
+      // less the share of the blocks read ahead
+      long maxInMemoryMapSize = maxMemorySizeInBytes - getMaxPrefetchedBytes(maxMemorySizeInBytes, numPrefetchThreads);
+      this.records = new ExternalSpillableMap<>(maxInMemoryMapSize, spillableMapBasePath, new DefaultSizeEstimator(),
+          new HoodieRecordSizeEstimator(readerSchema), diskMapType, new HoodieRecordSerializer());
       // Do the scan and merge
       timer.startTimer();
       scan();
@@ -101,6 +120,13 @@ public class HoodieMergedLogRecordScanner extends AbstractHoodieLogRecordScanner
     return records;
   }
 
+  /**
+   * Releases the merged records, along with the file they spilled to.
+   */
+  public void close() {
+    records.close();
+  }
+
   public long getNumMergedRecordsInLog() {
     return numMergedRecordsInLog;
   }
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.log;
+
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.table.log.block.HoodieDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlockContentLocation;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reader over a list of log files which reads and decodes the blocks of upcoming log files on a small pool of threads,
+ * while the caller consumes the blocks read before. Blocks are returned in the same order as
+ * {@link HoodieLogFormatReader} returns them, so scanners apply command blocks and rollbacks exactly as they do with a
+ * sequential read.
+ * <p>
+ * Each log file is read by a single thread into a bounded queue of blocks. Log files are read in order, so at most as
+ * many log files as threads are read ahead of the one being consumed, each by a bounded number of blocks. The blocks of
+ * the log files ahead of the one being consumed are also bounded by their size in the log file, a read waiting for
+ * earlier blocks to be consumed once the bound is reached. Blocks are always read eagerly, as their content is decoded
+ * by the reading thread.
+ */
+public class HoodiePrefetchingLogFormatReader implements HoodieLogFormat.Reader {
+
+  private static final Logger LOG = LogManager.getLogger(HoodiePrefetchingLogFormatReader.class);
+
+  // Marks the end of the blocks of a log file in its queue
+  private static final Object END_OF_FILE = new Object();
+  private static final AtomicInteger READER_ID = new AtomicInteger();
+
+  private final List<HoodieLogFile> logFiles;
+  // Queue of read blocks of each log file, ending with END_OF_FILE or the exception failing the read
+  private final List<BlockingQueue<Object>> blockQueues;
+  private final ExecutorService executor;
+  private final FileSystem fs;
+  private final Schema readerSchema;
+  private final int bufferSize;
+  private final long maxPrefetchedBytes;
+  private volatile boolean closed = false;
+  // Index of the log file blocks are being consumed from, updated under prefetchedBytesLock
+  private volatile int currentLogFileIndex = 0;
+  // Size of the blocks read and not consumed yet
+  private final Object prefetchedBytesLock = new Object();
+  private long prefetchedBytes = 0;
+  private HoodieLogBlock nextBlock;
+
+  HoodiePrefetchingLogFormatReader(FileSystem fs, List<HoodieLogFile> logFiles, Schema readerSchema,
+      int bufferSize, int numThreads, int maxBlocksAheadPerLogFile, long maxPrefetchedBytes) {
+    this.logFiles = new ArrayList<>(logFiles);
+    this.fs = fs;
+    this.readerSchema = readerSchema;
+    this.bufferSize = bufferSize;
+    this.maxPrefetchedBytes = maxPrefetchedBytes;
+    this.blockQueues = new ArrayList<>(logFiles.size());
+    int readerId = READER_ID.incrementAndGet();
+    AtomicInteger threadId = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(Math.max(1, Math.min(numThreads, logFiles.size())), runnable -> {
+      Thread thread = new Thread(runnable, "log-prefetch-" + readerId + "-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Reads are started in the order of the log files, hence the log file being consumed is always being read
+    for (int i = 0; i < this.logFiles.size(); i++) {
+      BlockingQueue<Object> blockQueue = new ArrayBlockingQueue<>(maxBlocksAheadPerLogFile + 1);
+      blockQueues.add(blockQueue);
+      int logFileIndex = i;
+      executor.execute(() -> readLogFile(logFileIndex, blockQueue));
+    }
+    LOG.info("Reading " + logFiles.size() + " log files with " + numThreads + " prefetch threads, up to "
+        + maxPrefetchedBytes + " bytes ahead");
+  }
+
+  /**
+   * Reads all the blocks of a log file into its queue, decoding their content.
+   */
+  private void readLogFile(int logFileIndex, BlockingQueue<Object> blockQueue) {
+    Object lastItem = END_OF_FILE;
+    HoodieLogFile logFile = logFiles.get(logFileIndex);
+    try (HoodieLogFileReader reader = new HoodieLogFileReader(fs, logFile, readerSchema, bufferSize, false, false)) {
+      while (!closed && reader.hasNext()) {
+        HoodieLogBlock block = reader.next();
+        reserveBytes(logFileIndex, getBlockSize(block));
+        blockQueue.put(decode(block));
+      }
+    } catch (InterruptedException ie) {
+      // The reader was closed while waiting for the blocks to be consumed
+      return;
+    } catch (Exception e) {
+      lastItem = e;
+    }
+    try {
+      blockQueue.put(lastItem);
+    } catch (InterruptedException ie) {
+      // The reader was closed, nothing consumes the queue anymore
+    }
+  }
+
+  /**
+   * Accounts for the size of a block read from the log file at the given index. Reads ahead of the log file being
+   * consumed wait until enough earlier blocks are consumed, the log file being consumed is never held back.
+   */
+  private void reserveBytes(int logFileIndex, long blockSize) throws InterruptedException {
+    synchronized (prefetchedBytesLock) {
+      while (!closed && logFileIndex > currentLogFileIndex && prefetchedBytes > 0
+          && prefetchedBytes + blockSize > maxPrefetchedBytes) {
+        prefetchedBytesLock.wait();
+      }
+      prefetchedBytes += blockSize;
+    }
+  }
+
+  private void releaseBytes(long blockSize, boolean nextLogFile) {
+    synchronized (prefetchedBytesLock) {
+      prefetchedBytes -= blockSize;
+      if (nextLogFile) {
+        currentLogFileIndex++;
+      }
+      prefetchedBytesLock.notifyAll();
+    }
+  }
+
+  private static long getBlockSize(HoodieLogBlock block) {
+    return block.getBlockContentLocation().map(HoodieLogBlockContentLocation::getBlockSize).orElse(0L);
+  }
+
+  /**
+   * Decodes the content of the block, so that the consumer does not have to.
+   */
+  private static HoodieLogBlock decode(HoodieLogBlock block) {
+    switch (block.getBlockType()) {
+      case AVRO_DATA_BLOCK:
+      case PARQUET_DATA_BLOCK:
+        ((HoodieDataBlock) block).getRecords();
+        break;
+      case DELETE_BLOCK:
+        ((HoodieDeleteBlock) block).getKeysToDelete();
+        break;
+      default:
+        break;
+    }
+    return block;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (nextBlock == null && currentLogFileIndex < logFiles.size()) {
+      Object item;
+      try {
+        item = blockQueues.get(currentLogFileIndex).take();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new HoodieException("Interrupted while waiting for log blocks of " + getLogFile(), ie);
+      }
+      if (item == END_OF_FILE) {
+        LOG.info("Moving to the next reader for logfile after " + getLogFile());
+        blockQueues.set(currentLogFileIndex, null);
+        releaseBytes(0, true);
+      } else if (item instanceof Exception) {
+        throw new HoodieIOException("Unable to read log file " + getLogFile(), item instanceof IOException
+            ? (IOException) item : new IOException((Exception) item));
+      } else {
+        nextBlock = (HoodieLogBlock) item;
+        releaseBytes(getBlockSize(nextBlock), false);
+      }
+    }
+    return nextBlock != null;
+  }
+
+  @Override
+  public HoodieLogBlock next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more blocks in the log files");
+    }
+    HoodieLogBlock block = nextBlock;
+    nextBlock = null;
+    return block;
+  }
+
+  @Override
+  public HoodieLogFile getLogFile() {
+    return logFiles.isEmpty() ? null : logFiles.get(Math.min(currentLogFileIndex, logFiles.size() - 1));
+  }
+
+  @Override
+  public boolean hasPrev() {
+    throw new UnsupportedOperationException("Reverse reading is not supported by the prefetching reader");
+  }
+
+  @Override
+  public HoodieLogBlock prev() {
+    throw new UnsupportedOperationException("Reverse reading is not supported by the prefetching reader");
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    // Wakes up threads waiting for blocks to be consumed, they close their log file readers
+    executor.shutdownNow();
+    blockQueues.clear();
+  }
+}
@@ -52,8 +52,11 @@ import java.util.Map;
 /**
  * DataBlock contains a list of records serialized using Avro. The Datablock contains 1. Data Block version 2. Total
  * number of records in the block 3. Size of a record 4. Actual avro serialized content of the record
+ * <p>
+ * When the header holds a {@link HeaderMetadataType#COMPRESSION_CODEC}, everything following the version is compressed
+ * with that {@link HoodieDataBlockCompressionCodec}. Blocks without it are not compressed.
  */
-public class HoodieAvroDataBlock extends HoodieLogBlock {
+public class HoodieAvroDataBlock extends HoodieDataBlock {
 
   private List<IndexedRecord> records;
   private Schema schema;
@@ -102,10 +105,16 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
     Schema schema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
     GenericDatumWriter<IndexedRecord> writer = new GenericDatumWriter<>(schema);
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    DataOutputStream output = new DataOutputStream(baos);
+    DataOutputStream blockOutput = new DataOutputStream(baos);
 
     // 1. Write out the log block version
-    output.writeInt(HoodieLogBlock.version);
+    blockOutput.writeInt(HoodieLogBlock.version);
+
+    // Records are written to a separate buffer when they get compressed
+    HoodieDataBlockCompressionCodec codec = getCompressionCodec();
+    boolean compressed = codec != HoodieDataBlockCompressionCodec.NONE;
+    ByteArrayOutputStream recordsBaos = compressed ? new ByteArrayOutputStream() : baos;
+    DataOutputStream output = compressed ? new DataOutputStream(recordsBaos) : blockOutput;
 
     // 2. Write total number of records
     output.writeInt(records.size());
@@ -134,6 +143,10 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
       }
     }
     output.close();
+    if (compressed) {
+      blockOutput.write(codec.compress(recordsBaos.toByteArray()));
+      blockOutput.close();
+    }
     return baos.toByteArray();
   }
 
@@ -142,6 +155,7 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
     return HoodieLogBlockType.AVRO_DATA_BLOCK;
   }
 
+  @Override
   public List<IndexedRecord> getRecords() {
     if (records == null) {
       try {
@@ -154,6 +168,7 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
     return records;
   }
 
+  @Override
   public Schema getSchema() {
     // if getSchema was invoked before converting byte [] to records
     if (records == null) {
@@ -171,13 +186,22 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
       inflate();
     }
 
-    SizeAwareDataInputStream dis =
-        new SizeAwareDataInputStream(new DataInputStream(new ByteArrayInputStream(getContent().get())));
+    byte[] content = getContent().get();
+    SizeAwareDataInputStream dis = new SizeAwareDataInputStream(new DataInputStream(new ByteArrayInputStream(content)));
 
     // 1. Read version for this data block
     int version = dis.readInt();
     HoodieAvroDataBlockVersion logBlockVersion = new HoodieAvroDataBlockVersion(version);
 
+    // Continue reading from the decompressed records if they were compressed
+    HoodieDataBlockCompressionCodec codec = getCompressionCodec();
+    if (codec != HoodieDataBlockCompressionCodec.NONE) {
+      int offset = dis.getNumberOfBytesRead();
+      dis.close();
+      content = codec.decompress(content, offset, content.length - offset);
+      dis = new SizeAwareDataInputStream(new DataInputStream(new ByteArrayInputStream(content)));
+    }
+
     // Get schema from the header
     Schema writerSchema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
 
@@ -197,7 +221,7 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
     // 3. Read the content
     for (int i = 0; i < totalRecords; i++) {
       int recordLength = dis.readInt();
-      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(getContent().get(), dis.getNumberOfBytesRead(),
+      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(content, dis.getNumberOfBytesRead(),
           recordLength, decoderCache.get());
       decoderCache.set(decoder);
       IndexedRecord record = reader.read(null, decoder);
@@ -210,6 +234,14 @@ public class HoodieAvroDataBlock extends HoodieLogBlock {
     deflate();
   }
 
+  /**
+   * Returns the codec the records are compressed with, as recorded in the header.
+   */
+  private HoodieDataBlockCompressionCodec getCompressionCodec() {
+    String codec = super.getLogBlockHeader().get(HeaderMetadataType.COMPRESSION_CODEC);
+    return codec == null ? HoodieDataBlockCompressionCodec.NONE : HoodieDataBlockCompressionCodec.valueOf(codec);
+  }
+
   //----------------------------------------------------------------------------------------
   //                                  DEPRECATED METHODS
   //----------------------------------------------------------------------------------------
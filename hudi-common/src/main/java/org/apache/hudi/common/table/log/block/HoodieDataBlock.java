@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.log.block;
+
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import javax.annotation.Nonnull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Abstract class of the log blocks holding records, whatever the format the records are serialized with.
+ * <p>
+ * The footer of a data block may hold a bloom filter of its record keys, so that key lookups can skip the blocks not
+ * holding the keys without decoding them.
+ */
+public abstract class HoodieDataBlock extends HoodieLogBlock {
+
+  public HoodieDataBlock(@Nonnull Map<HeaderMetadataType, String> logBlockHeader,
+      @Nonnull Map<HeaderMetadataType, String> logBlockFooter,
+      @Nonnull Option<HoodieLogBlockContentLocation> blockContentLocation, @Nonnull Option<byte[]> content,
+      FSDataInputStream inputStream, boolean readBlockLazily) {
+    super(logBlockHeader, logBlockFooter, blockContentLocation, content, inputStream, readBlockLazily);
+  }
+
+  /**
+   * Creates the footer of a data block holding the bloom filter of its record keys.
+   */
+  public static Map<HeaderMetadataType, String> createRecordKeyBloomFilterFooter(BloomFilter bloomFilter) {
+    Map<HeaderMetadataType, String> footer = new HashMap<>();
+    footer.put(HeaderMetadataType.RECORD_KEY_BLOOM_FILTER, bloomFilter.serializeToString());
+    footer.put(HeaderMetadataType.RECORD_KEY_BLOOM_FILTER_TYPE_CODE, bloomFilter.getBloomFilterTypeCode().name());
+    return footer;
+  }
+
+  /**
+   * Returns the bloom filter of the record keys of the block, when written in its footer.
+   */
+  public Option<BloomFilter> getRecordKeyBloomFilter() {
+    Map<HeaderMetadataType, String> footer = getLogBlockFooter();
+    if (footer == null || !footer.containsKey(HeaderMetadataType.RECORD_KEY_BLOOM_FILTER)) {
+      return Option.empty();
+    }
+    return Option.of(BloomFilterFactory.fromString(footer.get(HeaderMetadataType.RECORD_KEY_BLOOM_FILTER),
+        footer.get(HeaderMetadataType.RECORD_KEY_BLOOM_FILTER_TYPE_CODE)));
+  }
+
+  /**
+   * Returns the records of the block, read with the schema of the block.
+   */
+  public abstract List<IndexedRecord> getRecords();
+
+  /**
+   * Returns the schema the records of the block are read with.
+   */
+  public abstract Schema getSchema();
+}
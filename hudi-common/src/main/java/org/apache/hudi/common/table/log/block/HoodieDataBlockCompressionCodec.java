@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.log.block;
+
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codecs the content of avro data blocks can be compressed with. The codec of a block is recorded in its header as
+ * {@link HoodieLogBlock.HeaderMetadataType#COMPRESSION_CODEC}, blocks without it are not compressed.
+ */
+public enum HoodieDataBlockCompressionCodec {
+
+  NONE {
+    @Override
+    public byte[] compress(byte[] bytes) {
+      return bytes;
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length) {
+      byte[] decompressed = new byte[length];
+      System.arraycopy(bytes, offset, decompressed, 0, length);
+      return decompressed;
+    }
+  },
+
+  DEFLATE {
+    @Override
+    public byte[] compress(byte[] bytes) throws IOException {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try (DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater)) {
+        dos.write(bytes);
+      } finally {
+        // Deflater takes off-heap native memory and does not release until GC kicks in
+        deflater.end();
+      }
+      return baos.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length) throws IOException {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream(length * 2);
+      Inflater inflater = new Inflater();
+      try (InflaterInputStream iis = new InflaterInputStream(new ByteArrayInputStream(bytes, offset, length), inflater)) {
+        byte[] buffer = new byte[8192];
+        int len;
+        while ((len = iis.read(buffer)) > 0) {
+          baos.write(buffer, 0, len);
+        }
+      } finally {
+        inflater.end();
+      }
+      return baos.toByteArray();
+    }
+  },
+
+  SNAPPY {
+    @Override
+    public byte[] compress(byte[] bytes) throws IOException {
+      return Snappy.compress(bytes);
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length) throws IOException {
+      byte[] decompressed = new byte[Snappy.uncompressedLength(bytes, offset, length)];
+      Snappy.uncompress(bytes, offset, length, decompressed, 0);
+      return decompressed;
+    }
+  };
+
+  /**
+   * Compresses the bytes.
+   */
+  public abstract byte[] compress(byte[] bytes) throws IOException;
+
+  /**
+   * Decompresses the given range of the bytes.
+   */
+  public abstract byte[] decompress(byte[] bytes, int offset, int length) throws IOException;
+}
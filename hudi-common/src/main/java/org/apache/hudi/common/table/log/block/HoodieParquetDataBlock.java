@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.log.block;
+
+import org.apache.hudi.common.fs.inline.InLineFsDataInputStream;
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopStreams;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * DataBlock contains a list of records stored as a parquet file, inlined in the log file. The Datablock contains 1.
+ * Data Block version 2. The parquet file holding the records.
+ * <p>
+ * Records are read with only the columns of the reader schema, so queries projecting a few columns only decode these.
+ * When the block is read lazily, only the footer and the column chunks of the projected columns are read from the log
+ * file.
+ * <p>
+ * The parquet compression codec the records are written with is recorded in the header as
+ * {@link HeaderMetadataType#COMPRESSION_CODEC}, so that a block read back is written again with the same codec.
+ */
+public class HoodieParquetDataBlock extends HoodieDataBlock {
+
+  // Size of the data block version preceding the parquet file in the content
+  private static final int VERSION_LENGTH = Integer.BYTES;
+
+  private List<IndexedRecord> records;
+  private Schema schema;
+  private final CompressionCodecName compressionCodec;
+
+  public HoodieParquetDataBlock(@Nonnull List<IndexedRecord> records, @Nonnull Map<HeaderMetadataType, String> header,
+      @Nonnull Map<HeaderMetadataType, String> footer, @Nonnull CompressionCodecName compressionCodec) {
+    super(withCompressionCodec(header, compressionCodec), footer, Option.empty(), Option.empty(), null, false);
+    this.records = records;
+    this.schema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
+    this.compressionCodec = compressionCodec;
+  }
+
+  public HoodieParquetDataBlock(@Nonnull List<IndexedRecord> records, @Nonnull Map<HeaderMetadataType, String> header,
+      @Nonnull CompressionCodecName compressionCodec) {
+    this(records, header, new HashMap<>(), compressionCodec);
+  }
+
+  public HoodieParquetDataBlock(@Nonnull List<IndexedRecord> records, @Nonnull Map<HeaderMetadataType, String> header) {
+    this(records, header, CompressionCodecName.GZIP);
+  }
+
+  private HoodieParquetDataBlock(Option<byte[]> content, @Nonnull FSDataInputStream inputStream,
+      boolean readBlockLazily, Option<HoodieLogBlockContentLocation> blockContentLocation, Schema readerSchema,
+      @Nonnull Map<HeaderMetadataType, String> headers, @Nonnull Map<HeaderMetadataType, String> footer) {
+    super(headers, footer, blockContentLocation, content, inputStream, readBlockLazily);
+    this.schema = readerSchema;
+    String codec = headers.get(HeaderMetadataType.COMPRESSION_CODEC);
+    this.compressionCodec = codec != null ? CompressionCodecName.valueOf(codec) : CompressionCodecName.GZIP;
+  }
+
+  private static Map<HeaderMetadataType, String> withCompressionCodec(Map<HeaderMetadataType, String> header,
+      CompressionCodecName compressionCodec) {
+    // the header may be shared with other blocks
+    Map<HeaderMetadataType, String> blockHeader = new HashMap<>(header);
+    blockHeader.put(HeaderMetadataType.COMPRESSION_CODEC, compressionCodec.name());
+    return blockHeader;
+  }
+
+  public static HoodieLogBlock getBlock(HoodieLogFile logFile, FSDataInputStream inputStream, Option<byte[]> content,
+      boolean readBlockLazily, long position, long blockSize, long blockEndpos, Schema readerSchema,
+      Map<HeaderMetadataType, String> header, Map<HeaderMetadataType, String> footer) {
+    return new HoodieParquetDataBlock(content, inputStream, readBlockLazily,
+        Option.of(new HoodieLogBlockContentLocation(logFile, position, blockSize, blockEndpos)), readerSchema, header,
+        footer);
+  }
+
+  @Override
+  public byte[] getContentBytes() throws IOException {
+    // In case this method is called before realizing records from content
+    if (getContent().isPresent()) {
+      return getContent().get();
+    } else if (readBlockLazily && records == null) {
+      // read block lazily
+      getRecords();
+    }
+
+    Schema writerSchema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(baos);
+
+    // 1. Write out the log block version
+    output.writeInt(HoodieLogBlock.version);
+    output.flush();
+
+    // 2. Write the records as a parquet file
+    try (ParquetWriter<IndexedRecord> writer = AvroParquetWriter.<IndexedRecord>builder(new ByteArrayOutputFile(baos))
+        .withSchema(writerSchema).withDataModel(GenericData.get()).withCompressionCodec(compressionCodec)
+        .withConf(new Configuration(false)).build()) {
+      for (IndexedRecord record : records) {
+        writer.write(record);
+      }
+    }
+    return baos.toByteArray();
+  }
+
+  @Override
+  public HoodieLogBlockType getBlockType() {
+    return HoodieLogBlockType.PARQUET_DATA_BLOCK;
+  }
+
+  @Override
+  public List<IndexedRecord> getRecords() {
+    if (records == null) {
+      try {
+        // in case records are absent, read them from the inlined parquet file
+        this.records = readRecords();
+      } catch (IOException io) {
+        throw new HoodieIOException("Unable to read records from parquet data block", io);
+      }
+    }
+    return records;
+  }
+
+  @Override
+  public Schema getSchema() {
+    // if getSchema was invoked before reading the records
+    if (records == null) {
+      getRecords();
+    }
+    return schema;
+  }
+
+  private List<IndexedRecord> readRecords() throws IOException {
+    Schema writerSchema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
+    // If readerSchema was not present, use writerSchema
+    if (schema == null) {
+      schema = writerSchema;
+    }
+    Configuration conf = new Configuration(false);
+    AvroReadSupport.setRequestedProjection(conf, getProjectionSchema(writerSchema, schema));
+    AvroReadSupport.setAvroReadSchema(conf, schema);
+
+    InputFile inputFile;
+    if (getContent().isPresent()) {
+      inputFile = new ByteArrayInputFile(getContent().get(), VERSION_LENGTH);
+    } else {
+      // Read the projected columns straight from the log file, instead of inflating the whole content
+      HoodieLogBlockContentLocation location = getBlockContentLocation().get();
+      inputFile = new InLineInputFile(inputStream, location.getContentPositionInLogFile() + VERSION_LENGTH,
+          location.getBlockSize() - VERSION_LENGTH);
+    }
+
+    List<IndexedRecord> records = new ArrayList<>();
+    try (ParquetReader<IndexedRecord> reader = AvroParquetReader.<IndexedRecord>builder(inputFile)
+        .withDataModel(GenericData.get()).withConf(conf).build()) {
+      for (IndexedRecord record = reader.read(); record != null; record = reader.read()) {
+        records.add(record);
+      }
+    } finally {
+      if (!getContent().isPresent()) {
+        inputStream.seek(getBlockContentLocation().get().getBlockEndPos());
+      }
+    }
+    // Free up content to be GC'd, deflate
+    deflate();
+    return records;
+  }
+
+  /**
+   * Returns the columns of the reader schema written in the block, which are the only ones read from the block.
+   */
+  private static Schema getProjectionSchema(Schema writerSchema, Schema readerSchema) {
+    List<Schema.Field> fields = readerSchema.getFields().stream()
+        .map(field -> writerSchema.getField(field.name()))
+        .filter(field -> field != null)
+        .map(field -> new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()))
+        .collect(Collectors.toList());
+    Schema projectionSchema = Schema.createRecord(writerSchema.getName(), writerSchema.getDoc(),
+        writerSchema.getNamespace(), writerSchema.isError());
+    projectionSchema.setFields(fields);
+    return projectionSchema;
+  }
+
+  /**
+   * Parquet file written at the end of a byte array stream.
+   */
+  private static class ByteArrayOutputFile implements OutputFile {
+
+    private final ByteArrayOutputStream baos;
+
+    ByteArrayOutputFile(ByteArrayOutputStream baos) {
+      this.baos = baos;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) {
+      // Positions are relative to the start of the parquet file
+      int startPos = baos.size();
+      return new PositionOutputStream() {
+        @Override
+        public long getPos() {
+          return baos.size() - startPos;
+        }
+
+        @Override
+        public void write(int b) {
+          baos.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+          baos.write(b, off, len);
+        }
+      };
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+      return create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+      return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+      return 0;
+    }
+  }
+
+  /**
+   * Parquet file held in a byte array, starting at an offset.
+   */
+  private static class ByteArrayInputFile implements InputFile {
+
+    private final byte[] bytes;
+    private final int offset;
+
+    ByteArrayInputFile(byte[] bytes, int offset) {
+      this.bytes = bytes;
+      this.offset = offset;
+    }
+
+    @Override
+    public long getLength() {
+      return bytes.length - offset;
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+      SeekableByteArrayInputStream in = new SeekableByteArrayInputStream(bytes, offset);
+      return new DelegatingSeekableInputStream(in) {
+        @Override
+        public long getPos() {
+          return in.getPos();
+        }
+
+        @Override
+        public void seek(long newPos) {
+          in.seek(newPos);
+        }
+      };
+    }
+  }
+
+  private static class SeekableByteArrayInputStream extends ByteArrayInputStream {
+
+    private final int offset;
+
+    SeekableByteArrayInputStream(byte[] bytes, int offset) {
+      super(bytes, offset, bytes.length - offset);
+      this.offset = offset;
+    }
+
+    long getPos() {
+      return pos - offset;
+    }
+
+    void seek(long newPos) {
+      pos = offset + (int) newPos;
+    }
+  }
+
+  /**
+   * Parquet file inlined in the log file being read, see {@link InLineFsDataInputStream}.
+   */
+  private static class InLineInputFile implements InputFile {
+
+    private final FSDataInputStream logFileStream;
+    private final long startOffset;
+    private final long length;
+
+    InLineInputFile(FSDataInputStream logFileStream, long startOffset, long length) {
+      this.logFileStream = logFileStream;
+      this.startOffset = startOffset;
+      this.length = length;
+    }
+
+    @Override
+    public long getLength() {
+      return length;
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+      return HadoopStreams.wrap(new InLineFsDataInputStream(startOffset, logFileStream, length) {
+        @Override
+        public void close() {
+          // The log file stream is owned by the log file reader
+        }
+      });
+    }
+  }
+}
@@ -39,6 +39,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -69,6 +71,8 @@ public class HoodieActiveTimeline extends HoodieDefaultTimeline {
 
   private static final Logger LOG = LogManager.getLogger(HoodieActiveTimeline.class);
   protected HoodieTableMetaClient metaClient;
+  // completed rollbacks found when loading the timeline
+  private List<HoodieInstant> completedRollbackInstants = Collections.emptyList();
   private static AtomicReference<String> lastInstantTime = new AtomicReference<>(String.valueOf(Integer.MIN_VALUE));
 
   /**
@@ -94,7 +98,15 @@ public class HoodieActiveTimeline extends HoodieDefaultTimeline {
     // Filter all the filter in the metapath and include only the extensions passed and
     // convert them into HoodieInstant
     try {
-      this.setInstants(metaClient.scanHoodieInstantsFromFileSystem(includedExtensions, applyLayoutFilters));
+      // completed rollbacks are not part of the active timeline, but are kept aside from the same scan of the meta
+      // path, for the file listing of the table to apply them
+      Set<String> scannedExtensions = new HashSet<>(includedExtensions);
+      scannedExtensions.add(ROLLBACK_EXTENSION);
+      Map<Boolean, List<HoodieInstant>> instants = metaClient.scanHoodieInstantsFromFileSystem(scannedExtensions,
+          applyLayoutFilters).stream().collect(Collectors.partitioningBy(instant -> !includedExtensions.contains(
+              ROLLBACK_EXTENSION) && instant.isCompleted() && ROLLBACK_ACTION.equals(instant.getAction())));
+      this.setInstants(instants.get(false));
+      this.completedRollbackInstants = instants.get(true);
     } catch (IOException e) {
       throw new HoodieIOException("Failed to scan metadata", e);
     }
@@ -113,6 +125,14 @@ public class HoodieActiveTimeline extends HoodieDefaultTimeline {
     this(metaClient, Collections.unmodifiableSet(VALID_EXTENSIONS_IN_ACTIVE_TIMELINE), applyLayoutFilter);
   }
 
+  /**
+   * Returns the completed rollbacks found in the meta path when loading the timeline, ordered by time. These are not
+   * part of the timeline itself.
+   */
+  public List<HoodieInstant> getCompletedRollbackInstants() {
+    return completedRollbackInstants;
+  }
+
   /**
    * For serialization and de-serialization only.
    *
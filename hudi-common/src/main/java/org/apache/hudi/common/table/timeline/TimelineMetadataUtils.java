@@ -64,8 +64,14 @@ public class TimelineMetadataUtils {
     Map<String, HoodieRollbackPartitionMetadata> partitionMetadataBuilder = new HashMap<>();
     int totalDeleted = 0;
     for (HoodieRollbackStat stat : rollbackStats) {
+      // log files the rollback appended command blocks to, by name, with their size after the append
+      Map<String, Long> rollbackLogFiles = new HashMap<>();
+      if (stat.getCommandBlocksCount() != null) {
+        stat.getCommandBlocksCount().keySet().forEach(
+            status -> rollbackLogFiles.put(status.getPath().getName(), status.getLen()));
+      }
       HoodieRollbackPartitionMetadata metadata = new HoodieRollbackPartitionMetadata(stat.getPartitionPath(),
-          stat.getSuccessDeleteFiles(), stat.getFailedDeleteFiles());
+          stat.getSuccessDeleteFiles(), stat.getFailedDeleteFiles(), rollbackLogFiles);
       partitionMetadataBuilder.put(stat.getPartitionPath(), metadata);
       totalDeleted += stat.getSuccessDeleteFiles().size();
     }
@@ -26,6 +26,7 @@ import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.CompactionUtils;
@@ -44,11 +45,13 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -67,19 +70,78 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   private static final Logger LOG = LogManager.getLogger(AbstractTableFileSystemView.class);
 
+  private static final int NUM_PARTITION_LOCK_STRIPES = 256;
+
   protected HoodieTableMetaClient metaClient;
 
   // This is the commits timeline that will be visible for all views extending this view
-  private HoodieTimeline visibleCommitsAndCompactionTimeline;
+  private volatile HoodieTimeline visibleCommitsAndCompactionTimeline;
+
+  // Timeline the view was last refreshed with, and the file listing of the table as of that timeline, if the table
+  // has one. The listing is loaded lazily, when the first partition is loaded.
+  private HoodieTimeline visibleActiveTimeline;
+  private Option<HoodieFileListing> fileListing;
+  // Listing loaded for an earlier timeline, advanced to the current one instead of loading the listing again
+  private HoodieFileListing previousFileListing;
 
   // Used to concurrently load and populate partition views
   private ConcurrentHashMap<String, Boolean> addedPartitions = new ConcurrentHashMap<>(4096);
 
-  // Locks to control concurrency. Sync operations use write-lock blocking all fetch operations.
+  // Locks to control concurrency. Resets and full syncs use the global write-lock blocking all fetch operations.
+  // Syncs which only change a few partitions hold the global read-lock and the write-lock of the stripes of the
+  // partitions they update, so fetches on all other partitions are not blocked.
   // For the common-case, we allow concurrent read of single or multiple partitions
   private final ReentrantReadWriteLock globalLock = new ReentrantReadWriteLock();
   private final ReadLock readLock = globalLock.readLock();
   private final WriteLock writeLock = globalLock.writeLock();
+  private final ReentrantReadWriteLock[] partitionLocks = createPartitionLocks();
+  // Ensures only one sync applies timeline changes at a time
+  private final ReentrantLock syncLock = new ReentrantLock();
+  // Write-locks of the stripes of partitions a partition level sync skipped, as they were not loaded yet. These are
+  // held until the sync published its timeline, so that the partitions are not loaded against the replaced timeline.
+  // Only set while the sync runs, guarded by the sync lock
+  private List<WriteLock> skippedPartitionLocks;
+
+  private static ReentrantReadWriteLock[] createPartitionLocks() {
+    ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[NUM_PARTITION_LOCK_STRIPES];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+    return locks;
+  }
+
+  /**
+   * Returns the lock of the stripe the partition belongs to.
+   */
+  private ReentrantReadWriteLock getPartitionLock(String partitionPath) {
+    return partitionLocks[(partitionPath.hashCode() & Integer.MAX_VALUE) % partitionLocks.length];
+  }
+
+  /**
+   * Runs an update of the view of a partition while holding the write-lock of its stripe. Fetches on the partition
+   * wait for the update to finish, while the other partitions stay readable. During a partition level sync, the
+   * write-lock of a partition not loaded yet is kept until the sync completes.
+   *
+   * @param partitionPath Partition Path
+   * @param update Update to be applied to the partition view
+   */
+  protected void updatePartitionView(String partitionPath, Runnable update) {
+    WriteLock partitionWriteLock = getPartitionLock(partitionPath).writeLock();
+    boolean holdLock = false;
+    try {
+      partitionWriteLock.lock();
+      update.run();
+      holdLock = syncLock.isHeldByCurrentThread() && skippedPartitionLocks != null
+          && !isPartitionAvailableInStore(partitionPath);
+      if (holdLock) {
+        skippedPartitionLocks.add(partitionWriteLock);
+      }
+    } finally {
+      if (!holdLock) {
+        partitionWriteLock.unlock();
+      }
+    }
+  }
 
   private String getPartitionPathFromFilePath(String fullPath) {
     return FSUtils.getRelativePartitionPath(new Path(metaClient.getBasePath()), new Path(fullPath).getParent());
@@ -104,6 +166,24 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
    */
   protected void refreshTimeline(HoodieTimeline visibleActiveTimeline) {
     this.visibleCommitsAndCompactionTimeline = visibleActiveTimeline.getCommitsAndCompactionTimeline();
+    synchronized (this) {
+      this.visibleActiveTimeline = visibleActiveTimeline;
+      if (this.fileListing != null && this.fileListing.isPresent()) {
+        this.previousFileListing = this.fileListing.get();
+      }
+      this.fileListing = null;
+    }
+  }
+
+  /**
+   * Returns the file listing of the table as of the timeline of the view, if the table maintains one.
+   */
+  private synchronized Option<HoodieFileListing> getFileListing() {
+    if (fileListing == null) {
+      fileListing = previousFileListing != null ? Option.of(previousFileListing.advance(metaClient,
+          visibleActiveTimeline)) : HoodieFileListing.load(metaClient, visibleActiveTimeline);
+    }
+    return fileListing;
   }
 
   /**
@@ -221,7 +301,9 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
           Path partitionPath = FSUtils.getPartitionPath(metaClient.getBasePath(), partitionPathStr);
           FSUtils.createPathIfNotExists(metaClient.getFs(), partitionPath);
           long beginLsTs = System.currentTimeMillis();
-          FileStatus[] statuses = metaClient.getFs().listStatus(partitionPath);
+          Option<HoodieFileListing> listing = getFileListing();
+          FileStatus[] statuses = listing.isPresent() ? listing.get().getFileStatuses(partitionPathStr)
+              : metaClient.getFs().listStatus(partitionPath);
           long endLsTs = System.currentTimeMillis();
           LOG.info("#files found in partition (" + partitionPathStr + ") =" + statuses.length + ", Time taken ="
               + (endLsTs - beginLsTs));
@@ -324,12 +406,15 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieBaseFile> getLatestBaseFiles(String partitionStr) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchLatestBaseFiles(partitionPath);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -346,9 +431,11 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieBaseFile> getLatestBaseFilesBeforeOrOn(String partitionStr, String maxCommitTime) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchAllStoredFileGroups(partitionPath)
           .map(fileGroup -> Option.fromJavaOptional(fileGroup.getAllBaseFiles()
@@ -357,21 +444,25 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
               .filter(df -> !isBaseFileDueToPendingCompaction(df)).findFirst()))
           .filter(Option::isPresent).map(Option::get);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
 
   @Override
   public final Option<HoodieBaseFile> getBaseFileOn(String partitionStr, String instantTime, String fileId) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchHoodieFileGroup(partitionPath, fileId).map(fileGroup -> fileGroup.getAllBaseFiles()
           .filter(
               baseFile -> HoodieTimeline.compareTimestamps(baseFile.getCommitTime(), HoodieTimeline.EQUALS, instantTime))
           .filter(df -> !isBaseFileDueToPendingCompaction(df)).findFirst().orElse(null));
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -381,12 +472,15 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
    */
   @Override
   public final Option<HoodieBaseFile> getLatestBaseFile(String partitionStr, String fileId) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchLatestBaseFile(partitionPath, fileId);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -405,26 +499,32 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieBaseFile> getAllBaseFiles(String partitionStr) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchAllBaseFiles(partitionPath)
           .filter(df -> visibleCommitsAndCompactionTimeline.containsOrBeforeTimelineStarts(df.getCommitTime()))
           .filter(df -> !isBaseFileDueToPendingCompaction(df));
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
 
   @Override
   public final Stream<FileSlice> getLatestFileSlices(String partitionStr) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchLatestFileSlices(partitionPath).map(this::filterBaseFileAfterPendingCompaction);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -434,22 +534,27 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
    */
   @Override
   public final Option<FileSlice> getLatestFileSlice(String partitionStr, String fileId) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       Option<FileSlice> fs = fetchLatestFileSlice(partitionPath, fileId);
       return fs.map(this::filterBaseFileAfterPendingCompaction);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
 
   @Override
   public final Stream<FileSlice> getLatestUnCompactedFileSlices(String partitionStr) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       return fetchAllStoredFileGroups(partitionPath).map(fileGroup -> {
         FileSlice fileSlice = fileGroup.getLatestFileSlice().get();
@@ -463,6 +568,7 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
         return Option.of(fileSlice);
       }).map(Option::get);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -470,9 +576,11 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
   @Override
   public final Stream<FileSlice> getLatestFileSlicesBeforeOrOn(String partitionStr, String maxCommitTime,
       boolean includeFileSlicesInPendingCompaction) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partitionPath).readLock();
     try {
       readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partitionPath);
       Stream<FileSlice> fileSliceStream = fetchLatestFileSlicesBeforeOrOn(partitionPath, maxCommitTime);
       if (includeFileSlicesInPendingCompaction) {
@@ -481,15 +589,18 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
         return fileSliceStream.filter(fs -> !isPendingCompactionScheduledForFileId(fs.getFileGroupId()));
       }
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
 
   @Override
   public final Stream<FileSlice> getLatestMergedFileSlicesBeforeOrOn(String partitionStr, String maxInstantTime) {
+    String partition = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partition).readLock();
     try {
       readLock.lock();
-      String partition = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partition);
       return fetchAllStoredFileGroups(partition).map(fileGroup -> {
         Option<FileSlice> fileSlice = fileGroup.getLatestFileSliceBeforeOrOn(maxInstantTime);
@@ -500,6 +611,7 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
         return fileSlice;
       }).filter(Option::isPresent).map(Option::get);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -516,12 +628,15 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<FileSlice> getAllFileSlices(String partitionStr) {
+    String partition = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partition).readLock();
     try {
       readLock.lock();
-      String partition = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partition);
       return fetchAllFileSlices(partition);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -536,14 +651,17 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieFileGroup> getAllFileGroups(String partitionStr) {
+    // Ensure there is consistency in handling trailing slash in partition-path. Always trim it which is what is done
+    // in other places.
+    String partition = formatPartitionKey(partitionStr);
+    ReadLock partitionReadLock = getPartitionLock(partition).readLock();
     try {
       readLock.lock();
-      // Ensure there is consistency in handling trailing slash in partition-path. Always trim it which is what is done
-      // in other places.
-      String partition = formatPartitionKey(partitionStr);
+      partitionReadLock.lock();
       ensurePartitionLoadedCorrectly(partition);
       return fetchAllStoredFileGroups(partition);
     } finally {
+      partitionReadLock.unlock();
       readLock.unlock();
     }
   }
@@ -783,16 +901,116 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public void sync() {
-    HoodieTimeline oldTimeline = getTimeline();
-    HoodieTimeline newTimeline = metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants();
     try {
+      syncLock.lock();
+      HoodieTimeline oldTimeline = getTimeline();
+      HoodieTimeline newTimeline = metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants();
+      boolean synced;
+      try {
+        readLock.lock();
+        skippedPartitionLocks = new ArrayList<>();
+        synced = runPartitionLevelSync(oldTimeline, newTimeline);
+      } finally {
+        // partitions skipped are loaded against the new timeline from now on
+        skippedPartitionLocks.forEach(WriteLock::unlock);
+        skippedPartitionLocks = null;
+        readLock.unlock();
+      }
+      if (!synced) {
+        try {
+          writeLock.lock();
+          runSync(oldTimeline, newTimeline);
+        } finally {
+          writeLock.unlock();
+        }
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Captures the partitions loaded into the view so far and the pending compaction operations, as of the timeline of
+   * the view. Syncs are held off meanwhile, so that the captured state matches the timeline.
+   */
+  public FileSystemViewSnapshot createSnapshot() {
+    try {
+      syncLock.lock();
+      readLock.lock();
+      HoodieTimeline timeline;
+      synchronized (this) {
+        timeline = visibleActiveTimeline;
+      }
+      Map<String, List<FileSlice>> partitionToFileSlices = new HashMap<>();
+      addedPartitions.keySet().forEach(partitionPath -> partitionToFileSlices.put(partitionPath,
+          fetchAllStoredFileGroups(partitionPath).flatMap(HoodieFileGroup::getAllRawFileSlices)
+              .collect(Collectors.toList())));
+      return new FileSystemViewSnapshot(metaClient.getBasePath(), timeline.getInstants().collect(Collectors.toList()),
+          fetchPendingCompactionOperations().collect(Collectors.toList()), partitionToFileSlices);
+    } finally {
+      readLock.unlock();
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Restores the partitions of a snapshot into a view which did not load any partition yet, and brings them up to
+   * date with the timeline of the view.
+   *
+   * @param snapshot Snapshot of a view of the table
+   * @return true if the snapshot was restored, false if the partitions have to be listed again
+   */
+  public final boolean restoreSnapshot(FileSystemViewSnapshot snapshot) {
+    try {
+      syncLock.lock();
       writeLock.lock();
-      runSync(oldTimeline, newTimeline);
+      ValidationUtils.checkState(addedPartitions.isEmpty(), "Snapshots can only be restored into empty views");
+      return runSnapshotRestore(snapshot);
     } finally {
       writeLock.unlock();
+      syncLock.unlock();
     }
   }
 
+  /**
+   * Restores a snapshot under the global write-lock. Base implementation cannot catch up with the instants completed
+   * after the snapshot, hence does not support it.
+   *
+   * @param snapshot Snapshot of a view of the table
+   * @return true if the snapshot was restored
+   */
+  protected boolean runSnapshotRestore(FileSystemViewSnapshot snapshot) {
+    return false;
+  }
+
+  /**
+   * Loads the partitions and pending compaction operations of a snapshot into the view. File groups are built against
+   * the timeline of the view, the instants completed after the snapshot have to be applied afterwards.
+   *
+   * @param snapshot Snapshot of a view of the table
+   */
+  protected void loadSnapshot(FileSystemViewSnapshot snapshot) {
+    resetPendingCompactionOperations(snapshot.getPendingCompactionOperations().stream());
+    snapshot.getPartitionPaths().forEach(partitionPath -> {
+      storePartitionView(partitionPath, snapshot.getFileGroups(partitionPath, visibleCommitsAndCompactionTimeline));
+      addedPartitions.put(partitionPath, true);
+    });
+  }
+
+  /**
+   * Syncs the view by only updating the partitions changed between the timelines, without blocking fetches on other
+   * partitions. Runs under the global read-lock, so partition views must be changed through
+   * {@link #updatePartitionView(String, Runnable)}, and the new timeline must be refreshed before returning, as loads
+   * of the partitions skipped are held off until then. Base implementation does not support it.
+   *
+   * @param oldTimeline Old Hoodie Timeline
+   * @param newTimeline New Hoodie Timeline
+   * @return true if the view was synced, false if a sync under the global write-lock is needed
+   */
+  protected boolean runPartitionLevelSync(HoodieTimeline oldTimeline, HoodieTimeline newTimeline) {
+    return false;
+  }
+
   /**
    * Performs complete reset of file-system view. Subsequent partition view calls will load file slices against latest
    * timeline
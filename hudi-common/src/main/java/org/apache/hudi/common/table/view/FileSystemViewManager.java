@@ -19,14 +19,24 @@
 package org.apache.hudi.common.table.view;
 
 import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.Functions.Function2;
+import org.apache.hudi.common.util.Option;
 
+import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A container that can potentially hold one or more table's file-system views. There is one view for each table.
@@ -48,6 +58,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * FileSystemViewManager is designed to encapsulate the file-system view storage from clients using the file-system
  * view. FileSystemViewManager uses a factory to construct specific implementation of file-system view and passes it to
  * clients for querying.
+ *
+ * When serving many tables, the number of table views held at a time can be bounded. The views of the least recently
+ * used tables are then evicted and built again on their next access. Only views not acquired by any caller are
+ * evicted, so that a lookup in progress is never served by a closed view.
+ *
+ * With view snapshots enabled, local views are restored from the snapshot of their table when created, and write a
+ * snapshot when they are evicted or the manager is closed. Restarted writers and timeline servers thereby only list
+ * the partitions they did not load before.
  */
 public class FileSystemViewManager {
   private static final Logger LOG = LogManager.getLogger(FileSystemViewManager.class);
@@ -57,6 +75,13 @@ public class FileSystemViewManager {
   private final FileSystemViewStorageConfig viewStorageConfig;
   // Map from Base-Path to View
   private final ConcurrentHashMap<String, SyncableFileSystemView> globalViewMap;
+  // Map from Base-Path to usage stats of the table's view, kept across evictions of the view
+  private final ConcurrentHashMap<String, TableViewStats> tableViewStats;
+  private final AtomicLong accessSeq = new AtomicLong();
+  // Number of users of each view acquired and not yet released. Guarded by this manager
+  private final Map<SyncableFileSystemView, Integer> viewUsers = new IdentityHashMap<>();
+  // Views dropped by the manager while in use, closed once released by their last user. Guarded by this manager
+  private final Set<SyncableFileSystemView> viewsPendingClose = Collections.newSetFromMap(new IdentityHashMap<>());
   // Factory Map to create file-system views
   private final Function2<String, FileSystemViewStorageConfig, SyncableFileSystemView> viewCreator;
 
@@ -65,19 +90,30 @@ public class FileSystemViewManager {
     this.conf = new SerializableConfiguration(conf);
     this.viewStorageConfig = viewStorageConfig;
     this.globalViewMap = new ConcurrentHashMap<>();
+    this.tableViewStats = new ConcurrentHashMap<>();
     this.viewCreator = viewCreator;
   }
 
   /**
-   * Drops reference to File-System Views. Future calls to view results in creating a new view
+   * Drops reference to File-System Views. Future calls to view results in creating a new view. A view still acquired
+   * by callers is closed once they all released it.
    * 
    * @param basePath
    */
   public void clearFileSystemView(String basePath) {
-    SyncableFileSystemView view = globalViewMap.remove(basePath);
-    if (view != null) {
-      view.close();
+    SyncableFileSystemView view;
+    synchronized (this) {
+      view = globalViewMap.remove(basePath);
+      if (view == null) {
+        return;
+      }
+      if (viewUsers.containsKey(view)) {
+        LOG.info("Deferring close of file-system view of " + basePath + " until it is released");
+        viewsPendingClose.add(view);
+        return;
+      }
     }
+    view.close();
   }
 
   /**
@@ -87,15 +123,189 @@ public class FileSystemViewManager {
    * @return
    */
   public SyncableFileSystemView getFileSystemView(String basePath) {
-    return globalViewMap.computeIfAbsent(basePath, (path) -> viewCreator.apply(path, viewStorageConfig));
+    TableViewStats stats = tableViewStats.computeIfAbsent(basePath, path -> new TableViewStats());
+    stats.lastAccessMs = System.currentTimeMillis();
+    stats.lastAccessSeq = accessSeq.incrementAndGet();
+    SyncableFileSystemView view = globalViewMap.get(basePath);
+    if (view == null) {
+      view = globalViewMap.computeIfAbsent(basePath, (path) -> {
+        stats.numLoads.incrementAndGet();
+        return viewCreator.apply(path, viewStorageConfig);
+      });
+      evictLeastRecentlyUsedViews(basePath);
+    }
+    return view;
+  }
+
+  /**
+   * Gets the file-system view for the base-path, which is neither evicted nor closed until released through
+   * {@link #releaseFileSystemView(SyncableFileSystemView)}, even if cleared meanwhile.
+   *
+   * @param basePath Base Path of table
+   * @return the view
+   */
+  public SyncableFileSystemView acquireFileSystemView(String basePath) {
+    while (true) {
+      SyncableFileSystemView view = getFileSystemView(basePath);
+      synchronized (this) {
+        // the view may have been evicted and closed since it was returned, in which case it is loaded again
+        if (globalViewMap.get(basePath) == view) {
+          viewUsers.merge(view, 1, Integer::sum);
+          return view;
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases a view acquired through {@link #acquireFileSystemView(String)}. A view dropped by the manager while in use
+   * is closed when released by its last user.
+   *
+   * @param view View to release
+   */
+  public void releaseFileSystemView(SyncableFileSystemView view) {
+    synchronized (this) {
+      Integer users = viewUsers.computeIfPresent(view, (v, numUsers) -> numUsers > 1 ? numUsers - 1 : null);
+      if (users != null || !viewsPendingClose.remove(view)) {
+        return;
+      }
+    }
+    view.close();
+  }
+
+  /**
+   * Closes the views of the least recently used tables until at most the configured number of table views is held.
+   * Views in use are skipped, and evicted on a later load once released. Evicted views release their memory and
+   * storage, and are built again when their table is next accessed.
+   *
+   * @param loadedBasePath Base path of the table whose view was just loaded, which is never evicted
+   */
+  private void evictLeastRecentlyUsedViews(String loadedBasePath) {
+    int maxTables = viewStorageConfig.getMaxTables();
+    Map<String, SyncableFileSystemView> evictedViews = new HashMap<>();
+    // only pick and detach the views under the lock, their snapshots are written to storage outside of it
+    synchronized (this) {
+      while (globalViewMap.size() > maxTables) {
+        Option<String> coldestBasePath = Option.fromJavaOptional(globalViewMap.keySet().stream()
+            .filter(path -> !path.equals(loadedBasePath) && !viewUsers.containsKey(globalViewMap.get(path)))
+            .min(Comparator.comparingLong(path -> tableViewStats.get(path).lastAccessSeq)));
+        if (!coldestBasePath.isPresent()) {
+          break;
+        }
+        LOG.info("Evicting file-system view of " + coldestBasePath.get() + " as more than " + maxTables
+            + " table views are held");
+        tableViewStats.get(coldestBasePath.get()).numEvictions.incrementAndGet();
+        // views in use are not picked, so that nobody else can get hold of a detached view
+        evictedViews.put(coldestBasePath.get(), globalViewMap.remove(coldestBasePath.get()));
+      }
+    }
+    evictedViews.forEach(this::saveSnapshotAndClose);
+  }
+
+  /**
+   * Returns the usage stats of the views of each table accessed, by base path.
+   */
+  public Map<String, Map<String, Long>> getTableViewStats() {
+    Map<String, Map<String, Long>> result = new HashMap<>();
+    tableViewStats.forEach((basePath, stats) -> {
+      Map<String, Long> metrics = new HashMap<>();
+      metrics.put("loaded", globalViewMap.containsKey(basePath) ? 1L : 0L);
+      metrics.put("numLoads", stats.numLoads.get());
+      metrics.put("numEvictions", stats.numEvictions.get());
+      metrics.put("lastAccessMs", stats.lastAccessMs);
+      result.put(basePath, metrics);
+    });
+    return result;
   }
 
   /**
    * Closes all views opened.
    */
   public void close() {
-    this.globalViewMap.values().forEach(SyncableFileSystemView::close);
-    this.globalViewMap.clear();
+    Map<String, SyncableFileSystemView> views;
+    Set<SyncableFileSystemView> pendingClose;
+    synchronized (this) {
+      views = new HashMap<>(this.globalViewMap);
+      pendingClose = Collections.newSetFromMap(new IdentityHashMap<>());
+      pendingClose.addAll(this.viewsPendingClose);
+      this.globalViewMap.clear();
+      this.viewsPendingClose.clear();
+      this.viewUsers.clear();
+    }
+    views.forEach(this::saveSnapshotAndClose);
+    pendingClose.forEach(SyncableFileSystemView::close);
+  }
+
+  private void saveSnapshotAndClose(String basePath, SyncableFileSystemView view) {
+    saveSnapshot(basePath, view);
+    view.close();
+  }
+
+  /**
+   * Writes a snapshot of the view of a table, if enabled. Only local views are snapshotted, and only once they loaded
+   * some partitions, so that a short-lived view does not replace a snapshot holding more partitions.
+   *
+   * @param basePath Base Path of table
+   * @param view View of the table
+   */
+  private void saveSnapshot(String basePath, SyncableFileSystemView view) {
+    if (!viewStorageConfig.isViewSnapshotEnabled() || !(view instanceof AbstractTableFileSystemView)
+        || ((AbstractTableFileSystemView) view).isClosed()) {
+      return;
+    }
+    try {
+      FileSystemViewSnapshot snapshot = ((AbstractTableFileSystemView) view).createSnapshot();
+      if (snapshot.getPartitionPaths().isEmpty()) {
+        return;
+      }
+      Path snapshotPath = FileSystemViewSnapshot.getSnapshotPath(basePath, viewStorageConfig.getViewSnapshotDir());
+      snapshot.write(FSUtils.getFs(snapshotPath.toString(), conf.newCopy()), snapshotPath);
+    } catch (Exception e) {
+      LOG.warn("Unable to write snapshot of file-system view of " + basePath, e);
+    }
+  }
+
+  /**
+   * Restores the view of a table from its snapshot, if enabled and one was written. The partitions of the view are
+   * listed again if the snapshot cannot be restored.
+   *
+   * @param viewConf View Storage Configuration
+   * @param view Newly created view of the table
+   * @return the view
+   */
+  private static <T extends AbstractTableFileSystemView> T restoreSnapshot(FileSystemViewStorageConfig viewConf,
+      T view) {
+    if (!viewConf.isViewSnapshotEnabled()) {
+      return view;
+    }
+    String basePath = view.metaClient.getBasePath();
+    Path snapshotPath = FileSystemViewSnapshot.getSnapshotPath(basePath, viewConf.getViewSnapshotDir());
+    try {
+      Option<FileSystemViewSnapshot> snapshot =
+          FileSystemViewSnapshot.read(FSUtils.getFs(snapshotPath.toString(), view.metaClient.getHadoopConf()),
+              snapshotPath);
+      if (!snapshot.isPresent()) {
+        LOG.info("No snapshot of file-system view found at " + snapshotPath);
+      } else if (!snapshot.get().getBasePath().equals(basePath)) {
+        LOG.warn("Ignoring snapshot " + snapshotPath + " of another table " + snapshot.get().getBasePath());
+      } else if (view.restoreSnapshot(snapshot.get())) {
+        LOG.info("Restored file-system view of " + basePath + " from snapshot " + snapshotPath);
+      }
+    } catch (Exception e) {
+      LOG.warn("Unable to restore file-system view of " + basePath + " from snapshot " + snapshotPath, e);
+    }
+    return view;
+  }
+
+  /**
+   * Usage stats of the view of a table.
+   */
+  private static class TableViewStats {
+    private final AtomicLong numLoads = new AtomicLong();
+    private final AtomicLong numEvictions = new AtomicLong();
+    private volatile long lastAccessMs;
+    // Position of the last access in the order of accesses to all tables
+    private volatile long lastAccessSeq;
   }
 
   // FACTORY METHODS FOR CREATING FILE-SYSTEM VIEWS
@@ -112,7 +322,7 @@ public class FileSystemViewManager {
       FileSystemViewStorageConfig viewConf, String basePath) {
     HoodieTableMetaClient metaClient = new HoodieTableMetaClient(conf.newCopy(), basePath, true);
     HoodieTimeline timeline = metaClient.getActiveTimeline().filterCompletedAndCompactionInstants();
-    return new RocksDbBasedFileSystemView(metaClient, timeline, viewConf);
+    return restoreSnapshot(viewConf, new RocksDbBasedFileSystemView(metaClient, timeline, viewConf));
   }
 
   /**
@@ -128,7 +338,7 @@ public class FileSystemViewManager {
     LOG.info("Creating SpillableMap based view for basePath " + basePath);
     HoodieTableMetaClient metaClient = new HoodieTableMetaClient(conf.newCopy(), basePath, true);
     HoodieTimeline timeline = metaClient.getActiveTimeline().filterCompletedAndCompactionInstants();
-    return new SpillableMapBasedFileSystemView(metaClient, timeline, viewConf);
+    return restoreSnapshot(viewConf, new SpillableMapBasedFileSystemView(metaClient, timeline, viewConf));
   }
 
   /**
@@ -144,7 +354,8 @@ public class FileSystemViewManager {
     LOG.info("Creating InMemory based view for basePath " + basePath);
     HoodieTableMetaClient metaClient = new HoodieTableMetaClient(conf.newCopy(), basePath, true);
     HoodieTimeline timeline = metaClient.getActiveTimeline().filterCompletedAndCompactionInstants();
-    return new HoodieTableFileSystemView(metaClient, timeline, viewConf.isIncrementalTimelineSyncEnabled());
+    return restoreSnapshot(viewConf,
+        new HoodieTableFileSystemView(metaClient, timeline, viewConf.isIncrementalTimelineSyncEnabled()));
   }
 
   /**
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.view;
+
+import org.apache.hudi.common.model.CompactionOperation;
+import org.apache.hudi.common.model.FileSlice;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieFileGroup;
+import org.apache.hudi.common.model.HoodieFileGroupId;
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.StringUtils;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot of a file-system view : the file slices of the partitions loaded into the view and the pending compaction
+ * operations, together with the timeline the view was synced to.
+ * <p>
+ * A view created for the table later restores the snapshot instead of listing these partitions again, and catches up
+ * with the instants completed since through an incremental sync. The snapshot of a table is a single file, kept in the
+ * auxiliary folder of the table unless a snapshot directory is configured. It is written under a temporary name unique
+ * to the writer and renamed in place, so readers never see a partially written snapshot.
+ */
+public class FileSystemViewSnapshot {
+
+  private static final Logger LOG = LogManager.getLogger(FileSystemViewSnapshot.class);
+
+  public static final String SNAPSHOT_FILE_NAME = "file_system_view";
+  public static final String SNAPSHOT_FILE_EXTENSION = ".view_snapshot";
+  private static final String TEMP_FILE_PREFIX = ".";
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+  private static final int MAGIC = 0x48465653;
+  private static final int VERSION = 1;
+
+  private final String basePath;
+  private final List<HoodieInstant> instants;
+  private final List<Pair<String, CompactionOperation>> pendingCompactionOperations;
+  // partition path -> file slices of the partition, including the empty slices of pending compactions
+  private final Map<String, List<FileSlice>> partitionToFileSlices;
+
+  public FileSystemViewSnapshot(String basePath, List<HoodieInstant> instants,
+                                List<Pair<String, CompactionOperation>> pendingCompactionOperations,
+                                Map<String, List<FileSlice>> partitionToFileSlices) {
+    this.basePath = basePath;
+    this.instants = instants;
+    this.pendingCompactionOperations = pendingCompactionOperations;
+    this.partitionToFileSlices = partitionToFileSlices;
+  }
+
+  /**
+   * Returns the path of the snapshot of the table.
+   *
+   * @param basePath Base path of the table
+   * @param snapshotDir Directory holding the snapshots of many tables, or empty to keep it in the table itself
+   */
+  public static Path getSnapshotPath(String basePath, String snapshotDir) {
+    if (StringUtils.isNullOrEmpty(snapshotDir)) {
+      return new Path(new Path(basePath, HoodieTableMetaClient.AUXILIARYFOLDER_NAME),
+          SNAPSHOT_FILE_NAME + SNAPSHOT_FILE_EXTENSION);
+    }
+    // tables of the same name may live under different base paths
+    String tableName = new Path(basePath).getName();
+    return new Path(snapshotDir, tableName + "_" + Integer.toHexString(basePath.hashCode()) + SNAPSHOT_FILE_EXTENSION);
+  }
+
+  public String getBasePath() {
+    return basePath;
+  }
+
+  /**
+   * Returns the timeline the view was synced to when the snapshot was taken.
+   *
+   * @param details Provides the details of the instants
+   */
+  public HoodieTimeline getTimeline(Function<HoodieInstant, Option<byte[]>> details) {
+    return new HoodieDefaultTimeline(instants.stream(), details);
+  }
+
+  public List<Pair<String, CompactionOperation>> getPendingCompactionOperations() {
+    return pendingCompactionOperations;
+  }
+
+  public List<String> getPartitionPaths() {
+    return new ArrayList<>(partitionToFileSlices.keySet());
+  }
+
+  /**
+   * Rebuilds the file groups of a partition of the snapshot.
+   *
+   * @param partitionPath Partition Path
+   * @param timeline Timeline the file groups are built against
+   */
+  public List<HoodieFileGroup> getFileGroups(String partitionPath, HoodieTimeline timeline) {
+    Map<HoodieFileGroupId, HoodieFileGroup> fileGroups = new LinkedHashMap<>();
+    partitionToFileSlices.get(partitionPath).forEach(slice -> fileGroups
+        .computeIfAbsent(slice.getFileGroupId(), fgId -> new HoodieFileGroup(fgId, timeline)).addFileSlice(slice));
+    return new ArrayList<>(fileGroups.values());
+  }
+
+  public int getNumFileSlices() {
+    return partitionToFileSlices.values().stream().mapToInt(List::size).sum();
+  }
+
+  /**
+   * Writes the snapshot, replacing the previous one at the path if any.
+   */
+  public void write(FileSystem fs, Path snapshotPath) throws IOException {
+    // writers of the same table each get their own temporary file, so that none publishes a file another is writing
+    Path tempPath = new Path(snapshotPath.getParent(),
+        TEMP_FILE_PREFIX + snapshotPath.getName() + "." + UUID.randomUUID() + TEMP_FILE_SUFFIX);
+    try {
+      writeTo(fs, tempPath);
+    } catch (IOException | RuntimeException e) {
+      fs.delete(tempPath, false);
+      throw e;
+    }
+    if (fs.exists(snapshotPath)) {
+      fs.delete(snapshotPath, false);
+    }
+    if (!fs.rename(tempPath, snapshotPath)) {
+      fs.delete(tempPath, false);
+      throw new HoodieIOException("Unable to rename " + tempPath + " to " + snapshotPath
+          + ", a snapshot of the table may have been written concurrently");
+    }
+    LOG.info("Wrote file-system view snapshot " + snapshotPath + " with " + partitionToFileSlices.size()
+        + " partitions and " + getNumFileSlices() + " file slices");
+  }
+
+  private void writeTo(FileSystem fs, Path tempPath) throws IOException {
+    try (FSDataOutputStream fsOutputStream = fs.create(tempPath, false);
+         DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+             new GZIPOutputStream(fsOutputStream)))) {
+      outputStream.writeInt(MAGIC);
+      outputStream.writeInt(VERSION);
+      outputStream.writeUTF(basePath);
+      outputStream.writeInt(instants.size());
+      for (HoodieInstant instant : instants) {
+        outputStream.writeUTF(instant.getState().name());
+        outputStream.writeUTF(instant.getAction());
+        outputStream.writeUTF(instant.getTimestamp());
+      }
+      outputStream.writeInt(pendingCompactionOperations.size());
+      for (Pair<String, CompactionOperation> instantOperation : pendingCompactionOperations) {
+        outputStream.writeUTF(instantOperation.getKey());
+        writeCompactionOperation(outputStream, instantOperation.getValue());
+      }
+      outputStream.writeInt(partitionToFileSlices.size());
+      for (Map.Entry<String, List<FileSlice>> partition : partitionToFileSlices.entrySet()) {
+        outputStream.writeUTF(partition.getKey());
+        outputStream.writeInt(partition.getValue().size());
+        for (FileSlice fileSlice : partition.getValue()) {
+          writeFileSlice(outputStream, fileSlice);
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the snapshot at the path, if one was written.
+   */
+  public static Option<FileSystemViewSnapshot> read(FileSystem fs, Path snapshotPath) throws IOException {
+    if (!fs.exists(snapshotPath)) {
+      return Option.empty();
+    }
+    try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(fs.open(snapshotPath))))) {
+      if (inputStream.readInt() != MAGIC) {
+        throw new IOException("Not a file-system view snapshot, bad magic: " + snapshotPath);
+      }
+      int version = inputStream.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported file-system view snapshot version " + version + ": " + snapshotPath);
+      }
+      String basePath = inputStream.readUTF();
+      int numInstants = inputStream.readInt();
+      List<HoodieInstant> instants = new ArrayList<>(numInstants);
+      for (int i = 0; i < numInstants; i++) {
+        HoodieInstant.State state = HoodieInstant.State.valueOf(inputStream.readUTF());
+        String action = inputStream.readUTF();
+        instants.add(new HoodieInstant(state, action, inputStream.readUTF()));
+      }
+      int numPendingCompactionOperations = inputStream.readInt();
+      List<Pair<String, CompactionOperation>> pendingCompactionOperations =
+          new ArrayList<>(numPendingCompactionOperations);
+      for (int i = 0; i < numPendingCompactionOperations; i++) {
+        String instantTime = inputStream.readUTF();
+        pendingCompactionOperations.add(Pair.of(instantTime, readCompactionOperation(inputStream)));
+      }
+      int numPartitions = inputStream.readInt();
+      Map<String, List<FileSlice>> partitionToFileSlices = new HashMap<>(numPartitions * 2);
+      for (int i = 0; i < numPartitions; i++) {
+        String partitionPath = inputStream.readUTF();
+        int numFileSlices = inputStream.readInt();
+        List<FileSlice> fileSlices = new ArrayList<>(numFileSlices);
+        for (int j = 0; j < numFileSlices; j++) {
+          fileSlices.add(readFileSlice(inputStream, partitionPath));
+        }
+        partitionToFileSlices.put(partitionPath, fileSlices);
+      }
+      return Option.of(new FileSystemViewSnapshot(basePath, instants, pendingCompactionOperations,
+          partitionToFileSlices));
+    }
+  }
+
+  private static void writeFileSlice(DataOutputStream outputStream, FileSlice fileSlice) throws IOException {
+    outputStream.writeUTF(fileSlice.getFileId());
+    outputStream.writeUTF(fileSlice.getBaseInstantTime());
+    Option<HoodieBaseFile> baseFile = fileSlice.getBaseFile();
+    outputStream.writeBoolean(baseFile.isPresent());
+    if (baseFile.isPresent()) {
+      outputStream.writeUTF(baseFile.get().getPath());
+      outputStream.writeLong(baseFile.get().getFileLen());
+    }
+    List<HoodieLogFile> logFiles = new ArrayList<>();
+    fileSlice.getLogFiles().forEach(logFiles::add);
+    outputStream.writeInt(logFiles.size());
+    for (HoodieLogFile logFile : logFiles) {
+      outputStream.writeUTF(logFile.getPath().toString());
+      outputStream.writeLong(logFile.getFileSize());
+    }
+  }
+
+  private static FileSlice readFileSlice(DataInputStream inputStream, String partitionPath) throws IOException {
+    String fileId = inputStream.readUTF();
+    FileSlice fileSlice = new FileSlice(partitionPath, inputStream.readUTF(), fileId);
+    if (inputStream.readBoolean()) {
+      HoodieBaseFile baseFile = new HoodieBaseFile(inputStream.readUTF());
+      baseFile.setFileLen(inputStream.readLong());
+      fileSlice.setBaseFile(baseFile);
+    }
+    int numLogFiles = inputStream.readInt();
+    for (int i = 0; i < numLogFiles; i++) {
+      HoodieLogFile logFile = new HoodieLogFile(inputStream.readUTF());
+      logFile.setFileLen(inputStream.readLong());
+      fileSlice.addLogFile(logFile);
+    }
+    return fileSlice;
+  }
+
+  private static void writeCompactionOperation(DataOutputStream outputStream, CompactionOperation operation)
+      throws IOException {
+    outputStream.writeUTF(operation.getPartitionPath());
+    outputStream.writeUTF(operation.getFileId());
+    outputStream.writeUTF(operation.getBaseInstantTime());
+    writeOption(outputStream, operation.getDataFileCommitTime());
+    writeOption(outputStream, operation.getDataFileName());
+    outputStream.writeInt(operation.getDeltaFileNames().size());
+    for (String deltaFileName : operation.getDeltaFileNames()) {
+      outputStream.writeUTF(deltaFileName);
+    }
+    Map<String, Double> metrics = operation.getMetrics() == null ? new HashMap<>() : operation.getMetrics();
+    outputStream.writeInt(metrics.size());
+    for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+      outputStream.writeUTF(metric.getKey());
+      outputStream.writeDouble(metric.getValue());
+    }
+  }
+
+  private static CompactionOperation readCompactionOperation(DataInputStream inputStream) throws IOException {
+    String partitionPath = inputStream.readUTF();
+    String fileId = inputStream.readUTF();
+    String baseInstantTime = inputStream.readUTF();
+    Option<String> dataFileCommitTime = readOption(inputStream);
+    Option<String> dataFileName = readOption(inputStream);
+    int numDeltaFiles = inputStream.readInt();
+    List<String> deltaFileNames = new ArrayList<>(numDeltaFiles);
+    for (int i = 0; i < numDeltaFiles; i++) {
+      deltaFileNames.add(inputStream.readUTF());
+    }
+    int numMetrics = inputStream.readInt();
+    Map<String, Double> metrics = new HashMap<>(numMetrics * 2);
+    for (int i = 0; i < numMetrics; i++) {
+      metrics.put(inputStream.readUTF(), inputStream.readDouble());
+    }
+    return new CompactionOperation(fileId, partitionPath, baseInstantTime, dataFileCommitTime, deltaFileNames,
+        dataFileName, metrics);
+  }
+
+  private static void writeOption(DataOutputStream outputStream, Option<String> value) throws IOException {
+    outputStream.writeBoolean(value.isPresent());
+    if (value.isPresent()) {
+      outputStream.writeUTF(value.get());
+    }
+  }
+
+  private static Option<String> readOption(DataInputStream inputStream) throws IOException {
+    return inputStream.readBoolean() ? Option.of(inputStream.readUTF()) : Option.empty();
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.hudi.common.table.view;
 
 import org.apache.hudi.common.config.DefaultHoodieConfig;
 import org.apache.hudi.common.util.ValidationUtils;
+import org.apache.hudi.common.util.collection.RocksDBDAO;
 
 import java.io.File;
 import java.io.FileReader;
@@ -42,10 +43,20 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
   public static final String FILESYSTEM_VIEW_PENDING_COMPACTION_MEM_FRACTION =
       "hoodie.filesystem.view.spillable.compaction.mem.fraction";
   private static final String ROCKSDB_BASE_PATH_PROP = "hoodie.filesystem.view.rocksdb.base.path";
+  public static final String ROCKSDB_PREFIX_LENGTH_PROP = "hoodie.filesystem.view.rocksdb.prefix.length";
+  public static final String ROCKSDB_BLOCK_CACHE_SIZE_PROP = "hoodie.filesystem.view.rocksdb.block.cache.size";
+  public static final String ROCKSDB_BULK_LOAD_MIN_ENTRIES_PROP = "hoodie.filesystem.view.rocksdb.bulk.load.min.entries";
+  public static final String FILESYSTEM_VIEW_MAX_TABLES = "hoodie.filesystem.view.max.tables";
+  public static final String FILESYSTEM_VIEW_SNAPSHOT_ENABLE = "hoodie.filesystem.view.snapshot.enable";
+  public static final String FILESYSTEM_VIEW_SNAPSHOT_DIR = "hoodie.filesystem.view.snapshot.dir";
 
   public static final FileSystemViewStorageType DEFAULT_VIEW_STORAGE_TYPE = FileSystemViewStorageType.MEMORY;
   public static final FileSystemViewStorageType DEFAULT_SECONDARY_VIEW_STORAGE_TYPE = FileSystemViewStorageType.MEMORY;
   public static final String DEFAULT_ROCKSDB_BASE_PATH = "/tmp/hoodie_timeline_rocksdb";
+  // Prefix bloom filters are disabled by default, as the useful prefix length depends on the partition paths
+  public static final Integer DEFAULT_ROCKSDB_PREFIX_LENGTH = 0;
+  public static final Long DEFAULT_ROCKSDB_BLOCK_CACHE_SIZE = RocksDBDAO.DEFAULT_BLOCK_CACHE_SIZE;
+  public static final Integer DEFAULT_ROCKSDB_BULK_LOAD_MIN_ENTRIES = 1000;
 
   public static final String DEFAULT_FILESYSTEM_VIEW_INCREMENTAL_SYNC_MODE = "false";
   public static final String DEFUALT_REMOTE_VIEW_SERVER_HOST = "localhost";
@@ -54,6 +65,10 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
   public static final String DEFAULT_VIEW_SPILLABLE_DIR = "/tmp/view_map/";
   private static final Double DEFAULT_MEM_FRACTION_FOR_PENDING_COMPACTION = 0.01;
   private static final Long DEFAULT_MAX_MEMORY_FOR_VIEW = 100 * 1024 * 1024L; // 100 MB
+  public static final Integer DEFAULT_MAX_TABLES = Integer.MAX_VALUE;
+  public static final String DEFAULT_FILESYSTEM_VIEW_SNAPSHOT_ENABLE = "false";
+  // Snapshots are kept in the auxiliary folder of each table by default
+  public static final String DEFAULT_FILESYSTEM_VIEW_SNAPSHOT_DIR = "";
 
   public static FileSystemViewStorageConfig.Builder newBuilder() {
     return new Builder();
@@ -102,6 +117,49 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
     return props.getProperty(ROCKSDB_BASE_PATH_PROP);
   }
 
+  /**
+   * Length of the key prefixes RocksDB bloom filters are built on. Keys of file slices and base files start with
+   * "type=slice,part=&lt;PartitionPath&gt;" and "type=df,part=&lt;PartitionPath&gt;", hence a length covering these for the
+   * shortest partition path lets partition lookups skip files of other partitions.
+   */
+  public int getRocksdbPrefixLength() {
+    return Integer.parseInt(props.getProperty(ROCKSDB_PREFIX_LENGTH_PROP));
+  }
+
+  public long getRocksdbBlockCacheSize() {
+    return Long.parseLong(props.getProperty(ROCKSDB_BLOCK_CACHE_SIZE_PROP));
+  }
+
+  /**
+   * Minimum number of entries of a partition loaded for the first time for them to be bulk loaded into RocksDB as an
+   * SST file instead of written in a batch.
+   */
+  public int getRocksdbBulkLoadMinEntries() {
+    return Integer.parseInt(props.getProperty(ROCKSDB_BULK_LOAD_MIN_ENTRIES_PROP));
+  }
+
+  /**
+   * Maximum number of table views held at a time. Views of the least recently used tables beyond it are evicted.
+   */
+  public int getMaxTables() {
+    return Integer.parseInt(props.getProperty(FILESYSTEM_VIEW_MAX_TABLES));
+  }
+
+  /**
+   * Whether views are restored from a snapshot when created, and a snapshot written when they are closed.
+   */
+  public boolean isViewSnapshotEnabled() {
+    return Boolean.parseBoolean(props.getProperty(FILESYSTEM_VIEW_SNAPSHOT_ENABLE));
+  }
+
+  /**
+   * Directory holding the view snapshots of all tables, on a local or distributed file system. Empty if each table
+   * keeps its snapshot in its auxiliary folder.
+   */
+  public String getViewSnapshotDir() {
+    return props.getProperty(FILESYSTEM_VIEW_SNAPSHOT_DIR);
+  }
+
   /**
    * The builder used to build {@link FileSystemViewStorageConfig}.
    */
@@ -166,6 +224,36 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withRocksDBPrefixLength(Integer prefixLength) {
+      props.setProperty(ROCKSDB_PREFIX_LENGTH_PROP, prefixLength.toString());
+      return this;
+    }
+
+    public Builder withRocksDBBlockCacheSize(Long blockCacheSize) {
+      props.setProperty(ROCKSDB_BLOCK_CACHE_SIZE_PROP, blockCacheSize.toString());
+      return this;
+    }
+
+    public Builder withRocksDBBulkLoadMinEntries(Integer bulkLoadMinEntries) {
+      props.setProperty(ROCKSDB_BULK_LOAD_MIN_ENTRIES_PROP, bulkLoadMinEntries.toString());
+      return this;
+    }
+
+    public Builder withMaxTables(Integer maxTables) {
+      props.setProperty(FILESYSTEM_VIEW_MAX_TABLES, maxTables.toString());
+      return this;
+    }
+
+    public Builder withViewSnapshotEnabled(boolean enableViewSnapshot) {
+      props.setProperty(FILESYSTEM_VIEW_SNAPSHOT_ENABLE, Boolean.toString(enableViewSnapshot));
+      return this;
+    }
+
+    public Builder withViewSnapshotDir(String viewSnapshotDir) {
+      props.setProperty(FILESYSTEM_VIEW_SNAPSHOT_DIR, viewSnapshotDir);
+      return this;
+    }
+
     public FileSystemViewStorageConfig build() {
       setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_STORAGE_TYPE), FILESYSTEM_VIEW_STORAGE_TYPE,
           DEFAULT_VIEW_STORAGE_TYPE.name());
@@ -187,11 +275,24 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
 
       setDefaultOnCondition(props, !props.containsKey(ROCKSDB_BASE_PATH_PROP), ROCKSDB_BASE_PATH_PROP,
           DEFAULT_ROCKSDB_BASE_PATH);
+      setDefaultOnCondition(props, !props.containsKey(ROCKSDB_PREFIX_LENGTH_PROP), ROCKSDB_PREFIX_LENGTH_PROP,
+          DEFAULT_ROCKSDB_PREFIX_LENGTH.toString());
+      setDefaultOnCondition(props, !props.containsKey(ROCKSDB_BLOCK_CACHE_SIZE_PROP), ROCKSDB_BLOCK_CACHE_SIZE_PROP,
+          DEFAULT_ROCKSDB_BLOCK_CACHE_SIZE.toString());
+      setDefaultOnCondition(props, !props.containsKey(ROCKSDB_BULK_LOAD_MIN_ENTRIES_PROP),
+          ROCKSDB_BULK_LOAD_MIN_ENTRIES_PROP, DEFAULT_ROCKSDB_BULK_LOAD_MIN_ENTRIES.toString());
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_MAX_TABLES), FILESYSTEM_VIEW_MAX_TABLES,
+          DEFAULT_MAX_TABLES.toString());
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_SNAPSHOT_ENABLE), FILESYSTEM_VIEW_SNAPSHOT_ENABLE,
+          DEFAULT_FILESYSTEM_VIEW_SNAPSHOT_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_SNAPSHOT_DIR), FILESYSTEM_VIEW_SNAPSHOT_DIR,
+          DEFAULT_FILESYSTEM_VIEW_SNAPSHOT_DIR);
 
       // Validations
       FileSystemViewStorageType.valueOf(props.getProperty(FILESYSTEM_VIEW_STORAGE_TYPE));
       FileSystemViewStorageType.valueOf(props.getProperty(FILESYSTEM_SECONDARY_VIEW_STORAGE_TYPE));
       ValidationUtils.checkArgument(Integer.parseInt(props.getProperty(FILESYSTEM_VIEW_REMOTE_PORT)) > 0);
+      ValidationUtils.checkArgument(Integer.parseInt(props.getProperty(FILESYSTEM_VIEW_MAX_TABLES)) > 0);
       return new FileSystemViewStorageConfig(props);
     }
   }
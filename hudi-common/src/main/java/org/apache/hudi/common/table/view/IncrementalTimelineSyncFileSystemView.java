@@ -29,6 +29,7 @@ import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodieWriteStat;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.table.timeline.TimelineDiffHelper;
@@ -61,7 +62,7 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
   private final boolean incrementalTimelineSyncEnabled;
 
   // This is the visible active timeline used only for incremental view syncing
-  private HoodieTimeline visibleActiveTimeline;
+  private volatile HoodieTimeline visibleActiveTimeline;
 
   protected IncrementalTimelineSyncFileSystemView(boolean enableIncrementalTimelineSync) {
     this.incrementalTimelineSyncEnabled = enableIncrementalTimelineSync;
@@ -95,6 +96,53 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
     super.runSync(oldTimeline, newTimeline);
   }
 
+  @Override
+  protected boolean runPartitionLevelSync(HoodieTimeline oldTimeline, HoodieTimeline newTimeline) {
+    if (!incrementalTimelineSyncEnabled) {
+      return false;
+    }
+    try {
+      TimelineDiffResult diffResult = TimelineDiffHelper.getNewInstantsForIncrementalSync(oldTimeline, newTimeline);
+      // Pending compaction operations are shared by all partitions, so changing them still needs the global write-lock
+      boolean changesPendingCompactions = !diffResult.getFinishedCompactionInstants().isEmpty()
+          || diffResult.getNewlySeenInstants().stream()
+              .anyMatch(instant -> instant.getAction().equals(HoodieTimeline.COMPACTION_ACTION));
+      if (diffResult.canSyncIncrementally() && !changesPendingCompactions) {
+        LOG.info("Doing partition level incremental sync");
+        runIncrementalSync(newTimeline, diffResult);
+        LOG.info("Finished partition level incremental sync");
+        // Reset timeline to latest
+        refreshTimeline(newTimeline);
+        return true;
+      }
+    } catch (Exception e) {
+      LOG.error("Got exception trying to perform partition level incremental sync. Reverting to locked sync", e);
+    }
+    return false;
+  }
+
+  @Override
+  protected boolean runSnapshotRestore(FileSystemViewSnapshot snapshot) {
+    HoodieTimeline timeline = visibleActiveTimeline;
+    TimelineDiffResult diffResult = TimelineDiffHelper.getNewInstantsForIncrementalSync(
+        snapshot.getTimeline(timeline::getInstantDetails), timeline);
+    if (!diffResult.canSyncIncrementally()) {
+      LOG.warn("Snapshot of file-system view is too old to be caught up with the timeline. Ignoring it");
+      return false;
+    }
+    try {
+      LOG.info("Restoring " + snapshot.getPartitionPaths().size() + " partitions from snapshot");
+      loadSnapshot(snapshot);
+      runIncrementalSync(timeline, diffResult);
+      LOG.info("Finished restoring snapshot");
+      return true;
+    } catch (Exception e) {
+      LOG.error("Got exception trying to restore snapshot. Reverting to listing partitions", e);
+      super.runSync(timeline, timeline);
+      return false;
+    }
+  }
+
   /**
    * Run incremental sync based on the diff result produced.
    *
@@ -174,12 +222,12 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
       fileGroup.addNewFileSliceAtInstant(compactionInstantTime);
       return Pair.of(compactionInstantTime, fileGroup);
     }).collect(Collectors.groupingBy(x -> x.getValue().getPartitionPath()));
-    partitionToFileGroups.entrySet().forEach(entry -> {
+    partitionToFileGroups.entrySet().forEach(entry -> updatePartitionView(entry.getKey(), () -> {
       if (isPartitionAvailableInStore(entry.getKey())) {
         applyDeltaFileSlicesToPartitionView(entry.getKey(),
             entry.getValue().stream().map(Pair::getValue).collect(Collectors.toList()), DeltaApplyMode.ADD);
       }
-    });
+    }));
   }
 
   /**
@@ -194,23 +242,28 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
         HoodieCommitMetadata.fromBytes(timeline.getInstantDetails(instant).get(), HoodieCommitMetadata.class);
     commitMetadata.getPartitionToWriteStats().entrySet().stream().forEach(entry -> {
       String partition = entry.getKey();
-      if (isPartitionAvailableInStore(partition)) {
-        LOG.info("Syncing partition (" + partition + ") of instant (" + instant + ")");
-        FileStatus[] statuses = entry.getValue().stream().map(p -> {
-          FileStatus status = new FileStatus(p.getFileSizeInBytes(), false, 0, 0, 0, 0, null, null, null,
-              new Path(String.format("%s/%s", metaClient.getBasePath(), p.getPath())));
-          return status;
-        }).toArray(FileStatus[]::new);
-        List<HoodieFileGroup> fileGroups =
-            buildFileGroups(statuses, timeline.filterCompletedAndCompactionInstants(), false);
-        applyDeltaFileSlicesToPartitionView(partition, fileGroups, DeltaApplyMode.ADD);
-      } else {
-        LOG.warn("Skipping partition (" + partition + ") when syncing instant (" + instant + ") as it is not loaded");
-      }
+      updatePartitionView(partition, () -> syncPartitionOfCommit(timeline, instant, partition, entry.getValue()));
     });
     LOG.info("Done Syncing committed instant (" + instant + ")");
   }
 
+  private void syncPartitionOfCommit(HoodieTimeline timeline, HoodieInstant instant, String partition,
+      List<HoodieWriteStat> writeStats) {
+    if (isPartitionAvailableInStore(partition)) {
+      LOG.info("Syncing partition (" + partition + ") of instant (" + instant + ")");
+      FileStatus[] statuses = writeStats.stream().map(p -> {
+        FileStatus status = new FileStatus(p.getFileSizeInBytes(), false, 0, 0, 0, 0, null, null, null,
+            new Path(String.format("%s/%s", metaClient.getBasePath(), p.getPath())));
+        return status;
+      }).toArray(FileStatus[]::new);
+      List<HoodieFileGroup> fileGroups =
+          buildFileGroups(statuses, timeline.filterCompletedAndCompactionInstants(), false);
+      applyDeltaFileSlicesToPartitionView(partition, fileGroups, DeltaApplyMode.ADD);
+    } else {
+      LOG.warn("Skipping partition (" + partition + ") when syncing instant (" + instant + ") as it is not loaded");
+    }
+  }
+
   /**
    * Add newly found restore instant.
    *
@@ -275,6 +328,11 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
 
   private void removeFileSlicesForPartition(HoodieTimeline timeline, HoodieInstant instant, String partition,
       List<String> paths) {
+    updatePartitionView(partition, () -> removeFileSlicesFromPartitionView(timeline, instant, partition, paths));
+  }
+
+  private void removeFileSlicesFromPartitionView(HoodieTimeline timeline, HoodieInstant instant, String partition,
+      List<String> paths) {
     if (isPartitionAvailableInStore(partition)) {
       LOG.info("Removing file slices for partition (" + partition + ") for instant (" + instant + ")");
       FileStatus[] statuses = paths.stream().map(p -> {
@@ -22,6 +22,7 @@ import org.apache.hudi.common.model.CompactionOperation;
 import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieFileGroup;
+import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.Functions.Function0;
@@ -36,6 +37,7 @@ import org.apache.log4j.Logger;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -193,6 +195,36 @@ public class PriorityBasedFileSystemView implements SyncableFileSystemView, Seri
     return execute(partitionPath, preferredView::getAllFileGroups, secondaryView::getAllFileGroups);
   }
 
+  @Override
+  public Map<String, List<HoodieBaseFile>> getLatestBaseFilesBeforeOrOn(List<String> partitionPaths,
+      String maxCommitTime) {
+    return execute(partitionPaths, maxCommitTime, preferredView::getLatestBaseFilesBeforeOrOn,
+        secondaryView::getLatestBaseFilesBeforeOrOn);
+  }
+
+  @Override
+  public Map<String, List<FileSlice>> getLatestFileSlices(List<String> partitionPaths) {
+    return execute(partitionPaths, preferredView::getLatestFileSlices, secondaryView::getLatestFileSlices);
+  }
+
+  @Override
+  public Map<String, List<FileSlice>> getLatestFileSlicesBeforeOrOn(List<String> partitionPaths,
+      String maxCommitTime, boolean includeFileSlicesInPendingCompaction) {
+    return execute(partitionPaths, maxCommitTime, includeFileSlicesInPendingCompaction,
+        preferredView::getLatestFileSlicesBeforeOrOn, secondaryView::getLatestFileSlicesBeforeOrOn);
+  }
+
+  @Override
+  public Map<String, List<HoodieFileGroup>> getAllFileGroups(List<String> partitionPaths) {
+    return execute(partitionPaths, preferredView::getAllFileGroups, secondaryView::getAllFileGroups);
+  }
+
+  @Override
+  public Map<HoodieFileGroupId, FileSlice> getLatestFileSlicesForFileGroups(List<HoodieFileGroupId> fileGroupIds) {
+    return execute(fileGroupIds, preferredView::getLatestFileSlicesForFileGroups,
+        secondaryView::getLatestFileSlicesForFileGroups);
+  }
+
   @Override
   public Stream<Pair<String, CompactionOperation>> getPendingCompactionOperations() {
     return execute(preferredView::getPendingCompactionOperations, secondaryView::getPendingCompactionOperations);
@@ -22,6 +22,7 @@ import org.apache.hudi.common.model.CompactionOperation;
 import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieFileGroup;
+import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
@@ -39,17 +40,23 @@ import org.apache.hudi.exception.HoodieRemoteException;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.fluent.Request;
-import org.apache.http.client.fluent.Response;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -87,11 +94,24 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   public static final String ALL_FILEGROUPS_FOR_PARTITION_URL =
       String.format("%s/%s", BASE_URL, "filegroups/all/partition/");
 
+  // POST Requests carrying the partitions or file groups of batched calls as a json body
+  public static final String LATEST_PARTITIONS_SLICES_URL = String.format("%s/%s", BASE_URL, "slices/partitions/latest/");
+  public static final String LATEST_PARTITIONS_SLICES_BEFORE_ON_INSTANT_URL =
+      String.format("%s/%s", BASE_URL, "slices/partitions/beforeoron/latest/");
+  public static final String LATEST_FILEGROUPS_SLICES_URL = String.format("%s/%s", BASE_URL, "slices/filegroups/latest/");
+  public static final String LATEST_PARTITIONS_DATA_FILES_BEFORE_ON_INSTANT_URL =
+      String.format("%s/%s", BASE_URL, "datafiles/partitions/beforeoron/latest/");
+  public static final String ALL_FILEGROUPS_FOR_PARTITIONS_URL =
+      String.format("%s/%s", BASE_URL, "filegroups/all/partitions/");
+
   public static final String LAST_INSTANT = String.format("%s/%s", BASE_URL, "timeline/instant/last");
   public static final String LAST_INSTANTS = String.format("%s/%s", BASE_URL, "timeline/instants/last");
 
   public static final String TIMELINE = String.format("%s/%s", BASE_URL, "timeline/instants/all");
 
+  // Metrics of the views of each table served
+  public static final String TABLE_METRICS_URL = String.format("%s/%s", BASE_URL, "metrics/tables");
+
   // POST Requests
   public static final String REFRESH_TABLE = String.format("%s/%s", BASE_URL, "refresh/");
 
@@ -133,6 +153,11 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
 
   private <T> T executeRequest(String requestPath, Map<String, String> queryParameters, TypeReference reference,
       RequestMethod method) throws IOException {
+    return executeRequest(requestPath, queryParameters, Option.empty(), reference, method);
+  }
+
+  private <T> T executeRequest(String requestPath, Map<String, String> queryParameters, Option<Object> body,
+      TypeReference reference, RequestMethod method) throws IOException {
     ValidationUtils.checkArgument(!closed, "View already closed");
 
     URIBuilder builder =
@@ -146,19 +171,30 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
 
     String url = builder.toString();
     LOG.info("Sending request : (" + url + ")");
-    Response response;
+    Request request;
     int timeout = 1000 * 300; // 5 min timeout
     switch (method) {
       case GET:
-        response = Request.Get(url).connectTimeout(timeout).socketTimeout(timeout).execute();
+        request = Request.Get(url).connectTimeout(timeout).socketTimeout(timeout);
         break;
       case POST:
       default:
-        response = Request.Post(url).connectTimeout(timeout).socketTimeout(timeout).execute();
+        request = Request.Post(url).connectTimeout(timeout).socketTimeout(timeout);
         break;
     }
-    String content = response.returnContent().asString();
-    return mapper.readValue(content, reference);
+    if (body.isPresent()) {
+      request.body(new ByteArrayEntity(mapper.writeValueAsBytes(body.get()), ContentType.APPLICATION_JSON));
+    }
+    return request.execute().handleResponse(response -> {
+      StatusLine statusLine = response.getStatusLine();
+      if (statusLine.getStatusCode() >= 300) {
+        throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+      }
+      // decode the response as it streams in, instead of buffering it as a string first
+      try (InputStream content = response.getEntity().getContent()) {
+        return mapper.readValue(content, reference);
+      }
+    });
   }
 
   private Map<String, String> getParamsWithPartitionPath(String partitionPath) {
@@ -355,6 +391,79 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     }
   }
 
+  @Override
+  public Map<String, List<HoodieBaseFile>> getLatestBaseFilesBeforeOrOn(List<String> partitionPaths,
+      String maxCommitTime) {
+    try {
+      Map<String, List<BaseFileDTO>> dataFiles = executeRequest(LATEST_PARTITIONS_DATA_FILES_BEFORE_ON_INSTANT_URL,
+          getParams(MAX_INSTANT_PARAM, maxCommitTime), Option.of(partitionPaths),
+          new TypeReference<Map<String, List<BaseFileDTO>>>() {}, RequestMethod.POST);
+      return fromDTOs(dataFiles, BaseFileDTO::toHoodieBaseFile);
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
+  @Override
+  public Map<String, List<FileSlice>> getLatestFileSlices(List<String> partitionPaths) {
+    try {
+      Map<String, List<FileSliceDTO>> fileSlices = executeRequest(LATEST_PARTITIONS_SLICES_URL, getParams(),
+          Option.of(partitionPaths), new TypeReference<Map<String, List<FileSliceDTO>>>() {}, RequestMethod.POST);
+      return fromDTOs(fileSlices, FileSliceDTO::toFileSlice);
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
+  @Override
+  public Map<String, List<FileSlice>> getLatestFileSlicesBeforeOrOn(List<String> partitionPaths,
+      String maxCommitTime, boolean includeFileSlicesInPendingCompaction) {
+    Map<String, String> paramsMap = getParams(MAX_INSTANT_PARAM, maxCommitTime);
+    paramsMap.put(INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM, String.valueOf(includeFileSlicesInPendingCompaction));
+    try {
+      Map<String, List<FileSliceDTO>> fileSlices = executeRequest(LATEST_PARTITIONS_SLICES_BEFORE_ON_INSTANT_URL,
+          paramsMap, Option.of(partitionPaths), new TypeReference<Map<String, List<FileSliceDTO>>>() {},
+          RequestMethod.POST);
+      return fromDTOs(fileSlices, FileSliceDTO::toFileSlice);
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
+  @Override
+  public Map<String, List<HoodieFileGroup>> getAllFileGroups(List<String> partitionPaths) {
+    try {
+      Map<String, List<FileGroupDTO>> fileGroups = executeRequest(ALL_FILEGROUPS_FOR_PARTITIONS_URL, getParams(),
+          Option.of(partitionPaths), new TypeReference<Map<String, List<FileGroupDTO>>>() {}, RequestMethod.POST);
+      return fromDTOs(fileGroups, dto -> FileGroupDTO.toFileGroup(dto, metaClient));
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
+  @Override
+  public Map<HoodieFileGroupId, FileSlice> getLatestFileSlicesForFileGroups(List<HoodieFileGroupId> fileGroupIds) {
+    // file ids are only unique within their partition, so they are sent grouped by partition
+    Map<String, List<String>> partitionToFileIds = fileGroupIds.stream().collect(Collectors.groupingBy(
+        HoodieFileGroupId::getPartitionPath, Collectors.mapping(HoodieFileGroupId::getFileId, Collectors.toList())));
+    try {
+      Map<String, List<FileSliceDTO>> fileSlices = executeRequest(LATEST_FILEGROUPS_SLICES_URL, getParams(),
+          Option.of(partitionToFileIds), new TypeReference<Map<String, List<FileSliceDTO>>>() {},
+          RequestMethod.POST);
+      return fileSlices.values().stream().flatMap(List::stream).map(FileSliceDTO::toFileSlice)
+          .collect(Collectors.toMap(FileSlice::getFileGroupId, Function.identity()));
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
+  private static <D, T> Map<String, List<T>> fromDTOs(Map<String, List<D>> dtos, Function<D, T> converter) {
+    Map<String, List<T>> result = new HashMap<>();
+    dtos.forEach((partitionPath, partitionDTOs) ->
+        result.put(partitionPath, partitionDTOs.stream().map(converter).collect(Collectors.toList())));
+    return result;
+  }
+
   public boolean refresh() {
     Map<String, String> paramsMap = getParams();
     try {
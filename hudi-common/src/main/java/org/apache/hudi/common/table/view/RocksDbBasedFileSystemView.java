@@ -26,6 +26,8 @@ import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.FileSliceSerializer;
+import org.apache.hudi.common.util.HoodieBaseFileSerializer;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.RocksDBSchemaHelper;
 import org.apache.hudi.common.util.ValidationUtils;
@@ -36,6 +38,7 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.rocksdb.WriteBatch;
 
 import java.io.Serializable;
 import java.util.HashMap;
@@ -64,6 +67,10 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
 
   private final RocksDBSchemaHelper schemaHelper;
 
+  private final FileSliceSerializer fileSliceSerializer = new FileSliceSerializer();
+
+  private final HoodieBaseFileSerializer baseFileSerializer = new HoodieBaseFileSerializer();
+
   private RocksDBDAO rocksDB;
 
   private boolean closed = false;
@@ -73,7 +80,7 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
     super(config.isIncrementalTimelineSyncEnabled());
     this.config = config;
     this.schemaHelper = new RocksDBSchemaHelper(metaClient);
-    this.rocksDB = new RocksDBDAO(metaClient.getBasePath(), config.getRocksdbBasePath());
+    this.rocksDB = createRocksDBDAO(metaClient, config);
     init(metaClient, visibleActiveTimeline);
   }
 
@@ -83,6 +90,11 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
     addFilesToView(fileStatuses);
   }
 
+  private static RocksDBDAO createRocksDBDAO(HoodieTableMetaClient metaClient, FileSystemViewStorageConfig config) {
+    return new RocksDBDAO(metaClient.getBasePath(), config.getRocksdbBasePath(), config.getRocksdbPrefixLength(),
+        config.getRocksdbBlockCacheSize());
+  }
+
   @Override
   protected void init(HoodieTableMetaClient metaClient, HoodieTimeline visibleActiveTimeline) {
     schemaHelper.getAllColumnFamilies().forEach(rocksDB::addColumnFamily);
@@ -137,7 +149,7 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
   protected void resetViewState() {
     LOG.info("Deleting all rocksdb data associated with table filesystem view");
     rocksDB.close();
-    rocksDB = new RocksDBDAO(metaClient.getBasePath(), config.getRocksdbBasePath());
+    rocksDB = createRocksDBDAO(metaClient, config);
   }
 
   @Override
@@ -161,6 +173,7 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
         + config.getRocksdbBasePath() + ", Total file-groups=" + fileGroups.size());
 
     String lookupKey = schemaHelper.getKeyForPartitionLookup(partitionPath);
+    boolean initialLoad = !isPartitionAvailableInStore(partitionPath);
     rocksDB.delete(schemaHelper.getColFamilyForStoredPartitions(), lookupKey);
 
     // First delete partition views
@@ -169,17 +182,26 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
     rocksDB.prefixDelete(schemaHelper.getColFamilyForView(),
         schemaHelper.getPrefixForDataFileViewByPartition(partitionPath));
 
-    // Now add them
-    fileGroups.forEach(fg ->
-        rocksDB.writeBatch(batch ->
-            fg.getAllFileSlicesIncludingInflight().forEach(fs -> {
-              rocksDB.putInBatch(batch, schemaHelper.getColFamilyForView(), schemaHelper.getKeyForSliceView(fg, fs), fs);
-              fs.getBaseFile().ifPresent(df ->
-                  rocksDB.putInBatch(batch, schemaHelper.getColFamilyForView(), schemaHelper.getKeyForDataFileView(fg, fs), df)
-              );
-            })
-        )
-    );
+    // Now add them. Large partitions loaded for the first time are bulk loaded, others written in a single batch
+    long numEntries = fileGroups.stream().flatMap(HoodieFileGroup::getAllFileSlicesIncludingInflight)
+        .mapToLong(fs -> fs.getBaseFile().isPresent() ? 2 : 1).sum();
+    if (initialLoad && numEntries >= config.getRocksdbBulkLoadMinEntries()) {
+      Map<String, byte[]> entries = new HashMap<>();
+      fileGroups.forEach(fg ->
+          fg.getAllFileSlicesIncludingInflight().forEach(fs -> {
+            entries.put(schemaHelper.getKeyForSliceView(fg, fs), fileSliceSerializer.serialize(fs));
+            fs.getBaseFile().ifPresent(df ->
+                entries.put(schemaHelper.getKeyForDataFileView(fg, fs), baseFileSerializer.serialize(df)));
+          })
+      );
+      rocksDB.ingest(schemaHelper.getColFamilyForView(), entries);
+    } else {
+      rocksDB.writeBatch(batch ->
+          fileGroups.forEach(fg ->
+              fg.getAllFileSlicesIncludingInflight().forEach(fs -> putSliceInBatch(batch, fg, fs))
+          )
+      );
+    }
 
     // record that partition is loaded.
     rocksDB.put(schemaHelper.getColFamilyForStoredPartitions(), lookupKey, Boolean.TRUE);
@@ -245,16 +267,23 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
                     throw new IllegalStateException("Unknown diff apply mode=" + mode);
                 }
               }
-            }).filter(Objects::nonNull).forEach(fs -> {
-              rocksDB.putInBatch(batch, schemaHelper.getColFamilyForView(), schemaHelper.getKeyForSliceView(fg, fs), fs);
-              fs.getBaseFile().ifPresent(df ->
-                  rocksDB.putInBatch(batch, schemaHelper.getColFamilyForView(), schemaHelper.getKeyForDataFileView(fg, fs), df)
-              );
-            })
+            }).filter(Objects::nonNull).forEach(fs -> putSliceInBatch(batch, fg, fs))
         )
     );
   }
 
+  /**
+   * Adds the file-slice, and its base-file if present, to the view in the batch.
+   */
+  private void putSliceInBatch(WriteBatch batch, HoodieFileGroup fg, FileSlice fs) {
+    rocksDB.putInBatch(batch, schemaHelper.getColFamilyForView(), schemaHelper.getKeyForSliceView(fg, fs), fs,
+        fileSliceSerializer);
+    fs.getBaseFile().ifPresent(df ->
+        rocksDB.putInBatch(batch, schemaHelper.getColFamilyForView(), schemaHelper.getKeyForDataFileView(fg, fs), df,
+            baseFileSerializer)
+    );
+  }
+
   @Override
   Stream<Pair<String, CompactionOperation>> fetchPendingCompactionOperations() {
     return rocksDB.<Pair<String, CompactionOperation>>prefixSearch(schemaHelper.getColFamilyForPendingCompaction(), "")
@@ -263,29 +292,29 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
 
   @Override
   Stream<HoodieBaseFile> fetchAllBaseFiles(String partitionPath) {
-    return rocksDB.<HoodieBaseFile>prefixSearch(schemaHelper.getColFamilyForView(),
-        schemaHelper.getPrefixForDataFileViewByPartition(partitionPath)).map(Pair::getValue);
+    return rocksDB.prefixSearch(schemaHelper.getColFamilyForView(),
+        schemaHelper.getPrefixForDataFileViewByPartition(partitionPath), baseFileSerializer).map(Pair::getValue);
   }
 
   @Override
   Stream<HoodieFileGroup> fetchAllStoredFileGroups(String partitionPath) {
-    return getFileGroups(rocksDB.<FileSlice>prefixSearch(schemaHelper.getColFamilyForView(),
-        schemaHelper.getPrefixForSliceViewByPartition(partitionPath)).map(Pair::getValue));
+    return getFileGroups(rocksDB.prefixSearch(schemaHelper.getColFamilyForView(),
+        schemaHelper.getPrefixForSliceViewByPartition(partitionPath), fileSliceSerializer).map(Pair::getValue));
   }
 
   @Override
   Stream<HoodieFileGroup> fetchAllStoredFileGroups() {
     return getFileGroups(
-        rocksDB.<FileSlice>prefixSearch(schemaHelper.getColFamilyForView(), schemaHelper.getPrefixForSliceView())
-            .map(Pair::getValue));
+        rocksDB.prefixSearch(schemaHelper.getColFamilyForView(), schemaHelper.getPrefixForSliceView(),
+            fileSliceSerializer).map(Pair::getValue));
   }
 
   @Override
   protected Option<FileSlice> fetchLatestFileSlice(String partitionPath, String fileId) {
     // Retries only file-slices of the file and filters for the latest
     return Option.ofNullable(rocksDB
-        .<FileSlice>prefixSearch(schemaHelper.getColFamilyForView(),
-            schemaHelper.getPrefixForSliceViewByPartitionFile(partitionPath, fileId))
+        .prefixSearch(schemaHelper.getColFamilyForView(),
+            schemaHelper.getPrefixForSliceViewByPartitionFile(partitionPath, fileId), fileSliceSerializer)
         .map(Pair::getValue).reduce(null,
             (x, y) -> ((x == null) ? y
                 : (y == null) ? null
@@ -298,8 +327,8 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
     // Retries only file-slices of the file and filters for the latest
     return Option
         .ofNullable(rocksDB
-            .<HoodieBaseFile>prefixSearch(schemaHelper.getColFamilyForView(),
-                schemaHelper.getPrefixForDataFileViewByPartitionFile(partitionPath, fileId))
+            .prefixSearch(schemaHelper.getColFamilyForView(),
+                schemaHelper.getPrefixForDataFileViewByPartitionFile(partitionPath, fileId), baseFileSerializer)
             .map(Pair::getValue).reduce(null,
                 (x, y) -> ((x == null) ? y
                     : (y == null) ? null
@@ -310,8 +339,9 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
 
   @Override
   Option<HoodieFileGroup> fetchHoodieFileGroup(String partitionPath, String fileId) {
-    return Option.fromJavaOptional(getFileGroups(rocksDB.<FileSlice>prefixSearch(schemaHelper.getColFamilyForView(),
-        schemaHelper.getPrefixForSliceViewByPartitionFile(partitionPath, fileId)).map(Pair::getValue)).findFirst());
+    return Option.fromJavaOptional(getFileGroups(rocksDB.prefixSearch(schemaHelper.getColFamilyForView(),
+        schemaHelper.getPrefixForSliceViewByPartitionFile(partitionPath, fileId), fileSliceSerializer)
+        .map(Pair::getValue)).findFirst());
   }
 
   private Stream<HoodieFileGroup> getFileGroups(Stream<FileSlice> sliceStream) {
@@ -326,7 +356,7 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
 
   private FileSlice getFileSlice(String partitionPath, String fileId, String instantTime) {
     String key = schemaHelper.getKeyForSliceView(partitionPath, fileId, instantTime);
-    return rocksDB.get(schemaHelper.getColFamilyForView(), key);
+    return rocksDB.get(schemaHelper.getColFamilyForView(), key, fileSliceSerializer);
   }
 
   @Override
@@ -18,9 +18,18 @@
 
 package org.apache.hudi.common.table.view;
 
+import org.apache.hudi.common.model.FileSlice;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieFileGroup;
+import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.table.view.TableFileSystemView.BaseFileOnlyView;
 import org.apache.hudi.common.table.view.TableFileSystemView.SliceView;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * A consolidated file-system view interface exposing both complete slice and basefile only views along with
  * update operations.
@@ -28,7 +37,64 @@ import org.apache.hudi.common.table.view.TableFileSystemView.SliceView;
 public interface SyncableFileSystemView
     extends TableFileSystemView, BaseFileOnlyView, SliceView {
 
+  /*
+   * Batched variants of the partition scoped calls, for callers touching many partitions at once. Remote views serve
+   * each of them with a single call to the timeline service instead of one call per partition.
+   */
+
+  /**
+   * Get the latest base files of each of the given partitions, with precondition that commitTime(file) before
+   * maxCommitTime.
+   */
+  default Map<String, List<HoodieBaseFile>> getLatestBaseFilesBeforeOrOn(List<String> partitionPaths,
+      String maxCommitTime) {
+    Map<String, List<HoodieBaseFile>> result = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> result.put(partitionPath,
+        getLatestBaseFilesBeforeOrOn(partitionPath, maxCommitTime).collect(Collectors.toList())));
+    return result;
+  }
+
+  /**
+   * Get the latest file slices of each of the given partitions.
+   */
+  default Map<String, List<FileSlice>> getLatestFileSlices(List<String> partitionPaths) {
+    Map<String, List<FileSlice>> result = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> result.put(partitionPath,
+        getLatestFileSlices(partitionPath).collect(Collectors.toList())));
+    return result;
+  }
+
+  /**
+   * Get the latest file slices of each of the given partitions, with precondition that commitTime(file) before
+   * maxCommitTime.
+   */
+  default Map<String, List<FileSlice>> getLatestFileSlicesBeforeOrOn(List<String> partitionPaths,
+      String maxCommitTime, boolean includeFileSlicesInPendingCompaction) {
+    Map<String, List<FileSlice>> result = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> result.put(partitionPath, getLatestFileSlicesBeforeOrOn(partitionPath,
+        maxCommitTime, includeFileSlicesInPendingCompaction).collect(Collectors.toList())));
+    return result;
+  }
+
+  /**
+   * Get all the file groups of each of the given partitions.
+   */
+  default Map<String, List<HoodieFileGroup>> getAllFileGroups(List<String> partitionPaths) {
+    Map<String, List<HoodieFileGroup>> result = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> result.put(partitionPath,
+        getAllFileGroups(partitionPath).collect(Collectors.toList())));
+    return result;
+  }
 
+  /**
+   * Get the latest file slice of each of the given file groups. File groups without any slice are left out.
+   */
+  default Map<HoodieFileGroupId, FileSlice> getLatestFileSlicesForFileGroups(List<HoodieFileGroupId> fileGroupIds) {
+    Map<HoodieFileGroupId, FileSlice> result = new HashMap<>();
+    fileGroupIds.forEach(fileGroupId -> getLatestFileSlice(fileGroupId.getPartitionPath(), fileGroupId.getFileId())
+        .ifPresent(fileSlice -> result.put(fileGroupId, fileSlice)));
+    return result;
+  }
 
   /**
    * Allow View to release resources and close.
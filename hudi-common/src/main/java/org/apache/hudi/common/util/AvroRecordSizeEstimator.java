@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.apache.hudi.common.util.SizeEstimationUtils.BOXED_INT_SIZE;
+import static org.apache.hudi.common.util.SizeEstimationUtils.BOXED_LONG_SIZE;
+import static org.apache.hudi.common.util.SizeEstimationUtils.OBJECT_HEADER_SIZE;
+import static org.apache.hudi.common.util.SizeEstimationUtils.REFERENCE_SIZE;
+import static org.apache.hudi.common.util.SizeEstimationUtils.align;
+import static org.apache.hudi.common.util.SizeEstimationUtils.sizeOfByteArray;
+import static org.apache.hudi.common.util.SizeEstimationUtils.sizeOfReferenceArray;
+import static org.apache.hudi.common.util.SizeEstimationUtils.sizeOfString;
+
+/**
+ * Size Estimator for avro records held in memory, e.g GenericRecords read from parquet files. The size is derived from
+ * the fields of the record's schema and the length of the variable sized values (strings, bytes, arrays and maps), in
+ * time linear in the number of values and without reflection. Nested records are sized the same way.
+ *
+ * @param <T>
+ */
+public class AvroRecordSizeEstimator<T extends IndexedRecord> implements SizeEstimator<T> {
+
+  // GenericData.Record : header, schema and values references
+  private static final long RECORD_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE);
+  // org.apache.avro.util.Utf8 : header, bytes and cached string references, length
+  private static final long UTF8_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE + 4);
+  // java.nio.HeapByteBuffer : header, mark/position/limit/capacity, address, hb reference, offset and flags
+  private static final long BYTE_BUFFER_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 4 * 4 + 8 + REFERENCE_SIZE + 4 + 3);
+  // GenericData.Array : header, schema and elements references, size and modCount
+  private static final long ARRAY_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE + 2 * 4);
+  // java.util.HashMap, with its cached views, and one of its nodes
+  private static final long MAP_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 5 * REFERENCE_SIZE + 4 * 4);
+  private static final int MAP_DEFAULT_CAPACITY = 16;
+  private static final long MAP_NODE_SIZE = align(OBJECT_HEADER_SIZE + 3 * REFERENCE_SIZE + 4);
+  // GenericData.EnumSymbol and Fixed, the symbol strings themselves are shared
+  private static final long ENUM_SYMBOL_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE);
+  private static final long FIXED_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE);
+
+  @Override
+  public long sizeEstimate(T record) {
+    return sizeOfRecord(record);
+  }
+
+  @Override
+  public boolean isCheap() {
+    return true;
+  }
+
+  /**
+   * Estimated heap size of the avro record, including its nested values.
+   */
+  public static long sizeOfRecord(IndexedRecord record) {
+    if (record == null) {
+      return 0;
+    }
+    Schema schema = record.getSchema();
+    int numFields = schema.getFields().size();
+    long size = RECORD_SHALLOW_SIZE + sizeOfReferenceArray(numFields);
+    for (int i = 0; i < numFields; i++) {
+      size += sizeOfValue(record.get(i));
+    }
+    return size;
+  }
+
+  /**
+   * Estimated heap size of a value held by an avro record.
+   */
+  static long sizeOfValue(Object value) {
+    if (value == null || value instanceof Boolean) {
+      // booleans are cached by the JVM
+      return 0;
+    } else if (value instanceof Integer || value instanceof Float) {
+      return BOXED_INT_SIZE;
+    } else if (value instanceof Long || value instanceof Double) {
+      return BOXED_LONG_SIZE;
+    } else if (value instanceof Utf8) {
+      return UTF8_SHALLOW_SIZE + sizeOfByteArray(((Utf8) value).getByteLength());
+    } else if (value instanceof String) {
+      return sizeOfString((String) value);
+    } else if (value instanceof IndexedRecord) {
+      return sizeOfRecord((IndexedRecord) value);
+    } else if (value instanceof ByteBuffer) {
+      return BYTE_BUFFER_SHALLOW_SIZE + sizeOfByteArray(((ByteBuffer) value).capacity());
+    } else if (value instanceof GenericFixed) {
+      return FIXED_SHALLOW_SIZE + sizeOfByteArray(((GenericFixed) value).bytes().length);
+    } else if (value instanceof GenericEnumSymbol) {
+      return ENUM_SYMBOL_SIZE;
+    } else if (value instanceof Collection) {
+      Collection<?> collection = (Collection<?>) value;
+      long size = ARRAY_SHALLOW_SIZE + sizeOfReferenceArray(collection.size());
+      for (Object element : collection) {
+        size += sizeOfValue(element);
+      }
+      return size;
+    } else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      // the table of a HashMap is allocated on the first put, a power of two and at most 75% full
+      int capacity = MAP_DEFAULT_CAPACITY;
+      while (capacity * 3 / 4 < map.size()) {
+        capacity <<= 1;
+      }
+      long size = MAP_SHALLOW_SIZE + (map.isEmpty() ? 0 : sizeOfReferenceArray(capacity));
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        size += MAP_NODE_SIZE + sizeOfValue(entry.getKey()) + sizeOfValue(entry.getValue());
+      }
+      return size;
+    } else {
+      // logical type conversions and other rare values
+      return ObjectSizeCalculator.getObjectSize(value);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.avro.Schema;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Size estimator that corrects the estimates of a model based estimator with sampled measurements. Every
+ * {@code sampleInterval}-th estimated object, up to {@code maxSamples} of them, is also measured with
+ * {@link ObjectSizeCalculator}, and estimates are scaled by the ratio between the measured and the estimated sizes of
+ * the samples. Like the model estimators, the measurements leave out avro schemas, which are shared by all records.
+ *
+ * @param <T>
+ */
+public class CalibratedSizeEstimator<T> implements SizeEstimator<T> {
+
+  private static final Logger LOG = LogManager.getLogger(CalibratedSizeEstimator.class);
+  public static final int DEFAULT_SAMPLE_INTERVAL = 1000;
+  public static final int DEFAULT_MAX_SAMPLES = 20;
+
+  private final SizeEstimator<T> modelEstimator;
+  private final int sampleInterval;
+  private final int maxSamples;
+  private long numEstimates = 0;
+  private int numSamples = 0;
+  private long totalMeasuredSize = 0;
+  private long totalEstimatedSize = 0;
+  // Applied to every estimate, starts out trusting the model
+  private volatile double correctionFactor = 1.0;
+
+  public CalibratedSizeEstimator(SizeEstimator<T> modelEstimator) {
+    this(modelEstimator, DEFAULT_SAMPLE_INTERVAL, DEFAULT_MAX_SAMPLES);
+  }
+
+  public CalibratedSizeEstimator(SizeEstimator<T> modelEstimator, int sampleInterval, int maxSamples) {
+    this.modelEstimator = modelEstimator;
+    this.sampleInterval = sampleInterval;
+    this.maxSamples = maxSamples;
+  }
+
+  @Override
+  public long sizeEstimate(T t) {
+    long estimate = modelEstimator.sizeEstimate(t);
+    if (numSamples < maxSamples) {
+      sample(t, estimate);
+    }
+    return (long) Math.ceil(estimate * correctionFactor);
+  }
+
+  @Override
+  public boolean isCheap() {
+    return modelEstimator.isCheap();
+  }
+
+  private synchronized void sample(T t, long estimate) {
+    if (numSamples >= maxSamples || numEstimates++ % sampleInterval != 0) {
+      return;
+    }
+    totalMeasuredSize += ObjectSizeCalculator.getObjectSizeExcluding(t, Schema.class);
+    totalEstimatedSize += estimate;
+    numSamples++;
+    if (totalEstimatedSize > 0) {
+      correctionFactor = (double) totalMeasuredSize / totalEstimatedSize;
+    }
+    if (numSamples == maxSamples) {
+      LOG.info("Calibrated size estimates with a correction factor of " + correctionFactor);
+    }
+  }
+
+  public double getCorrectionFactor() {
+    return correctionFactor;
+  }
+}
@@ -19,7 +19,8 @@
 package org.apache.hudi.common.util;
 
 /**
- * Default implementation of size-estimator that uses Twitter's ObjectSizeCalculator.
+ * Default implementation of size-estimator that uses Twitter's ObjectSizeCalculator. Strings, the common key type of
+ * spillable maps, are sized without walking them.
  * 
  * @param <T>
  */
@@ -27,6 +28,9 @@ public class DefaultSizeEstimator<T> implements SizeEstimator<T> {
 
   @Override
   public long sizeEstimate(T t) {
+    if (t instanceof String) {
+      return SizeEstimationUtils.sizeOfString((String) t);
+    }
     return ObjectSizeCalculator.getObjectSize(t);
   }
 }
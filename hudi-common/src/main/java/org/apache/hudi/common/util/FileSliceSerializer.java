@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.hudi.common.model.FileSlice;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieLogFile;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Serializer for {@link FileSlice}s stored in file-system views. The slice is written field by field, without the class
+ * names and object graph bookkeeping of a generic serializer.
+ * <p>
+ * Layout : |partitionPath|fileId|baseInstantTime|hasBaseFile|baseFile?|numLogFiles|logFile*|
+ */
+public class FileSliceSerializer implements SpillableMapSerializer<FileSlice> {
+
+  private static final int INITIAL_BUFFER_SIZE = 1024;
+
+  // Buffers are not thread-safe, cache them per thread to reuse them across slices
+  private final ThreadLocal<Output> output = ThreadLocal.withInitial(() -> new Output(INITIAL_BUFFER_SIZE, -1));
+  private final ThreadLocal<Input> input = ThreadLocal.withInitial(Input::new);
+
+  @Override
+  public byte[] serialize(FileSlice fileSlice) {
+    Output out = output.get();
+    out.clear();
+    out.writeString(fileSlice.getPartitionPath());
+    out.writeString(fileSlice.getFileId());
+    out.writeString(fileSlice.getBaseInstantTime());
+    Option<HoodieBaseFile> baseFile = fileSlice.getBaseFile();
+    out.writeBoolean(baseFile.isPresent());
+    if (baseFile.isPresent()) {
+      HoodieBaseFileSerializer.writeBaseFile(out, baseFile.get());
+    }
+    out.writeVarInt((int) fileSlice.getLogFiles().count(), true);
+    fileSlice.getLogFiles().forEach(logFile -> {
+      out.writeString(logFile.getPath().toString());
+      out.writeVarLong(logFile.getFileSize(), false);
+    });
+    return out.toBytes();
+  }
+
+  @Override
+  public FileSlice deserialize(byte[] bytes) {
+    Input in = input.get();
+    in.setBuffer(bytes);
+    String partitionPath = in.readString();
+    String fileId = in.readString();
+    FileSlice fileSlice = new FileSlice(partitionPath, in.readString(), fileId);
+    if (in.readBoolean()) {
+      fileSlice.setBaseFile(HoodieBaseFileSerializer.readBaseFile(in));
+    }
+    int numLogFiles = in.readVarInt(true);
+    for (int i = 0; i < numLogFiles; i++) {
+      HoodieLogFile logFile = new HoodieLogFile(in.readString());
+      logFile.setFileLen(in.readVarLong(false));
+      fileSlice.addLogFile(logFile);
+    }
+    return fileSlice;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.hudi.common.model.HoodieBaseFile;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Serializer for {@link HoodieBaseFile}s stored in file-system views, writing only the path and length of the file.
+ * <p>
+ * Layout : |path|fileLen|
+ */
+public class HoodieBaseFileSerializer implements SpillableMapSerializer<HoodieBaseFile> {
+
+  private static final int INITIAL_BUFFER_SIZE = 256;
+
+  // Buffers are not thread-safe, cache them per thread to reuse them across files
+  private final ThreadLocal<Output> output = ThreadLocal.withInitial(() -> new Output(INITIAL_BUFFER_SIZE, -1));
+  private final ThreadLocal<Input> input = ThreadLocal.withInitial(Input::new);
+
+  @Override
+  public byte[] serialize(HoodieBaseFile baseFile) {
+    Output out = output.get();
+    out.clear();
+    writeBaseFile(out, baseFile);
+    return out.toBytes();
+  }
+
+  @Override
+  public HoodieBaseFile deserialize(byte[] bytes) {
+    Input in = input.get();
+    in.setBuffer(bytes);
+    return readBaseFile(in);
+  }
+
+  static void writeBaseFile(Output out, HoodieBaseFile baseFile) {
+    out.writeString(baseFile.getPath());
+    // length is -1 for files not listed yet
+    out.writeVarLong(baseFile.getFileLen(), false);
+  }
+
+  static HoodieBaseFile readBaseFile(Input in) {
+    HoodieBaseFile baseFile = new HoodieBaseFile(in.readString());
+    baseFile.setFileLen(in.readVarLong(false));
+    return baseFile;
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.hudi.common.model.BaseAvroPayload;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.exception.HoodieException;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Spillable map serializer for {@link HoodieRecord}s. The key and locations of the record are written field by field
+ * and the payload without its class name. Avro based payloads already hold their record as avro binary, those bytes
+ * are written as is along with the ordering value, and the payload is rebuilt over them on read. Avro payload classes
+ * opt in by declaring a public constructor over the record bytes, and the ordering value for subclasses of
+ * {@link BaseAvroPayload}, which must restore their whole state. Any other payload is written with kryo, so that the
+ * fields custom payloads add are kept.
+ * <p>
+ * Payload classes are numbered the first time this instance sees them, hence bytes can only be read back by the same
+ * instance, which is all a spill file needs.
+ * <p>
+ * Layout : |flags|recordKey|partitionPath|currentLocation?|newLocation?|payloadClassId?|payload?|
+ * with an avro payload as : |recordBytesLength|recordBytes|orderingVal?|
+ *
+ * @param <T>
+ */
+public class HoodieRecordSerializer<T extends HoodieRecordPayload> implements SpillableMapSerializer<HoodieRecord<T>> {
+
+  private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+  private static final int HAS_CURRENT_LOCATION = 1;
+  private static final int HAS_NEW_LOCATION = 1 << 1;
+  private static final int HAS_DATA = 1 << 2;
+  private static final int SEALED = 1 << 3;
+
+  // Payload classes seen so far, a payload class is encoded with its position in this list
+  private final List<PayloadClass> payloadClasses = new CopyOnWriteArrayList<>();
+  private final Map<Class<?>, Integer> payloadClassIds = new ConcurrentHashMap<>();
+
+  // Kryo instances and buffers are not thread-safe, cache them per thread to reuse them across records
+  private final ThreadLocal<Kryo> kryo = ThreadLocal.withInitial(SerializationUtils::newKryo);
+  private final ThreadLocal<Output> output = ThreadLocal.withInitial(() -> new Output(INITIAL_BUFFER_SIZE, -1));
+  private final ThreadLocal<Input> input = ThreadLocal.withInitial(Input::new);
+
+  @Override
+  public byte[] serialize(HoodieRecord<T> record) {
+    Output out = output.get();
+    out.clear();
+    HoodieRecordLocation currentLocation = record.getCurrentLocation();
+    HoodieRecordLocation newLocation = record.getNewLocation().orElse(null);
+    T data = record.isDeflated() ? null : record.getData();
+    int flags = (currentLocation != null ? HAS_CURRENT_LOCATION : 0) | (newLocation != null ? HAS_NEW_LOCATION : 0)
+        | (data != null ? HAS_DATA : 0) | (record.isSealed() ? SEALED : 0);
+    out.writeByte(flags);
+    out.writeString(record.getRecordKey());
+    out.writeString(record.getPartitionPath());
+    if (currentLocation != null) {
+      writeLocation(out, currentLocation);
+    }
+    if (newLocation != null) {
+      writeLocation(out, newLocation);
+    }
+    if (data != null) {
+      int id = getPayloadClassId(data.getClass());
+      out.writeVarInt(id, true);
+      if (payloadClasses.get(id).isAvro()) {
+        writeAvroPayload(out, data);
+      } else {
+        kryo.get().writeObject(out, data);
+      }
+    }
+    return out.toBytes();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public HoodieRecord<T> deserialize(byte[] bytes) {
+    Input in = input.get();
+    in.setBuffer(bytes);
+    int flags = in.readByte();
+    HoodieKey key = new HoodieKey(in.readString(), in.readString());
+    HoodieRecordLocation currentLocation = (flags & HAS_CURRENT_LOCATION) != 0 ? readLocation(in) : null;
+    HoodieRecordLocation newLocation = (flags & HAS_NEW_LOCATION) != 0 ? readLocation(in) : null;
+    T data = null;
+    if ((flags & HAS_DATA) != 0) {
+      PayloadClass payloadClass = payloadClasses.get(in.readVarInt(true));
+      data = payloadClass.isAvro() ? (T) readAvroPayload(in, payloadClass)
+          : (T) kryo.get().readObject(in, payloadClass.clazz);
+    }
+    HoodieRecord<T> record = new HoodieRecord<>(key, data);
+    if (currentLocation != null) {
+      record.setCurrentLocation(currentLocation);
+    }
+    if (newLocation != null) {
+      record.setNewLocation(newLocation);
+    }
+    if ((flags & SEALED) != 0) {
+      record.seal();
+    }
+    return record;
+  }
+
+  private void writeAvroPayload(Output out, T data) {
+    if (data instanceof BaseAvroPayload) {
+      BaseAvroPayload payload = (BaseAvroPayload) data;
+      writeBytes(out, payload.recordBytes);
+      kryo.get().writeClassAndObject(out, payload.getOrderingVal());
+    } else {
+      writeBytes(out, ((HoodieAvroPayload) data).getRecordBytes());
+    }
+  }
+
+  private Object readAvroPayload(Input in, PayloadClass payloadClass) {
+    byte[] recordBytes = in.readBytes(in.readVarInt(true));
+    boolean ordered = BaseAvroPayload.class.isAssignableFrom(payloadClass.clazz);
+    Object orderingVal = ordered ? kryo.get().readClassAndObject(in) : null;
+    try {
+      return ordered ? payloadClass.bytesConstructor.newInstance(recordBytes, orderingVal)
+          : payloadClass.bytesConstructor.newInstance((Object) recordBytes);
+    } catch (Exception e) {
+      throw new HoodieException("Unable to rebuild payload of class " + payloadClass.clazz.getName(), e);
+    }
+  }
+
+  private int getPayloadClassId(Class<?> payloadClass) {
+    Integer id = payloadClassIds.get(payloadClass);
+    if (id == null) {
+      synchronized (this) {
+        id = payloadClassIds.get(payloadClass);
+        if (id == null) {
+          // publish the class before its id, so that any id handed out can be resolved by readers
+          payloadClasses.add(new PayloadClass(payloadClass));
+          id = payloadClasses.size() - 1;
+          payloadClassIds.put(payloadClass, id);
+        }
+      }
+    }
+    return id;
+  }
+
+  private static void writeBytes(Output out, byte[] bytes) {
+    out.writeVarInt(bytes.length, true);
+    out.writeBytes(bytes);
+  }
+
+  private static void writeLocation(Output out, HoodieRecordLocation location) {
+    out.writeString(location.getInstantTime());
+    out.writeString(location.getFileId());
+  }
+
+  private static HoodieRecordLocation readLocation(Input in) {
+    return new HoodieRecordLocation(in.readString(), in.readString());
+  }
+
+  /**
+   * A payload class along with the constructor rebuilding it from its avro bytes, none for payloads written by kryo.
+   */
+  private static class PayloadClass {
+
+    private final Class<?> clazz;
+    private final Constructor<?> bytesConstructor;
+
+    PayloadClass(Class<?> clazz) {
+      this.clazz = clazz;
+      if (BaseAvroPayload.class.isAssignableFrom(clazz)) {
+        this.bytesConstructor = getConstructor(clazz, byte[].class, Comparable.class);
+      } else if (HoodieAvroPayload.class.isAssignableFrom(clazz)) {
+        this.bytesConstructor = getConstructor(clazz, byte[].class);
+      } else {
+        this.bytesConstructor = null;
+      }
+    }
+
+    boolean isAvro() {
+      return bytesConstructor != null;
+    }
+
+    // constructors are not inherited, a subclass only gets rebuilt over the bytes if it declares the constructor itself
+    private static Constructor<?> getConstructor(Class<?> clazz, Class<?>... parameterTypes) {
+      try {
+        return clazz.getConstructor(parameterTypes);
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+    }
+  }
+}
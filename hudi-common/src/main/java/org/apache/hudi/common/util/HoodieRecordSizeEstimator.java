@@ -18,39 +18,97 @@
 
 package org.apache.hudi.common.util;
 
+import org.apache.hudi.common.model.BaseAvroPayload;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
-import org.apache.hudi.common.util.collection.ExternalSpillableMap;
 
 import org.apache.avro.Schema;
-import org.apache.log4j.LogManager;
-import org.apache.log4j.Logger;
+import org.apache.avro.util.Utf8;
+
+import static org.apache.hudi.common.util.SizeEstimationUtils.OBJECT_HEADER_SIZE;
+import static org.apache.hudi.common.util.SizeEstimationUtils.REFERENCE_SIZE;
+import static org.apache.hudi.common.util.SizeEstimationUtils.align;
+import static org.apache.hudi.common.util.SizeEstimationUtils.sizeOfByteArray;
+import static org.apache.hudi.common.util.SizeEstimationUtils.sizeOfString;
 
 /**
  * Size Estimator for Hoodie record payload.
- * 
+ * <p>
+ * Avro based payloads hold their record serialized as avro binary, so the size of such a record is computed in
+ * constant time from the length of its key and of the serialized bytes. Other payloads are measured with
+ * {@link ObjectSizeCalculator} on a sample, see {@link SampledSizeEstimator}. Record locations are counted without their instant time and file id strings, which are
+ * shared by all the records of a file group.
+ *
  * @param <T>
  */
 public class HoodieRecordSizeEstimator<T extends HoodieRecordPayload> implements SizeEstimator<HoodieRecord<T>> {
 
-  private static final Logger LOG = LogManager.getLogger(HoodieRecordSizeEstimator.class);
+  // HoodieRecord : header, key, data and location references, sealed flag
+  private static final long RECORD_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 4 * REFERENCE_SIZE + 1);
+  // HoodieKey and HoodieRecordLocation : header and two string references
+  private static final long KEY_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE);
+  private static final long LOCATION_SHALLOW_SIZE = KEY_SHALLOW_SIZE;
+  // HoodieAvroPayload : header and bytes reference
+  private static final long AVRO_PAYLOAD_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + REFERENCE_SIZE);
+  // BaseAvroPayload : header, bytes and ordering value references
+  private static final long BASE_AVRO_PAYLOAD_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE);
 
-  private final long sizeOfSchema;
+  private final SizeEstimator<HoodieRecordPayload> otherPayloadSizeEstimator =
+      new SampledSizeEstimator<>(ObjectSizeCalculator::getObjectSize);
+
+  public HoodieRecordSizeEstimator() {
+  }
 
+  /**
+   * The schema is not needed to size records whose payloads hold avro binary, this constructor is kept for existing
+   * callers.
+   */
   public HoodieRecordSizeEstimator(Schema schema) {
-    sizeOfSchema = ObjectSizeCalculator.getObjectSize(schema);
+    this();
   }
 
   @Override
   public long sizeEstimate(HoodieRecord<T> hoodieRecord) {
-    // Most HoodieRecords are bound to have data + schema. Although, the same schema object is shared amongst
-    // all records in the JVM. Calculate and print the size of the Schema and of the Record to
-    // note the sizes and differences. A correct estimation in such cases is handled in
-    /** {@link ExternalSpillableMap} **/
-    long sizeOfRecord = ObjectSizeCalculator.getObjectSize(hoodieRecord);
-    if (LOG.isDebugEnabled()) {
-      LOG.debug("SizeOfRecord => " + sizeOfRecord + " SizeOfSchema => " + sizeOfSchema);
+    HoodieKey key = hoodieRecord.getKey();
+    long size = RECORD_SHALLOW_SIZE;
+    if (key != null) {
+      size += KEY_SHALLOW_SIZE + sizeOfString(key.getRecordKey()) + sizeOfString(key.getPartitionPath());
+    }
+    if (hoodieRecord.getCurrentLocation() != null) {
+      size += LOCATION_SHALLOW_SIZE;
+    }
+    if (hoodieRecord.getNewLocation().isPresent()) {
+      size += LOCATION_SHALLOW_SIZE;
+    }
+    if (!hoodieRecord.isDeflated()) {
+      size += sizeOfPayload(hoodieRecord.getData());
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isCheap() {
+    return true;
+  }
+
+  private long sizeOfPayload(HoodieRecordPayload payload) {
+    if (payload instanceof HoodieAvroPayload) {
+      return AVRO_PAYLOAD_SHALLOW_SIZE + sizeOfByteArray(((HoodieAvroPayload) payload).getRecordBytes().length);
+    } else if (payload instanceof BaseAvroPayload) {
+      BaseAvroPayload avroPayload = (BaseAvroPayload) payload;
+      return BASE_AVRO_PAYLOAD_SHALLOW_SIZE + sizeOfByteArray(avroPayload.recordBytes.length)
+          + sizeOfOrderingVal(avroPayload.getOrderingVal());
+    }
+    return otherPayloadSizeEstimator.sizeEstimate(payload);
+  }
+
+  private static long sizeOfOrderingVal(Comparable orderingVal) {
+    if (orderingVal instanceof Number || orderingVal instanceof String || orderingVal instanceof Utf8) {
+      return AvroRecordSizeEstimator.sizeOfValue(orderingVal);
     }
-    return sizeOfRecord;
+    // a constant comparator, as used by delete payloads
+    return OBJECT_HEADER_SIZE;
   }
 }
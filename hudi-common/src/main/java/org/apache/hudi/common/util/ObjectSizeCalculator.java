@@ -106,6 +106,24 @@ public class ObjectSizeCalculator {
     return obj == null ? 0 : new ObjectSizeCalculator(CurrentLayout.SPEC).calculateObjectSize(obj);
   }
 
+  /**
+   * Same as {@link #getObjectSize(Object)}, but does not count instances of the given types nor the objects only
+   * reachable through them. Useful to leave out structures shared by many objects, e.g avro schemas of records.
+   *
+   * @param obj the object; can be null.
+   * @param excludedTypes types whose instances are not counted.
+   * @return the total allocated size of the object and all other objects it retains, less the excluded ones.
+   * @throws UnsupportedOperationException if the current vm memory layout cannot be detected.
+   */
+  public static long getObjectSizeExcluding(Object obj, Class<?>... excludedTypes) throws UnsupportedOperationException {
+    if (obj == null) {
+      return 0;
+    }
+    ObjectSizeCalculator calculator = new ObjectSizeCalculator(CurrentLayout.SPEC);
+    calculator.excludedTypes = excludedTypes;
+    return calculator.calculateObjectSize(obj);
+  }
+
   // Fixed object header size for arrays.
   private final int arrayHeaderSize;
   // Fixed object header size for non-array objects.
@@ -123,6 +141,7 @@ public class ObjectSizeCalculator {
 
   private final Set<Object> alreadyVisited = Collections.newSetFromMap(new IdentityHashMap<>());
   private final Deque<Object> pending = new ArrayDeque<>(16 * 1024);
+  private Class<?>[] excludedTypes = new Class<?>[0];
   private long size;
 
   /**
@@ -180,6 +199,11 @@ public class ObjectSizeCalculator {
       return;
     }
     final Class<?> clazz = obj.getClass();
+    for (Class<?> excludedType : excludedTypes) {
+      if (excludedType.isAssignableFrom(clazz)) {
+        return;
+      }
+    }
     if (clazz == ArrayElementsVisitor.class) {
       ((ArrayElementsVisitor) obj).visit(this);
     } else {
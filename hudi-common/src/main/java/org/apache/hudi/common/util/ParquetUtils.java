@@ -48,6 +48,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -76,33 +77,47 @@ public class ParquetUtils {
    * @return Set Set of row keys matching candidateRecordKeys
    */
   public static Set<String> filterParquetRowKeys(Configuration configuration, Path filePath, Set<String> filter) {
-    Option<RecordKeysFilterFunction> filterFunction = Option.empty();
-    if (filter != null && !filter.isEmpty()) {
-      filterFunction = Option.of(new RecordKeysFilterFunction(filter));
-    }
+    Option<RecordKeysFilterFunction> filterFunction = filter != null && !filter.isEmpty()
+        ? Option.of(new RecordKeysFilterFunction(filter)) : Option.empty();
+    Set<String> rowKeys = new HashSet<>();
+    readRowKeys(configuration, filePath, recordKey -> {
+      if (!filterFunction.isPresent() || filterFunction.get().apply(recordKey)) {
+        rowKeys.add(recordKey);
+      }
+    });
+    return rowKeys;
+  }
+
+  /**
+   * Read all the rowKeys from the given parquet file, in file order, reading only the record key column.
+   *
+   * @param filePath      The parquet file path.
+   * @param configuration configuration to build fs object
+   * @return List of row keys
+   */
+  public static List<String> fetchRecordKeys(Configuration configuration, Path filePath) {
+    List<String> rowKeys = new ArrayList<>();
+    readRowKeys(configuration, filePath, rowKeys::add);
+    return rowKeys;
+  }
+
+  private static void readRowKeys(Configuration configuration, Path filePath, Consumer<String> keyConsumer) {
     Configuration conf = new Configuration(configuration);
     conf.addResource(FSUtils.getFs(filePath.toString(), conf).getConf());
     Schema readSchema = HoodieAvroUtils.getRecordKeySchema();
     AvroReadSupport.setAvroReadSchema(conf, readSchema);
     AvroReadSupport.setRequestedProjection(conf, readSchema);
-    Set<String> rowKeys = new HashSet<>();
     try (ParquetReader reader = AvroParquetReader.builder(filePath).withConf(conf).build()) {
       Object obj = reader.read();
       while (obj != null) {
         if (obj instanceof GenericRecord) {
-          String recordKey = ((GenericRecord) obj).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString();
-          if (!filterFunction.isPresent() || filterFunction.get().apply(recordKey)) {
-            rowKeys.add(recordKey);
-          }
+          keyConsumer.accept(((GenericRecord) obj).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString());
         }
         obj = reader.read();
       }
     } catch (IOException e) {
       throw new HoodieIOException("Failed to read row keys from Parquet " + filePath, e);
-
     }
-    // ignore
-    return rowKeys;
   }
 
   public static ParquetMetadata readMetadata(Configuration conf, Path parquetFilePath) {
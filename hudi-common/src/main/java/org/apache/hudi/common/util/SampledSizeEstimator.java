@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Size estimator for estimators that are too expensive to be called for every object, e.g. ones walking the object
+ * graph with {@link ObjectSizeCalculator}. The first {@code numSamples} objects are sized by the wrapped estimator, and
+ * every other object is assumed to be of their average size.
+ *
+ * @param <T>
+ */
+public class SampledSizeEstimator<T> implements SizeEstimator<T> {
+
+  private static final Logger LOG = LogManager.getLogger(SampledSizeEstimator.class);
+  public static final int DEFAULT_NUM_SAMPLES = 100;
+
+  private final SizeEstimator<T> sampleEstimator;
+  private final int numSamples;
+  private int numSampled = 0;
+  private long totalSampledSize = 0;
+  private volatile long averageSize = 0;
+
+  public SampledSizeEstimator(SizeEstimator<T> sampleEstimator) {
+    this(sampleEstimator, DEFAULT_NUM_SAMPLES);
+  }
+
+  public SampledSizeEstimator(SizeEstimator<T> sampleEstimator, int numSamples) {
+    this.sampleEstimator = sampleEstimator;
+    this.numSamples = numSamples;
+  }
+
+  /**
+   * Returns the estimator itself when it is cheap, and a sampling estimator over it otherwise.
+   */
+  public static <T> SizeEstimator<T> sampledIfExpensive(SizeEstimator<T> estimator) {
+    return estimator.isCheap() ? estimator : new SampledSizeEstimator<>(estimator);
+  }
+
+  @Override
+  public long sizeEstimate(T t) {
+    if (numSampled < numSamples) {
+      return sample(t);
+    }
+    return averageSize;
+  }
+
+  @Override
+  public boolean isCheap() {
+    return true;
+  }
+
+  private synchronized long sample(T t) {
+    if (numSampled >= numSamples) {
+      return averageSize;
+    }
+    long size = sampleEstimator.sizeEstimate(t);
+    totalSampledSize += size;
+    averageSize = totalSampledSize / ++numSampled;
+    if (numSampled == numSamples) {
+      LOG.info("Estimated an average size of " + averageSize + " from " + numSampled + " samples");
+    }
+    return size;
+  }
+}
@@ -25,7 +25,6 @@ import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 
@@ -81,26 +80,31 @@ public class SerializationUtils {
     return (T) SERIALIZER_REF.get().deserialize(objectData);
   }
 
+  /**
+   * Creates a {@link Kryo} instance configured like the one used by this class.
+   */
+  static Kryo newKryo() {
+    return new KryoInstantiator().newKryo();
+  }
+
   private static class KryoSerializerInstance implements Serializable {
     public static final int KRYO_SERIALIZER_INITIAL_BUFFER_SIZE = 1048576;
     private final Kryo kryo;
-    // Caching ByteArrayOutputStream to avoid recreating it for every operation
-    private final ByteArrayOutputStream baos;
+    // Caching the output buffer to avoid recreating it for every operation, it grows as needed
+    private final Output output;
 
     KryoSerializerInstance() {
       KryoInstantiator kryoInstantiator = new KryoInstantiator();
       kryo = kryoInstantiator.newKryo();
-      baos = new ByteArrayOutputStream(KRYO_SERIALIZER_INITIAL_BUFFER_SIZE);
+      output = new Output(KRYO_SERIALIZER_INITIAL_BUFFER_SIZE, -1);
       kryo.setRegistrationRequired(false);
     }
 
     byte[] serialize(Object obj) {
       kryo.reset();
-      baos.reset();
-      Output output = new Output(baos);
+      output.clear();
       this.kryo.writeClassAndObject(output, obj);
-      output.close();
-      return baos.toByteArray();
+      return output.toBytes();
     }
 
     Object deserialize(byte[] objectData) {
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+/**
+ * Heap sizes of common objects, computed from a fixed memory layout model instead of walking object graphs like
+ * {@link ObjectSizeCalculator}. The model is the one of a 64 bit HotSpot JVM with compressed object pointers (12 byte
+ * object headers, 16 byte array headers, 4 byte references, 8 byte alignment), the default for heaps under 32GB.
+ */
+public class SizeEstimationUtils {
+
+  public static final int OBJECT_HEADER_SIZE = 12;
+  public static final int ARRAY_HEADER_SIZE = 16;
+  public static final int REFERENCE_SIZE = 4;
+  // java.lang.String : header, value array reference and cached hash
+  public static final long STRING_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + REFERENCE_SIZE + 4);
+  // boxed java.lang.Integer, java.lang.Float etc
+  public static final long BOXED_INT_SIZE = align(OBJECT_HEADER_SIZE + 4);
+  // boxed java.lang.Long, java.lang.Double
+  public static final long BOXED_LONG_SIZE = align(OBJECT_HEADER_SIZE + 8);
+
+  /**
+   * Rounds the size up to the object alignment.
+   */
+  public static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  /**
+   * Size of a byte[] of the given length.
+   */
+  public static long sizeOfByteArray(int length) {
+    return align(ARRAY_HEADER_SIZE + (long) length);
+  }
+
+  /**
+   * Size of an Object[] of the given length, not counting the referenced objects.
+   */
+  public static long sizeOfReferenceArray(int length) {
+    return align(ARRAY_HEADER_SIZE + (long) REFERENCE_SIZE * length);
+  }
+
+  /**
+   * Size of a string along with its backing char[]. Strings held in a compact (latin1) form take less.
+   */
+  public static long sizeOfString(String str) {
+    return str == null ? 0 : STRING_SHALLOW_SIZE + align(ARRAY_HEADER_SIZE + 2L * str.length());
+  }
+}
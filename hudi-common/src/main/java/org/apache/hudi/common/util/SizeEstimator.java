@@ -30,4 +30,13 @@ public interface SizeEstimator<T> {
    * allocated size, in bytes, of the object and all other objects reachable from it
    */
   long sizeEstimate(T t);
+
+  /**
+   * Whether the estimate is cheap enough to be computed for every object, i.e. it is derived from the fields of the
+   * object and the lengths of its values instead of walking its object graph. Callers only size a sample of the objects
+   * when it is not.
+   */
+  default boolean isCheap() {
+    return false;
+  }
 }
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import java.io.IOException;
+
+/**
+ * An interface to convert the values of a spillable map to and from the bytes written to disk.
+ *
+ * @param <T>
+ */
+public interface SpillableMapSerializer<T> {
+
+  /**
+   * Serializes the value to bytes. Implementations may reuse internal buffers but must return a fresh array.
+   */
+  byte[] serialize(T t) throws IOException;
+
+  /**
+   * Deserializes a value from bytes produced by {@link #serialize(Object)} of the same instance. May be called
+   * concurrently from multiple threads.
+   */
+  T deserialize(byte[] bytes);
+}
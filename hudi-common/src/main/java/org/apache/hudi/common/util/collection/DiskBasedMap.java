@@ -20,7 +20,9 @@ package org.apache.hudi.common.util.collection;
 
 import org.apache.hudi.common.fs.SizeAwareDataOutputStream;
 import org.apache.hudi.common.util.BufferedRandomAccessFile;
+import org.apache.hudi.common.util.DefaultSpillableMapSerializer;
 import org.apache.hudi.common.util.SerializationUtils;
+import org.apache.hudi.common.util.SpillableMapSerializer;
 import org.apache.hudi.common.util.SpillableMapUtils;
 import org.apache.hudi.exception.HoodieException;
 import org.apache.hudi.exception.HoodieIOException;
@@ -53,7 +55,7 @@ import java.util.stream.Stream;
  * without any rollover support. It uses the following : 1) An in-memory map that tracks the key-> latest ValueMetadata.
  * 2) Current position in the file NOTE : Only String.class type supported for Key
  */
-public final class DiskBasedMap<T extends Serializable, R extends Serializable> implements Map<T, R>, Iterable<R> {
+public final class DiskBasedMap<T extends Serializable, R extends Serializable> implements DiskMap<T, R> {
 
   public static final int BUFFER_SIZE = 128 * 1024;  // 128 KB
   private static final Logger LOG = LogManager.getLogger(DiskBasedMap.class);
@@ -73,9 +75,16 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
   // Thread-safe random access file
   private ThreadLocal<BufferedRandomAccessFile> randomAccessFile = new ThreadLocal<>();
   private Queue<BufferedRandomAccessFile> openedAccessFiles = new ConcurrentLinkedQueue<>();
+  // Converts values to and from the bytes spilled to disk
+  private final SpillableMapSerializer<R> valueSerializer;
 
   public DiskBasedMap(String baseFilePath) throws IOException {
+    this(baseFilePath, new DefaultSpillableMapSerializer<>());
+  }
+
+  public DiskBasedMap(String baseFilePath, SpillableMapSerializer<R> valueSerializer) throws IOException {
     this.valueMetadataMap = new ConcurrentHashMap<>();
+    this.valueSerializer = valueSerializer;
     this.writeOnlyFile = new File(baseFilePath, UUID.randomUUID().toString());
     this.filePath = writeOnlyFile.getPath();
     initFile(writeOnlyFile);
@@ -168,12 +177,13 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
    */
   @Override
   public Iterator<R> iterator() {
-    return new LazyFileIterable(filePath, valueMetadataMap).iterator();
+    return new LazyFileIterable<>(filePath, valueMetadataMap, valueSerializer).iterator();
   }
 
   /**
    * Number of bytes spilled to disk.
    */
+  @Override
   public long sizeOfFileOnDiskInBytes() {
     return filePosition.get();
   }
@@ -208,12 +218,16 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
   }
 
   private R get(ValueMetadata entry) {
-    return get(entry, getRandomAccessFile());
+    return get(entry, getRandomAccessFile(), valueSerializer);
   }
 
   public static <R> R get(ValueMetadata entry, RandomAccessFile file) {
+    return get(entry, file, new DefaultSpillableMapSerializer<>());
+  }
+
+  public static <R> R get(ValueMetadata entry, RandomAccessFile file, SpillableMapSerializer<R> valueSerializer) {
     try {
-      return SerializationUtils
+      return valueSerializer
           .deserialize(SpillableMapUtils.readBytesFromDisk(file, entry.getOffsetOfValue(), entry.getSizeOfValue()));
     } catch (IOException e) {
       throw new HoodieIOException("Unable to readFromDisk Hoodie Record from disk", e);
@@ -222,7 +236,7 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
 
   private synchronized R put(T key, R value, boolean flush) {
     try {
-      byte[] val = SerializationUtils.serialize(value);
+      byte[] val = valueSerializer.serialize(value);
       Integer valueSize = val.length;
       Long timestamp = System.currentTimeMillis();
       this.valueMetadataMap.put(key,
@@ -277,9 +291,10 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
     throw new HoodieException("Unsupported Operation Exception");
   }
 
+  @Override
   public Stream<R> valueStream() {
     final BufferedRandomAccessFile file = getRandomAccessFile();
-    return valueMetadataMap.values().stream().sorted().sequential().map(valueMetaData -> (R) get(valueMetaData, file));
+    return valueMetadataMap.values().stream().sorted().sequential().map(valueMetaData -> get(valueMetaData, file, valueSerializer));
   }
 
   @Override
@@ -18,8 +18,10 @@
 
 package org.apache.hudi.common.util.collection;
 
-import org.apache.hudi.common.util.ObjectSizeCalculator;
+import org.apache.hudi.common.util.DefaultSpillableMapSerializer;
+import org.apache.hudi.common.util.SampledSizeEstimator;
 import org.apache.hudi.common.util.SizeEstimator;
+import org.apache.hudi.common.util.SpillableMapSerializer;
 import org.apache.hudi.exception.HoodieIOException;
 
 import org.apache.log4j.LogManager;
@@ -54,15 +56,15 @@ import java.util.stream.Stream;
  */
 public class ExternalSpillableMap<T extends Serializable, R extends Serializable> implements Map<T, R> {
 
-  // Find the actual estimated payload size after inserting N records
-  private static final int NUMBER_OF_RECORDS_TO_ESTIMATE_PAYLOAD_SIZE = 100;
+  // HashMap node and its slot in the table of the in-memory map
+  private static final long ENTRY_OVERHEAD_SIZE = 40;
   private static final Logger LOG = LogManager.getLogger(ExternalSpillableMap.class);
   // maximum space allowed in-memory for this map
   private final long maxInMemorySizeInBytes;
   // Map to store key-values in memory until it hits maxInMemorySizeInBytes
   private final Map<T, R> inMemoryMap;
   // Map to store key-valuemetadata important to find the values spilled to disk
-  private transient volatile DiskBasedMap<T, R> diskBasedMap;
+  private transient volatile DiskMap<T, R> diskBasedMap;
   // TODO(na) : a dynamic sizing factor to ensure we have space for other objects in memory and
   // incorrect payload estimation
   private final Double sizingFactorForInMemoryMap = 0.8;
@@ -72,30 +74,57 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
   private final SizeEstimator<R> valueSizeEstimator;
   // current space occupied by this map in-memory
   private Long currentInMemoryMapSize;
-  // An estimate of the size of each payload written to this map
+  // Size of the first entry written to this map, logged as a hint of the payload size
   private volatile long estimatedPayloadSize = 0;
-  // Flag to determine whether to stop re-estimating payload size
-  private boolean shouldEstimatePayloadSize = true;
   // Base File Path
   private final String baseFilePath;
+  // Implementation of the map holding the spilled entries
+  private final DiskMapType diskMapType;
+  // Serializer for the values spilled to disk
+  private final SpillableMapSerializer<R> valueSerializer;
 
   public ExternalSpillableMap(Long maxInMemorySizeInBytes, String baseFilePath, SizeEstimator<T> keySizeEstimator,
       SizeEstimator<R> valueSizeEstimator) throws IOException {
+    this(maxInMemorySizeInBytes, baseFilePath, keySizeEstimator, valueSizeEstimator, DiskMapType.DISK_BASED);
+  }
+
+  public ExternalSpillableMap(Long maxInMemorySizeInBytes, String baseFilePath, SizeEstimator<T> keySizeEstimator,
+      SizeEstimator<R> valueSizeEstimator, DiskMapType diskMapType) throws IOException {
+    this(maxInMemorySizeInBytes, baseFilePath, keySizeEstimator, valueSizeEstimator, diskMapType,
+        new DefaultSpillableMapSerializer<>());
+  }
+
+  public ExternalSpillableMap(Long maxInMemorySizeInBytes, String baseFilePath, SizeEstimator<T> keySizeEstimator,
+      SizeEstimator<R> valueSizeEstimator, DiskMapType diskMapType, SpillableMapSerializer<R> valueSerializer)
+      throws IOException {
     this.inMemoryMap = new HashMap<>();
     this.baseFilePath = baseFilePath;
-    this.diskBasedMap = new DiskBasedMap<>(baseFilePath);
+    this.diskMapType = diskMapType;
+    this.valueSerializer = valueSerializer;
+    this.diskBasedMap = createDiskMap();
     this.maxInMemorySizeInBytes = (long) Math.floor(maxInMemorySizeInBytes * sizingFactorForInMemoryMap);
     this.currentInMemoryMapSize = 0L;
-    this.keySizeEstimator = keySizeEstimator;
-    this.valueSizeEstimator = valueSizeEstimator;
+    // Estimators that walk the object graph are too expensive to size every entry, they are sampled instead
+    this.keySizeEstimator = SampledSizeEstimator.sampledIfExpensive(keySizeEstimator);
+    this.valueSizeEstimator = SampledSizeEstimator.sampledIfExpensive(valueSizeEstimator);
   }
 
-  private DiskBasedMap<T, R> getDiskBasedMap() {
+  private DiskMap<T, R> createDiskMap() throws IOException {
+    switch (diskMapType) {
+      case MEMORY_MAPPED:
+        return new MemoryMappedDiskMap<>(baseFilePath, valueSerializer);
+      case DISK_BASED:
+      default:
+        return new DiskBasedMap<>(baseFilePath, valueSerializer);
+    }
+  }
+
+  private DiskMap<T, R> getDiskBasedMap() {
     if (null == diskBasedMap) {
       synchronized (this) {
         if (null == diskBasedMap) {
           try {
-            diskBasedMap = new DiskBasedMap<>(baseFilePath);
+            diskBasedMap = createDiskMap();
           } catch (IOException e) {
             throw new HoodieIOException(e.getMessage(), e);
           }
@@ -172,26 +201,23 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
 
   @Override
   public R put(T key, R value) {
-    if (this.currentInMemoryMapSize < maxInMemorySizeInBytes || inMemoryMap.containsKey(key)) {
-      if (shouldEstimatePayloadSize && estimatedPayloadSize == 0) {
-        // At first, use the sizeEstimate of a record being inserted into the spillable map.
-        // Note, the converter may over estimate the size of a record in the JVM
-        this.estimatedPayloadSize = keySizeEstimator.sizeEstimate(key) + valueSizeEstimator.sizeEstimate(value);
-        LOG.info("Estimated Payload size => " + estimatedPayloadSize);
-      } else if (shouldEstimatePayloadSize && inMemoryMap.size() % NUMBER_OF_RECORDS_TO_ESTIMATE_PAYLOAD_SIZE == 0) {
-        // Re-estimate the size of a record by calculating the size of the entire map containing
-        // N entries and then dividing by the number of entries present (N). This helps to get a
-        // correct estimation of the size of each record in the JVM.
-        long totalMapSize = ObjectSizeCalculator.getObjectSize(inMemoryMap);
-        this.currentInMemoryMapSize = totalMapSize;
-        this.estimatedPayloadSize = totalMapSize / inMemoryMap.size();
-        shouldEstimatePayloadSize = false;
-        LOG.info("New Estimated Payload size => " + this.estimatedPayloadSize);
+    R oldValue = inMemoryMap.get(key);
+    // A key that spilled stays on disk, even once updates and removals have freed up memory
+    if (oldValue != null || (this.currentInMemoryMapSize < maxInMemorySizeInBytes
+        && !getDiskBasedMap().containsKey(key))) {
+      // The estimators are cheap or sampled (see the constructor), so every entry is sized and the in-memory
+      // footprint tracks updates and removals
+      long entrySize = valueSizeEstimator.sizeEstimate(value);
+      if (oldValue == null) {
+        entrySize += keySizeEstimator.sizeEstimate(key) + ENTRY_OVERHEAD_SIZE;
+      } else {
+        entrySize -= valueSizeEstimator.sizeEstimate(oldValue);
       }
-      if (!inMemoryMap.containsKey(key)) {
-        // TODO : Add support for adjusting payloadSize for updates to the same key
-        currentInMemoryMapSize += this.estimatedPayloadSize;
+      if (estimatedPayloadSize == 0) {
+        this.estimatedPayloadSize = entrySize;
+        LOG.info("Estimated Payload size => " + estimatedPayloadSize);
       }
+      currentInMemoryMapSize += entrySize;
       inMemoryMap.put(key, value);
     } else {
       getDiskBasedMap().put(key, value);
@@ -203,8 +229,10 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
   public R remove(Object key) {
     // NOTE : getDiskBasedMap().remove does not delete the data from disk
     if (inMemoryMap.containsKey(key)) {
-      currentInMemoryMapSize -= estimatedPayloadSize;
-      return inMemoryMap.remove(key);
+      R value = inMemoryMap.remove(key);
+      currentInMemoryMapSize -= keySizeEstimator.sizeEstimate((T) key) + valueSizeEstimator.sizeEstimate(value)
+          + ENTRY_OVERHEAD_SIZE;
+      return value;
     } else if (getDiskBasedMap().containsKey(key)) {
       return getDiskBasedMap().remove(key);
     }
@@ -225,6 +253,17 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
     currentInMemoryMapSize = 0L;
   }
 
+  /**
+   * Releases the entries of the map along with its spill file, the map cannot be used afterwards.
+   */
+  public void close() {
+    inMemoryMap.clear();
+    currentInMemoryMapSize = 0L;
+    if (diskBasedMap != null) {
+      diskBasedMap.close();
+    }
+  }
+
   @Override
   public Set<T> keySet() {
     Set<T> keySet = new HashSet<T>();
@@ -255,6 +294,16 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
     return entrySet;
   }
 
+  /**
+   * The available implementations for the entries spilled to disk.
+   */
+  public enum DiskMapType {
+    // Appends to the spill file through an output stream, reads with a random access file per thread
+    DISK_BASED,
+    // Memory maps the spill file and keeps the key index off-heap, see MemoryMappedDiskMap
+    MEMORY_MAPPED
+  }
+
   /**
    * Iterator that wraps iterating over all the values for this map 1) inMemoryIterator - Iterates over all the data
    * in-memory map 2) diskLazyFileIterator - Iterates over all the data spilled to disk.
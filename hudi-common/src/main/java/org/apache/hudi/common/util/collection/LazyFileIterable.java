@@ -19,6 +19,8 @@
 package org.apache.hudi.common.util.collection;
 
 import org.apache.hudi.common.util.BufferedRandomAccessFile;
+import org.apache.hudi.common.util.DefaultSpillableMapSerializer;
+import org.apache.hudi.common.util.SpillableMapSerializer;
 import org.apache.hudi.exception.HoodieException;
 
 import java.io.IOException;
@@ -37,16 +39,24 @@ public class LazyFileIterable<T, R> implements Iterable<R> {
   private final String filePath;
   // Stores the key and corresponding value's latest metadata spilled to disk
   private final Map<T, DiskBasedMap.ValueMetadata> inMemoryMetadataOfSpilledData;
+  // Converts the bytes spilled to disk back to values
+  private final SpillableMapSerializer<R> valueSerializer;
 
   public LazyFileIterable(String filePath, Map<T, DiskBasedMap.ValueMetadata> map) {
+    this(filePath, map, new DefaultSpillableMapSerializer<>());
+  }
+
+  public LazyFileIterable(String filePath, Map<T, DiskBasedMap.ValueMetadata> map,
+      SpillableMapSerializer<R> valueSerializer) {
     this.filePath = filePath;
     this.inMemoryMetadataOfSpilledData = map;
+    this.valueSerializer = valueSerializer;
   }
 
   @Override
   public Iterator<R> iterator() {
     try {
-      return new LazyFileIterator<>(filePath, inMemoryMetadataOfSpilledData);
+      return new LazyFileIterator(filePath, inMemoryMetadataOfSpilledData);
     } catch (IOException io) {
       throw new HoodieException("Unable to initialize iterator for file on disk", io);
     }
@@ -55,7 +65,7 @@ public class LazyFileIterable<T, R> implements Iterable<R> {
   /**
    * Iterator implementation for the iterable defined above.
    */
-  public class LazyFileIterator<T, R> implements Iterator<R> {
+  public class LazyFileIterator implements Iterator<R> {
 
     private final String filePath;
     private BufferedRandomAccessFile readOnlyFileHandle;
@@ -89,7 +99,7 @@ public class LazyFileIterable<T, R> implements Iterable<R> {
         throw new IllegalStateException("next() called on EOF'ed stream. File :" + filePath);
       }
       Map.Entry<T, DiskBasedMap.ValueMetadata> entry = this.metadataIterator.next();
-      return DiskBasedMap.get(entry.getValue(), readOnlyFileHandle);
+      return DiskBasedMap.get(entry.getValue(), readOnlyFileHandle, valueSerializer);
     }
 
     @Override
@@ -0,0 +1,554 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.common.util.DefaultSpillableMapSerializer;
+import org.apache.hudi.common.util.SerializationUtils;
+import org.apache.hudi.common.util.SpillableMapSerializer;
+import org.apache.hudi.common.util.SpillableMapUtils;
+import org.apache.hudi.exception.HoodieCorruptedDataException;
+import org.apache.hudi.exception.HoodieIOException;
+import org.apache.hudi.exception.HoodieNotSupportedException;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * A disk spillable only map that memory maps its spill file instead of going through stream and random access file
+ * handles like {@link DiskBasedMap}. Entries are laid out exactly as in {@link DiskBasedMap}
+ * (|crc|timestamp|sizeOfKey|sizeOfValue|key|value|) and appended to fixed size {@link MappedByteBuffer} segments of
+ * the file, so reads are served from the OS page cache without any system call.
+ * <p>
+ * The key to offset index is an open addressing hash table kept in a direct (off-heap) buffer. Each slot stores the
+ * hash of the key and the offset of its entry in the file, so no object is kept on heap per key. Hash collisions are
+ * resolved by reading the key of the candidate entry back from the file.
+ * <p>
+ * Writes are serialized, reads can happen concurrently with each other and with writes.
+ */
+public final class MemoryMappedDiskMap<T extends Serializable, R extends Serializable> implements DiskMap<T, R> {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024; // 64 MB
+  private static final Logger LOG = LogManager.getLogger(MemoryMappedDiskMap.class);
+  // |crc|timestamp|sizeOfKey|sizeOfValue|
+  private static final int ENTRY_HEADER_SIZE = 8 + 8 + 4 + 4;
+  private static final int SIZE_OF_KEY_POSITION = 8 + 8;
+  // |entryOffset + 1|hash|padding|, an entryOffset of 0 marks an empty slot and -1 a removed one
+  private static final int SLOT_SIZE = 16;
+  private static final int HASH_POSITION = 8;
+  private static final long EMPTY_SLOT = 0L;
+  private static final long REMOVED_SLOT = -1L;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int MAX_CAPACITY = 1 << 26; // 1 GB of index
+  private static final float LOAD_FACTOR = 0.75f;
+
+  // Converts values to and from the bytes spilled to disk
+  private final SpillableMapSerializer<R> valueSerializer;
+  private final File file;
+  private final RandomAccessFile randomAccessFile;
+  private final FileChannel fileChannel;
+  private final int segmentSize;
+  // Deletes the spill file if the JVM exits before the map is closed
+  private final Thread shutdownHook;
+  // Mapped regions of the spill file, segment i maps bytes [i * segmentSize, (i + 1) * segmentSize)
+  private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+  // Current position in the file
+  private volatile long filePosition = 0L;
+  // Reused to assemble the header of every entry written
+  private final ByteBuffer headerBuffer = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+
+  // Guards the index, lookups hold the read lock and mutations the write lock
+  private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+  private ByteBuffer index;
+  private int capacity;
+  private int numEntries;
+  private int numUsedSlots;
+
+  public MemoryMappedDiskMap(String baseFilePath) throws IOException {
+    this(baseFilePath, new DefaultSpillableMapSerializer<>());
+  }
+
+  public MemoryMappedDiskMap(String baseFilePath, SpillableMapSerializer<R> valueSerializer) throws IOException {
+    this(baseFilePath, valueSerializer, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public MemoryMappedDiskMap(String baseFilePath, SpillableMapSerializer<R> valueSerializer, int segmentSize)
+      throws IOException {
+    this.valueSerializer = valueSerializer;
+    this.segmentSize = segmentSize;
+    this.file = new File(baseFilePath, UUID.randomUUID().toString());
+    initFile(file);
+    this.randomAccessFile = new RandomAccessFile(file, "rw");
+    this.fileChannel = randomAccessFile.getChannel();
+    this.shutdownHook = new Thread(this::closeFile);
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    resetIndex(INITIAL_CAPACITY);
+  }
+
+  private void initFile(File file) throws IOException {
+    // delete the file if it exists
+    if (file.exists()) {
+      file.delete();
+    }
+    if (!file.getParentFile().exists()) {
+      file.getParentFile().mkdir();
+    }
+    file.createNewFile();
+    LOG.info("Spilling to memory mapped file location " + file.getAbsolutePath() + " in host ("
+        + InetAddress.getLocalHost().getHostAddress() + ") with hostname (" + InetAddress.getLocalHost().getHostName()
+        + ")");
+    // Make sure file is deleted when JVM exits
+    file.deleteOnExit();
+  }
+
+  /**
+   * Unmaps the spill file and releases the off-heap index right away, instead of holding on to them until the buffers
+   * are garbage collected, then deletes the spill file. The map must not be used anymore, nor concurrently with this
+   * call.
+   */
+  @Override
+  public synchronized void close() {
+    indexLock.writeLock().lock();
+    try {
+      if (index == null) {
+        return;
+      }
+      MappedByteBuffer[] currentSegments = segments;
+      segments = new MappedByteBuffer[0];
+      for (MappedByteBuffer segment : currentSegments) {
+        unmap(segment);
+      }
+      unmap(index);
+      index = null;
+      capacity = 0;
+      numEntries = 0;
+      numUsedSlots = 0;
+    } finally {
+      indexLock.writeLock().unlock();
+    }
+    closeFile();
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // the JVM is shutting down, the hook deletes the file anyway
+    }
+  }
+
+  private void closeFile() {
+    try {
+      fileChannel.close();
+      randomAccessFile.close();
+    } catch (Exception e) {
+      // skip exception, the file is deleted regardless
+    }
+    file.delete();
+  }
+
+  /**
+   * Releases the memory of a direct or mapped buffer, which is otherwise only released once the buffer is garbage
+   * collected. The buffer must not be accessed afterwards.
+   */
+  private static void unmap(ByteBuffer buffer) {
+    try {
+      try {
+        // Java 9+
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), buffer);
+      } catch (NoSuchMethodException e) {
+        // Java 8
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+    } catch (Exception e) {
+      LOG.warn("Unable to release buffer, leaving it to garbage collection", e);
+    }
+  }
+
+  /**
+   * Custom iterator to iterate over values written to disk, in the order they were written.
+   */
+  @Override
+  public Iterator<R> iterator() {
+    return valueStream().iterator();
+  }
+
+  @Override
+  public long sizeOfFileOnDiskInBytes() {
+    return filePosition;
+  }
+
+  @Override
+  public int size() {
+    indexLock.readLock().lock();
+    try {
+      return numEntries;
+    } finally {
+      indexLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    indexLock.readLock().lock();
+    try {
+      return findSlot(key) >= 0;
+    } finally {
+      indexLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    throw new HoodieNotSupportedException("unable to compare values in map");
+  }
+
+  @Override
+  public R get(Object key) {
+    long entryOffset;
+    indexLock.readLock().lock();
+    try {
+      int slot = findSlot(key);
+      if (slot < 0) {
+        return null;
+      }
+      entryOffset = index.getLong(slot * SLOT_SIZE) - 1;
+    } finally {
+      indexLock.readLock().unlock();
+    }
+    return readValue(entryOffset);
+  }
+
+  @Override
+  public synchronized R put(T key, R value) {
+    byte[] serializedKey;
+    byte[] serializedValue;
+    try {
+      serializedKey = SerializationUtils.serialize(key);
+      serializedValue = valueSerializer.serialize(value);
+    } catch (IOException io) {
+      throw new HoodieIOException("Unable to store data in memory mapped disk map", io);
+    }
+    long entryOffset = filePosition;
+    headerBuffer.clear();
+    headerBuffer.putLong(SpillableMapUtils.generateChecksum(serializedValue)).putLong(System.currentTimeMillis())
+        .putInt(serializedKey.length).putInt(serializedValue.length);
+    long position = write(entryOffset, headerBuffer.array(), ENTRY_HEADER_SIZE);
+    position = write(position, serializedKey, serializedKey.length);
+    filePosition = write(position, serializedValue, serializedValue.length);
+
+    indexLock.writeLock().lock();
+    try {
+      int hash = hash(key);
+      int slot = findSlot(key, hash);
+      if (slot >= 0) {
+        index.putLong(slot * SLOT_SIZE, entryOffset + 1);
+      } else {
+        if (numUsedSlots + 1 > capacity * LOAD_FACTOR) {
+          resize();
+        }
+        insert(hash, entryOffset);
+        numEntries++;
+      }
+    } finally {
+      indexLock.writeLock().unlock();
+    }
+    return value;
+  }
+
+  @Override
+  public R remove(Object key) {
+    long entryOffset;
+    indexLock.writeLock().lock();
+    try {
+      int slot = findSlot(key);
+      if (slot < 0) {
+        return null;
+      }
+      entryOffset = index.getLong(slot * SLOT_SIZE) - 1;
+      index.putLong(slot * SLOT_SIZE, REMOVED_SLOT);
+      numEntries--;
+    } finally {
+      indexLock.writeLock().unlock();
+    }
+    return readValue(entryOffset);
+  }
+
+  @Override
+  public void putAll(Map<? extends T, ? extends R> m) {
+    for (Map.Entry<? extends T, ? extends R> entry : m.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public void clear() {
+    // Like DiskBasedMap, only the index is dropped, the spilled bytes stay in the file until it is removed on exit
+    indexLock.writeLock().lock();
+    try {
+      resetIndex(INITIAL_CAPACITY);
+    } finally {
+      indexLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public Set<T> keySet() {
+    Set<T> keySet = new HashSet<>();
+    for (long entryOffset : sortedEntryOffsets()) {
+      keySet.add(readKey(entryOffset));
+    }
+    return keySet;
+  }
+
+  @Override
+  public Collection<R> values() {
+    long[] entryOffsets = sortedEntryOffsets();
+    List<R> values = new ArrayList<>(entryOffsets.length);
+    for (long entryOffset : entryOffsets) {
+      values.add(readValue(entryOffset));
+    }
+    return values;
+  }
+
+  @Override
+  public Stream<R> valueStream() {
+    return Arrays.stream(sortedEntryOffsets()).mapToObj(this::readValue);
+  }
+
+  @Override
+  public Set<Entry<T, R>> entrySet() {
+    Set<Entry<T, R>> entrySet = new HashSet<>();
+    for (long entryOffset : sortedEntryOffsets()) {
+      entrySet.add(new AbstractMap.SimpleEntry<>(readKey(entryOffset), readValue(entryOffset)));
+    }
+    return entrySet;
+  }
+
+  /**
+   * Offsets of the live entries in file order, so that scans read the file sequentially.
+   */
+  private long[] sortedEntryOffsets() {
+    long[] entryOffsets;
+    indexLock.readLock().lock();
+    try {
+      entryOffsets = new long[numEntries];
+      int i = 0;
+      for (int slot = 0; slot < capacity; slot++) {
+        long slotValue = index.getLong(slot * SLOT_SIZE);
+        if (slotValue != EMPTY_SLOT && slotValue != REMOVED_SLOT) {
+          entryOffsets[i++] = slotValue - 1;
+        }
+      }
+    } finally {
+      indexLock.readLock().unlock();
+    }
+    Arrays.sort(entryOffsets);
+    return entryOffsets;
+  }
+
+  // ------------------------------------------------------------------------
+  // Off-heap index
+  // ------------------------------------------------------------------------
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    // spread the higher bits, the table is indexed with the lower ones
+    return h ^ (h >>> 16);
+  }
+
+  private int findSlot(Object key) {
+    return findSlot(key, hash(key));
+  }
+
+  /**
+   * Linear probing for the slot holding the given key, returns -1 if the key is not present. Must be called with the
+   * index lock held.
+   */
+  private int findSlot(Object key, int hash) {
+    int mask = capacity - 1;
+    for (int slot = hash & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+      long slotValue = index.getLong(slot * SLOT_SIZE);
+      if (slotValue == EMPTY_SLOT) {
+        return -1;
+      }
+      if (slotValue != REMOVED_SLOT && index.getInt(slot * SLOT_SIZE + HASH_POSITION) == hash
+          && key.equals(readKey(slotValue - 1))) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private void insert(int hash, long entryOffset) {
+    int mask = capacity - 1;
+    int slot = hash & mask;
+    while (true) {
+      long slotValue = index.getLong(slot * SLOT_SIZE);
+      if (slotValue == EMPTY_SLOT || slotValue == REMOVED_SLOT) {
+        if (slotValue == EMPTY_SLOT) {
+          numUsedSlots++;
+        }
+        index.putLong(slot * SLOT_SIZE, entryOffset + 1);
+        index.putInt(slot * SLOT_SIZE + HASH_POSITION, hash);
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Rehashes the live entries into a new table, doubling it unless most of the used slots are removed ones.
+   */
+  private void resize() {
+    ByteBuffer oldIndex = index;
+    int oldCapacity = capacity;
+    int newCapacity = numEntries + 1 > oldCapacity * LOAD_FACTOR / 2 ? oldCapacity << 1 : oldCapacity;
+    if (newCapacity > MAX_CAPACITY) {
+      throw new HoodieNotSupportedException("Too many entries for the memory mapped spill map : " + numEntries);
+    }
+    resetIndex(newCapacity);
+    int liveEntries = 0;
+    for (int slot = 0; slot < oldCapacity; slot++) {
+      long slotValue = oldIndex.getLong(slot * SLOT_SIZE);
+      if (slotValue != EMPTY_SLOT && slotValue != REMOVED_SLOT) {
+        insert(oldIndex.getInt(slot * SLOT_SIZE + HASH_POSITION), slotValue - 1);
+        liveEntries++;
+      }
+    }
+    numEntries = liveEntries;
+  }
+
+  private void resetIndex(int newCapacity) {
+    // direct buffers are zeroed on allocation, i.e all slots start out empty
+    index = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+    capacity = newCapacity;
+    numEntries = 0;
+    numUsedSlots = 0;
+  }
+
+  // ------------------------------------------------------------------------
+  // Memory mapped spill file
+  // ------------------------------------------------------------------------
+
+  private R readValue(long entryOffset) {
+    ByteBuffer header = ByteBuffer.wrap(read(entryOffset, ENTRY_HEADER_SIZE));
+    long crc = header.getLong();
+    header.getLong(); // timestamp
+    int keySize = header.getInt();
+    int valueSize = header.getInt();
+    byte[] value = read(entryOffset + ENTRY_HEADER_SIZE + keySize, valueSize);
+    if (crc != SpillableMapUtils.generateChecksum(value)) {
+      throw new HoodieCorruptedDataException(
+          "checksum of payload written to external disk does not match, data may be corrupted");
+    }
+    return valueSerializer.deserialize(value);
+  }
+
+  private T readKey(long entryOffset) {
+    ByteBuffer header = ByteBuffer.wrap(read(entryOffset + SIZE_OF_KEY_POSITION, 4));
+    int keySize = header.getInt();
+    return SerializationUtils.deserialize(read(entryOffset + ENTRY_HEADER_SIZE, keySize));
+  }
+
+  /**
+   * Writes the bytes at the given position of the file, mapping new segments as needed. Returns the position right
+   * after the written bytes.
+   */
+  private long write(long position, byte[] bytes, int length) {
+    int written = 0;
+    while (written < length) {
+      ByteBuffer segment = getOrMapSegment((int) (position / segmentSize)).duplicate();
+      segment.position((int) (position % segmentSize));
+      int toWrite = Math.min(length - written, segment.remaining());
+      segment.put(bytes, written, toWrite);
+      written += toWrite;
+      position += toWrite;
+    }
+    return position;
+  }
+
+  /**
+   * Reads bytes from the given position of the file, an entry may straddle two or more segments.
+   */
+  private byte[] read(long position, int length) {
+    byte[] bytes = new byte[length];
+    MappedByteBuffer[] currentSegments = segments;
+    int read = 0;
+    while (read < length) {
+      ByteBuffer segment = currentSegments[(int) (position / segmentSize)].duplicate();
+      segment.position((int) (position % segmentSize));
+      int toRead = Math.min(length - read, segment.remaining());
+      segment.get(bytes, read, toRead);
+      read += toRead;
+      position += toRead;
+    }
+    return bytes;
+  }
+
+  private MappedByteBuffer getOrMapSegment(int segmentIndex) {
+    MappedByteBuffer[] currentSegments = segments;
+    if (segmentIndex < currentSegments.length) {
+      return currentSegments[segmentIndex];
+    }
+    try {
+      MappedByteBuffer[] newSegments = Arrays.copyOf(currentSegments, segmentIndex + 1);
+      for (int i = currentSegments.length; i <= segmentIndex; i++) {
+        newSegments[i] = fileChannel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize);
+      }
+      segments = newSegments;
+      return newSegments[segmentIndex];
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to map segment " + segmentIndex + " of spill file " + file, e);
+    }
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.hudi.common.util.collection;
 import org.apache.hudi.common.util.FileIOUtils;
 import org.apache.hudi.common.util.HoodieTimer;
 import org.apache.hudi.common.util.SerializationUtils;
+import org.apache.hudi.common.util.SpillableMapSerializer;
 import org.apache.hudi.common.util.ValidationUtils;
 import org.apache.hudi.exception.HoodieException;
 import org.apache.hudi.exception.HoodieIOException;
@@ -28,15 +29,23 @@ import org.apache.hudi.exception.HoodieIOException;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.rocksdb.AbstractImmutableNativeReference;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
 import org.rocksdb.InfoLogLevel;
+import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.SstFileWriter;
 import org.rocksdb.Statistics;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
@@ -45,10 +54,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -59,15 +72,47 @@ public class RocksDBDAO {
 
   private static final Logger LOG = LogManager.getLogger(RocksDBDAO.class);
 
+  public static final long DEFAULT_BLOCK_CACHE_SIZE = 64 * 1024 * 1024L; // 64 MB
+  private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+  private static final double MEMTABLE_PREFIX_BLOOM_SIZE_RATIO = 0.1;
+
   private transient ConcurrentHashMap<String, ColumnFamilyHandle> managedHandlesMap;
   private transient ConcurrentHashMap<String, ColumnFamilyDescriptor> managedDescriptorMap;
   private transient RocksDB rocksDB;
+  private transient DBOptions dbOptions;
+  // Native objects referenced by the DB options
+  private transient Statistics statistics;
+  private transient org.rocksdb.Logger logger;
+  // Block cache shared by all column families
+  private transient Cache blockCache;
+  // Options shared by all column families, along with the bloom filter policy they reference
+  private transient ColumnFamilyOptions columnFamilyOptions;
+  private transient BloomFilter bloomFilter;
   private boolean closed = false;
   private final String rocksDBBasePath;
+  // Length of the key prefixes bloom filters are built on, 0 if disabled
+  private final int prefixLength;
+  private final long blockCacheSize;
 
   public RocksDBDAO(String basePath, String rocksDBBasePath) {
+    this(basePath, rocksDBBasePath, 0, DEFAULT_BLOCK_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a DAO whose column families share one LRU block cache. If a prefix length is given, keys are bloom
+   * filtered on their first prefixLength bytes (or the whole key, if shorter), speeding up lookups and prefix searches
+   * on prefixes at least as long.
+   *
+   * @param basePath Base Path of the table
+   * @param rocksDBBasePath Root directory for RocksDB
+   * @param prefixLength Length of the key prefixes to bloom filter, 0 to disable prefix bloom filters
+   * @param blockCacheSize Size in bytes of the block cache
+   */
+  public RocksDBDAO(String basePath, String rocksDBBasePath, int prefixLength, long blockCacheSize) {
     this.rocksDBBasePath =
         String.format("%s/%s/%s", rocksDBBasePath, basePath.replace("/", "_"), UUID.randomUUID().toString());
+    this.prefixLength = prefixLength;
+    this.blockCacheSize = blockCacheSize;
     init();
   }
 
@@ -88,17 +133,23 @@ public class RocksDBDAO {
 
       managedHandlesMap = new ConcurrentHashMap<>();
       managedDescriptorMap = new ConcurrentHashMap<>();
+      // the block cache is the first native object created, the library is not loaded by its class
+      RocksDB.loadLibrary();
+      blockCache = new LRUCache(blockCacheSize);
+      columnFamilyOptions = createColumnFamilyOptions();
 
       // If already present, loads the existing column-family handles
 
-      final DBOptions dbOptions = new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true)
-          .setWalDir(rocksDBBasePath).setStatsDumpPeriodSec(300).setStatistics(new Statistics());
-      dbOptions.setLogger(new org.rocksdb.Logger(dbOptions) {
+      statistics = new Statistics();
+      dbOptions = new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true)
+          .setWalDir(rocksDBBasePath).setStatsDumpPeriodSec(300).setStatistics(statistics);
+      logger = new org.rocksdb.Logger(dbOptions) {
         @Override
         protected void log(InfoLogLevel infoLogLevel, String logMsg) {
           LOG.info("From Rocks DB : " + logMsg);
         }
-      });
+      };
+      dbOptions.setLogger(logger);
       final List<ColumnFamilyDescriptor> managedColumnFamilies = loadManagedColumnFamilies(dbOptions);
       final List<ColumnFamilyHandle> managedHandles = new ArrayList<>();
       FileIOUtils.mkdir(new File(rocksDBBasePath));
@@ -128,8 +179,10 @@ public class RocksDBDAO {
    */
   private List<ColumnFamilyDescriptor> loadManagedColumnFamilies(DBOptions dbOptions) throws RocksDBException {
     final List<ColumnFamilyDescriptor> managedColumnFamilies = new ArrayList<>();
-    final Options options = new Options(dbOptions, new ColumnFamilyOptions());
-    List<byte[]> existing = RocksDB.listColumnFamilies(options, rocksDBBasePath);
+    List<byte[]> existing;
+    try (Options options = new Options(dbOptions, columnFamilyOptions)) {
+      existing = RocksDB.listColumnFamilies(options, rocksDBBasePath);
+    }
 
     if (existing.isEmpty()) {
       LOG.info("No column family found. Loading default");
@@ -137,13 +190,38 @@ public class RocksDBDAO {
     } else {
       LOG.info("Loading column families :" + existing.stream().map(String::new).collect(Collectors.toList()));
       managedColumnFamilies
-          .addAll(existing.stream().map(RocksDBDAO::getColumnFamilyDescriptor).collect(Collectors.toList()));
+          .addAll(existing.stream().map(this::getColumnFamilyDescriptor).collect(Collectors.toList()));
     }
     return managedColumnFamilies;
   }
 
-  private static ColumnFamilyDescriptor getColumnFamilyDescriptor(byte[] columnFamilyName) {
-    return new ColumnFamilyDescriptor(columnFamilyName, new ColumnFamilyOptions());
+  private ColumnFamilyDescriptor getColumnFamilyDescriptor(byte[] columnFamilyName) {
+    return new ColumnFamilyDescriptor(columnFamilyName, columnFamilyOptions);
+  }
+
+  /**
+   * Options of all column families, sharing the block cache and bloom filtering key prefixes if enabled. Created once
+   * and closed along with the DB, as column families reference them for as long as they are open.
+   */
+  private ColumnFamilyOptions createColumnFamilyOptions() {
+    BlockBasedTableConfig tableConfig = new BlockBasedTableConfig().setBlockCache(blockCache);
+    ColumnFamilyOptions options = new ColumnFamilyOptions();
+    if (prefixLength > 0) {
+      bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+      tableConfig.setFilter(bloomFilter);
+      options.useCappedPrefixExtractor(prefixLength)
+          .setMemtablePrefixBloomSizeRatio(MEMTABLE_PREFIX_BLOOM_SIZE_RATIO);
+    }
+    return options.setTableFormatConfig(tableConfig);
+  }
+
+  /**
+   * Read options for iterating over keys with the given prefix. Prefix bloom filters can only be used if the prefix
+   * covers the whole key prefix they are built on, otherwise iterate in total order.
+   */
+  private ReadOptions getReadOptionsForPrefix(String prefix) {
+    boolean usePrefixBloom = prefixLength > 0 && prefix.getBytes().length >= prefixLength;
+    return new ReadOptions().setPrefixSameAsStart(usePrefixBloom).setTotalOrderSeek(!usePrefixBloom);
   }
 
   /**
@@ -230,6 +308,76 @@ public class RocksDBDAO {
     }
   }
 
+  /**
+   * Helper to add put operation in batch, with the payload serialized by the given serializer.
+   *
+   * @param batch Batch Handle
+   * @param columnFamilyName Column Family
+   * @param key Key
+   * @param value Payload
+   * @param serializer Serializer of the payload
+   * @param <T> Type of payload
+   */
+  public <T> void putInBatch(WriteBatch batch, String columnFamilyName, String key, T value,
+      SpillableMapSerializer<T> serializer) {
+    try {
+      batch.put(managedHandlesMap.get(columnFamilyName), key.getBytes(), serializer.serialize(value));
+    } catch (Exception e) {
+      throw new HoodieException(e);
+    }
+  }
+
+  /**
+   * Bulk loads serialized entries into a column family. The entries are written to an SST file which is ingested into
+   * the column family, bypassing the memtable and write-ahead log. Meant for loading key ranges holding no live
+   * entries yet, as ingesting over keys still in the memtable forces a flush.
+   *
+   * @param columnFamilyName Column Family
+   * @param entries Serialized payloads by key
+   */
+  public void ingest(String columnFamilyName, Map<String, byte[]> entries) {
+    ValidationUtils.checkArgument(!closed);
+    if (entries.isEmpty()) {
+      return;
+    }
+    // SST files must be written in the byte-wise order of the keys
+    TreeMap<byte[], byte[]> sortedEntries = new TreeMap<>(RocksDBDAO::compareBytes);
+    entries.forEach((key, value) -> sortedEntries.put(key.getBytes(), value));
+    File sstFile = new File(rocksDBBasePath, "ingest_" + UUID.randomUUID().toString() + ".sst");
+    try (EnvOptions envOptions = new EnvOptions();
+        Options options = new Options(dbOptions, columnFamilyOptions);
+        SstFileWriter writer = new SstFileWriter(envOptions, options)) {
+      writer.open(sstFile.getAbsolutePath());
+      for (Map.Entry<byte[], byte[]> entry : sortedEntries.entrySet()) {
+        writer.put(entry.getKey(), entry.getValue());
+      }
+      writer.finish();
+      try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
+        ingestOptions.setMoveFiles(true);
+        getRocksDB().ingestExternalFile(managedHandlesMap.get(columnFamilyName),
+            Collections.singletonList(sstFile.getAbsolutePath()), ingestOptions);
+      }
+    } catch (RocksDBException e) {
+      throw new HoodieException(e);
+    } finally {
+      // Only left behind if ingestion failed
+      if (sstFile.exists() && !sstFile.delete()) {
+        LOG.warn("Failed to delete SST file " + sstFile);
+      }
+    }
+  }
+
+  private static int compareBytes(byte[] a, byte[] b) {
+    int length = Math.min(a.length, b.length);
+    for (int i = 0; i < length; i++) {
+      int cmp = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(a.length, b.length);
+  }
+
   /**
    * Helper to add delete operation in batch.
    *
@@ -322,6 +470,24 @@ public class RocksDBDAO {
     }
   }
 
+  /**
+   * Retrieve a value for a given key in a column family, deserialized by the given serializer.
+   *
+   * @param columnFamilyName Column Family Name
+   * @param key Key to be retrieved
+   * @param serializer Serializer the value was stored with
+   * @param <T> Type of object stored.
+   */
+  public <T> T get(String columnFamilyName, String key, SpillableMapSerializer<T> serializer) {
+    ValidationUtils.checkArgument(!closed);
+    try {
+      byte[] val = getRocksDB().get(managedHandlesMap.get(columnFamilyName), key.getBytes());
+      return val == null ? null : serializer.deserialize(val);
+    } catch (RocksDBException e) {
+      throw new HoodieException(e);
+    }
+  }
+
   /**
    * Perform a prefix search and return stream of key-value pairs retrieved.
    *
@@ -330,16 +496,36 @@ public class RocksDBDAO {
    * @param <T> Type of value stored
    */
   public <T extends Serializable> Stream<Pair<String, T>> prefixSearch(String columnFamilyName, String prefix) {
+    return prefixSearch(columnFamilyName, prefix, SerializationUtils::deserialize);
+  }
+
+  /**
+   * Perform a prefix search and return stream of key-value pairs retrieved, with the values deserialized by the given
+   * serializer.
+   *
+   * @param columnFamilyName Column Family Name
+   * @param prefix Prefix Key
+   * @param serializer Serializer the values were stored with
+   * @param <T> Type of value stored
+   */
+  public <T> Stream<Pair<String, T>> prefixSearch(String columnFamilyName, String prefix,
+      SpillableMapSerializer<T> serializer) {
+    return prefixSearch(columnFamilyName, prefix, (Function<byte[], T>) serializer::deserialize);
+  }
+
+  private <T> Stream<Pair<String, T>> prefixSearch(String columnFamilyName, String prefix,
+      Function<byte[], T> deserializer) {
     ValidationUtils.checkArgument(!closed);
     final HoodieTimer timer = new HoodieTimer();
     timer.startTimer();
     long timeTakenMicro = 0;
     List<Pair<String, T>> results = new LinkedList<>();
-    try (final RocksIterator it = getRocksDB().newIterator(managedHandlesMap.get(columnFamilyName))) {
+    try (final ReadOptions readOptions = getReadOptionsForPrefix(prefix);
+        final RocksIterator it = getRocksDB().newIterator(managedHandlesMap.get(columnFamilyName), readOptions)) {
       it.seek(prefix.getBytes());
       while (it.isValid() && new String(it.key()).startsWith(prefix)) {
         long beginTs = System.nanoTime();
-        T val = SerializationUtils.deserialize(it.value());
+        T val = deserializer.apply(it.value());
         timeTakenMicro += ((System.nanoTime() - beginTs) / 1000);
         results.add(Pair.of(new String(it.key()), val));
         it.next();
@@ -361,7 +547,8 @@ public class RocksDBDAO {
   public <T extends Serializable> void prefixDelete(String columnFamilyName, String prefix) {
     ValidationUtils.checkArgument(!closed);
     LOG.info("Prefix DELETE (query=" + prefix + ") on " + columnFamilyName);
-    final RocksIterator it = getRocksDB().newIterator(managedHandlesMap.get(columnFamilyName));
+    final ReadOptions readOptions = getReadOptionsForPrefix(prefix);
+    final RocksIterator it = getRocksDB().newIterator(managedHandlesMap.get(columnFamilyName), readOptions);
     it.seek(prefix.getBytes());
     // Find first and last keys to be deleted
     String firstEntry = null;
@@ -375,6 +562,7 @@ public class RocksDBDAO {
       lastEntry = result;
     }
     it.close();
+    readOptions.close();
 
     if (null != firstEntry) {
       try {
@@ -440,6 +628,14 @@ public class RocksDBDAO {
       managedHandlesMap.clear();
       managedDescriptorMap.clear();
       getRocksDB().close();
+      dbOptions.close();
+      logger.close();
+      statistics.close();
+      columnFamilyOptions.close();
+      if (bloomFilter != null) {
+        bloomFilter.close();
+      }
+      blockCache.close();
       try {
         FileIOUtils.deleteDirectory(new File(rocksDBBasePath));
       } catch (IOException e) {
@@ -44,12 +44,22 @@ import java.util.stream.Collectors;
  */
 public class BoundedInMemoryExecutor<I, O, E> {
 
+  /**
+   * The queue implementations records can be handed over through.
+   */
+  public enum QueueType {
+    // BoundedInMemoryQueue, one blocking queue node per record
+    BLOCKING,
+    // RingBufferQueue, batches of records handed over through a lock free ring
+    RING_BUFFER
+  }
+
   private static final Logger LOG = LogManager.getLogger(BoundedInMemoryExecutor.class);
 
   // Executor service used for launching writer thread.
   private final ExecutorService executorService;
   // Used for buffering records which is controlled by HoodieWriteConfig#WRITE_BUFFER_LIMIT_BYTES.
-  private final BoundedInMemoryQueue<I, O> queue;
+  private final MemoryBoundedQueue<I, O> queue;
   // Producers
   private final List<BoundedInMemoryQueueProducer<I>> producers;
   // Consumer
@@ -63,11 +73,25 @@ public class BoundedInMemoryExecutor<I, O, E> {
   public BoundedInMemoryExecutor(final long bufferLimitInBytes, List<BoundedInMemoryQueueProducer<I>> producers,
       Option<BoundedInMemoryQueueConsumer<O, E>> consumer, final Function<I, O> transformFunction,
       final SizeEstimator<O> sizeEstimator) {
+    this(bufferLimitInBytes, producers, consumer, transformFunction, sizeEstimator, QueueType.BLOCKING);
+  }
+
+  public BoundedInMemoryExecutor(final long bufferLimitInBytes, List<BoundedInMemoryQueueProducer<I>> producers,
+      Option<BoundedInMemoryQueueConsumer<O, E>> consumer, final Function<I, O> transformFunction,
+      final SizeEstimator<O> sizeEstimator, QueueType queueType) {
     this.producers = producers;
     this.consumer = consumer;
     // Ensure single thread for each producer thread and one for consumer
     this.executorService = Executors.newFixedThreadPool(producers.size() + 1);
-    this.queue = new BoundedInMemoryQueue<>(bufferLimitInBytes, transformFunction, sizeEstimator);
+    this.queue = createQueue(queueType, bufferLimitInBytes, transformFunction, sizeEstimator, producers.size() > 1);
+  }
+
+  private static <I, O> MemoryBoundedQueue<I, O> createQueue(QueueType queueType, long bufferLimitInBytes,
+      Function<I, O> transformFunction, SizeEstimator<O> sizeEstimator, boolean multiProducer) {
+    if (queueType == QueueType.RING_BUFFER) {
+      return new RingBufferQueue<>(bufferLimitInBytes, transformFunction, sizeEstimator, multiProducer);
+    }
+    return new BoundedInMemoryQueue<>(bufferLimitInBytes, transformFunction, sizeEstimator);
   }
 
   /**
@@ -152,7 +176,7 @@ public class BoundedInMemoryExecutor<I, O, E> {
     executorService.shutdownNow();
   }
 
-  public BoundedInMemoryQueue<I, O> getQueue() {
+  public MemoryBoundedQueue<I, O> getQueue() {
     return queue;
   }
 }
@@ -49,7 +49,7 @@ import java.util.function.Function;
  * @param <I> input payload data type
  * @param <O> output payload data type
  */
-public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
+public class BoundedInMemoryQueue<I, O> implements MemoryBoundedQueue<I, O> {
 
   // interval used for polling records in the queue.
   public static final int RECORD_POLL_INTERVAL_SEC = 1;
@@ -115,6 +115,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
     this.iterator = new QueueIterator();
   }
 
+  @Override
   public int size() {
     return this.queue.size();
   }
@@ -154,6 +155,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
    *
    * @param t Item to be queueed
    */
+  @Override
   public void insertRecord(I t) throws Exception {
     // If already closed, throw exception
     if (isWriteDone.get()) {
@@ -217,6 +219,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
   /**
    * Puts an empty entry to queue to denote termination.
    */
+  @Override
   public void close() {
     // done queueing records notifying queue-reader.
     isWriteDone.set(true);
@@ -231,6 +234,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
   /**
    * API to allow producers and consumer to communicate termination due to failure.
    */
+  @Override
   public void markAsFailed(Exception e) {
     this.hasFailed.set(e);
     // release the permits so that if the queueing thread is waiting for permits then it will
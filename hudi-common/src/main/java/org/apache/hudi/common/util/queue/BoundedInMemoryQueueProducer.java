@@ -30,5 +30,5 @@ public interface BoundedInMemoryQueueProducer<I> {
    *
    * @param queue In Memory bounded queue
    */
-  void produce(BoundedInMemoryQueue<I, ?> queue) throws Exception;
+  void produce(MemoryBoundedQueue<I, ?> queue) throws Exception;
 }
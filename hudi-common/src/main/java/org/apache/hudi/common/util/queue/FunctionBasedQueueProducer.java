@@ -32,14 +32,14 @@ public class FunctionBasedQueueProducer<I> implements BoundedInMemoryQueueProduc
 
   private static final Logger LOG = LogManager.getLogger(FunctionBasedQueueProducer.class);
 
-  private final Function<BoundedInMemoryQueue<I, ?>, Boolean> producerFunction;
+  private final Function<MemoryBoundedQueue<I, ?>, Boolean> producerFunction;
 
-  public FunctionBasedQueueProducer(Function<BoundedInMemoryQueue<I, ?>, Boolean> producerFunction) {
+  public FunctionBasedQueueProducer(Function<MemoryBoundedQueue<I, ?>, Boolean> producerFunction) {
     this.producerFunction = producerFunction;
   }
 
   @Override
-  public void produce(BoundedInMemoryQueue<I, ?> queue) {
+  public void produce(MemoryBoundedQueue<I, ?> queue) {
     LOG.info("starting function which will enqueue records");
     producerFunction.apply(queue);
     LOG.info("finished function which will enqueue records");
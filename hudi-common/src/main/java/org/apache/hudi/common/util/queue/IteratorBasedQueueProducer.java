@@ -40,7 +40,7 @@ public class IteratorBasedQueueProducer<I> implements BoundedInMemoryQueueProduc
   }
 
   @Override
-  public void produce(BoundedInMemoryQueue<I, ?> queue) throws Exception {
+  public void produce(MemoryBoundedQueue<I, ?> queue) throws Exception {
     LOG.info("starting to buffer records");
     while (inputIterator.hasNext()) {
       queue.insertRecord(inputIterator.next());
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.queue;
+
+/**
+ * Queue handing records over from the producers to the single consumer of a {@link BoundedInMemoryExecutor}, bounded
+ * by the memory occupied by the queued records. Records are consumed through the singleton iterator of the queue.
+ *
+ * @param <I> input payload data type
+ * @param <O> output payload data type
+ */
+public interface MemoryBoundedQueue<I, O> extends Iterable<O> {
+
+  /**
+   * Returns the number of records queued and not consumed yet.
+   */
+  int size();
+
+  /**
+   * Inserts record into queue after applying transformation, waiting while the queue is full.
+   *
+   * @param t Item to be queued
+   */
+  void insertRecord(I t) throws Exception;
+
+  /**
+   * Marks the queue as done, once all the producers are done inserting records.
+   */
+  void close();
+
+  /**
+   * API to allow producers and consumer to communicate termination due to failure.
+   */
+  void markAsFailed(Exception e);
+}
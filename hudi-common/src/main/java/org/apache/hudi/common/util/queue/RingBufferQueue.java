@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.queue;
+
+import org.apache.hudi.common.util.SizeEstimator;
+import org.apache.hudi.common.util.ValidationUtils;
+import org.apache.hudi.exception.HoodieException;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Memory bounded queue backed by a pre-allocated ring of record batches, as an alternative to the blocking queue of
+ * {@link BoundedInMemoryQueue}.
+ *
+ * Each producer fills a batch of up to {@link #DEFAULT_BATCH_SIZE} records on its own and hands it over to the consumer
+ * through a single slot of the ring, so there is neither a queue node nor a lock acquisition per record. Slots carry a
+ * sequence number (as in a bounded MPMC queue) telling whether they are free or published. With a single producer, the
+ * next slot is claimed with a plain write, with several producers it is claimed with a CAS on the shared tail.
+ *
+ * Like {@link BoundedInMemoryQueue}, the queue is bounded by the memory of the queued records: the sizes of every
+ * {@link BoundedInMemoryQueue#RECORD_SAMPLING_RATE}th record of a producer are averaged, and producers wait before
+ * publishing a batch that would go over the memory limit. Waiting threads spin, then yield, then park for short
+ * intervals.
+ *
+ * Batches still being filled are published when the queue is closed, which must only happen after all the producers
+ * are done.
+ *
+ * @param <I> input payload data type
+ * @param <O> output payload data type
+ */
+public class RingBufferQueue<I, O> implements MemoryBoundedQueue<I, O> {
+
+  // maximum number of records handed over to the consumer at once
+  public static final int DEFAULT_BATCH_SIZE = 64;
+  // number of batches the ring can hold, the memory limit is normally reached first
+  public static final int DEFAULT_RING_SIZE = 1024;
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 200;
+  private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  // maximum amount of memory to be used for queueing records.
+  private final long memoryLimit;
+  // a batch is published early once its records reach this size, so that large records do not defeat the limit
+  private final long batchMemoryLimit;
+  private final int batchSize;
+  private final boolean multiProducer;
+  // Function to transform the input payload to the expected output payload
+  private final Function<I, O> transformFunction;
+  // Payload Size Estimator
+  private final SizeEstimator<O> payloadSizeEstimator;
+
+  // Ring of published batches, a slot at position p is free when its sequence is p and published when it is p + 1
+  private final int mask;
+  private final Object[][] batches;
+  private final int[] batchCounts;
+  private final long[] batchSizes;
+  private final AtomicLongArray sequences;
+  // next position to be claimed by a producer
+  private final AtomicLong tail = new AtomicLong(0);
+  // next position to be read by the consumer, only accessed by the consumer
+  private long head = 0;
+
+  // estimated size of the records published and not consumed yet
+  private final AtomicLong queuedBytes = new AtomicLong(0);
+  private final AtomicLong queuedRecords = new AtomicLong(0);
+  // batches being filled by the producers, published on close
+  private final Queue<ProducerBatch> producerBatches = new ConcurrentLinkedQueue<>();
+  private final ProducerBatch singleProducerBatch;
+  private final ThreadLocal<ProducerBatch> multiProducerBatch;
+
+  // it holds the root cause of the exception in case either producing or consuming records fails.
+  private final AtomicReference<Exception> hasFailed = new AtomicReference<>(null);
+  // used for indicating that all records have been enqueued
+  private volatile boolean isWriteDone = false;
+  // Singleton (w.r.t this instance) Iterator for this queue
+  private final RingIterator iterator = new RingIterator();
+
+  /**
+   * Construct RingBufferQueue with the default batch and ring sizes.
+   *
+   * @param memoryLimit MemoryLimit in bytes
+   * @param transformFunction Transformer Function to convert input payload type to stored payload type
+   * @param payloadSizeEstimator Payload Size Estimator
+   * @param multiProducer Whether records are inserted from more than one thread
+   */
+  public RingBufferQueue(final long memoryLimit, final Function<I, O> transformFunction,
+      final SizeEstimator<O> payloadSizeEstimator, boolean multiProducer) {
+    this(memoryLimit, transformFunction, payloadSizeEstimator, multiProducer, DEFAULT_BATCH_SIZE, DEFAULT_RING_SIZE);
+  }
+
+  public RingBufferQueue(final long memoryLimit, final Function<I, O> transformFunction,
+      final SizeEstimator<O> payloadSizeEstimator, boolean multiProducer, int batchSize, int ringSize) {
+    ValidationUtils.checkArgument(batchSize > 0, "Batch size must be positive");
+    ValidationUtils.checkArgument(ringSize > 0 && Integer.bitCount(ringSize) == 1, "Ring size must be a power of two");
+    this.memoryLimit = memoryLimit;
+    this.batchMemoryLimit = Math.max(1, memoryLimit / 8);
+    this.batchSize = batchSize;
+    this.multiProducer = multiProducer;
+    this.transformFunction = transformFunction;
+    this.payloadSizeEstimator = payloadSizeEstimator;
+    this.mask = ringSize - 1;
+    this.batches = new Object[ringSize][];
+    this.batchCounts = new int[ringSize];
+    this.batchSizes = new long[ringSize];
+    this.sequences = new AtomicLongArray(ringSize);
+    for (int i = 0; i < ringSize; i++) {
+      sequences.set(i, i);
+    }
+    if (multiProducer) {
+      this.singleProducerBatch = null;
+      this.multiProducerBatch = ThreadLocal.withInitial(this::newProducerBatch);
+    } else {
+      this.singleProducerBatch = newProducerBatch();
+      this.multiProducerBatch = null;
+    }
+  }
+
+  private ProducerBatch newProducerBatch() {
+    ProducerBatch batch = new ProducerBatch();
+    producerBatches.add(batch);
+    return batch;
+  }
+
+  @Override
+  public int size() {
+    return (int) queuedRecords.get();
+  }
+
+  /**
+   * Inserts record into the batch of the calling producer after applying transformation, publishing the batch if full.
+   *
+   * @param t Item to be queued
+   */
+  @Override
+  public void insertRecord(I t) throws Exception {
+    // If already closed, throw exception
+    if (isWriteDone) {
+      throw new IllegalStateException("Queue closed for enqueueing new entries");
+    }
+
+    // We need to stop queueing if queue-reader has failed and exited.
+    throwExceptionIfFailed();
+
+    final O payload = transformFunction.apply(t);
+    ProducerBatch batch = multiProducer ? multiProducerBatch.get() : singleProducerBatch;
+    batch.add(payload);
+    if (batch.count == batchSize || batch.sizeInBytes >= batchMemoryLimit) {
+      publish(batch);
+    }
+  }
+
+  /**
+   * Hands the records of the producer batch over to the consumer, once there is enough memory left for them.
+   */
+  private void publish(ProducerBatch batch) {
+    if (batch.count == 0) {
+      return;
+    }
+    reserveMemory(batch.sizeInBytes);
+    final long position = claim();
+    final int index = (int) position & mask;
+    batches[index] = batch.records;
+    batchCounts[index] = batch.count;
+    batchSizes[index] = batch.sizeInBytes;
+    queuedRecords.addAndGet(batch.count);
+    // releases the writes above to the consumer
+    sequences.lazySet(index, position + 1);
+    batch.reset();
+  }
+
+  private void reserveMemory(long sizeInBytes) {
+    for (int tries = 0; ; tries++) {
+      long current = queuedBytes.get();
+      // a batch always fits in an empty queue, even if larger than the limit
+      if ((current == 0 || current + sizeInBytes <= memoryLimit)
+          && queuedBytes.compareAndSet(current, current + sizeInBytes)) {
+        return;
+      }
+      throwExceptionIfFailed();
+      idle(tries);
+    }
+  }
+
+  /**
+   * Claims the next free slot of the ring, waiting for the consumer if the ring is full.
+   */
+  private long claim() {
+    for (int tries = 0; ; tries++) {
+      final long position = tail.get();
+      final long available = sequences.get((int) position & mask) - position;
+      if (available == 0) {
+        if (!multiProducer) {
+          tail.lazySet(position + 1);
+          return position;
+        } else if (tail.compareAndSet(position, position + 1)) {
+          return position;
+        }
+        // lost the slot to another producer, retry right away
+      } else if (available < 0) {
+        // the slot still holds a batch of the previous lap
+        throwExceptionIfFailed();
+        idle(tries);
+      }
+    }
+  }
+
+  /**
+   * Publishes the batches still being filled and marks the queue as done.
+   */
+  @Override
+  public void close() {
+    if (hasFailed.get() == null) {
+      producerBatches.forEach(this::publish);
+    }
+    // done queueing records notifying queue-reader.
+    isWriteDone = true;
+  }
+
+  private void throwExceptionIfFailed() {
+    if (this.hasFailed.get() != null) {
+      throw new HoodieException("operation has failed", this.hasFailed.get());
+    }
+  }
+
+  /**
+   * API to allow producers and consumer to communicate termination due to failure.
+   */
+  @Override
+  public void markAsFailed(Exception e) {
+    // waiting threads check for failures while they idle
+    this.hasFailed.set(e);
+  }
+
+  @Override
+  public Iterator<O> iterator() {
+    return iterator;
+  }
+
+  private static void idle(int tries) {
+    if (tries < SPIN_TRIES) {
+      return;
+    } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+  }
+
+  /**
+   * Records a producer has inserted but not published yet, along with the producer's estimate of the record size.
+   */
+  private final class ProducerBatch {
+
+    private Object[] records = new Object[batchSize];
+    private int count = 0;
+    private long sizeInBytes = 0;
+    // used for sampling records with "RECORD_SAMPLING_RATE" frequency.
+    private long numRecords = 0;
+    private long numSamples = 0;
+    private long avgRecordSizeInBytes = 0;
+
+    private void add(O payload) {
+      if (numRecords++ % BoundedInMemoryQueue.RECORD_SAMPLING_RATE == 0) {
+        final long recordSizeInBytes = payloadSizeEstimator.sizeEstimate(payload);
+        avgRecordSizeInBytes = Math.max(1, (avgRecordSizeInBytes * numSamples + recordSizeInBytes) / (numSamples + 1));
+        numSamples++;
+      }
+      records[count++] = payload;
+      sizeInBytes += avgRecordSizeInBytes;
+    }
+
+    private void reset() {
+      // the published array now belongs to the consumer
+      records = new Object[batchSize];
+      count = 0;
+      sizeInBytes = 0;
+    }
+  }
+
+  /**
+   * Iterator over the published batches, only used by the single consumer.
+   */
+  private final class RingIterator implements Iterator<O> {
+
+    private Object[] records;
+    private int count = 0;
+    private int position = 0;
+    private long sizeInBytes = 0;
+    private boolean isReadDone = false;
+
+    @Override
+    public boolean hasNext() {
+      return position < count || (!isReadDone && readNextBatch());
+    }
+
+    @Override
+    public O next() {
+      ValidationUtils.checkState(hasNext(), "No more records left in the queue");
+      final O record = (O) records[position];
+      records[position++] = null;
+      return record;
+    }
+
+    private boolean readNextBatch() {
+      // the records of the previous batch have all been handed out
+      releaseBatch();
+      for (int tries = 0; ; tries++) {
+        throwExceptionIfFailed();
+        // checked before the slot, as the last batches are published before the queue is marked done
+        final boolean writeDone = isWriteDone;
+        final int index = (int) head & mask;
+        if (sequences.get(index) == head + 1) {
+          records = batches[index];
+          count = batchCounts[index];
+          sizeInBytes = batchSizes[index];
+          position = 0;
+          batches[index] = null;
+          // frees the slot for the next lap
+          sequences.lazySet(index, head + mask + 1);
+          head++;
+          return true;
+        } else if (writeDone) {
+          isReadDone = true;
+          return false;
+        }
+        idle(tries);
+      }
+    }
+
+    private void releaseBatch() {
+      if (records != null) {
+        queuedRecords.addAndGet(-count);
+        queuedBytes.addAndGet(-sizeInBytes);
+        records = null;
+        count = 0;
+        position = 0;
+        sizeInBytes = 0;
+      }
+    }
+  }
+}
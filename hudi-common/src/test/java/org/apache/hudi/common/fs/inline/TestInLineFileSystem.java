@@ -236,6 +236,16 @@ public class TestInLineFileSystem {
     return toReturn;
   }
 
+  @Test
+  public void testOffsetsBeyondIntRange() {
+    // inlined files can start past 2GB in large outer files
+    long startOffset = Integer.MAX_VALUE + 100L;
+    long length = Integer.MAX_VALUE + 10L;
+    Path inlinePath = InLineFSUtils.getInlineFilePath(getRandomOuterFSPath(), "file", startOffset, length);
+    assertEquals(startOffset, InLineFSUtils.startOffset(inlinePath));
+    assertEquals(length, InLineFSUtils.length(inlinePath));
+  }
+
   @Test
   public void testOpen() throws IOException {
     Path inlinePath = getRandomInlinePath();
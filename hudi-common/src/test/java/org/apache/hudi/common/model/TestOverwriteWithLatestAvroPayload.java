@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.model;
+
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SchemaTestUtil;
+import org.apache.hudi.common.util.SerializationUtils;
+
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests {@link OverwriteWithLatestAvroPayload}.
+ */
+public class TestOverwriteWithLatestAvroPayload {
+
+  private GenericRecord record;
+
+  @BeforeEach
+  public void setUp() throws IOException, URISyntaxException {
+    record = (GenericRecord) SchemaTestUtil.generateTestRecords(0, 1).get(0);
+  }
+
+  @Test
+  public void testPreCombine() {
+    OverwriteWithLatestAvroPayload older = new OverwriteWithLatestAvroPayload(record, 1L);
+    OverwriteWithLatestAvroPayload newer = new OverwriteWithLatestAvroPayload(record, 2L);
+    assertSame(newer, older.preCombine(newer));
+    assertSame(newer, newer.preCombine(older));
+    assertSame(older, older.preCombine(new OverwriteWithLatestAvroPayload(record, 1L)));
+  }
+
+  @Test
+  public void testPreCombineWithNaturalOrder() {
+    // payloads built without an ordering value lose against any other, whichever side they are on
+    OverwriteWithLatestAvroPayload natural = new OverwriteWithLatestAvroPayload(Option.of(record));
+    OverwriteWithLatestAvroPayload ordered = new OverwriteWithLatestAvroPayload(record, 10L);
+    assertSame(ordered, natural.preCombine(ordered));
+    assertSame(ordered, ordered.preCombine(natural));
+    OverwriteWithLatestAvroPayload stringOrdered = new OverwriteWithLatestAvroPayload(record, "2020/01/01");
+    assertSame(stringOrdered, natural.preCombine(stringOrdered));
+    assertSame(stringOrdered, stringOrdered.preCombine(natural));
+
+    OverwriteWithLatestAvroPayload otherNatural = new OverwriteWithLatestAvroPayload(Option.of(record));
+    assertSame(natural, natural.preCombine(otherNatural));
+  }
+
+  @Test
+  public void testNaturalOrderSurvivesSerialization() throws IOException, ClassNotFoundException {
+    OverwriteWithLatestAvroPayload natural = new OverwriteWithLatestAvroPayload(Option.of(record));
+    OverwriteWithLatestAvroPayload ordered = new OverwriteWithLatestAvroPayload(record, 10L);
+
+    OverwriteWithLatestAvroPayload kryoCopy = SerializationUtils.deserialize(SerializationUtils.serialize(natural));
+    assertEquals(BaseAvroPayload.NATURAL_ORDER, kryoCopy.getOrderingVal());
+    assertSame(ordered, kryoCopy.preCombine(ordered));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(natural);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      OverwriteWithLatestAvroPayload javaCopy = (OverwriteWithLatestAvroPayload) in.readObject();
+      assertSame(BaseAvroPayload.NATURAL_ORDER, javaCopy.getOrderingVal());
+      assertSame(ordered, ordered.preCombine(javaCopy));
+    }
+  }
+}
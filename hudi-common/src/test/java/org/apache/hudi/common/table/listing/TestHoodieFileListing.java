@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.listing;
+
+import org.apache.hudi.common.HoodieRollbackStat;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieTestUtils;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieInstant.State;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.table.timeline.TimelineMetadataUtils;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link HoodieFileListing}.
+ */
+public class TestHoodieFileListing extends HoodieCommonTestHarness {
+
+  private static final String PARTITION_PATH = "2020/01/01";
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    initMetaClient();
+  }
+
+  @Test
+  public void testLoadWithoutListing() throws IOException {
+    HoodieTestUtils.createDataFile(basePath, PARTITION_PATH, "001", "file-1");
+    completeCommit("001", Collections.emptyMap());
+    refreshFsView();
+
+    assertFalse(HoodieFileListing.load(metaClient).isPresent());
+    // partitions are listed from the file system instead
+    assertEquals(Collections.singletonList(PARTITION_PATH), HoodieFileListing.getAllPartitionPaths(metaClient, true));
+  }
+
+  @Test
+  public void testBootstrapAndReplay() throws IOException {
+    String file1 = FSUtils.makeDataFileName("001", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-1");
+    String file2 = FSUtils.makeDataFileName("002", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-2");
+    completeCommit("001", Collections.singletonMap(file1, 100L));
+    HoodieActiveTimeline timeline = metaClient.getActiveTimeline();
+    timeline.createNewInstant(new HoodieInstant(State.REQUESTED, HoodieTimeline.COMMIT_ACTION, "002"));
+    refreshFsView();
+
+    // the file of the pending instant is left out of the listing until the instant completes
+    Map<String, Long> listedFiles = new HashMap<>();
+    listedFiles.put(file1, 100L);
+    listedFiles.put(file2, 200L);
+    HoodieFileListing.bootstrap(metaClient, Collections.singletonMap(PARTITION_PATH, listedFiles));
+    HoodieFileListing listing = HoodieFileListing.load(metaClient).get();
+    assertEquals("001", listing.getSnapshotInstantTime());
+    assertEquals(Collections.singletonList(PARTITION_PATH), listing.getAllPartitionPaths());
+    assertEquals(Collections.singletonMap(file1, 100L), getFiles(listing, PARTITION_PATH));
+
+    HoodieInstant inflight = new HoodieInstant(State.INFLIGHT, HoodieTimeline.COMMIT_ACTION, "002");
+    timeline.transitionRequestedToInflight(
+        new HoodieInstant(State.REQUESTED, HoodieTimeline.COMMIT_ACTION, "002"), Option.empty());
+    timeline.saveAsComplete(inflight, Option.of(getCommitMetadata(Collections.singletonMap(file2, 200L))));
+    refreshFsView();
+    assertEquals(listedFiles, getFiles(HoodieFileListing.load(metaClient).get(), PARTITION_PATH));
+  }
+
+  @Test
+  public void testWriteSnapshot() throws IOException {
+    String file1 = FSUtils.makeDataFileName("001", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-1");
+    String file2 = FSUtils.makeDataFileName("002", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-2");
+    String file3 = FSUtils.makeDataFileName("003", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-3");
+    HoodieFileListing.bootstrap(metaClient, Collections.emptyMap());
+    completeCommit("001", Collections.singletonMap(file1, 100L));
+    completeCommit("002", Collections.singletonMap(file2, 200L));
+    refreshFsView();
+    // the partition is only known from the replayed commits, its files were never written
+    assertEquals(Collections.singletonList(PARTITION_PATH), HoodieFileListing.getAllPartitionPaths(metaClient, true));
+
+    HoodieFileListing.writeSnapshot(metaClient);
+    completeCommit("003", Collections.singletonMap(file3, 300L));
+    refreshFsView();
+    assertEquals(Collections.singletonList(PARTITION_PATH), HoodieFileListing.getAllPartitionPaths(metaClient, true));
+    HoodieFileListing listing = HoodieFileListing.load(metaClient).get();
+    assertEquals("002", listing.getSnapshotInstantTime());
+    assertEquals(3, getFiles(listing, PARTITION_PATH).size());
+    assertEquals(300L, getFiles(listing, PARTITION_PATH).get(file3).longValue());
+
+    // only the latest snapshots are retained
+    HoodieFileListing.writeSnapshot(metaClient);
+    FileStatus[] snapshots = metaClient.getFs().listStatus(HoodieFileListing.getListingPath(metaClient));
+    assertEquals(Arrays.asList("002.listing", "003.listing"), Arrays.stream(snapshots)
+        .map(status -> status.getPath().getName()).sorted().collect(Collectors.toList()));
+    assertTrue(Arrays.stream(HoodieFileListing.load(metaClient).get().getFileStatuses(PARTITION_PATH))
+        .allMatch(status -> status.getPath().getParent().toString().endsWith(PARTITION_PATH)));
+  }
+
+  @Test
+  public void testRollbackLogFilesAndAdvance() throws IOException {
+    String file1 = FSUtils.makeDataFileName("001", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-1");
+    String file2 = FSUtils.makeDataFileName("002", HoodieTestUtils.DEFAULT_WRITE_TOKEN, "file-2");
+    String logFile = FSUtils.makeLogFileName("file-1", ".log", "001", 1, HoodieTestUtils.DEFAULT_WRITE_TOKEN);
+    HoodieFileListing.bootstrap(metaClient, Collections.emptyMap());
+    completeCommit("001", Collections.singletonMap(file1, 100L));
+    refreshFsView();
+    HoodieFileListing listing = HoodieFileListing.load(metaClient).get();
+
+    // the rollback deletes the file of the commit and appends a command block to a log file
+    completeCommit("002", Collections.singletonMap(file2, 200L));
+    Path partitionPath = new Path(basePath, PARTITION_PATH);
+    HoodieRollbackStat rollbackStat = HoodieRollbackStat.newBuilder().withPartitionPath(PARTITION_PATH)
+        .withDeletedFileResults(Collections.singletonMap(
+            new FileStatus(200L, false, 0, 0, 0, new Path(partitionPath, file2)), true))
+        .withRollbackBlockAppendResults(Collections.singletonMap(
+            new FileStatus(50L, false, 0, 0, 0, new Path(partitionPath, logFile)), 1L))
+        .build();
+    HoodieInstant rollbackInstant = new HoodieInstant(true, HoodieTimeline.ROLLBACK_ACTION, "003");
+    metaClient.getActiveTimeline().createNewInstant(rollbackInstant);
+    metaClient.getActiveTimeline().saveAsComplete(rollbackInstant, TimelineMetadataUtils.serializeRollbackMetadata(
+        TimelineMetadataUtils.convertRollbackMetadata("003", Option.empty(), Collections.singletonList("002"),
+            Collections.singletonList(rollbackStat))));
+    refreshFsView();
+
+    Map<String, Long> expectedFiles = new HashMap<>();
+    expectedFiles.put(file1, 100L);
+    expectedFiles.put(logFile, 50L);
+    HoodieFileListing advancedListing = listing.advance(metaClient, metaClient.reloadActiveTimeline());
+    assertEquals(expectedFiles, getFiles(advancedListing, PARTITION_PATH));
+    assertEquals(expectedFiles, getFiles(HoodieFileListing.load(metaClient).get(), PARTITION_PATH));
+    // the listing advanced from is left unchanged
+    assertEquals(Collections.singletonMap(file1, 100L), getFiles(listing, PARTITION_PATH));
+  }
+
+  private void completeCommit(String instantTime, Map<String, Long> files) throws IOException {
+    HoodieActiveTimeline timeline = metaClient.getActiveTimeline();
+    HoodieInstant requested = new HoodieInstant(State.REQUESTED, HoodieTimeline.COMMIT_ACTION, instantTime);
+    timeline.createNewInstant(requested);
+    timeline.transitionRequestedToInflight(requested, Option.empty());
+    timeline.saveAsComplete(new HoodieInstant(State.INFLIGHT, HoodieTimeline.COMMIT_ACTION, instantTime),
+        Option.of(getCommitMetadata(files)));
+  }
+
+  private static byte[] getCommitMetadata(Map<String, Long> files) throws IOException {
+    HoodieCommitMetadata metadata = new HoodieCommitMetadata();
+    files.forEach((fileName, size) -> {
+      HoodieWriteStat stat = new HoodieWriteStat();
+      stat.setFileId(FSUtils.getFileId(fileName));
+      stat.setPartitionPath(PARTITION_PATH);
+      stat.setPath(PARTITION_PATH + "/" + fileName);
+      stat.setFileSizeInBytes(size);
+      metadata.addWriteStat(PARTITION_PATH, stat);
+    });
+    return metadata.toJsonString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, Long> getFiles(HoodieFileListing listing, String partitionPath) {
+    return Arrays.stream(listing.getFileStatuses(partitionPath))
+        .collect(Collectors.toMap(status -> status.getPath().getName(), FileStatus::getLen));
+  }
+}
@@ -19,6 +19,9 @@
 package org.apache.hudi.common.table.log;
 
 import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+import org.apache.hudi.common.bloom.BloomFilterTypeCode;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.minicluster.MiniClusterUtil;
 import org.apache.hudi.common.model.HoodieArchivedLogFile;
@@ -31,12 +34,20 @@ import org.apache.hudi.common.table.log.HoodieLogFormat.Reader;
 import org.apache.hudi.common.table.log.HoodieLogFormat.Writer;
 import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieCommandBlock;
+import org.apache.hudi.common.table.log.block.HoodieDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieDataBlockCompressionCodec;
 import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlockType;
+import org.apache.hudi.common.table.log.block.HoodieParquetDataBlock;
+import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.SchemaTestUtil;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
 import org.apache.hudi.exception.CorruptedLogFileException;
 
 import org.apache.avro.Schema;
@@ -46,26 +57,31 @@ import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.apache.hudi.common.util.SchemaTestUtil.getSimpleSchema;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -351,6 +367,146 @@ public class TestHoodieLogFormat extends HoodieCommonTestHarness {
     reader.close();
   }
 
+  @ParameterizedTest
+  @EnumSource(HoodieDataBlockCompressionCodec.class)
+  public void testCompressedDataBlockWriteAndRead(HoodieDataBlockCompressionCodec codec)
+      throws IOException, URISyntaxException, InterruptedException {
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Schema schema = getSimpleSchema();
+    List<IndexedRecord> records = SchemaTestUtil.generateTestRecords(0, 100);
+    List<IndexedRecord> copyOfRecords = records.stream()
+        .map(record -> HoodieAvroUtils.rewriteRecord((GenericRecord) record, schema)).collect(Collectors.toList());
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "100");
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+    header.put(HoodieLogBlock.HeaderMetadataType.COMPRESSION_CODEC, codec.name());
+    writer = writer.appendBlock(new HoodieAvroDataBlock(records, header));
+    writer.close();
+
+    Reader reader = HoodieLogFormat.newReader(fs, writer.getLogFile(), SchemaTestUtil.getSimpleSchema());
+    assertTrue(reader.hasNext(), "We wrote a block, we should be able to read it");
+    HoodieLogBlock nextBlock = reader.next();
+    assertEquals(codec.name(), nextBlock.getLogBlockHeader().get(HoodieLogBlock.HeaderMetadataType.COMPRESSION_CODEC),
+        "The codec should be recorded in the header");
+    HoodieAvroDataBlock dataBlockRead = (HoodieAvroDataBlock) nextBlock;
+    assertEquals(copyOfRecords, dataBlockRead.getRecords(),
+        "Both records lists should be the same. (ordering guaranteed)");
+    reader.close();
+  }
+
+  @Test
+  public void testLookupKeysWithRecordKeyBloomFilters() throws IOException, URISyntaxException, InterruptedException {
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "100");
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+
+    // Write 2 blocks with a bloom filter of their keys, and one without
+    List<List<String>> keysPerBlock = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      List<IndexedRecord> records = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+      List<String> keys = records.stream()
+          .map(record -> ((GenericRecord) record).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString())
+          .collect(Collectors.toList());
+      keysPerBlock.add(keys);
+      Map<HoodieLogBlock.HeaderMetadataType, String> footer = new HashMap<>();
+      if (i < 2) {
+        BloomFilter bloomFilter = BloomFilterFactory.createBloomFilter(keys.size(), 0.000000001, -1,
+            BloomFilterTypeCode.SIMPLE.name());
+        keys.forEach(bloomFilter::add);
+        footer = HoodieDataBlock.createRecordKeyBloomFilterFooter(bloomFilter);
+      }
+      writer = writer.appendBlock(new HoodieAvroDataBlock(records, header, footer));
+    }
+
+    // A block rolled back by the next command block, a block of an inflight instant and a block of an instant later
+    // than the latest instant to read
+    List<String> invalidKeys = new ArrayList<>();
+    for (String instantTime : Arrays.asList("101", "103", "105")) {
+      List<IndexedRecord> records = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+      invalidKeys.add(((GenericRecord) records.get(0)).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString());
+      header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, instantTime);
+      writer = writer.appendBlock(new HoodieAvroDataBlock(records, header));
+      if (instantTime.equals("101")) {
+        Map<HoodieLogBlock.HeaderMetadataType, String> commandHeader = new HashMap<>();
+        commandHeader.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "102");
+        commandHeader.put(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME, "101");
+        commandHeader.put(HoodieLogBlock.HeaderMetadataType.COMMAND_BLOCK_TYPE,
+            String.valueOf(HoodieCommandBlock.HoodieCommandBlockTypeEnum.ROLLBACK_PREVIOUS_BLOCK.ordinal()));
+        writer = writer.appendBlock(new HoodieCommandBlock(commandHeader));
+      }
+    }
+    writer.close();
+    // 101 is listed as completed, so that only its rollback block drops it
+    HoodieTimeline completedInstantsTimeline = new HoodieDefaultTimeline(Stream.of("100", "101", "102", "105")
+        .map(instantTime -> new HoodieInstant(false, HoodieTimeline.DELTA_COMMIT_ACTION, instantTime)),
+        instant -> Option.empty());
+
+    Reader reader = HoodieLogFormat.newReader(fs, writer.getLogFile(), schema);
+    assertTrue(reader.hasNext());
+    HoodieDataBlock dataBlock = (HoodieDataBlock) reader.next();
+    assertTrue(dataBlock.getRecordKeyBloomFilter().isPresent(), "Bloom filter should be read from the footer");
+    assertTrue(dataBlock.getRecordKeyBloomFilter().get().mightContain(keysPerBlock.get(0).get(0)));
+    reader.close();
+
+    Set<String> keysToLookup = new HashSet<>(Arrays.asList(keysPerBlock.get(1).get(10), keysPerBlock.get(2).get(20),
+        "missing-key"));
+    keysToLookup.addAll(invalidKeys);
+    Set<String> foundKeys =
+        HoodieLogFormat.lookupKeys(fs, writer.getLogFile(), keysToLookup, "104", completedInstantsTimeline);
+    assertEquals(new HashSet<>(Arrays.asList(keysPerBlock.get(1).get(10), keysPerBlock.get(2).get(20))), foundKeys,
+        "Keys of blocks with and without bloom filters should be found, and only those of valid blocks");
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void testParquetDataBlockWriteAndProjectedRead(boolean readBlocksLazily)
+      throws IOException, URISyntaxException, InterruptedException {
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Schema schema = getSimpleSchema();
+    List<IndexedRecord> records = SchemaTestUtil.generateTestRecords(0, 100);
+    List<String> names = records.stream().map(record -> ((GenericRecord) record).get("name").toString())
+        .collect(Collectors.toList());
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "100");
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+    writer = writer.appendBlock(new HoodieParquetDataBlock(records, header));
+    // A following avro data block should still be read
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "101");
+    writer = writer.appendBlock(new HoodieAvroDataBlock(SchemaTestUtil.generateTestRecords(0, 10), header));
+    writer.close();
+
+    // Only read the name column
+    Schema projectedSchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+    projectedSchema.setFields(Collections.singletonList(
+        new Schema.Field("name", schema.getField("name").schema(), null, (Object) null)));
+    Reader reader = HoodieLogFormat.newReader(fs, writer.getLogFile(), projectedSchema, readBlocksLazily, false);
+    assertTrue(reader.hasNext(), "We wrote a block, we should be able to read it");
+    HoodieLogBlock nextBlock = reader.next();
+    assertEquals(HoodieLogBlockType.PARQUET_DATA_BLOCK, nextBlock.getBlockType(),
+        "The next block should be a parquet data block");
+    assertEquals(CompressionCodecName.GZIP.name(),
+        nextBlock.getLogBlockHeader().get(HoodieLogBlock.HeaderMetadataType.COMPRESSION_CODEC),
+        "The codec should be recorded in the header");
+    assertTrue(reader.hasNext(), "We wrote a second block, we should be able to read it");
+    HoodieLogBlock avroBlock = reader.next();
+    assertEquals(HoodieLogBlockType.AVRO_DATA_BLOCK, avroBlock.getBlockType(), "The next block should be a data block");
+
+    List<IndexedRecord> readRecords = ((HoodieDataBlock) nextBlock).getRecords();
+    assertEquals(projectedSchema, ((HoodieDataBlock) nextBlock).getSchema(), "Records should be read projected");
+    assertEquals(names, readRecords.stream().map(record -> ((GenericRecord) record).get("name").toString())
+        .collect(Collectors.toList()), "Projected column should be read. (ordering guaranteed)");
+    assertEquals(10, ((HoodieDataBlock) avroBlock).getRecords().size(), "Avro data block should be read");
+    reader.close();
+  }
+
   @Test
   public void testBasicAppendAndRead() throws IOException, URISyntaxException, InterruptedException {
     Writer writer =
@@ -662,6 +818,85 @@ public class TestHoodieLogFormat extends HoodieCommonTestHarness {
     assertEquals(originalKeys, readKeys, "CompositeAvroLogReader should return 200 records from 2 versions");
   }
 
+  @Test
+  public void testAvroLogRecordReaderWithPrefetchAcrossLogFiles()
+      throws IOException, URISyntaxException, InterruptedException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    // Set a small threshold so that every block is written to a new log file
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withSizeThreshold(1).withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Set<String> logFiles = new LinkedHashSet<>();
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+
+    // Write 1
+    List<IndexedRecord> records1 = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<IndexedRecord> copyOfRecords1 = records1.stream()
+        .map(record -> HoodieAvroUtils.rewriteRecord((GenericRecord) record, schema)).collect(Collectors.toList());
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "100");
+    logFiles.add(writer.getLogFile().getPath().toString());
+    writer = writer.appendBlock(new HoodieAvroDataBlock(records1, header));
+
+    // Write 2, rolled back by a command block in the next log file
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "101");
+    logFiles.add(writer.getLogFile().getPath().toString());
+    writer = writer.appendBlock(new HoodieAvroDataBlock(SchemaTestUtil.generateHoodieTestRecords(0, 100), header));
+    header.put(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME, "101");
+    header.put(HoodieLogBlock.HeaderMetadataType.COMMAND_BLOCK_TYPE,
+        String.valueOf(HoodieCommandBlock.HoodieCommandBlockTypeEnum.ROLLBACK_PREVIOUS_BLOCK.ordinal()));
+    logFiles.add(writer.getLogFile().getPath().toString());
+    writer = writer.appendBlock(new HoodieCommandBlock(header));
+    header.remove(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME);
+    header.remove(HoodieLogBlock.HeaderMetadataType.COMMAND_BLOCK_TYPE);
+
+    // Write 3
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "102");
+    List<IndexedRecord> records3 = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<IndexedRecord> copyOfRecords3 = records3.stream()
+        .map(record -> HoodieAvroUtils.rewriteRecord((GenericRecord) record, schema)).collect(Collectors.toList());
+    logFiles.add(writer.getLogFile().getPath().toString());
+    writer = writer.appendBlock(new HoodieAvroDataBlock(records3, header));
+
+    // Write 4 of an inflight instant, not to be read
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "103");
+    logFiles.add(writer.getLogFile().getPath().toString());
+    writer = writer.appendBlock(new HoodieAvroDataBlock(SchemaTestUtil.generateHoodieTestRecords(0, 100), header));
+    writer.close();
+    assertEquals(5, logFiles.size(), "Every block should be in its own log file");
+
+    HoodieMergedLogRecordScanner scanner = new HoodieMergedLogRecordScanner(fs, basePath,
+        new ArrayList<>(logFiles), schema, "102", 10240L, false, false, bufferSize, BASE_OUTPUT_PATH,
+        ExternalSpillableMap.DiskMapType.DISK_BASED, 2);
+    assertEquals(200, scanner.getTotalLogRecords(), "We read 200 records from 2 write batches");
+    Set<String> readKeys = new HashSet<>(200);
+    scanner.forEach(s -> readKeys.add(s.getKey().getRecordKey()));
+    copyOfRecords1.addAll(copyOfRecords3);
+    Set<String> originalKeys =
+        copyOfRecords1.stream().map(s -> ((GenericRecord) s).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString())
+            .collect(Collectors.toSet());
+    assertEquals(originalKeys, readKeys, "Prefetching scanner should return the records of the 2 valid batches");
+
+    // Blocks read ahead are bounded by their size, with a bound below the size of a block they are read one at a time
+    List<HoodieLogFile> hoodieLogFiles = logFiles.stream().map(logFile -> new HoodieLogFile(new Path(logFile)))
+        .collect(Collectors.toList());
+    List<HoodieLogBlockType> expectedBlockTypes = new ArrayList<>();
+    try (HoodieLogFormatReader reader = new HoodieLogFormatReader(fs, new ArrayList<>(hoodieLogFiles), schema, false,
+        false, bufferSize)) {
+      reader.forEachRemaining(block -> expectedBlockTypes.add(block.getBlockType()));
+    }
+    List<HoodieLogBlockType> blockTypes = new ArrayList<>();
+    try (HoodiePrefetchingLogFormatReader reader = new HoodiePrefetchingLogFormatReader(fs, hoodieLogFiles, schema,
+        bufferSize, 2, 2, 1L)) {
+      reader.forEachRemaining(block -> blockTypes.add(block.getBlockType()));
+    }
+    assertEquals(expectedBlockTypes, blockTypes, "Prefetching reader should return the blocks in order");
+
+    assertThrows(IllegalArgumentException.class, () -> new HoodieMergedLogRecordScanner(fs, basePath,
+        new ArrayList<>(logFiles), schema, "102", 10240L, false, true, bufferSize, BASE_OUTPUT_PATH,
+        ExternalSpillableMap.DiskMapType.DISK_BASED, 2), "Log files cannot be read in reverse with prefetch threads");
+  }
+
   @Test
   public void testAvroLogRecordReaderWithRollbackPartialBlock()
       throws IOException, URISyntaxException, InterruptedException {
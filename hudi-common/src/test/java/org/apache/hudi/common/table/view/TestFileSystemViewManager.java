@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.view;
+
+import org.apache.hudi.common.config.SerializableConfiguration;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests bounding the number of table views held by {@link FileSystemViewManager}.
+ */
+public class TestFileSystemViewManager {
+
+  private final Map<String, SyncableFileSystemView> createdViews = new ConcurrentHashMap<>();
+
+  private FileSystemViewManager createViewManager(int maxTables) {
+    FileSystemViewStorageConfig config = FileSystemViewStorageConfig.newBuilder().withMaxTables(maxTables).build();
+    return new FileSystemViewManager(new SerializableConfiguration(new Configuration()), config,
+        (basePath, viewConfig) -> createView(basePath));
+  }
+
+  private SyncableFileSystemView createView(String basePath) {
+    SyncableFileSystemView view = mock(SyncableFileSystemView.class);
+    createdViews.put(basePath, view);
+    return view;
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedViews() {
+    FileSystemViewManager viewManager = createViewManager(2);
+
+    SyncableFileSystemView view1 = viewManager.getFileSystemView("/table1");
+    SyncableFileSystemView view2 = viewManager.getFileSystemView("/table2");
+    assertSame(view1, viewManager.getFileSystemView("/table1"));
+
+    // table2 is the least recently used table when table3 is loaded
+    viewManager.getFileSystemView("/table3");
+    verify(view2).close();
+    verify(view1, never()).close();
+    assertSame(view1, viewManager.getFileSystemView("/table1"));
+
+    // evicted views are built again on their next access
+    assertNotSame(view2, viewManager.getFileSystemView("/table2"));
+    verify(createdViews.get("/table3")).close();
+
+    Map<String, Map<String, Long>> stats = viewManager.getTableViewStats();
+    assertEquals(2L, stats.get("/table2").get("numLoads"));
+    assertEquals(1L, stats.get("/table2").get("numEvictions"));
+    assertEquals(1L, stats.get("/table2").get("loaded"));
+    assertEquals(0L, stats.get("/table3").get("loaded"));
+    assertEquals(0L, stats.get("/table1").get("numEvictions"));
+  }
+
+  @Test
+  public void testDoesNotCloseViewsInUse() throws Exception {
+    FileSystemViewManager viewManager = createViewManager(1);
+    CountDownLatch lookupStarted = new CountDownLatch(1);
+    CountDownLatch otherTableLoaded = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<SyncableFileSystemView> lookup = executor.submit(() -> {
+        SyncableFileSystemView view = viewManager.acquireFileSystemView("/table1");
+        try {
+          lookupStarted.countDown();
+          otherTableLoaded.await();
+          view.getLatestBaseFiles("partition");
+          return view;
+        } finally {
+          viewManager.releaseFileSystemView(view);
+        }
+      });
+
+      // loading table2 while table1 is looked up exceeds the bound, but does not evict the view in use
+      lookupStarted.await();
+      SyncableFileSystemView view2 = viewManager.getFileSystemView("/table2");
+      SyncableFileSystemView view1 = createdViews.get("/table1");
+      otherTableLoaded.countDown();
+      assertSame(view1, lookup.get());
+      verify(view1).getLatestBaseFiles("partition");
+      verify(view1, never()).close();
+
+      // released views are evicted on the next load
+      viewManager.getFileSystemView("/table3");
+      verify(view1).close();
+      verify(view2).close();
+
+      // views cleared while in use are closed once released
+      SyncableFileSystemView view3 = viewManager.acquireFileSystemView("/table3");
+      viewManager.clearFileSystemView("/table3");
+      verify(view3, never()).close();
+      viewManager.releaseFileSystemView(view3);
+      verify(view3).close();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
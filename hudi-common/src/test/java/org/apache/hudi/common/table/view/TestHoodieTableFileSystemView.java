@@ -23,10 +23,12 @@ import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.CompactionOperation;
 import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.model.HoodieWriteStat;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieInstant.State;
@@ -38,6 +40,7 @@ import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
 import org.apache.hudi.common.util.CompactionUtils;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieIOException;
 
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
@@ -48,6 +51,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -55,6 +59,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -568,6 +575,157 @@ public class TestHoodieTableFileSystemView extends HoodieCommonTestHarness {
         .filter(dfile -> dfile.getFileId().equals(fileId)).findFirst().get().getFileName());
   }
 
+  @Test
+  public void testRestoreFromSnapshot() throws IOException {
+    String partitionPath = "2016/05/01";
+    new File(basePath + "/" + partitionPath).mkdirs();
+    String fileId = UUID.randomUUID().toString();
+
+    String commitTime1 = "1";
+    String fileName1 = FSUtils.makeDataFileName(commitTime1, TEST_WRITE_TOKEN, fileId);
+    new File(basePath + "/" + partitionPath + "/" + fileName1).createNewFile();
+    HoodieActiveTimeline commitTimeline = metaClient.getActiveTimeline();
+    saveAsComplete(commitTimeline, new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, commitTime1), Option.empty());
+    refreshFsView();
+    assertEquals(fileName1, roView.getLatestBaseFiles(partitionPath).findFirst().get().getFileName());
+
+    Path snapshotPath = FileSystemViewSnapshot.getSnapshotPath(basePath, "");
+    ((AbstractTableFileSystemView) fsView).createSnapshot().write(metaClient.getFs(), snapshotPath);
+
+    // Commit completed after the snapshot is caught up with from its metadata
+    String commitTime2 = "2";
+    String fileName2 = FSUtils.makeDataFileName(commitTime2, TEST_WRITE_TOKEN, fileId);
+    new File(basePath + "/" + partitionPath + "/" + fileName2).createNewFile();
+    HoodieWriteStat writeStat = new HoodieWriteStat();
+    writeStat.setPartitionPath(partitionPath);
+    writeStat.setFileId(fileId);
+    writeStat.setPath(partitionPath + "/" + fileName2);
+    HoodieCommitMetadata commitMetadata = new HoodieCommitMetadata();
+    commitMetadata.addWriteStat(partitionPath, writeStat);
+    saveAsComplete(commitTimeline, new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, commitTime2),
+        Option.of(commitMetadata.toJsonString().getBytes(StandardCharsets.UTF_8)));
+    // Removing the first file shows the partition is not listed again
+    new File(basePath + "/" + partitionPath + "/" + fileName1).delete();
+    refreshFsView();
+
+    Option<FileSystemViewSnapshot> snapshot = FileSystemViewSnapshot.read(metaClient.getFs(), snapshotPath);
+    assertTrue(snapshot.isPresent());
+    assertEquals(Arrays.asList(partitionPath), snapshot.get().getPartitionPaths());
+    assertTrue(((AbstractTableFileSystemView) fsView).restoreSnapshot(snapshot.get()));
+    assertEquals(fileName2, roView.getLatestBaseFiles(partitionPath).findFirst().get().getFileName());
+    assertEquals(new HashSet<>(Arrays.asList(fileName1, fileName2)),
+        roView.getAllBaseFiles(partitionPath).map(HoodieBaseFile::getFileName).collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void testBatchedCallsMatchPartitionCalls() throws Exception {
+    String partitionPath1 = "2016/05/01";
+    String partitionPath2 = "2016/05/02";
+    String partitionPath3 = "2016/05/03";
+    List<String> partitionPaths = Arrays.asList(partitionPath1, partitionPath2, partitionPath3);
+    partitionPaths.forEach(partitionPath -> new File(basePath + "/" + partitionPath).mkdirs());
+    // the same file id in two partitions, a file group with two versions and an empty partition
+    String fileId1 = UUID.randomUUID().toString();
+    String fileId2 = UUID.randomUUID().toString();
+    String commitTime1 = "1";
+    String commitTime2 = "2";
+    new File(basePath + "/" + partitionPath1 + "/"
+        + FSUtils.makeDataFileName(commitTime1, TEST_WRITE_TOKEN, fileId1)).createNewFile();
+    new File(basePath + "/" + partitionPath1 + "/"
+        + FSUtils.makeDataFileName(commitTime1, TEST_WRITE_TOKEN, fileId2)).createNewFile();
+    new File(basePath + "/" + partitionPath2 + "/"
+        + FSUtils.makeDataFileName(commitTime1, TEST_WRITE_TOKEN, fileId1)).createNewFile();
+    new File(basePath + "/" + partitionPath1 + "/"
+        + FSUtils.makeDataFileName(commitTime2, TEST_WRITE_TOKEN, fileId2)).createNewFile();
+    new File(basePath + "/" + partitionPath2 + "/"
+        + FSUtils.makeLogFileName(fileId1, HoodieLogFile.DELTA_EXTENSION, commitTime1, 0, TEST_WRITE_TOKEN))
+        .createNewFile();
+    HoodieActiveTimeline commitTimeline = metaClient.getActiveTimeline();
+    saveAsComplete(commitTimeline, new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, commitTime1), Option.empty());
+    saveAsComplete(commitTimeline, new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, commitTime2), Option.empty());
+    refreshFsView();
+
+    Map<String, List<FileSlice>> latestFileSlices = fsView.getLatestFileSlices(partitionPaths);
+    Map<String, List<FileSlice>> latestFileSlicesBeforeOrOn =
+        fsView.getLatestFileSlicesBeforeOrOn(partitionPaths, commitTime1, true);
+    Map<String, List<HoodieBaseFile>> latestBaseFilesBeforeOrOn =
+        fsView.getLatestBaseFilesBeforeOrOn(partitionPaths, commitTime1);
+    Map<String, List<HoodieFileGroup>> allFileGroups = fsView.getAllFileGroups(partitionPaths);
+    for (String partitionPath : partitionPaths) {
+      assertEquals(rtView.getLatestFileSlices(partitionPath).collect(Collectors.toSet()),
+          new HashSet<>(latestFileSlices.get(partitionPath)), "Latest file slices of " + partitionPath);
+      assertEquals(rtView.getLatestFileSlicesBeforeOrOn(partitionPath, commitTime1, true).collect(Collectors.toSet()),
+          new HashSet<>(latestFileSlicesBeforeOrOn.get(partitionPath)),
+          "Latest file slices before or on " + commitTime1 + " of " + partitionPath);
+      assertEquals(roView.getLatestBaseFilesBeforeOrOn(partitionPath, commitTime1).collect(Collectors.toSet()),
+          new HashSet<>(latestBaseFilesBeforeOrOn.get(partitionPath)),
+          "Latest base files before or on " + commitTime1 + " of " + partitionPath);
+      assertEquals(fsView.getAllFileGroups(partitionPath).flatMap(HoodieFileGroup::getAllFileSlices)
+          .collect(Collectors.toSet()), allFileGroups.get(partitionPath).stream()
+          .flatMap(HoodieFileGroup::getAllFileSlices).collect(Collectors.toSet()), "File groups of " + partitionPath);
+    }
+    assertEquals(2, latestFileSlices.get(partitionPath1).size());
+    assertEquals(1, latestFileSlices.get(partitionPath2).size());
+    assertTrue(latestFileSlices.get(partitionPath3).isEmpty());
+    assertEquals(commitTime1, latestBaseFilesBeforeOrOn.get(partitionPath1).stream()
+        .filter(baseFile -> baseFile.getFileId().equals(fileId2)).findFirst().get().getCommitTime());
+
+    // file ids are only unique within a partition, unknown file groups are left out
+    HoodieFileGroupId fileGroupId1 = new HoodieFileGroupId(partitionPath1, fileId1);
+    HoodieFileGroupId fileGroupId2 = new HoodieFileGroupId(partitionPath1, fileId2);
+    HoodieFileGroupId fileGroupId3 = new HoodieFileGroupId(partitionPath2, fileId1);
+    Map<HoodieFileGroupId, FileSlice> fileGroupSlices = fsView.getLatestFileSlicesForFileGroups(Arrays.asList(
+        fileGroupId1, fileGroupId2, fileGroupId3, new HoodieFileGroupId(partitionPath3, fileId1)));
+    assertEquals(new HashSet<>(Arrays.asList(fileGroupId1, fileGroupId2, fileGroupId3)), fileGroupSlices.keySet());
+    for (HoodieFileGroupId fileGroupId : fileGroupSlices.keySet()) {
+      assertEquals(rtView.getLatestFileSlice(fileGroupId.getPartitionPath(), fileGroupId.getFileId()).get(),
+          fileGroupSlices.get(fileGroupId), "Latest file slice of " + fileGroupId);
+    }
+    assertEquals(1, fileGroupSlices.get(fileGroupId3).getLogFiles().count());
+  }
+
+  @Test
+  public void testConcurrentSnapshotWrites() throws Exception {
+    String partitionPath = "2016/05/01";
+    new File(basePath + "/" + partitionPath).mkdirs();
+    String commitTime1 = "1";
+    new File(basePath + "/" + partitionPath + "/"
+        + FSUtils.makeDataFileName(commitTime1, TEST_WRITE_TOKEN, UUID.randomUUID().toString())).createNewFile();
+    saveAsComplete(metaClient.getActiveTimeline(), new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, commitTime1),
+        Option.empty());
+    refreshFsView();
+    // loads the partition into the view
+    roView.getLatestBaseFiles(partitionPath).count();
+    FileSystemViewSnapshot snapshot = ((AbstractTableFileSystemView) fsView).createSnapshot();
+    Path snapshotPath = FileSystemViewSnapshot.getSnapshotPath(basePath, "");
+
+    // writers of the same snapshot never write to the same temporary file, a writer losing the rename fails cleanly
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> writes = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        writes.add(executor.submit(() -> {
+          try {
+            snapshot.write(metaClient.getFs(), snapshotPath);
+          } catch (HoodieIOException e) {
+            // lost the rename to a concurrent writer
+          }
+          return null;
+        }));
+      }
+      for (Future<?> write : writes) {
+        write.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Option<FileSystemViewSnapshot> written = FileSystemViewSnapshot.read(metaClient.getFs(), snapshotPath);
+    assertTrue(written.isPresent());
+    assertEquals(Arrays.asList(partitionPath), written.get().getPartitionPaths());
+    assertEquals(1, metaClient.getFs().listStatus(snapshotPath.getParent(),
+        path -> path.getName().contains(FileSystemViewSnapshot.SNAPSHOT_FILE_NAME)).length);
+  }
+
   @Test
   public void testStreamLatestVersionInPartition() throws IOException {
     testStreamLatestVersionInPartition(false);
@@ -67,6 +67,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -198,6 +199,50 @@ public class TestIncrementalFSViewSync extends HoodieCommonTestHarness {
     testCleans(view, Arrays.asList("21", "22"), instantsToFiles, Arrays.asList("18", "19"));
   }
 
+  /**
+   * Tests a partition loaded while a partition level sync skips it is loaded against the new timeline.
+   */
+  @Test
+  public void testPartitionLoadedDuringPartitionLevelSync() throws Exception {
+    addInstant(metaClient, "11", false, "11");
+    String loadedPartition = partitions.get(0);
+    String skippedPartition = partitions.get(1);
+    List<HoodieBaseFile> concurrentlyLoadedFiles = new CopyOnWriteArrayList<>();
+    HoodieTableFileSystemView view = new HoodieTableFileSystemView(metaClient,
+        metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants(), true) {
+      @Override
+      protected void refreshTimeline(HoodieTimeline visibleActiveTimeline) {
+        if (visibleActiveTimeline.containsInstant(new HoodieInstant(false, HoodieTimeline.COMMIT_ACTION, "12"))) {
+          // the sync skipped the partition, load it before the new timeline is published
+          Thread loader = new Thread(() ->
+              getLatestBaseFiles(skippedPartition).forEach(concurrentlyLoadedFiles::add));
+          loader.start();
+          try {
+            while (loader.isAlive() && loader.getState() != Thread.State.WAITING) {
+              Thread.sleep(10);
+            }
+          } catch (InterruptedException e) {
+            throw new HoodieException(e);
+          }
+        }
+        super.refreshTimeline(visibleActiveTimeline);
+      }
+    };
+    assertEquals(fileIdsPerPartition.size(), view.getLatestBaseFiles(loadedPartition).count());
+
+    addInstant(metaClient, "12", false, "12");
+    view.sync();
+    assertEquals("12", view.getLastInstant().get().getTimestamp());
+    partitions.subList(0, 2).forEach(p -> assertTrue(
+        view.getLatestBaseFiles(p).allMatch(baseFile -> baseFile.getCommitTime().equals("12")), p));
+    long waitUntilMs = System.currentTimeMillis() + 10000;
+    while (concurrentlyLoadedFiles.size() < fileIdsPerPartition.size() && System.currentTimeMillis() < waitUntilMs) {
+      Thread.sleep(10);
+    }
+    assertEquals(fileIdsPerPartition.size(), concurrentlyLoadedFiles.size());
+    assertTrue(concurrentlyLoadedFiles.stream().allMatch(baseFile -> baseFile.getCommitTime().equals("12")));
+  }
+
   /**
    * Tests FS View incremental syncing behavior when multiple instants gets committed.
    */
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link HoodieRecordSerializer}.
+ */
+public class TestHoodieRecordSerializer {
+
+  @Test
+  public void testSerDeserWithLocations() throws IOException, URISyntaxException {
+    Schema schema = SchemaTestUtil.getSimpleSchema();
+    HoodieRecordSerializer<HoodieRecordPayload> serializer = new HoodieRecordSerializer<>();
+    List<IndexedRecord> records = SchemaTestUtil.generateTestRecords(0, 10);
+    for (IndexedRecord rec : records) {
+      HoodieRecord<HoodieRecordPayload> record =
+          new HoodieRecord<>(new HoodieKey(rec.get(0).toString(), "2020/01/01"),
+              new HoodieAvroPayload(Option.of((GenericRecord) rec)));
+      record.setCurrentLocation(new HoodieRecordLocation("001", "file1"));
+      record.setNewLocation(new HoodieRecordLocation("002", "file2"));
+      record.seal();
+
+      byte[] bytes = serializer.serialize(record);
+      HoodieRecord<HoodieRecordPayload> deserialized = serializer.deserialize(bytes);
+      assertEquals(record.getKey(), deserialized.getKey());
+      assertEquals(record.getCurrentLocation(), deserialized.getCurrentLocation());
+      assertEquals(record.getNewLocation().get(), deserialized.getNewLocation().get());
+      assertTrue(deserialized.isSealed());
+      assertEquals(rec, deserialized.getData().getInsertValue(schema).get());
+      // no class names are written, unlike the default kryo serialization
+      assertTrue(bytes.length < SerializationUtils.serialize(record).length);
+    }
+  }
+
+  @Test
+  public void testSerDeserKeepsPayloadState() throws IOException, URISyntaxException {
+    Schema schema = SchemaTestUtil.getSimpleSchema();
+    HoodieRecordSerializer<HoodieRecordPayload> serializer = new HoodieRecordSerializer<>();
+    GenericRecord rec = (GenericRecord) SchemaTestUtil.generateTestRecords(0, 1).get(0);
+
+    // the ordering value is used when merging log records and must survive a spill
+    HoodieRecord<HoodieRecordPayload> newer = new HoodieRecord<>(new HoodieKey("key1", "2020/01/01"),
+        new OverwriteWithLatestAvroPayload(rec, 10L));
+    HoodieRecord<HoodieRecordPayload> older = new HoodieRecord<>(new HoodieKey("key1", "2020/01/01"),
+        new OverwriteWithLatestAvroPayload(rec, 5L));
+    HoodieRecord<HoodieRecordPayload> spilledNewer = serializer.deserialize(serializer.serialize(newer));
+    assertSame(OverwriteWithLatestAvroPayload.class, spilledNewer.getData().getClass());
+    assertSame(spilledNewer.getData(), older.getData().preCombine(spilledNewer.getData()));
+
+    // delete records have no insert value
+    HoodieRecord<HoodieRecordPayload> delete = new HoodieRecord<>(new HoodieKey("key2", "2020/01/01"),
+        new HoodieAvroPayload(Option.empty()));
+    HoodieRecord<HoodieRecordPayload> spilledDelete = serializer.deserialize(serializer.serialize(delete));
+    assertFalse(spilledDelete.getData().getInsertValue(schema).isPresent());
+    assertNull(spilledDelete.getCurrentLocation());
+    assertFalse(spilledDelete.isSealed());
+
+    // deflated records have no payload at all
+    HoodieRecord<HoodieRecordPayload> deflated = new HoodieRecord<>(new HoodieKey("key3", "2020/01/01"),
+        new HoodieAvroPayload(Option.of(rec)));
+    deflated.deflate();
+    assertTrue(serializer.deserialize(serializer.serialize(deflated)).isDeflated());
+  }
+
+  @Test
+  public void testSerDeserKeepsCustomPayloadFields() throws IOException, URISyntaxException {
+    Schema schema = SchemaTestUtil.getSimpleSchema();
+    GenericRecord rec = (GenericRecord) SchemaTestUtil.generateTestRecords(0, 1).get(0);
+    HoodieRecordSerializer<HoodieRecordPayload> serializer = new HoodieRecordSerializer<>();
+
+    // subclasses of the built-in payloads not declaring a constructor over the bytes are written by kryo
+    HoodieRecord<HoodieRecordPayload> record = new HoodieRecord<>(new HoodieKey("key1", "2020/01/01"),
+        new PayloadWithExtraField(rec, 10L, "extra"));
+    HoodieRecord<HoodieRecordPayload> spilled = serializer.deserialize(serializer.serialize(record));
+    assertSame(PayloadWithExtraField.class, spilled.getData().getClass());
+    assertEquals("extra", ((PayloadWithExtraField) spilled.getData()).extra);
+    assertEquals(10L, ((PayloadWithExtraField) spilled.getData()).getOrderingVal());
+    assertEquals(rec, spilled.getData().getInsertValue(schema).get());
+
+    // payloads built over a record only, as the log scanner does, keep their natural order
+    HoodieRecord<HoodieRecordPayload> natural = new HoodieRecord<>(new HoodieKey("key2", "2020/01/01"),
+        new OverwriteWithLatestAvroPayload(Option.of(rec)));
+    HoodieRecord<HoodieRecordPayload> spilledNatural = serializer.deserialize(serializer.serialize(natural));
+    assertEquals(rec, spilledNatural.getData().getInsertValue(schema).get());
+    assertSame(spilledNatural.getData(), spilledNatural.getData().preCombine(natural.getData()));
+    assertSame(record.getData(), spilledNatural.getData().preCombine((OverwriteWithLatestAvroPayload) record.getData()));
+  }
+
+  /**
+   * Custom payload adding state of its own, which a constructor over the record bytes would lose.
+   */
+  public static class PayloadWithExtraField extends OverwriteWithLatestAvroPayload {
+
+    private final String extra;
+
+    public PayloadWithExtraField(GenericRecord record, Comparable orderingVal, String extra) {
+      super(record, orderingVal);
+      this.extra = extra;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the model based size estimators against {@link ObjectSizeCalculator}, leaving out the shared avro schemas.
+ */
+public class TestSizeEstimators {
+
+  // the model assumes compressed object pointers, which may not hold for the test JVM
+  private static final double TOLERANCE = 0.35;
+
+  @Test
+  public void testAvroRecordSizeEstimator() throws IOException, URISyntaxException {
+    List<IndexedRecord> records = SchemaTestUtil.generateTestRecords(0, 10);
+    AvroRecordSizeEstimator<IndexedRecord> estimator = new AvroRecordSizeEstimator<>();
+    for (IndexedRecord record : records) {
+      // freshly decoded, as the generated records have their strings cached
+      GenericRecord decoded = HoodieAvroUtils.bytesToAvro(HoodieAvroUtils.avroToBytes((GenericRecord) record), record.getSchema());
+      assertClose(measuredSize(decoded), estimator.sizeEstimate(decoded));
+    }
+
+    // nested records, arrays and maps
+    Schema nestedSchema = SchemaBuilder.record("nested").fields()
+        .requiredString("name").requiredLong("ts").endRecord();
+    Schema schema = SchemaBuilder.record("outer").fields()
+        .requiredString("id")
+        .name("nested").type(nestedSchema).noDefault()
+        .name("tags").type().array().items().stringType().noDefault()
+        .name("props").type().map().values().intType().noDefault()
+        .endRecord();
+    for (int i = 0; i < 10; i++) {
+      GenericRecord nested = new GenericData.Record(nestedSchema);
+      nested.put("name", new Utf8("name-" + i));
+      nested.put("ts", (long) i);
+      GenericRecord outer = new GenericData.Record(schema);
+      outer.put("id", "id-" + i);
+      outer.put("nested", nested);
+      outer.put("tags", new GenericData.Array<>(schema.getField("tags").schema(),
+          Arrays.asList(new Utf8("a" + i), new Utf8("b" + i), new Utf8("c" + i))));
+      Map<Utf8, Integer> props = new HashMap<>();
+      IntStream.range(0, i).forEach(j -> props.put(new Utf8("key" + j), 1000 + j));
+      outer.put("props", props);
+      assertClose(measuredSize(outer), estimator.sizeEstimate(outer));
+    }
+  }
+
+  @Test
+  public void testHoodieRecordSizeEstimator() throws IOException, URISyntaxException {
+    HoodieRecordSizeEstimator<HoodieAvroPayload> estimator = new HoodieRecordSizeEstimator<>();
+    for (IndexedRecord rec : SchemaTestUtil.generateHoodieTestRecords(0, 10)) {
+      GenericRecord record = (GenericRecord) rec;
+      HoodieRecord<HoodieAvroPayload> hoodieRecord = new HoodieRecord<>(
+          new HoodieKey(record.get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString(),
+              record.get(HoodieRecord.PARTITION_PATH_METADATA_FIELD).toString()),
+          new HoodieAvroPayload(Option.of(record)));
+      assertClose(measuredSize(hoodieRecord), estimator.sizeEstimate(hoodieRecord));
+
+      // the strings of a location are shared by the records of a file group and not counted
+      long sizeWithoutLocation = estimator.sizeEstimate(hoodieRecord);
+      hoodieRecord.setCurrentLocation(new HoodieRecordLocation("001", "file1"));
+      assertTrue(estimator.sizeEstimate(hoodieRecord) > sizeWithoutLocation);
+    }
+
+    HoodieRecordSizeEstimator<OverwriteWithLatestAvroPayload> baseAvroEstimator = new HoodieRecordSizeEstimator<>();
+    GenericRecord record = (GenericRecord) SchemaTestUtil.generateTestRecords(0, 1).get(0);
+    HoodieRecord<OverwriteWithLatestAvroPayload> hoodieRecord =
+        new HoodieRecord<>(new HoodieKey("key1", "2020/01/01"), new OverwriteWithLatestAvroPayload(record, 1L));
+    assertClose(measuredSize(hoodieRecord), baseAvroEstimator.sizeEstimate(hoodieRecord));
+  }
+
+  @Test
+  public void testCalibratedSizeEstimator() throws IOException, URISyntaxException {
+    List<IndexedRecord> records = SchemaTestUtil.generateTestRecords(0, 100);
+    // a model that under-estimates by half is corrected by the samples
+    CalibratedSizeEstimator<IndexedRecord> estimator =
+        new CalibratedSizeEstimator<>(r -> AvroRecordSizeEstimator.sizeOfRecord(r) / 2, 10, 5);
+    records.forEach(estimator::sizeEstimate);
+    assertTrue(estimator.getCorrectionFactor() > 1.5);
+    IndexedRecord record = records.get(0);
+    assertClose(measuredSize(record), estimator.sizeEstimate(record));
+
+    // no samples, no correction
+    CalibratedSizeEstimator<IndexedRecord> uncalibrated =
+        new CalibratedSizeEstimator<>(r -> 100L, 10, 0);
+    assertEquals(100L, uncalibrated.sizeEstimate(record));
+  }
+
+  @Test
+  public void testSampledSizeEstimator() {
+    AtomicInteger numCalls = new AtomicInteger();
+    SizeEstimator<Long> expensive = size -> {
+      numCalls.incrementAndGet();
+      return size;
+    };
+    SizeEstimator<Long> sampled = SampledSizeEstimator.sampledIfExpensive(expensive);
+    assertTrue(sampled.isCheap());
+    // only the samples are sized, the other objects are of their average size
+    assertEquals(10L, sampled.sizeEstimate(10L));
+    assertEquals(30L, sampled.sizeEstimate(30L));
+    LongStream.range(0, SampledSizeEstimator.DEFAULT_NUM_SAMPLES - 2).forEach(i -> sampled.sizeEstimate(20L));
+    assertEquals(SampledSizeEstimator.DEFAULT_NUM_SAMPLES, numCalls.get());
+    assertEquals(20L, sampled.sizeEstimate(1000L));
+    assertEquals(SampledSizeEstimator.DEFAULT_NUM_SAMPLES, numCalls.get());
+
+    // model based estimators are used as they are
+    AvroRecordSizeEstimator<IndexedRecord> avroEstimator = new AvroRecordSizeEstimator<>();
+    assertSame(avroEstimator, SampledSizeEstimator.sampledIfExpensive(avroEstimator));
+    assertTrue(new HoodieRecordSizeEstimator<>().isCheap());
+    assertFalse(new DefaultSizeEstimator<>().isCheap());
+  }
+
+  private static long measuredSize(Object obj) {
+    return ObjectSizeCalculator.getObjectSizeExcluding(obj, Schema.class);
+  }
+
+  private static void assertClose(long expected, long actual) {
+    assertTrue(Math.abs(expected - actual) <= expected * TOLERANCE,
+        "Estimated size " + actual + " is not close to the measured size " + expected);
+  }
+}
@@ -26,8 +26,10 @@ import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
 import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.FileIOUtils;
 import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SampledSizeEstimator;
 import org.apache.hudi.common.util.SchemaTestUtil;
 import org.apache.hudi.common.util.SpillableMapTestUtils;
 
@@ -45,6 +47,7 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -84,6 +87,22 @@ public class TestExternalSpillableMap extends HoodieCommonTestHarness {
     }
   }
 
+  @Test
+  public void simpleInsertMemoryMappedTest() throws IOException, URISyntaxException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(SchemaTestUtil.getSimpleSchema());
+    ExternalSpillableMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new ExternalSpillableMap<>(16L, basePath, new DefaultSizeEstimator(), new HoodieRecordSizeEstimator(schema),
+            ExternalSpillableMap.DiskMapType.MEMORY_MAPPED); // 16B
+
+    List<IndexedRecord> iRecords = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+    assertEquals(100, records.size());
+    assertTrue(records.getDiskBasedMapNumEntries() > 0);
+    assertTrue(records.getSizeOfFileOnDiskInBytes() > 0);
+    recordKeys.forEach(key -> assertEquals(key, records.get(key).getRecordKey()));
+    assertEquals(100, records.valueStream().count());
+  }
+
   @Test
   public void testSimpleUpsert() throws IOException, URISyntaxException {
 
@@ -308,6 +327,31 @@ public class TestExternalSpillableMap extends HoodieCommonTestHarness {
     assertEquals(gRecord.get(fieldName).toString(), newValue);
   }
 
+  @Test
+  public void testExpensiveSizeEstimatorsAreSampled() throws IOException, URISyntaxException {
+    AtomicInteger numEstimates = new AtomicInteger();
+    DefaultSizeEstimator<HoodieRecord<? extends HoodieRecordPayload>> valueSizeEstimator = new DefaultSizeEstimator() {
+      @Override
+      public long sizeEstimate(Object o) {
+        numEstimates.incrementAndGet();
+        return super.sizeEstimate(o);
+      }
+    };
+    ExternalSpillableMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new ExternalSpillableMap<>(FileIOUtils.KB * FileIOUtils.KB, basePath, new DefaultSizeEstimator(),
+            valueSizeEstimator);
+
+    // inserts, updates and removals past the samples do not walk the records
+    List<IndexedRecord> iRecords =
+        SchemaTestUtil.generateHoodieTestRecords(0, 2 * SampledSizeEstimator.DEFAULT_NUM_SAMPLES);
+    List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+    SpillableMapTestUtils.upsertRecords(iRecords, records);
+    recordKeys.forEach(records::remove);
+    assertEquals(SampledSizeEstimator.DEFAULT_NUM_SAMPLES, numEstimates.get());
+    // freed up to the rounding of the sampled averages
+    assertTrue(Math.abs(records.getCurrentInMemoryMapSize()) < 2 * SampledSizeEstimator.DEFAULT_NUM_SAMPLES);
+  }
+
   // TODO : come up with a performance eval test for spillableMap
   @Test
   public void testLargeInsertUpsert() {}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.util.DefaultSpillableMapSerializer;
+import org.apache.hudi.common.util.HoodieRecordSerializer;
+import org.apache.hudi.common.util.SchemaTestUtil;
+import org.apache.hudi.common.util.SpillableMapTestUtils;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.apache.hudi.common.util.SchemaTestUtil.getSimpleSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests memory mapped disk map {@link MemoryMappedDiskMap}.
+ */
+public class TestMemoryMappedDiskMap extends HoodieCommonTestHarness {
+
+  @BeforeEach
+  public void setup() {
+    initPath();
+  }
+
+  @Test
+  public void testSimpleInsert() throws IOException, URISyntaxException {
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath);
+    List<IndexedRecord> iRecords = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+
+    // make sure records have spilled to disk
+    assertTrue(records.sizeOfFileOnDiskInBytes() > 0);
+    assertEquals(recordKeys.size(), records.size());
+    assertEquals(new HashSet<>(recordKeys), records.keySet());
+    Iterator<HoodieRecord<? extends HoodieRecordPayload>> itr = records.iterator();
+    int count = 0;
+    while (itr.hasNext()) {
+      assertTrue(recordKeys.contains(itr.next().getRecordKey()));
+      count++;
+    }
+    assertEquals(recordKeys.size(), count);
+    recordKeys.forEach(key -> assertEquals(key, records.get(key).getRecordKey()));
+  }
+
+  @Test
+  public void testSimpleUpsert() throws IOException, URISyntaxException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath);
+    List<IndexedRecord> iRecords = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+    long fileSize = records.sizeOfFileOnDiskInBytes();
+
+    // generate updates from inserts
+    List<IndexedRecord> updatedRecords = SchemaTestUtil.updateHoodieTestRecords(recordKeys,
+        SchemaTestUtil.generateHoodieTestRecords(0, 100), HoodieActiveTimeline.createNewInstantTime());
+    String newCommitTime =
+        ((GenericRecord) updatedRecords.get(0)).get(HoodieRecord.COMMIT_TIME_METADATA_FIELD).toString();
+    recordKeys = SpillableMapTestUtils.upsertRecords(updatedRecords, records);
+
+    // upserts are appended to the file, the number of entries stays the same
+    assertTrue(records.sizeOfFileOnDiskInBytes() > fileSize);
+    assertEquals(recordKeys.size(), records.size());
+    records.valueStream().forEach(rec -> {
+      try {
+        IndexedRecord indexedRecord = (IndexedRecord) rec.getData().getInsertValue(schema).get();
+        assertEquals(newCommitTime,
+            ((GenericRecord) indexedRecord).get(HoodieRecord.COMMIT_TIME_METADATA_FIELD).toString());
+      } catch (IOException io) {
+        throw new RuntimeException(io);
+      }
+    });
+  }
+
+  @Test
+  public void testEntriesStraddlingSegments() throws IOException, URISyntaxException {
+    // segments smaller than a single record, every entry spans several of them
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath, new HoodieRecordSerializer(), 100);
+    List<IndexedRecord> iRecords = SchemaTestUtil.generateHoodieTestRecords(0, 50);
+    List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+
+    assertTrue(records.sizeOfFileOnDiskInBytes() > 100 * recordKeys.size());
+    recordKeys.forEach(key -> assertEquals(key, records.get(key).getRecordKey()));
+    assertEquals(recordKeys.size(), records.values().size());
+  }
+
+  @Test
+  public void testRemoveAndClearAcrossIndexResizes() throws IOException {
+    MemoryMappedDiskMap<String, Integer> records = new MemoryMappedDiskMap<>(basePath);
+    int numEntries = 10000;
+    IntStream.range(0, numEntries).forEach(i -> records.put("key" + i, i));
+    assertEquals(numEntries, records.size());
+
+    // remove every other key
+    IntStream.range(0, numEntries).filter(i -> i % 2 == 0).forEach(i -> assertEquals(i, records.remove("key" + i)));
+    assertEquals(numEntries / 2, records.size());
+    assertNull(records.remove("key0"));
+    IntStream.range(0, numEntries).forEach(i -> {
+      assertEquals(i % 2 != 0, records.containsKey("key" + i));
+      assertEquals(i % 2 == 0 ? null : i, records.get("key" + i));
+    });
+
+    // re-insert the removed keys, reusing removed slots of the index
+    IntStream.range(0, numEntries).filter(i -> i % 2 == 0).forEach(i -> records.put("key" + i, -i));
+    assertEquals(numEntries, records.size());
+    assertEquals(-2, records.get("key2"));
+    Set<Integer> values = records.valueStream().collect(Collectors.toSet());
+    assertEquals(numEntries, values.size());
+
+    records.clear();
+    assertTrue(records.isEmpty());
+    assertFalse(records.containsKey("key1"));
+    assertFalse(records.iterator().hasNext());
+  }
+
+  @Test
+  public void testKeysWithCollidingHashes() throws IOException {
+    MemoryMappedDiskMap<CollidingKey, String> records = new MemoryMappedDiskMap<>(basePath);
+    IntStream.range(0, 100).forEach(i -> records.put(new CollidingKey(i), "value" + i));
+    assertEquals(100, records.size());
+    IntStream.range(0, 100).forEach(i -> assertEquals("value" + i, records.get(new CollidingKey(i))));
+    assertNull(records.get(new CollidingKey(100)));
+    records.remove(new CollidingKey(50));
+    assertNull(records.get(new CollidingKey(50)));
+    assertEquals("value99", records.get(new CollidingKey(99)));
+  }
+
+  @Test
+  public void testCloseDeletesSpillFile() throws IOException {
+    // small segments, to have several of them to unmap
+    MemoryMappedDiskMap<String, Integer> records =
+        new MemoryMappedDiskMap<>(basePath, new DefaultSpillableMapSerializer<>(), 100);
+    IntStream.range(0, 1000).forEach(i -> records.put("key" + i, i));
+    assertEquals(1, new File(basePath).listFiles().length);
+
+    records.close();
+    assertEquals(0, new File(basePath).listFiles().length);
+    // closing again is a no-op
+    records.close();
+  }
+
+  /**
+   * A key whose instances all share the same hash code.
+   */
+  private static class CollidingKey implements Serializable {
+
+    private final int id;
+
+    CollidingKey(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+}
@@ -19,12 +19,14 @@
 package org.apache.hudi.common.util.collection;
 
 import org.apache.hudi.common.table.view.FileSystemViewStorageConfig;
+import org.apache.hudi.common.util.SerializationUtils;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -238,6 +240,35 @@ public class TestRocksDBManager {
     assertFalse(new File(rocksDBBasePath).exists());
   }
 
+  @Test
+  public void testIngestWithPrefixBloomFilters() throws IOException {
+    dbManager.close();
+    dbManager = new RocksDBDAO("/dummy/path/" + UUID.randomUUID().toString(),
+        FileSystemViewStorageConfig.newBuilder().build().getRocksdbBasePath(), 8, 1024 * 1024L);
+
+    List<String> prefixes = Arrays.asList("prefix1_", "prefix2_", "prefix3_", "prefix4_");
+    String family = "family1";
+    dbManager.addColumnFamily(family);
+
+    Map<String, byte[]> entries = new HashMap<>();
+    for (int index = 0; index < 100; index++) {
+      String key = prefixes.get(index % 4) + UUID.randomUUID().toString();
+      entries.put(key, SerializationUtils.serialize("VALUE_" + key));
+    }
+    dbManager.ingest(family, entries);
+
+    entries.keySet().forEach(key -> {
+      String value = dbManager.get(family, key);
+      assertEquals("VALUE_" + key, value, "Retrieved correct value for key :" + key);
+    });
+
+    prefixes.forEach(prefix -> {
+      List<Pair<String, String>> got = dbManager.<String>prefixSearch(family, prefix).collect(Collectors.toList());
+      assertEquals(25, got.size(), "Size check for prefix (" + prefix + ")");
+      got.forEach(p -> assertTrue(p.getKey().startsWith(prefix), "Key " + p.getKey() + " matches prefix " + prefix));
+    });
+  }
+
   public static class PayloadKey implements Serializable {
     private String key;
 
@@ -31,10 +31,12 @@ import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodiePartitionMetadata;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.listing.HoodieFileListing;
 import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
@@ -104,10 +106,15 @@ public class HoodieParquetInputFormat extends MapredParquetInputFormat implement
     // process snapshot queries next.
     List<Path> snapshotPaths = inputPathHandler.getSnapshotPaths();
     if (snapshotPaths.size() > 0) {
-      setInputPaths(job, snapshotPaths.toArray(new Path[snapshotPaths.size()]));
-      FileStatus[] fileStatuses = super.listStatus(job);
-      Map<HoodieTableMetaClient, List<FileStatus>> groupedFileStatus =
-          groupFileStatusForSnapshotPaths(fileStatuses, tableMetaClientMap.values());
+      Map<HoodieTableMetaClient, List<FileStatus>> groupedFileStatus = new HashMap<>();
+      List<Path> pathsToList = listStatusFromFileListing(snapshotPaths, tableMetaClientMap.values(), groupedFileStatus);
+      if (pathsToList.size() > 0) {
+        setInputPaths(job, pathsToList.toArray(new Path[pathsToList.size()]));
+        FileStatus[] fileStatuses = super.listStatus(job);
+        groupFileStatusForSnapshotPaths(fileStatuses, tableMetaClientMap.values())
+            .forEach((metaClient, statuses) ->
+                groupedFileStatus.computeIfAbsent(metaClient, m -> new ArrayList<>()).addAll(statuses));
+      }
       LOG.info("Found a total of " + groupedFileStatus.size() + " groups");
       for (Map.Entry<HoodieTableMetaClient, List<FileStatus>> entry : groupedFileStatus.entrySet()) {
         List<FileStatus> result = filterFileStatusForSnapshotMode(entry.getKey(), entry.getValue());
@@ -266,6 +273,38 @@ public class HoodieParquetInputFormat extends MapredParquetInputFormat implement
     return grouped;
   }
 
+  /**
+   * Resolves the snapshot paths of tables which maintain a file listing under the metadata folder from that listing,
+   * adding the base files found to the grouped statuses. Returns the paths which still have to be listed.
+   */
+  private List<Path> listStatusFromFileListing(List<Path> snapshotPaths,
+      Collection<HoodieTableMetaClient> metaClientList, Map<HoodieTableMetaClient, List<FileStatus>> grouped)
+      throws IOException {
+    Map<HoodieTableMetaClient, Option<HoodieFileListing>> listings = new HashMap<>();
+    List<Path> pathsToList = new ArrayList<>();
+    for (Path snapshotPath : snapshotPaths) {
+      Option<HoodieTableMetaClient> metaClient = Option.fromJavaOptional(metaClientList.stream()
+          .filter(m -> snapshotPath.toString().contains(m.getBasePath())).findFirst());
+      Option<HoodieFileListing> listing = metaClient.isPresent()
+          ? listings.computeIfAbsent(metaClient.get(), HoodieFileListing::load) : Option.empty();
+      if (!listing.isPresent()) {
+        pathsToList.add(snapshotPath);
+        continue;
+      }
+      String partitionPath = FSUtils.getRelativePartitionPath(new Path(metaClient.get().getBasePath()), snapshotPath);
+      FileSystem fs = snapshotPath.getFileSystem(conf);
+      List<FileStatus> statuses = grouped.computeIfAbsent(metaClient.get(), m -> new ArrayList<>());
+      for (FileStatus status : listing.get().getFileStatuses(partitionPath)) {
+        // only base files, as the listing of the file system would return
+        if (status.getPath().getName().endsWith(".parquet")) {
+          statuses.add(new FileStatus(status.getLen(), false, fs.getDefaultReplication(status.getPath()),
+              fs.getDefaultBlockSize(status.getPath()), 0, status.getPath()));
+        }
+      }
+    }
+    return pathsToList;
+  }
+
   /**
    * Filters data files for a snapshot queried table.
    */
@@ -83,6 +83,12 @@ public abstract class AbstractRealtimeRecordReader {
   public static final String SPILLABLE_MAP_BASE_PATH_PROP = "hoodie.memory.spillable.map.path";
   // Default file path prefix for spillable file
   public static final String DEFAULT_SPILLABLE_MAP_BASE_PATH = "/tmp/";
+  // Property to choose the queue log and parquet records are buffered in by unmerged reads, BLOCKING or RING_BUFFER
+  public static final String BUFFER_QUEUE_TYPE_PROP = "hoodie.realtime.buffer.queue.type";
+  public static final String DEFAULT_BUFFER_QUEUE_TYPE = "BLOCKING";
+  // Property to set the number of threads reading and decoding log files ahead of merging them, 0 to disable
+  public static final String LOG_PREFETCH_THREADS_PROP = "hoodie.realtime.log.prefetch.threads";
+  public static final int DEFAULT_LOG_PREFETCH_THREADS = 0;
 
   private static final Logger LOG = LogManager.getLogger(AbstractRealtimeRecordReader.class);
 
@@ -24,6 +24,8 @@ import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.table.log.HoodieMergedLogRecordScanner;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType;
 
 import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.io.ArrayWritable;
@@ -66,7 +68,8 @@ class RealtimeCompactedRecordReader extends AbstractRealtimeRecordReader
         Boolean
             .parseBoolean(jobConf.get(COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP, DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED)),
         false, jobConf.getInt(MAX_DFS_STREAM_BUFFER_SIZE_PROP, DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE),
-        jobConf.get(SPILLABLE_MAP_BASE_PATH_PROP, DEFAULT_SPILLABLE_MAP_BASE_PATH));
+        jobConf.get(SPILLABLE_MAP_BASE_PATH_PROP, DEFAULT_SPILLABLE_MAP_BASE_PATH), DiskMapType.DISK_BASED,
+        jobConf.getInt(LOG_PREFETCH_THREADS_PROP, DEFAULT_LOG_PREFETCH_THREADS));
   }
 
   @Override
@@ -146,6 +149,9 @@ class RealtimeCompactedRecordReader extends AbstractRealtimeRecordReader
   @Override
   public void close() throws IOException {
     parquetReader.close();
+    if (deltaRecordMap instanceof ExternalSpillableMap) {
+      ((ExternalSpillableMap) deltaRecordMap).close();
+    }
   }
 
   @Override
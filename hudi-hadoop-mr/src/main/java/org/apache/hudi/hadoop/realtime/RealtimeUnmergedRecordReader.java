@@ -71,13 +71,17 @@ class RealtimeUnmergedRecordReader extends AbstractRealtimeRecordReader
     // Iterator for consuming records from parquet file
     this.parquetRecordsIterator = new RecordReaderValueIterator<>(this.parquetReader);
     this.executor = new BoundedInMemoryExecutor<>(getMaxCompactionMemoryInBytes(), getParallelProducers(),
-        Option.empty(), x -> x, new DefaultSizeEstimator<>());
+        Option.empty(), x -> x, new DefaultSizeEstimator<>(),
+        BoundedInMemoryExecutor.QueueType.valueOf(jobConf.get(BUFFER_QUEUE_TYPE_PROP, DEFAULT_BUFFER_QUEUE_TYPE)));
     // Consumer of this record reader
     this.iterator = this.executor.getQueue().iterator();
     this.logRecordScanner = new HoodieUnMergedLogRecordScanner(FSUtils.getFs(split.getPath().toString(), jobConf),
         split.getBasePath(), split.getDeltaLogPaths(), getReaderSchema(), split.getMaxCommitTime(),
         Boolean.parseBoolean(jobConf.get(COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP, DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED)),
-        false, jobConf.getInt(MAX_DFS_STREAM_BUFFER_SIZE_PROP, DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE), record -> {
+        false, jobConf.getInt(MAX_DFS_STREAM_BUFFER_SIZE_PROP, DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE),
+        jobConf.getInt(LOG_PREFETCH_THREADS_PROP, DEFAULT_LOG_PREFETCH_THREADS),
+        HoodieUnMergedLogRecordScanner.getMaxPrefetchedBytes(getMaxCompactionMemoryInBytes(),
+            jobConf.getInt(LOG_PREFETCH_THREADS_PROP, DEFAULT_LOG_PREFETCH_THREADS)), record -> {
           // convert Hoodie log record to Hadoop AvroWritable and buffer
           GenericRecord rec = (GenericRecord) record.getData().getInsertValue(getReaderSchema()).get();
           ArrayWritable aWritable = (ArrayWritable) avroToArrayWritable(rec, getWriterSchema());
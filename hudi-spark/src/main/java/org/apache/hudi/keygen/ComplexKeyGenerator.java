@@ -22,9 +22,11 @@ import org.apache.hudi.DataSourceUtils;
 import org.apache.hudi.DataSourceWriteOptions;
 import org.apache.hudi.common.config.TypedProperties;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieKeyException;
 
 import org.apache.avro.generic.GenericRecord;
+import org.apache.spark.sql.types.StructType;
 
 import java.util.Arrays;
 import java.util.List;
@@ -64,10 +66,39 @@ public class ComplexKeyGenerator extends KeyGenerator {
       throw new HoodieKeyException("Unable to find field names for record key or partition path in cfg");
     }
 
+    return getKey(getNestedFieldValsAsString(record, recordKeyFields),
+        getNestedFieldValsAsString(record, partitionPathFields));
+  }
+
+  @Override
+  public Option<RowKeyGenerator> getRowKeyGenerator(StructType schema) {
+    // subclasses generating keys of their own out of records would not get the same keys out of rows
+    if (getClass() != ComplexKeyGenerator.class) {
+      return Option.empty();
+    }
+
+    Option<List<RowKeyField>> recordKeyRowFields = RowKeyField.resolve(schema, recordKeyFields);
+    Option<List<RowKeyField>> partitionPathRowFields = RowKeyField.resolve(schema, partitionPathFields);
+    if (!recordKeyRowFields.isPresent() || !partitionPathRowFields.isPresent()) {
+      return Option.empty();
+    }
+    List<RowKeyField> recordKeyValueFields = recordKeyRowFields.get();
+    List<RowKeyField> partitionPathValueFields = partitionPathRowFields.get();
+    return Option.of(row -> getKey(RowKeyField.getValuesAsString(recordKeyValueFields, row),
+        RowKeyField.getValuesAsString(partitionPathValueFields, row)));
+  }
+
+  private static List<String> getNestedFieldValsAsString(GenericRecord record, List<String> fields) {
+    return fields.stream().map(field -> DataSourceUtils.getNestedFieldValAsString(record, field, true))
+        .collect(Collectors.toList());
+  }
+
+  private HoodieKey getKey(List<String> recordKeyValues, List<String> partitionPathValues) {
     boolean keyIsNullEmpty = true;
     StringBuilder recordKey = new StringBuilder();
-    for (String recordKeyField : recordKeyFields) {
-      String recordKeyValue = DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true);
+    for (int i = 0; i < recordKeyFields.size(); i++) {
+      String recordKeyField = recordKeyFields.get(i);
+      String recordKeyValue = recordKeyValues.get(i);
       if (recordKeyValue == null) {
         recordKey.append(recordKeyField + ":" + NULL_RECORDKEY_PLACEHOLDER + ",");
       } else if (recordKeyValue.isEmpty()) {
@@ -84,8 +115,9 @@ public class ComplexKeyGenerator extends KeyGenerator {
     }
 
     StringBuilder partitionPath = new StringBuilder();
-    for (String partitionPathField : partitionPathFields) {
-      String fieldVal = DataSourceUtils.getNestedFieldValAsString(record, partitionPathField, true);
+    for (int i = 0; i < partitionPathFields.size(); i++) {
+      String partitionPathField = partitionPathFields.get(i);
+      String fieldVal = partitionPathValues.get(i);
       if (fieldVal == null || fieldVal.isEmpty()) {
         partitionPath.append(hiveStylePartitioning ? partitionPathField + "=" + DEFAULT_PARTITION_PATH
                 : DEFAULT_PARTITION_PATH);
@@ -22,12 +22,15 @@ import org.apache.hudi.DataSourceUtils;
 import org.apache.hudi.DataSourceWriteOptions;
 import org.apache.hudi.common.config.TypedProperties;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieKeyException;
 
 import org.apache.avro.generic.GenericRecord;
+import org.apache.spark.sql.types.StructType;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Key generator for deletes using global indices. Global index deletes do not require partition value
@@ -52,10 +55,27 @@ public class GlobalDeleteKeyGenerator extends KeyGenerator {
       throw new HoodieKeyException("Unable to find field names for record key or partition path in cfg");
     }
 
+    List<String> recordKeyValues = recordKeyFields.stream()
+        .map(recordKeyField -> DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true))
+        .collect(Collectors.toList());
+    return getKey(recordKeyValues);
+  }
+
+  @Override
+  public Option<RowKeyGenerator> getRowKeyGenerator(StructType schema) {
+    if (getClass() != GlobalDeleteKeyGenerator.class) {
+      return Option.empty();
+    }
+    return RowKeyField.resolve(schema, recordKeyFields).map(recordKeyRowFields ->
+        (RowKeyGenerator) row -> getKey(RowKeyField.getValuesAsString(recordKeyRowFields, row)));
+  }
+
+  private HoodieKey getKey(List<String> recordKeyValues) {
     boolean keyIsNullEmpty = true;
     StringBuilder recordKey = new StringBuilder();
-    for (String recordKeyField : recordKeyFields) {
-      String recordKeyValue = DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true);
+    for (int i = 0; i < recordKeyFields.size(); i++) {
+      String recordKeyField = recordKeyFields.get(i);
+      String recordKeyValue = recordKeyValues.get(i);
       if (recordKeyValue == null) {
         recordKey.append(recordKeyField + ":" + NULL_RECORDKEY_PLACEHOLDER + ",");
       } else if (recordKeyValue.isEmpty()) {
@@ -20,8 +20,10 @@ package org.apache.hudi.keygen;
 
 import org.apache.hudi.common.config.TypedProperties;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.util.Option;
 
 import org.apache.avro.generic.GenericRecord;
+import org.apache.spark.sql.types.StructType;
 
 import java.io.Serializable;
 
@@ -40,4 +42,13 @@ public abstract class KeyGenerator implements Serializable {
    * Generate a Hoodie Key out of provided generic record.
    */
   public abstract HoodieKey getKey(GenericRecord record);
+
+  /**
+   * Generator of the same Hoodie Keys, out of spark rows of the provided schema rather than the generic records
+   * converted from them. Key fields are resolved against the schema once, instead of being looked up by name on
+   * every record. Empty if the keys can only be generated out of generic records.
+   */
+  public Option<RowKeyGenerator> getRowKeyGenerator(StructType schema) {
+    return Option.empty();
+  }
 }
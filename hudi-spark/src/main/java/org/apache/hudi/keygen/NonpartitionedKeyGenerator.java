@@ -21,9 +21,11 @@ package org.apache.hudi.keygen;
 import org.apache.hudi.DataSourceUtils;
 import org.apache.hudi.common.config.TypedProperties;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieKeyException;
 
 import org.apache.avro.generic.GenericRecord;
+import org.apache.spark.sql.types.StructType;
 
 /**
  * Simple Key generator for unpartitioned Hive Tables.
@@ -38,7 +40,19 @@ public class NonpartitionedKeyGenerator extends SimpleKeyGenerator {
 
   @Override
   public HoodieKey getKey(GenericRecord record) {
-    String recordKey = DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true);
+    return getKey(DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true));
+  }
+
+  @Override
+  public Option<RowKeyGenerator> getRowKeyGenerator(StructType schema) {
+    if (getClass() != NonpartitionedKeyGenerator.class) {
+      return Option.empty();
+    }
+    return RowKeyField.resolve(schema, recordKeyField)
+        .map(recordKeyRowField -> (RowKeyGenerator) row -> getKey(recordKeyRowField.getValueAsString(row)));
+  }
+
+  private HoodieKey getKey(String recordKey) {
     if (recordKey == null || recordKey.isEmpty()) {
       throw new HoodieKeyException("recordKey value: \"" + recordKey + "\" for field: \"" + recordKeyField + "\" cannot be null or empty.");
     }
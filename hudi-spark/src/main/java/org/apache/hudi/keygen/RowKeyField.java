@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.keygen;
+
+import org.apache.hudi.common.util.CollectionUtils;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+
+import java.io.Serializable;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Field of a spark row, denoted by dot notation. e.g: a.b.c, resolved to the ordinals leading to its value.
+ *
+ * Values are turned into the same strings as {@link org.apache.hudi.DataSourceUtils#getNestedFieldValAsString} does
+ * on the avro values the row is converted to, so that keys generated out of rows and records are the same.
+ */
+public class RowKeyField implements Serializable {
+
+  // Types whose values are turned into the same key strings as the avro values they are converted to
+  private static final Set<DataType> SUPPORTED_TYPES = CollectionUtils.createSet(DataTypes.StringType,
+      DataTypes.BooleanType, DataTypes.ByteType, DataTypes.ShortType, DataTypes.IntegerType, DataTypes.LongType,
+      DataTypes.FloatType, DataTypes.DoubleType, DataTypes.DateType, DataTypes.TimestampType);
+
+  private final int[] ordinals;
+
+  private RowKeyField(int[] ordinals) {
+    this.ordinals = ordinals;
+  }
+
+  /**
+   * Resolves the field against the schema of the rows. Empty if the field is not found, or is of a type whose
+   * values are not supported as keys.
+   */
+  public static Option<RowKeyField> resolve(StructType schema, String fieldName) {
+    if (fieldName == null) {
+      return Option.empty();
+    }
+    String[] parts = fieldName.split("\\.");
+    int[] ordinals = new int[parts.length];
+    DataType dataType = schema;
+    for (int i = 0; i < parts.length; i++) {
+      if (!(dataType instanceof StructType)) {
+        return Option.empty();
+      }
+      StructType struct = (StructType) dataType;
+      ordinals[i] = Arrays.asList(struct.fieldNames()).indexOf(parts[i]);
+      if (ordinals[i] < 0) {
+        return Option.empty();
+      }
+      dataType = struct.fields()[ordinals[i]].dataType();
+    }
+    return SUPPORTED_TYPES.contains(dataType) ? Option.of(new RowKeyField(ordinals)) : Option.empty();
+  }
+
+  /**
+   * Resolves all of the fields against the schema of the rows, empty if any of them cannot be resolved.
+   */
+  public static Option<List<RowKeyField>> resolve(StructType schema, List<String> fieldNames) {
+    if (fieldNames == null) {
+      return Option.empty();
+    }
+    List<RowKeyField> fields = new ArrayList<>(fieldNames.size());
+    for (String fieldName : fieldNames) {
+      Option<RowKeyField> field = resolve(schema, fieldName);
+      if (!field.isPresent()) {
+        return Option.empty();
+      }
+      fields.add(field.get());
+    }
+    return Option.of(fields);
+  }
+
+  /**
+   * Obtain value of the field as string, null if the field or any of the structs holding it is null.
+   */
+  public String getValueAsString(Row row) {
+    Row valueNode = row;
+    for (int i = 0; i < ordinals.length - 1; i++) {
+      if (valueNode.isNullAt(ordinals[i])) {
+        return null;
+      }
+      valueNode = valueNode.getStruct(ordinals[i]);
+    }
+    int ordinal = ordinals[ordinals.length - 1];
+    if (valueNode.isNullAt(ordinal)) {
+      return null;
+    }
+
+    Object value = valueNode.get(ordinal);
+    if (value instanceof Timestamp) {
+      // converted to avro as microseconds
+      return String.valueOf(((Timestamp) value).getTime() * 1000);
+    } else if (value instanceof Date) {
+      // converted to avro as logical date, read back as local date
+      return ((Date) value).toLocalDate().toString();
+    }
+    return value.toString();
+  }
+
+  /**
+   * Obtain values of the fields as strings.
+   */
+  public static List<String> getValuesAsString(List<RowKeyField> fields, Row row) {
+    List<String> values = new ArrayList<>(fields.size());
+    for (RowKeyField field : fields) {
+      values.add(field.getValueAsString(row));
+    }
+    return values;
+  }
+}
@@ -22,9 +22,11 @@ import org.apache.hudi.DataSourceUtils;
 import org.apache.hudi.DataSourceWriteOptions;
 import org.apache.hudi.common.config.TypedProperties;
 import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieKeyException;
 
 import org.apache.avro.generic.GenericRecord;
+import org.apache.spark.sql.types.StructType;
 
 /**
  * Simple key generator, which takes names of fields to be used for recordKey and partitionPath as configs.
@@ -53,12 +55,33 @@ public class SimpleKeyGenerator extends KeyGenerator {
       throw new HoodieKeyException("Unable to find field names for record key or partition path in cfg");
     }
 
-    String recordKey = DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true);
+    return getKey(DataSourceUtils.getNestedFieldValAsString(record, recordKeyField, true),
+        DataSourceUtils.getNestedFieldValAsString(record, partitionPathField, true));
+  }
+
+  @Override
+  public Option<RowKeyGenerator> getRowKeyGenerator(StructType schema) {
+    // subclasses generating keys of their own out of records would not get the same keys out of rows
+    if (getClass() != SimpleKeyGenerator.class) {
+      return Option.empty();
+    }
+
+    Option<RowKeyField> recordKeyRowField = RowKeyField.resolve(schema, recordKeyField);
+    Option<RowKeyField> partitionPathRowField = RowKeyField.resolve(schema, partitionPathField);
+    if (!recordKeyRowField.isPresent() || !partitionPathRowField.isPresent()) {
+      return Option.empty();
+    }
+    RowKeyField recordKeyValueField = recordKeyRowField.get();
+    RowKeyField partitionPathValueField = partitionPathRowField.get();
+    return Option.of(row -> getKey(recordKeyValueField.getValueAsString(row),
+        partitionPathValueField.getValueAsString(row)));
+  }
+
+  private HoodieKey getKey(String recordKey, String partitionPath) {
     if (recordKey == null || recordKey.isEmpty()) {
       throw new HoodieKeyException("recordKey value: \"" + recordKey + "\" for field: \"" + recordKeyField + "\" cannot be null or empty.");
     }
 
-    String partitionPath = DataSourceUtils.getNestedFieldValAsString(record, partitionPathField, true);
     if (partitionPath == null || partitionPath.isEmpty()) {
       partitionPath = DEFAULT_PARTITION_PATH;
     }
@@ -20,6 +20,7 @@ package org.apache.hudi
 import org.apache.avro.generic.GenericRecord
 import org.apache.hudi.common.model.HoodieKey
 import org.apache.avro.Schema
+import org.apache.hudi.keygen.KeyGenerator
 import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.avro.SchemaConverters
 import org.apache.spark.sql.catalyst.encoders.RowEncoder
@@ -51,6 +52,31 @@ object AvroConversionUtils {
       }
   }
 
+  /**
+    * Converts the rows to avro records along with their hoodie keys. Keys are generated straight out of the rows
+    * whenever the key generator supports it, and out of the converted records otherwise.
+    */
+  def createRddWithKeys(df: DataFrame, avroSchema: Schema, structName: String, recordNamespace: String,
+                        keyGenerator: KeyGenerator): RDD[(HoodieKey, GenericRecord)] = {
+    val dataType = SchemaConverters.toSqlType(avroSchema).dataType.asInstanceOf[StructType]
+    val avroSchemaAsJsonString = avroSchema.toString
+    val encoder = RowEncoder.apply(dataType).resolveAndBind()
+    val rowKeyGenerator = keyGenerator.getRowKeyGenerator(dataType)
+    df.queryExecution.toRdd.map(encoder.fromRow)
+      .mapPartitions { records =>
+        if (records.isEmpty) Iterator.empty
+        else {
+          val avroSchema = new Schema.Parser().parse(avroSchemaAsJsonString)
+          val convertor = AvroConversionHelper.createConverterToAvro(avroSchema, dataType, structName, recordNamespace)
+          records.map { x =>
+            val record = convertor(x).asInstanceOf[GenericRecord]
+            val key = if (rowKeyGenerator.isPresent) rowKeyGenerator.get.getKey(x) else keyGenerator.getKey(record)
+            (key, record)
+          }
+        }
+      }
+  }
+
   def createRddForDeletes(df: DataFrame, rowField: String, partitionField: String): RDD[HoodieKey] = {
     df.rdd.map(row => new HoodieKey(row.getAs[String](rowField), row.getAs[String](partitionField)))
   }
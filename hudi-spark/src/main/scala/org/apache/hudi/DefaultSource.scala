@@ -17,12 +17,16 @@
 
 package org.apache.hudi
 
+import org.apache.hadoop.fs.{FileStatus, FileSystem}
 import org.apache.hudi.DataSourceReadOptions._
+import org.apache.hudi.common.fs.FSUtils
+import org.apache.hudi.common.model.HoodieTableType
+import org.apache.hudi.common.table.HoodieTableMetaClient
 import org.apache.hudi.exception.HoodieException
 import org.apache.hudi.hadoop.HoodieROTablePathFilter
 import org.apache.log4j.LogManager
-import org.apache.spark.sql.execution.datasources.DataSource
-import org.apache.spark.sql.execution.datasources.SaveIntoDataSourceCommand
+import org.apache.spark.sql.execution.datasources.{DataSource, HadoopFsRelation, SaveIntoDataSourceCommand}
+import org.apache.spark.sql.execution.datasources.parquet.ParquetFileFormat
 import org.apache.spark.sql.execution.streaming.Sink
 import org.apache.spark.sql.sources._
 import org.apache.spark.sql.streaming.OutputMode
@@ -58,24 +62,41 @@ class DefaultSource extends RelationProvider
       throw new HoodieException("'path' must be specified.")
     }
 
-    if (parameters(QUERY_TYPE_OPT_KEY).equals(QUERY_TYPE_SNAPSHOT_OPT_VAL)) {
-      // this is just effectively RO view only, where `path` can contain a mix of
-      // non-hoodie/hoodie path files. set the path filter up
-      sqlContext.sparkContext.hadoopConfiguration.setClass(
-        "mapreduce.input.pathFilter.class",
-        classOf[HoodieROTablePathFilter],
-        classOf[org.apache.hadoop.fs.PathFilter])
+    val queryType = parameters(QUERY_TYPE_OPT_KEY)
+    if (queryType.equals(QUERY_TYPE_SNAPSHOT_OPT_VAL) || queryType.equals(QUERY_TYPE_READ_OPTIMIZED_OPT_VAL)) {
+      val fs = FSUtils.getFs(path.get, sqlContext.sparkContext.hadoopConfiguration)
+      val globStatuses = HoodieSparkUtils.globPathStatuses(Seq(path.get), fs)
+      val metaClient = getTableMetaClient(sqlContext, fs, globStatuses)
+      if (metaClient.isEmpty) {
+        // `path` contains non-hoodie path files, possibly mixed with hoodie path files. set the path filter up
+        sqlContext.sparkContext.hadoopConfiguration.setClass(
+          "mapreduce.input.pathFilter.class",
+          classOf[HoodieROTablePathFilter],
+          classOf[org.apache.hadoop.fs.PathFilter])
 
-      log.info("Constructing hoodie (as parquet) data source with options :" + parameters)
-      log.warn("Snapshot view not supported yet via data source, for MERGE_ON_READ tables. " +
-        "Please query the Hive table registered using Spark SQL.")
-      // simply return as a regular parquet relation
-      DataSource.apply(
-        sparkSession = sqlContext.sparkSession,
-        userSpecifiedSchema = Option(schema),
-        className = "parquet",
-        options = parameters)
-        .resolveRelation()
+        log.info("Constructing hoodie (as parquet) data source with options :" + parameters)
+        // simply return as a regular parquet relation
+        DataSource.apply(
+          sparkSession = sqlContext.sparkSession,
+          userSpecifiedSchema = Option(schema),
+          className = "parquet",
+          options = parameters)
+          .resolveRelation()
+      } else if (queryType.equals(QUERY_TYPE_SNAPSHOT_OPT_VAL)
+        && metaClient.get.getTableType == HoodieTableType.MERGE_ON_READ) {
+        log.info("Constructing hoodie merge on read snapshot relation with options :" + parameters)
+        val partitionPaths = HoodieSparkUtils.getPartitionPaths(fs, globStatuses)
+        new MergeOnReadSnapshotRelation(sqlContext, parameters, schema, partitionPaths, metaClient.get)
+      } else {
+        log.info("Constructing hoodie (as parquet) relation over the latest base files with options :" + parameters)
+        val fileIndex = new HoodieFileIndex(sqlContext.sparkSession, metaClient.get, globStatuses)
+        val fileFormat = new ParquetFileFormat()
+        val dataSchema = Option(schema)
+          .orElse(fileFormat.inferSchema(sqlContext.sparkSession, parameters, fileIndex.allFiles))
+          .getOrElse(throw new HoodieException("Unable to infer schema, no base files found in " + path.get))
+        HadoopFsRelation(fileIndex, fileIndex.partitionSchema, dataSchema, None, fileFormat, parameters)(
+          sqlContext.sparkSession)
+      }
     } else if (parameters(QUERY_TYPE_OPT_KEY).equals(QUERY_TYPE_INCREMENTAL_OPT_VAL)) {
       new IncrementalRelation(sqlContext, path.get, optParams, schema)
     } else {
@@ -83,6 +104,22 @@ class DefaultSource extends RelationProvider
     }
   }
 
+  /**
+    * Meta client of the table the matched paths are in. Paths outside of a single hoodie table are left to the
+    * parquet relation and the path filter.
+    */
+  private def getTableMetaClient(sqlContext: SQLContext,
+                                 fs: FileSystem,
+                                 globStatuses: Seq[FileStatus]): Option[HoodieTableMetaClient] = {
+    globStatuses.headOption
+      .flatMap(status => HoodieSparkUtils.getTablePath(fs, status.getPath))
+      .filter(tablePath => globStatuses.forall { status =>
+        status.getPath == tablePath || status.getPath.toString.startsWith(tablePath.toString + "/")
+      })
+      .map(tablePath => new HoodieTableMetaClient(sqlContext.sparkContext.hadoopConfiguration, tablePath.toString,
+        true))
+  }
+
   /**
     * This DataSource API is used for writing the DataFrame at the destination. For now, we are returning a dummy
     * relation here because Spark does not really make use of the relation returned, and just returns an empty
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi
+
+import org.apache.avro.Schema
+import org.apache.avro.generic.GenericRecord
+import org.apache.hudi.DataSourceWriteOptions._
+import org.apache.hudi.common.model.HoodieRecord
+import org.apache.hudi.keygen.KeyGenerator
+import org.apache.log4j.LogManager
+import org.apache.spark.sql.expressions.UserDefinedFunction
+import org.apache.spark.sql.functions.{col, lit, struct, udf}
+import org.apache.spark.sql.types._
+import org.apache.spark.sql.{Column, DataFrame, Row}
+
+/**
+  * Prepares a DataFrame to be bulk inserted as rows, by adding the hoodie meta columns with the record key and
+  * partition path computed on the rows, and lining the rows up by partition path and record key.
+  */
+private[hudi] object HoodieDatasetBulkInsertHelper {
+
+  private val log = LogManager.getLogger(getClass)
+
+  private val KEY_COLUMN = "_hoodie_key"
+
+  /**
+    * Returns the rows of the DataFrame in the hoodie write schema, range partitioned into `parallelism` partitions
+    * and sorted by partition path and record key within each of them.
+    */
+  def prepareForBulkInsert(df: DataFrame,
+                           parameters: Map[String, String],
+                           structName: String,
+                           nameSpace: String,
+                           parallelism: Int): DataFrame = {
+    val keyGenerator = DataSourceUtils.createKeyGenerator(HoodieSparkSqlWriter.toProperties(parameters))
+    val keyColumn = rowKeyColumn(df, keyGenerator, parameters).getOrElse {
+      log.info(s"Generating keys with ${keyGenerator.getClass.getName} on avro records converted from the rows")
+      val avroSchema = AvroConversionUtils.convertStructTypeToAvroSchema(df.schema, structName, nameSpace)
+      keyUdf(new AvroKeyFunction(keyGenerator, avroSchema.toString, df.schema, structName, nameSpace))(
+        struct(df.columns.map(c => df.col(s"`$c`")): _*))
+    }
+
+    val keyed = df.withColumn(KEY_COLUMN, keyColumn)
+    val metaColumns = Seq(
+      lit(null).cast(StringType).as(HoodieRecord.COMMIT_TIME_METADATA_FIELD),
+      lit(null).cast(StringType).as(HoodieRecord.COMMIT_SEQNO_METADATA_FIELD),
+      keyed.col(s"$KEY_COLUMN._1").as(HoodieRecord.RECORD_KEY_METADATA_FIELD),
+      keyed.col(s"$KEY_COLUMN._2").as(HoodieRecord.PARTITION_PATH_METADATA_FIELD),
+      lit(null).cast(StringType).as(HoodieRecord.FILENAME_METADATA_FIELD))
+    val rows = keyed.select(metaColumns ++ df.columns.map(c => keyed.col(s"`$c`")): _*)
+
+    // Same layout as bulk inserting records, see BulkInsertHelper
+    rows.repartitionByRange(parallelism, col(HoodieRecord.PARTITION_PATH_METADATA_FIELD),
+      col(HoodieRecord.RECORD_KEY_METADATA_FIELD))
+      .sortWithinPartitions(HoodieRecord.PARTITION_PATH_METADATA_FIELD, HoodieRecord.RECORD_KEY_METADATA_FIELD)
+  }
+
+  /**
+    * Marked non deterministic, so that the optimizer does not evaluate it once per key component.
+    */
+  private def keyUdf(f: Row => (String, String)): UserDefinedFunction = udf(f).asNondeterministic()
+
+  /**
+    * Column computing the key straight from the key fields, for the key generators able to generate keys out of
+    * rows. Only the top level columns holding the configured key fields are handed to the key generator.
+    */
+  private def rowKeyColumn(df: DataFrame,
+                           keyGenerator: KeyGenerator,
+                           parameters: Map[String, String]): Option[Column] = {
+    val keyFields = Seq(RECORDKEY_FIELD_OPT_KEY, PARTITIONPATH_FIELD_OPT_KEY)
+      .flatMap(key => parameters.get(key).toSeq.flatMap(_.split(",")))
+    val keyColumns = keyFields.map(_.trim.split("\\.").head).toSet
+    val keySchema = StructType(df.schema.filter(f => keyColumns.contains(f.name)))
+    val rowKeyGenerator = keyGenerator.getRowKeyGenerator(keySchema)
+    if (!rowKeyGenerator.isPresent) {
+      return None
+    }
+
+    val keyFunction: Row => (String, String) = row => {
+      val key = rowKeyGenerator.get.getKey(row)
+      (key.getRecordKey, key.getPartitionPath)
+    }
+    Some(keyUdf(keyFunction)(struct(keySchema.fieldNames.map(c => df.col(s"`$c`")): _*)))
+  }
+
+  /**
+    * Generates the key with an arbitrary key generator, on the avro record converted from the row.
+    */
+  private class AvroKeyFunction(keyGenerator: KeyGenerator,
+                                avroSchemaStr: String,
+                                dataType: StructType,
+                                structName: String,
+                                nameSpace: String) extends (Row => (String, String)) with Serializable {
+
+    @transient private lazy val converter = AvroConversionHelper.createConverterToAvro(
+      new Schema.Parser().parse(avroSchemaStr), dataType, structName, nameSpace)
+
+    override def apply(row: Row): (String, String) = {
+      val key = keyGenerator.getKey(converter(row).asInstanceOf[GenericRecord])
+      (key.getRecordKey, key.getPartitionPath)
+    }
+  }
+}
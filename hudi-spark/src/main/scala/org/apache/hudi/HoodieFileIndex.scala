@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi
+
+import org.apache.hadoop.fs.{FileStatus, Path}
+import org.apache.hudi.common.config.SerializableConfiguration
+import org.apache.hudi.common.fs.FSUtils
+import org.apache.hudi.common.model.HoodieRecord
+import org.apache.hudi.common.table.HoodieTableMetaClient
+import org.apache.hudi.common.table.view.HoodieTableFileSystemView
+import org.apache.log4j.LogManager
+import org.apache.spark.sql.SparkSession
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.{And, Expression, InterpretedPredicate, SubqueryExpression}
+import org.apache.spark.sql.execution.datasources.{FileIndex, PartitionDirectory}
+import org.apache.spark.sql.types.StructType
+import org.apache.spark.unsafe.types.UTF8String
+
+import scala.collection.JavaConversions._
+
+/**
+  * File index listing the latest base files of a hoodie table, in place of having spark list all the files and
+  * filter them one by one through [[org.apache.hudi.hadoop.HoodieROTablePathFilter]].
+  *
+  * The folders matched by the query paths are listed in parallel, and the latest base files of all of the partitions
+  * are computed at once, through a single file system view. Hoodie partitions are not exposed as partition columns,
+  * instead filters on the partition path meta column prune the partitions the query reads.
+  */
+class HoodieFileIndex(sparkSession: SparkSession,
+                      metaClient: HoodieTableMetaClient,
+                      globStatuses: Seq[FileStatus]) extends FileIndex {
+
+  private val log = LogManager.getLogger(classOf[HoodieFileIndex])
+
+  private val basePath = new Path(metaClient.getBasePath)
+
+  // latest base files, by relative partition path
+  @volatile private var cachedLatestBaseFiles: Map[String, Seq[FileStatus]] = _
+
+  override def rootPaths: Seq[Path] = globStatuses.map(_.getPath)
+
+  override def listFiles(partitionFilters: Seq[Expression], dataFilters: Seq[Expression]): Seq[PartitionDirectory] = {
+    val resolver = sparkSession.sessionState.conf.resolver
+    val partitionPathFilters = dataFilters.filter { filter =>
+      filter.deterministic && !SubqueryExpression.hasSubquery(filter) && filter.references.nonEmpty &&
+        filter.references.forall(ref => resolver(ref.name, HoodieRecord.PARTITION_PATH_METADATA_FIELD))
+    }
+    val selected = if (partitionPathFilters.isEmpty) {
+      latestBaseFiles
+    } else {
+      val inputSchema = partitionPathFilters.flatMap(_.references).distinct
+      val predicate = InterpretedPredicate.create(partitionPathFilters.reduce(And), inputSchema)
+      latestBaseFiles.filter { case (partitionPath, _) =>
+        predicate.eval(InternalRow.fromSeq(inputSchema.map(_ => UTF8String.fromString(partitionPath))))
+      }
+    }
+    log.info(s"Selected ${selected.size} partitions out of ${latestBaseFiles.size}")
+    Seq(PartitionDirectory(InternalRow.empty, selected.values.flatten.toSeq))
+  }
+
+  override def inputFiles: Array[String] = allFiles.map(_.getPath.toString).toArray
+
+  override def refresh(): Unit = {
+    cachedLatestBaseFiles = null
+  }
+
+  override def sizeInBytes: Long = allFiles.map(_.getLen).sum
+
+  override def partitionSchema: StructType = StructType(Nil)
+
+  def allFiles: Seq[FileStatus] = latestBaseFiles.values.flatten.toSeq
+
+  private def latestBaseFiles: Map[String, Seq[FileStatus]] = {
+    if (cachedLatestBaseFiles == null) {
+      cachedLatestBaseFiles = computeLatestBaseFiles()
+    }
+    cachedLatestBaseFiles
+  }
+
+  private def computeLatestBaseFiles(): Map[String, Seq[FileStatus]] = {
+    // files matched by the query paths come with their status already, only the matched folders need listing
+    val (folders, files) = globStatuses.partition(_.isDirectory)
+    val statuses = (files ++ HoodieFileIndex.listFiles(sparkSession, folders.map(_.getPath)))
+      .filter(s => !s.getPath.toUri.getPath.contains(s"/${HoodieTableMetaClient.METAFOLDER_NAME}/"))
+
+    val fsView = new HoodieTableFileSystemView(metaClient,
+      metaClient.getActiveTimeline.getCommitsTimeline.filterCompletedInstants, statuses.toArray)
+    val latestFiles = fsView.getLatestBaseFiles.iterator().toList
+      .map(_.getFileStatus)
+      .groupBy(s => FSUtils.getRelativePartitionPath(basePath, s.getPath.getParent))
+    log.info(s"Found ${latestFiles.values.map(_.size).sum} latest base files in ${latestFiles.size} partitions, " +
+      s"out of ${statuses.size} files")
+    latestFiles
+  }
+}
+
+object HoodieFileIndex {
+
+  /**
+    * Lists the files right under the given folders, through a spark job when there are more of them than spark
+    * lists on the driver when discovering partitions.
+    */
+  def listFiles(sparkSession: SparkSession, folders: Seq[Path]): Seq[FileStatus] = {
+    val sqlConf = sparkSession.sessionState.conf
+    val hadoopConf = sparkSession.sessionState.newHadoopConf()
+    if (folders.size <= sqlConf.parallelPartitionDiscoveryThreshold) {
+      folders.flatMap(folder => folder.getFileSystem(hadoopConf).listStatus(folder)).filter(_.isFile)
+    } else {
+      val serializableConf = new SerializableConfiguration(hadoopConf)
+      val parallelism = Math.min(folders.size, sqlConf.parallelPartitionDiscoveryParallelism)
+      // file statuses are not serializable, hence shipped back as their path, length and modification time
+      sparkSession.sparkContext.parallelize(folders.map(_.toString), parallelism)
+        .flatMap { folder =>
+          val path = new Path(folder)
+          path.getFileSystem(serializableConf.get).listStatus(path).filter(_.isFile)
+            .map(s => (s.getPath.toString, s.getLen, s.getModificationTime))
+        }
+        .collect()
+        .map { case (path, length, modificationTime) =>
+          new FileStatus(length, false, 0, 0, modificationTime, new Path(path))
+        }
+    }
+  }
+}
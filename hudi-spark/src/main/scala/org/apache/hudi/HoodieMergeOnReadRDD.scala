@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi
+
+import org.apache.avro.Schema
+import org.apache.avro.generic.GenericRecord
+import org.apache.hadoop.conf.Configuration
+import org.apache.hudi.common.fs.FSUtils
+import org.apache.hudi.common.model.HoodieRecord
+import org.apache.hudi.common.table.log.HoodieMergedLogRecordScanner
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType
+import org.apache.hudi.hadoop.realtime.AbstractRealtimeRecordReader._
+import org.apache.spark.rdd.RDD
+import org.apache.spark.sql.avro.{AvroDeserializer, AvroSerializer}
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.{BoundReference, UnsafeProjection}
+import org.apache.spark.sql.execution.datasources.PartitionedFile
+import org.apache.spark.sql.execution.datasources.parquet.ParquetFileFormat
+import org.apache.spark.sql.sources.Filter
+import org.apache.spark.sql.types.StructType
+import org.apache.spark.sql.vectorized.ColumnarBatch
+import org.apache.spark.sql.SQLContext
+import org.apache.spark.{Partition, SerializableWritable, SparkContext, TaskContext}
+
+import scala.collection.JavaConversions._
+import scala.collection.mutable
+
+case class HoodieMergeOnReadPartition(index: Int, split: HoodieMergeOnReadFileSplit) extends Partition
+
+/**
+  * Reads the file slices planned by [[MergeOnReadSnapshotRelation]], one per partition, into rows of the required
+  * schema of the query.
+  */
+class HoodieMergeOnReadRDD(@transient sc: SparkContext,
+                           @transient config: Configuration,
+                           fullSchemaFileReader: PartitionedFile => Iterator[Any],
+                           requiredSchemaFileReader: PartitionedFile => Iterator[Any],
+                           tableState: HoodieMergeOnReadTableState)
+  extends RDD[InternalRow](sc, Nil) {
+
+  private val confBroadcast = sc.broadcast(new SerializableWritable(config))
+
+  override def compute(split: Partition, context: TaskContext): Iterator[InternalRow] = {
+    val fileSplit = split.asInstanceOf[HoodieMergeOnReadPartition].split
+    (fileSplit.dataFile, fileSplit.logPaths) match {
+      case (Some(dataFile), None) =>
+        // nothing to merge, the rows come straight off the parquet reader
+        read(dataFile, requiredSchemaFileReader)
+      case (None, Some(_)) =>
+        logFileIterator(fileSplit)
+      case (Some(dataFile), Some(_)) =>
+        mergedFileIterator(fileSplit, read(dataFile, fullSchemaFileReader))
+      case _ =>
+        Iterator.empty
+    }
+  }
+
+  override protected def getPartitions: Array[Partition] = {
+    tableState.fileSplits.zipWithIndex.map { case (fileSplit, index) =>
+      HoodieMergeOnReadPartition(index, fileSplit).asInstanceOf[Partition]
+    }.toArray
+  }
+
+  /**
+    * Rows of the parquet file, flattening the column batches the vectorized reader returns.
+    */
+  private def read(dataFile: PartitionedFile, fileReader: PartitionedFile => Iterator[Any]): Iterator[InternalRow] = {
+    fileReader(dataFile).flatMap {
+      case batch: ColumnarBatch => batch.rowIterator().toIterator
+      case row: InternalRow => Iterator.single(row)
+    }
+  }
+
+  private def scanLog(fileSplit: HoodieMergeOnReadFileSplit, logSchema: Schema): HoodieMergedLogRecordScanner = {
+    val conf = confBroadcast.value.value
+    val scanner = new HoodieMergedLogRecordScanner(
+      FSUtils.getFs(fileSplit.tablePath, conf),
+      fileSplit.tablePath,
+      fileSplit.logPaths.get,
+      logSchema,
+      fileSplit.latestCommit,
+      fileSplit.maxCompactionMemoryInBytes,
+      conf.get(COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP, DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED).toBoolean,
+      false,
+      conf.getInt(MAX_DFS_STREAM_BUFFER_SIZE_PROP, DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE),
+      conf.get(SPILLABLE_MAP_BASE_PATH_PROP, DEFAULT_SPILLABLE_MAP_BASE_PATH),
+      DiskMapType.DISK_BASED,
+      conf.getInt(LOG_PREFETCH_THREADS_PROP, DEFAULT_LOG_PREFETCH_THREADS))
+    // release the merged records along with their spill file once the task is done
+    Option(TaskContext.get()).foreach(_.addTaskCompletionListener[Unit](_ => scanner.close()))
+    scanner
+  }
+
+  /**
+    * Projection of the rows in the table schema, to the required schema of the query.
+    */
+  private def requiredProjection(): UnsafeProjection = {
+    val tableSchema = tableState.tableStructSchema
+    UnsafeProjection.create(tableState.requiredStructSchema.map { field =>
+      val pos = tableSchema.fieldIndex(field.name)
+      BoundReference(pos, tableSchema(pos).dataType, tableSchema(pos).nullable)
+    })
+  }
+
+  /**
+    * Rows of the records in the log files of a file slice without base file.
+    */
+  private def logFileIterator(fileSplit: HoodieMergeOnReadFileSplit): Iterator[InternalRow] = {
+    val tableAvroSchema = new Schema.Parser().parse(tableState.tableAvroSchema)
+    val deserializer = new AvroDeserializer(tableAvroSchema, tableState.tableStructSchema)
+    val projection = requiredProjection()
+    scanLog(fileSplit, tableAvroSchema).iterator()
+      .map(record => record.getData.getInsertValue(tableAvroSchema))
+      // delete records have no value
+      .filter(_.isPresent)
+      .map(value => projection(deserializer.deserialize(value.get).asInstanceOf[InternalRow]))
+  }
+
+  /**
+    * Rows of the base file merged with the records of the log files, followed by the rows of the log records with
+    * keys absent from the base file.
+    */
+  private def mergedFileIterator(fileSplit: HoodieMergeOnReadFileSplit,
+                                 baseFileIterator: Iterator[InternalRow]): Iterator[InternalRow] =
+    new Iterator[InternalRow] {
+      private val tableAvroSchema = new Schema.Parser().parse(tableState.tableAvroSchema)
+      private val recordKeyPos = tableState.tableStructSchema.fieldIndex(HoodieRecord.RECORD_KEY_METADATA_FIELD)
+      private val serializer = new AvroSerializer(tableState.tableStructSchema, tableAvroSchema, false)
+      private val deserializer = new AvroDeserializer(tableAvroSchema, tableState.tableStructSchema)
+      private val projection = requiredProjection()
+      private val logScanner = scanLog(fileSplit, tableAvroSchema)
+      private val logRecords = logScanner.getRecords
+      private val mergedKeys = mutable.HashSet.empty[String]
+      // streams the records spilled to disk, instead of loading them back as the entries of the map would
+      private lazy val logRecordsIterator = logScanner.iterator()
+      private var nextRow: InternalRow = _
+
+      override def hasNext: Boolean = {
+        while (nextRow == null && (baseFileIterator.hasNext || logRecordsIterator.hasNext)) {
+          nextRow = if (baseFileIterator.hasNext) mergeNext() else insertNext()
+        }
+        nextRow != null
+      }
+
+      override def next(): InternalRow = {
+        if (!hasNext) {
+          throw new NoSuchElementException()
+        }
+        val row = nextRow
+        nextRow = null
+        row
+      }
+
+      /**
+        * Next base file row, merged with its log record if any. Null when the log record deletes it.
+        */
+      private def mergeNext(): InternalRow = {
+        val baseRow = baseFileIterator.next()
+        val key = baseRow.getUTF8String(recordKeyPos).toString
+        val logRecord = logRecords.get(key)
+        if (logRecord == null) {
+          projection(baseRow)
+        } else {
+          mergedKeys.add(key)
+          val baseRecord = serializer.serialize(baseRow).asInstanceOf[GenericRecord]
+          val merged = logRecord.getData.combineAndGetUpdateValue(baseRecord, tableAvroSchema)
+          if (merged.isPresent) projection(deserializer.deserialize(merged.get).asInstanceOf[InternalRow]) else null
+        }
+      }
+
+      /**
+        * Next log record not merged into a base file row. Null when it was merged, or deletes a record.
+        */
+      private def insertNext(): InternalRow = {
+        val logRecord = logRecordsIterator.next()
+        if (mergedKeys.contains(logRecord.getRecordKey)) {
+          null
+        } else {
+          val inserted = logRecord.getData.getInsertValue(tableAvroSchema)
+          if (inserted.isPresent) projection(deserializer.deserialize(inserted.get).asInstanceOf[InternalRow]) else null
+        }
+      }
+    }
+}
+
+object HoodieMergeOnReadRDD {
+
+  /**
+    * Parquet reader of the base files, reading the required columns of the table and skipping the row groups that
+    * the filters rule out based on their column statistics.
+    */
+  def buildParquetReader(sqlContext: SQLContext,
+                         tableStructSchema: StructType,
+                         requiredStructSchema: StructType,
+                         filters: Seq[Filter],
+                         options: Map[String, String]): PartitionedFile => Iterator[InternalRow] = {
+    new ParquetFileFormat().buildReaderWithPartitionValues(
+      sparkSession = sqlContext.sparkSession,
+      dataSchema = tableStructSchema,
+      partitionSchema = StructType(Nil),
+      requiredSchema = requiredStructSchema,
+      filters = filters,
+      options = options,
+      hadoopConf = sqlContext.sparkSession.sessionState.newHadoopConf())
+  }
+}
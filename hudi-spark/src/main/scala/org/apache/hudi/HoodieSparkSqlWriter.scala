@@ -27,7 +27,7 @@ import org.apache.hudi.DataSourceWriteOptions._
 import org.apache.hudi.client.{HoodieWriteClient, WriteStatus}
 import org.apache.hudi.common.config.TypedProperties
 import org.apache.hudi.common.fs.FSUtils
-import org.apache.hudi.common.model.HoodieRecordPayload
+import org.apache.hudi.common.model.{HoodieKey, HoodieRecordPayload}
 import org.apache.hudi.common.table.HoodieTableMetaClient
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline
 import org.apache.hudi.config.HoodieWriteConfig
@@ -104,13 +104,14 @@ private[hudi] object HoodieSparkSqlWriter {
 
       // Convert to RDD[HoodieRecord]
       val keyGenerator = DataSourceUtils.createKeyGenerator(toProperties(parameters))
-      val genericRecords: RDD[GenericRecord] = AvroConversionUtils.createRdd(df, structName, nameSpace)
-      val hoodieAllIncomingRecords = genericRecords.map(gr => {
+      val keyedRecords: RDD[(HoodieKey, GenericRecord)] =
+        AvroConversionUtils.createRddWithKeys(df, schema, structName, nameSpace, keyGenerator)
+      val hoodieAllIncomingRecords = keyedRecords.map { case (key, gr) =>
         val orderingVal = DataSourceUtils.getNestedFieldValAsString(
           gr, parameters(PRECOMBINE_FIELD_OPT_KEY), false).asInstanceOf[Comparable[_]]
         DataSourceUtils.createHoodieRecord(gr,
-          orderingVal, keyGenerator.getKey(gr), parameters(PAYLOAD_CLASS_OPT_KEY))
-      }).toJavaRDD()
+          orderingVal, key, parameters(PAYLOAD_CLASS_OPT_KEY))
+      }.toJavaRDD()
 
       // Handle various save modes
       if (mode == SaveMode.ErrorIfExists && exists) {
@@ -137,20 +138,36 @@ private[hudi] object HoodieSparkSqlWriter {
         mapAsJavaMap(parameters)
       )
 
-      val hoodieRecords =
-        if (parameters(INSERT_DROP_DUPS_OPT_KEY).toBoolean) {
-          DataSourceUtils.dropDuplicates(jsc, hoodieAllIncomingRecords, mapAsJavaMap(parameters))
-        } else {
-          hoodieAllIncomingRecords
-        }
+      val rowWriterEnabled = operation == BULK_INSERT_OPERATION_OPT_VAL && parameters(ENABLE_ROW_WRITER_OPT_KEY).toBoolean
+      if (rowWriterEnabled && parameters(INSERT_DROP_DUPS_OPT_KEY).toBoolean) {
+        log.warn(s"$ENABLE_ROW_WRITER_OPT_KEY is not applicable when $INSERT_DROP_DUPS_OPT_KEY is set to be true, " +
+          s"writing records instead of rows")
+      }
 
-      if (hoodieRecords.isEmpty()) {
-        log.info("new batch has no new records, skipping...")
-        (true, common.util.Option.empty())
+      if (rowWriterEnabled && !parameters(INSERT_DROP_DUPS_OPT_KEY).toBoolean) {
+        // Write the rows as they are, skipping the conversion into HoodieRecords
+        val sortedRows = HoodieDatasetBulkInsertHelper.prepareForBulkInsert(df, parameters, structName, nameSpace,
+          client.getConfig.getBulkInsertShuffleParallelism)
+        client.startCommitWithTime(instantTime)
+        val writeStatuses = client.bulkInsertRows(sortedRows.queryExecution.toRdd.toJavaRDD(), sortedRows.schema,
+          instantTime)
+        (writeStatuses, client)
+      } else {
+        val hoodieRecords =
+          if (parameters(INSERT_DROP_DUPS_OPT_KEY).toBoolean) {
+            DataSourceUtils.dropDuplicates(jsc, hoodieAllIncomingRecords, mapAsJavaMap(parameters))
+          } else {
+            hoodieAllIncomingRecords
+          }
+
+        if (hoodieRecords.isEmpty()) {
+          log.info("new batch has no new records, skipping...")
+          (true, common.util.Option.empty())
+        }
+        client.startCommitWithTime(instantTime)
+        val writeStatuses = DataSourceUtils.doWriteOperation(client, hoodieRecords, instantTime, operation)
+        (writeStatuses, client)
       }
-      client.startCommitWithTime(instantTime)
-      val writeStatuses = DataSourceUtils.doWriteOperation(client, hoodieRecords, instantTime, operation)
-      (writeStatuses, client)
     } else {
 
       // Handle save modes
@@ -166,8 +183,14 @@ private[hudi] object HoodieSparkSqlWriter {
 
       // Convert to RDD[HoodieKey]
       val keyGenerator = DataSourceUtils.createKeyGenerator(toProperties(parameters))
-      val genericRecords: RDD[GenericRecord] = AvroConversionUtils.createRdd(df, structName, nameSpace)
-      val hoodieKeysToDelete = genericRecords.map(gr => keyGenerator.getKey(gr)).toJavaRDD()
+      val rowKeyGenerator = keyGenerator.getRowKeyGenerator(df.schema)
+      val hoodieKeysToDelete = if (rowKeyGenerator.isPresent) {
+        // keys are all that is needed, no need to convert the rows to avro records
+        df.rdd.map(row => rowKeyGenerator.get.getKey(row)).toJavaRDD()
+      } else {
+        val genericRecords: RDD[GenericRecord] = AvroConversionUtils.createRdd(df, structName, nameSpace)
+        genericRecords.map(gr => keyGenerator.getKey(gr)).toJavaRDD()
+      }
 
       if (!exists) {
         throw new HoodieException(s"hoodie table at $basePath does not exist")
@@ -206,6 +229,7 @@ private[hudi] object HoodieSparkSqlWriter {
       KEYGENERATOR_CLASS_OPT_KEY -> DEFAULT_KEYGENERATOR_CLASS_OPT_VAL,
       COMMIT_METADATA_KEYPREFIX_OPT_KEY -> DEFAULT_COMMIT_METADATA_KEYPREFIX_OPT_VAL,
       INSERT_DROP_DUPS_OPT_KEY -> DEFAULT_INSERT_DROP_DUPS_OPT_VAL,
+      ENABLE_ROW_WRITER_OPT_KEY -> DEFAULT_ENABLE_ROW_WRITER_OPT_VAL,
       STREAMING_RETRY_CNT_OPT_KEY -> DEFAULT_STREAMING_RETRY_CNT_OPT_VAL,
       STREAMING_RETRY_INTERVAL_MS_OPT_KEY -> DEFAULT_STREAMING_RETRY_INTERVAL_MS_OPT_VAL,
       STREAMING_IGNORE_FAILED_BATCH_OPT_KEY -> DEFAULT_STREAMING_IGNORE_FAILED_BATCH_OPT_VAL,
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi
+
+import org.apache.hadoop.fs.{FileStatus, FileSystem, Path}
+import org.apache.hadoop.mapred.JobConf
+import org.apache.hudi.common.model.HoodiePartitionMetadata
+import org.apache.hudi.common.table.HoodieTableMetaClient
+import org.apache.hudi.hadoop.realtime.AbstractRealtimeRecordReader._
+
+/**
+  * Helpers resolving the paths handed to the datasource into hoodie tables and partitions.
+  */
+object HoodieSparkUtils {
+
+  /**
+    * Expands the glob patterns in the given paths, to the statuses of the files and folders they match.
+    */
+  def globPathStatuses(paths: Seq[String], fs: FileSystem): Seq[FileStatus] = {
+    paths.flatMap { path =>
+      val qualified = fs.makeQualified(new Path(path))
+      Option(fs.globStatus(qualified)).map(_.toSeq).getOrElse(Seq.empty)
+    }
+  }
+
+  /**
+    * Base path of the hoodie table the given path belongs to, i.e. the closest ancestor holding the meta folder.
+    */
+  def getTablePath(fs: FileSystem, path: Path): Option[Path] = {
+    var current = path
+    while (current != null) {
+      if (fs.exists(new Path(current, HoodieTableMetaClient.METAFOLDER_NAME))) {
+        return Some(current)
+      }
+      current = current.getParent
+    }
+    None
+  }
+
+  /**
+    * Partitions the matched files and folders belong to. Files stand for the partition holding them, folders for
+    * themselves, and only folders carrying the hoodie partition metadata are kept.
+    */
+  def getPartitionPaths(fs: FileSystem, statuses: Seq[FileStatus]): Seq[Path] = {
+    statuses.map(s => if (s.isDirectory) s.getPath else s.getPath.getParent)
+      .distinct
+      .filter(p => !p.toUri.getPath.contains(s"/${HoodieTableMetaClient.METAFOLDER_NAME}"))
+      .filter(p => HoodiePartitionMetadata.hasPartitionMetadata(fs, p))
+  }
+
+  /**
+    * Memory for merging the log records of a file slice, the same budget as the realtime record reader of hive.
+    */
+  def getMaxCompactionMemoryInBytes(jobConf: JobConf): Long = {
+    // jobConf.getMemoryForMapTask() returns in MB
+    math.ceil(jobConf.get(COMPACTION_MEMORY_FRACTION_PROP, DEFAULT_COMPACTION_MEMORY_FRACTION).toDouble
+      * jobConf.getMemoryForMapTask * 1024 * 1024L).toLong
+  }
+}
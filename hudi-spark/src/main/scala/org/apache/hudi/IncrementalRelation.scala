@@ -19,44 +19,45 @@ package org.apache.hudi
 
 import org.apache.hadoop.fs.GlobPattern
 import org.apache.hadoop.fs.Path
-import org.apache.hudi.common.model.{HoodieCommitMetadata, HoodieRecord, HoodieTableType}
-import org.apache.hudi.common.table.HoodieTableMetaClient
-import org.apache.hudi.common.util.ParquetUtils
-import org.apache.hudi.config.HoodieWriteConfig
+import org.apache.hadoop.mapred.JobConf
+import org.apache.hudi.common.fs.FSUtils
+import org.apache.hudi.common.model.{HoodieCommitMetadata, HoodieLogFile, HoodieRecord}
+import org.apache.hudi.common.model.{HoodieTableType, HoodieWriteStat}
+import org.apache.hudi.common.table.{HoodieTableMetaClient, TableSchemaResolver}
+import org.apache.hudi.common.table.view.HoodieTableFileSystemView
 import org.apache.hudi.exception.HoodieException
-import org.apache.hudi.table.HoodieTable
 import org.apache.log4j.LogManager
 import org.apache.spark.rdd.RDD
-import org.apache.spark.sql.sources.{BaseRelation, TableScan}
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.{BoundReference, UnsafeProjection}
+import org.apache.spark.sql.execution.datasources.PartitionedFile
+import org.apache.spark.sql.functions.col
+import org.apache.spark.sql.sources.{BaseRelation, Filter, GreaterThanOrEqual, LessThanOrEqual, PrunedFilteredScan}
 import org.apache.spark.sql.types.StructType
 import org.apache.spark.sql.{Row, SQLContext}
+import org.apache.spark.unsafe.types.UTF8String
 
 import scala.collection.JavaConversions._
-import scala.collection.mutable
 
 /**
   * Relation, that implements the Hoodie incremental view.
   *
-  * Implemented for Copy_on_write storage.
-  *
+  * The commit metadata of the instants in range is loaded in parallel, to find the file groups written in the range.
+  * Only the latest version of each of these file groups is read, with the commit time range pushed down into the
+  * parquet reader, so that the row groups without records committed in range are skipped based on their column
+  * statistics. File groups of merge-on-read tables are read merged with their log files, as of the end of the range.
   */
 class IncrementalRelation(val sqlContext: SQLContext,
                           val basePath: String,
                           val optParams: Map[String, String],
-                          val userSchema: StructType) extends BaseRelation with TableScan {
+                          val userSchema: StructType) extends BaseRelation with PrunedFilteredScan {
 
   private val log = LogManager.getLogger(classOf[IncrementalRelation])
 
   val fs = new Path(basePath).getFileSystem(sqlContext.sparkContext.hadoopConfiguration)
   val metaClient = new HoodieTableMetaClient(sqlContext.sparkContext.hadoopConfiguration, basePath, true)
-  // MOR tables not supported yet
-  if (metaClient.getTableType.equals(HoodieTableType.MERGE_ON_READ)) {
-    throw new HoodieException("Incremental view not implemented yet, for merge-on-read tables")
-  }
-  // TODO : Figure out a valid HoodieWriteConfig
-  private val hoodieTable = HoodieTable.create(metaClient, HoodieWriteConfig.newBuilder().withPath(basePath).build(),
-    sqlContext.sparkContext.hadoopConfiguration)
-  val commitTimeline = hoodieTable.getMetaClient.getCommitTimeline.filterCompletedInstants()
+  // commits and delta commits, depending on the table type
+  val commitTimeline = metaClient.getCommitsTimeline.filterCompletedInstants()
   if (commitTimeline.empty()) {
     throw new HoodieException("No instants to incrementally pull")
   }
@@ -72,16 +73,9 @@ class IncrementalRelation(val sqlContext: SQLContext,
     optParams.getOrElse(DataSourceReadOptions.END_INSTANTTIME_OPT_KEY, lastInstant.getTimestamp))
     .getInstants.iterator().toList
 
-  // use schema from a file produced in the latest instant
-  val latestSchema = {
-    // use last instant if instant range is empty
-    val instant = commitsToReturn.lastOption.getOrElse(lastInstant)
-    val latestMeta = HoodieCommitMetadata
-          .fromBytes(commitTimeline.getInstantDetails(instant).get, classOf[HoodieCommitMetadata])
-    val metaFilePath = latestMeta.getFileIdAndFullPaths(basePath).values().iterator().next()
-    AvroConversionUtils.convertAvroSchemaToStructType(ParquetUtils.readAvroSchema(
-      sqlContext.sparkContext.hadoopConfiguration, new Path(metaFilePath)))
-  }
+  // use schema from the latest commit metadata, falling back to the schema of the data files
+  private val tableAvroSchema = new TableSchemaResolver(metaClient).getTableAvroSchema
+  private val tableStructSchema = AvroConversionUtils.convertAvroSchemaToStructType(tableAvroSchema)
 
   val filters = {
     if (optParams.contains(DataSourceReadOptions.PUSH_DOWN_INCR_FILTERS_OPT_KEY)) {
@@ -94,39 +88,152 @@ class IncrementalRelation(val sqlContext: SQLContext,
     }
   }
 
-  override def schema: StructType = latestSchema
+  override def schema: StructType = tableStructSchema
+
+  override def needConversion: Boolean = false
 
-  override def buildScan(): RDD[Row] = {
-    val fileIdToFullPath = mutable.HashMap[String, String]()
-    for (commit <- commitsToReturn) {
-      val metadata: HoodieCommitMetadata = HoodieCommitMetadata.fromBytes(commitTimeline.getInstantDetails(commit)
-        .get, classOf[HoodieCommitMetadata])
-      fileIdToFullPath ++= metadata.getFileIdAndFullPaths(basePath).toMap
+  override def buildScan(requiredColumns: Array[String], pushedFilters: Array[Filter]): RDD[Row] = {
+    if (filters.isEmpty) {
+      scan(requiredColumns, pushedFilters)
+    } else {
+      // the additional filters are expressions, handed to spark on top of this relation to be pushed down along
+      // with the filters of the query
+      log.info("Additional Filters to be applied to incremental source are :" + filters.mkString(","))
+      val unfiltered = sqlContext.baseRelationToDataFrame(new UnfilteredRelation)
+      filters.foldLeft(unfiltered)((df, f) => df.filter(f))
+        .select(requiredColumns.map(c => col(s"`$c`")): _*)
+        .queryExecution.toRdd.asInstanceOf[RDD[Row]]
     }
+  }
+
+  /**
+    * Same relation, without the additional filters.
+    */
+  private class UnfilteredRelation extends BaseRelation with PrunedFilteredScan {
+
+    override def sqlContext: SQLContext = IncrementalRelation.this.sqlContext
+
+    override def schema: StructType = IncrementalRelation.this.schema
+
+    override def needConversion: Boolean = false
+
+    override def buildScan(requiredColumns: Array[String], pushedFilters: Array[Filter]): RDD[Row] =
+      scan(requiredColumns, pushedFilters)
+  }
+
+  private def scan(requiredColumns: Array[String], pushedFilters: Array[Filter]): RDD[Row] = {
+    val fileSplits = buildFileSplits()
+    if (fileSplits.isEmpty) {
+      return sqlContext.sparkContext.emptyRDD[Row]
+    }
+    val beginInstantTime = commitsToReturn.head.getTimestamp
+    val endInstantTime = commitsToReturn.last.getTimestamp
+
+    // the commit time is read along with the required columns, to keep the records committed in range only
+    val requiredStructSchema = StructType(requiredColumns.map(tableStructSchema(_)))
+    val scanStructSchema = if (requiredColumns.contains(HoodieRecord.COMMIT_TIME_METADATA_FIELD)) {
+      requiredStructSchema
+    } else {
+      requiredStructSchema.add(tableStructSchema(HoodieRecord.COMMIT_TIME_METADATA_FIELD))
+    }
+    val commitTimeRangeFilters = Seq(
+      GreaterThanOrEqual(HoodieRecord.COMMIT_TIME_METADATA_FIELD, beginInstantTime),
+      LessThanOrEqual(HoodieRecord.COMMIT_TIME_METADATA_FIELD, endInstantTime))
+
+    val tableState = HoodieMergeOnReadTableState(tableStructSchema, scanStructSchema, tableAvroSchema.toString,
+      fileSplits)
+    val fullSchemaParquetReader = HoodieMergeOnReadRDD.buildParquetReader(sqlContext, tableStructSchema,
+      tableStructSchema, Seq.empty, optParams)
+    val requiredSchemaParquetReader = HoodieMergeOnReadRDD.buildParquetReader(sqlContext, tableStructSchema,
+      scanStructSchema, pushedFilters ++ commitTimeRangeFilters, optParams)
+    val rdd = new HoodieMergeOnReadRDD(sqlContext.sparkContext,
+      new JobConf(sqlContext.sparkContext.hadoopConfiguration), fullSchemaParquetReader,
+      requiredSchemaParquetReader, tableState)
+
+    // row groups are only skipped as a whole, hence the range is checked again on the records
+    val commitTimePos = scanStructSchema.fieldIndex(HoodieRecord.COMMIT_TIME_METADATA_FIELD)
+    val requiredFields = requiredStructSchema.map(f => BoundReference(scanStructSchema.fieldIndex(f.name),
+      f.dataType, f.nullable))
+    rdd.mapPartitions { rows =>
+      val begin = UTF8String.fromString(beginInstantTime)
+      val end = UTF8String.fromString(endInstantTime)
+      val projection = UnsafeProjection.create(requiredFields)
+      rows.filter { row =>
+        val commitTime = row.getUTF8String(commitTimePos)
+        commitTime.compareTo(begin) >= 0 && commitTime.compareTo(end) <= 0
+      }.map(projection)
+    }.asInstanceOf[RDD[Row]]
+  }
+
+  private def buildFileSplits(): List[HoodieMergeOnReadFileSplit] = {
+    // commit metadata is deserialized in parallel, it dominates planning on wide ranges
+    val writeStats = commitsToReturn.par.flatMap { instant =>
+      val metadata = HoodieCommitMetadata.fromBytes(commitTimeline.getInstantDetails(instant).get,
+        classOf[HoodieCommitMetadata])
+      metadata.getPartitionToWriteStats.values()
+        .flatMap(stats => stats.filter(_.getPath != null).map(stat => (instant, stat)))
+    }.seq
     val pathGlobPattern = optParams.getOrElse(
       DataSourceReadOptions.INCR_PATH_GLOB_OPT_KEY,
       DataSourceReadOptions.DEFAULT_INCR_PATH_GLOB_OPT_VAL)
-    val filteredFullPath = if(!pathGlobPattern.equals(DataSourceReadOptions.DEFAULT_INCR_PATH_GLOB_OPT_VAL)) {
+    val filteredWriteStats = if (!pathGlobPattern.equals(DataSourceReadOptions.DEFAULT_INCR_PATH_GLOB_OPT_VAL)) {
       val globMatcher = new GlobPattern("*" + pathGlobPattern)
-      fileIdToFullPath.filter(p => globMatcher.matches(p._2))
+      writeStats.filter { case (_, stat) =>
+        globMatcher.matches(FSUtils.getPartitionPath(basePath, stat.getPath).toString)
+      }
     } else {
-      fileIdToFullPath
+      writeStats
+    }
+    if (filteredWriteStats.isEmpty) {
+      return List.empty
     }
-    // unset the path filter, otherwise if end_instant_time is not the latest instant, path filter set for RO view
-    // will filter out all the files incorrectly.
-    sqlContext.sparkContext.hadoopConfiguration.unset("mapreduce.input.pathFilter.class")
-    val sOpts = optParams.filter(p => !p._1.equalsIgnoreCase("path"))
-    if (filteredFullPath.isEmpty) {
-      sqlContext.sparkContext.emptyRDD[Row]
+
+    val maxCompactionMemoryInBytes = HoodieSparkUtils.getMaxCompactionMemoryInBytes(
+      new JobConf(sqlContext.sparkContext.hadoopConfiguration))
+    val endInstantTime = commitsToReturn.last.getTimestamp
+    if (metaClient.getTableType == HoodieTableType.MERGE_ON_READ) {
+      buildMergeOnReadFileSplits(filteredWriteStats.map(_._2), endInstantTime, maxCompactionMemoryInBytes)
     } else {
-      log.info("Additional Filters to be applied to incremental source are :" + filters)
-      filters.foldLeft(sqlContext.read.options(sOpts)
-        .schema(latestSchema)
-        .parquet(filteredFullPath.values.toList: _*)
-        .filter(String.format("%s >= '%s'", HoodieRecord.COMMIT_TIME_METADATA_FIELD, commitsToReturn.head.getTimestamp))
-        .filter(String.format("%s <= '%s'",
-          HoodieRecord.COMMIT_TIME_METADATA_FIELD, commitsToReturn.last.getTimestamp)))((e, f) => e.filter(f))
-        .toDF().rdd
+      // the latest version of each file group in range holds all of its records committed in range
+      filteredWriteStats.groupBy(_._2.getFileId).values
+        .map(_.maxBy(_._1.getTimestamp)._2)
+        .map { stat =>
+          val path = FSUtils.getPartitionPath(basePath, stat.getPath)
+          val length = if (stat.getFileSizeInBytes > 0) stat.getFileSizeInBytes else fs.getFileStatus(path).getLen
+          HoodieMergeOnReadFileSplit(Some(PartitionedFile(InternalRow.empty, path.toString, 0, length)), None,
+            endInstantTime, basePath, maxCompactionMemoryInBytes)
+        }.toList
     }
   }
+
+  /**
+    * File slices of the file groups written in range, as of the end of the range.
+    */
+  private def buildMergeOnReadFileSplits(writeStats: Seq[HoodieWriteStat],
+                                         endInstantTime: String,
+                                         maxCompactionMemoryInBytes: Long): List[HoodieMergeOnReadFileSplit] = {
+    val fileIdsByPartition = writeStats.groupBy(_.getPartitionPath).mapValues(_.map(_.getFileId).toSet)
+    val partitionPaths = fileIdsByPartition.keys.map(FSUtils.getPartitionPath(basePath, _)).toSeq
+    val statuses = HoodieFileIndex.listFiles(sqlContext.sparkSession, partitionPaths)
+    // only completed instants, so that files of inflight writes are left out of the slices
+    val fsView = new HoodieTableFileSystemView(metaClient,
+      metaClient.getCommitsAndCompactionTimeline.filterCompletedAndCompactionInstants, statuses.toArray)
+    fileIdsByPartition.flatMap { case (partitionPath, fileIds) =>
+      fsView.getLatestMergedFileSlicesBeforeOrOn(partitionPath, endInstantTime).iterator().toList
+        .filter(fileSlice => fileIds.contains(fileSlice.getFileId))
+        .map { fileSlice =>
+          val dataFile = if (fileSlice.getBaseFile.isPresent) {
+            val baseFile = fileSlice.getBaseFile.get
+            Some(PartitionedFile(InternalRow.empty, baseFile.getPath, 0, baseFile.getFileSize))
+          } else {
+            None
+          }
+          val logPaths = fileSlice.getLogFiles.sorted(HoodieLogFile.getLogFileComparator)
+            .iterator().toList.map(_.getPath.toString)
+          // log blocks written after the end of the range are left out by the scanner
+          HoodieMergeOnReadFileSplit(dataFile, if (logPaths.isEmpty) None else Some(logPaths), endInstantTime,
+            basePath, maxCompactionMemoryInBytes)
+        }
+    }.toList
+  }
 }
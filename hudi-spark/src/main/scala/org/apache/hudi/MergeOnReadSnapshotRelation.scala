@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi
+
+import org.apache.hadoop.fs.Path
+import org.apache.hadoop.mapred.JobConf
+import org.apache.hudi.common.fs.FSUtils
+import org.apache.hudi.common.model.HoodieLogFile
+import org.apache.hudi.common.table.timeline.HoodieTimeline
+import org.apache.hudi.common.table.view.HoodieTableFileSystemView
+import org.apache.hudi.common.table.{HoodieTableMetaClient, TableSchemaResolver}
+import org.apache.hudi.common.util.CollectionUtils
+import org.apache.log4j.LogManager
+import org.apache.spark.rdd.RDD
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.execution.datasources.PartitionedFile
+import org.apache.spark.sql.sources.{BaseRelation, Filter, PrunedFilteredScan}
+import org.apache.spark.sql.types.StructType
+import org.apache.spark.sql.{Row, SQLContext}
+
+import scala.collection.JavaConversions._
+
+/**
+  * File slice to be read by a task: the base file if any, and the log files to merge on top of it if any.
+  */
+case class HoodieMergeOnReadFileSplit(dataFile: Option[PartitionedFile],
+                                      logPaths: Option[List[String]],
+                                      latestCommit: String,
+                                      tablePath: String,
+                                      maxCompactionMemoryInBytes: Long)
+
+/**
+  * Everything the tasks need to know about the table and the query, besides the parquet readers.
+  */
+case class HoodieMergeOnReadTableState(tableStructSchema: StructType,
+                                       requiredStructSchema: StructType,
+                                       tableAvroSchema: String,
+                                       fileSplits: List[HoodieMergeOnReadFileSplit])
+
+/**
+  * Relation, that implements the Hoodie snapshot view of merge-on-read tables.
+  *
+  * The latest file slices of the partitions are planned on the driver, and each of them is read by a task merging
+  * the records of the base file with the records of the log files. Columns are pruned and filters pushed down into
+  * the parquet reader of the base files, and slices without log files are read straight off (vectorized) parquet.
+  */
+class MergeOnReadSnapshotRelation(val sqlContext: SQLContext,
+                                  val optParams: Map[String, String],
+                                  val userSchema: StructType,
+                                  val partitionPaths: Seq[Path],
+                                  val metaClient: HoodieTableMetaClient)
+  extends BaseRelation with PrunedFilteredScan {
+
+  private val log = LogManager.getLogger(classOf[MergeOnReadSnapshotRelation])
+
+  private val jobConf = new JobConf(sqlContext.sparkContext.hadoopConfiguration)
+  // use schema from the latest commit metadata, falling back to the schema of the data files
+  private val tableAvroSchema = new TableSchemaResolver(metaClient).getTableAvroSchema
+  private val tableStructSchema = AvroConversionUtils.convertAvroSchemaToStructType(tableAvroSchema)
+  private val maxCompactionMemoryInBytes = HoodieSparkUtils.getMaxCompactionMemoryInBytes(jobConf)
+
+  override def schema: StructType = tableStructSchema
+
+  override def needConversion: Boolean = false
+
+  override def buildScan(requiredColumns: Array[String], filters: Array[Filter]): RDD[Row] = {
+    log.debug(s"buildScan requiredColumns = ${requiredColumns.mkString(",")}")
+    log.debug(s"buildScan filters = ${filters.mkString(",")}")
+    val requiredStructSchema = StructType(requiredColumns.map(tableStructSchema(_)))
+    val fileSplits = buildFileSplits()
+    val tableState = HoodieMergeOnReadTableState(tableStructSchema, requiredStructSchema, tableAvroSchema.toString,
+      fileSplits)
+
+    // Base files with log files on top are read in full, as the records are merged before being pruned. Filters
+    // cannot be pushed down either, since a base record filtered out could still be updated by the logs.
+    val fullSchemaParquetReader = HoodieMergeOnReadRDD.buildParquetReader(sqlContext, tableStructSchema,
+      tableStructSchema, Seq.empty, optParams)
+    val requiredSchemaParquetReader = HoodieMergeOnReadRDD.buildParquetReader(sqlContext, tableStructSchema,
+      requiredStructSchema, filters, optParams)
+
+    // the filters are only used to skip data in the base files, spark still evaluates all of them on the rows
+    new HoodieMergeOnReadRDD(sqlContext.sparkContext, jobConf, fullSchemaParquetReader,
+      requiredSchemaParquetReader, tableState).asInstanceOf[RDD[Row]]
+  }
+
+  private def buildFileSplits(): List[HoodieMergeOnReadFileSplit] = {
+    val activeTimeline = metaClient.getActiveTimeline
+    val latestCompletedInstant = activeTimeline.getCommitsTimeline.filterCompletedInstants.lastInstant
+    if (!latestCompletedInstant.isPresent) {
+      log.info("No completed instants to read in " + metaClient.getBasePath)
+      return List.empty
+    }
+    val maxCommitTime = activeTimeline.getTimelineOfActions(CollectionUtils.createSet(HoodieTimeline.COMMIT_ACTION,
+      HoodieTimeline.ROLLBACK_ACTION, HoodieTimeline.DELTA_COMMIT_ACTION))
+      .filterCompletedInstants.lastInstant.get.getTimestamp
+
+    // only completed instants and pending compactions, so that files of inflight or rolled back commits are not read
+    val fsView = new HoodieTableFileSystemView(metaClient,
+      metaClient.getCommitsAndCompactionTimeline.filterCompletedAndCompactionInstants)
+    val basePath = new Path(metaClient.getBasePath)
+    partitionPaths.flatMap { partitionPath =>
+      val relPartitionPath = FSUtils.getRelativePartitionPath(basePath, partitionPath)
+      fsView.getLatestMergedFileSlicesBeforeOrOn(relPartitionPath, latestCompletedInstant.get.getTimestamp)
+        .iterator().toList.map { fileSlice =>
+          val dataFile = if (fileSlice.getBaseFile.isPresent) {
+            val baseFile = fileSlice.getBaseFile.get
+            Some(PartitionedFile(InternalRow.empty, baseFile.getPath, 0, baseFile.getFileSize))
+          } else {
+            None
+          }
+          val logPaths = fileSlice.getLogFiles.sorted(HoodieLogFile.getLogFileComparator)
+            .iterator().toList.map(_.getPath.toString)
+          HoodieMergeOnReadFileSplit(dataFile, if (logPaths.isEmpty) None else Some(logPaths), maxCommitTime,
+            metaClient.getBasePath, maxCompactionMemoryInBytes)
+        }
+    }.toList
+  }
+}
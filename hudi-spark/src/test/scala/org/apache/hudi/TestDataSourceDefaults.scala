@@ -19,11 +19,12 @@ package org.apache.hudi
 
 import org.apache.avro.generic.GenericRecord
 import org.apache.hudi.common.config.TypedProperties
-import org.apache.hudi.common.model.{EmptyHoodieRecordPayload, OverwriteWithLatestAvroPayload}
+import org.apache.hudi.common.model.{EmptyHoodieRecordPayload, HoodieKey, OverwriteWithLatestAvroPayload}
 import org.apache.hudi.common.util.{Option, SchemaTestUtil}
 import org.apache.hudi.exception.{HoodieException, HoodieKeyException}
-import org.apache.hudi.keygen.{ComplexKeyGenerator, GlobalDeleteKeyGenerator, SimpleKeyGenerator}
-import org.junit.jupiter.api.Assertions.assertEquals
+import org.apache.hudi.keygen.{ComplexKeyGenerator, GlobalDeleteKeyGenerator, KeyGenerator, NonpartitionedKeyGenerator, SimpleKeyGenerator}
+import org.apache.spark.sql.Row
+import org.junit.jupiter.api.Assertions.{assertEquals, assertFalse, assertTrue}
 import org.junit.jupiter.api.{BeforeEach, Test}
 import org.scalatest.Assertions.fail
 
@@ -293,6 +294,55 @@ class TestDataSourceDefaults {
     }
   }
 
+  @Test def testRowKeyGenerators() = {
+    baseRecord.put("field2", null)
+    baseRecord.put("name", "")
+    val structType = AvroConversionUtils.convertAvroSchemaToStructType(schema)
+    val row = AvroConversionHelper.createConverterToRow(schema, structType)(baseRecord).asInstanceOf[Row]
+
+    def assertSameKeys(keyGenerator: KeyGenerator): Unit = {
+      val rowKeyGenerator = keyGenerator.getRowKeyGenerator(structType)
+      assertTrue(rowKeyGenerator.isPresent)
+      assertEquals(keyGenerator.getKey(baseRecord), rowKeyGenerator.get.getKey(row))
+    }
+
+    // top level, nested, null and empty fields
+    Seq("false", "true").foreach { hiveStylePartitioning =>
+      assertSameKeys(new SimpleKeyGenerator(getKeyConfig("field1", "name", hiveStylePartitioning)))
+      assertSameKeys(new SimpleKeyGenerator(
+        getKeyConfig("testNestedRecord.userId", "testNestedRecord.isAdmin", hiveStylePartitioning)))
+      assertSameKeys(new SimpleKeyGenerator(getKeyConfig("favoriteIntNumber", "field2", hiveStylePartitioning)))
+      assertSameKeys(new ComplexKeyGenerator(getKeyConfig("field1, name", "field1, name", hiveStylePartitioning)))
+      assertSameKeys(new ComplexKeyGenerator(getKeyConfig("testNestedRecord.userId,field2,favoriteDoubleNumber",
+        "testNestedRecord.isAdmin,favoriteNumber", hiveStylePartitioning)))
+    }
+    assertSameKeys(new NonpartitionedKeyGenerator(getKeyConfig("favoriteNumber", "name", "false")))
+    assertSameKeys(new GlobalDeleteKeyGenerator(getKeyConfig("field1,favoriteFloatNumber", "name", "false")))
+
+    // fields missing from the schema, or not of a supported type, fall back to keys generated out of records
+    assertFalse(new SimpleKeyGenerator(getKeyConfig("testNestedRecord.notThere", "name", "false"))
+      .getRowKeyGenerator(structType).isPresent)
+    assertFalse(new ComplexKeyGenerator(getKeyConfig("field1,stringArray", "name", "false"))
+      .getRowKeyGenerator(structType).isPresent)
+    assertFalse(new SimpleKeyGenerator(getKeyConfig("field1", "tags", "false"))
+      .getRowKeyGenerator(structType).isPresent)
+
+    // subclasses generating keys of their own do not inherit row keys
+    val subclassKeyGenerator = new SimpleKeyGenerator(getKeyConfig("field1", "name", "false")) {
+      override def getKey(record: GenericRecord): HoodieKey = new HoodieKey("key", "partition")
+    }
+    assertFalse(subclassKeyGenerator.getRowKeyGenerator(structType).isPresent)
+
+    // null or empty record keys are still rejected
+    try {
+      new SimpleKeyGenerator(getKeyConfig("field2", "name", "false")).getRowKeyGenerator(structType).get.getKey(row)
+      fail("Should have errored out")
+    } catch {
+      case e: HoodieKeyException =>
+      // do nothing
+    }
+  }
+
   @Test def testOverwriteWithLatestAvroPayload() = {
     val overWritePayload1 = new OverwriteWithLatestAvroPayload(baseRecord, 1)
     val laterRecord = SchemaTestUtil
@@ -24,6 +24,8 @@ import org.apache.hudi.config.HoodieWriteConfig
 import org.apache.hudi.testutils.DataSourceTestUtils
 import org.apache.hudi.{DataSourceReadOptions, DataSourceWriteOptions, HoodieDataSourceHelpers}
 import org.apache.spark.sql._
+import org.apache.spark.sql.execution.FileSourceScanExec
+import org.apache.spark.sql.execution.datasources.FileScanRDD
 import org.apache.spark.sql.functions.col
 import org.apache.spark.sql.streaming.{OutputMode, ProcessingTime}
 import org.junit.jupiter.api.Assertions.{assertEquals, assertTrue}
@@ -112,6 +114,15 @@ class TestDataSource {
     val hoodieROViewDF2 = spark.read.format("org.apache.hudi")
       .load(basePath + "/*/*/*/*");
     assertEquals(100, hoodieROViewDF2.count()) // still 100, since we only updated
+    // only the latest base file of each file group is read
+    assertEquals(hoodieROViewDF2.select("_hoodie_file_name").distinct().count(), hoodieROViewDF2.inputFiles.length)
+    // and only from the partitions selected by filters on the partition path
+    val partitionPath = hoodieROViewDF2.select("_hoodie_partition_path").first().getString(0)
+    val prunedDF = hoodieROViewDF2.filter(col("_hoodie_partition_path") === partitionPath)
+    val scannedFiles = prunedDF.queryExecution.executedPlan.collect {
+      case scan: FileSourceScanExec => scan.inputRDDs().flatMap(_.asInstanceOf[FileScanRDD].filePartitions)
+    }.flatten.flatMap(_.files.map(_.filePath)).distinct
+    assertEquals(prunedDF.select("_hoodie_file_name").distinct().count(), scannedFiles.size)
 
     // Read Incremental View
     // we have 2 commits, try pulling the first commit (which is not the latest)
@@ -163,6 +174,65 @@ class TestDataSource {
     // Read RO View
     val hoodieROViewDF1 = spark.read.format("org.apache.hudi").load(basePath + "/*/*/*/*")
     assertEquals(100, hoodieROViewDF1.count()) // still 100, since we only updated
+    val commitInstantTime1: String = HoodieDataSourceHelpers.latestCommit(fs, basePath)
+
+    // Upsert Operation, the updates go into log files
+    val records2 = DataSourceTestUtils.convertToStringList(dataGen.generateUpdates("002", 100)).toList
+    val inputDF2: Dataset[Row] = spark.read.json(spark.sparkContext.parallelize(records2, 2))
+    val uniqueKeyCnt = inputDF2.select("_row_key").distinct().count()
+    inputDF2.write.format("org.apache.hudi")
+      .options(commonOpts)
+      .option("hoodie.compact.inline", "false")
+      .mode(SaveMode.Append)
+      .save(basePath)
+    val commitInstantTime2: String = HoodieDataSourceHelpers.latestCommit(fs, basePath)
+
+    // Read Snapshot View, merging the log files into the base files
+    val hoodieSnapshotViewDF2 = spark.read.format("org.apache.hudi").load(basePath + "/*/*/*/*")
+    assertEquals(100, hoodieSnapshotViewDF2.count())
+    assertEquals(uniqueKeyCnt, hoodieSnapshotViewDF2.filter(col("_hoodie_commit_time") === commitInstantTime2).count())
+    // pruned and filtered
+    val updatedKeys = hoodieSnapshotViewDF2.select("_row_key")
+      .filter(col("_hoodie_commit_time") === commitInstantTime2).collect().map(_.getString(0))
+    assertEquals(uniqueKeyCnt, updatedKeys.distinct.length)
+
+    // Read RO View, only reading the base files
+    val hoodieROViewDF2 = spark.read.format("org.apache.hudi")
+      .option(DataSourceReadOptions.QUERY_TYPE_OPT_KEY, DataSourceReadOptions.QUERY_TYPE_READ_OPTIMIZED_OPT_VAL)
+      .load(basePath + "/*/*/*/*")
+    assertEquals(100, hoodieROViewDF2.filter(col("_hoodie_commit_time") === commitInstantTime1).count())
+
+    // Read Incremental View, pulling the updates from the log files
+    val hoodieIncViewDF = spark.read.format("org.apache.hudi")
+      .option(DataSourceReadOptions.QUERY_TYPE_OPT_KEY, DataSourceReadOptions.QUERY_TYPE_INCREMENTAL_OPT_VAL)
+      .option(DataSourceReadOptions.BEGIN_INSTANTTIME_OPT_KEY, commitInstantTime1)
+      .load(basePath)
+    assertEquals(uniqueKeyCnt, hoodieIncViewDF.count())
+    val countsPerCommit = hoodieIncViewDF.groupBy("_hoodie_commit_time").count().collect()
+    assertEquals(1, countsPerCommit.length)
+    assertEquals(commitInstantTime2, countsPerCommit(0).get(0))
+
+    // Another upsert into the log files, so that the next delta commit is past the end of the range
+    val records3 = DataSourceTestUtils.convertToStringList(dataGen.generateUpdates("003", 100)).toList
+    val inputDF3: Dataset[Row] = spark.read.json(spark.sparkContext.parallelize(records3, 2))
+    inputDF3.write.format("org.apache.hudi")
+      .options(commonOpts)
+      .option("hoodie.compact.inline", "false")
+      .mode(SaveMode.Append)
+      .save(basePath)
+    val commitInstantTime3: String = HoodieDataSourceHelpers.latestCommit(fs, basePath)
+    assertTrue(commitInstantTime3 > commitInstantTime2)
+
+    // Read Incremental View of a range ending before the latest delta commit
+    val hoodieIncViewDF2 = spark.read.format("org.apache.hudi")
+      .option(DataSourceReadOptions.QUERY_TYPE_OPT_KEY, DataSourceReadOptions.QUERY_TYPE_INCREMENTAL_OPT_VAL)
+      .option(DataSourceReadOptions.BEGIN_INSTANTTIME_OPT_KEY, commitInstantTime1)
+      .option(DataSourceReadOptions.END_INSTANTTIME_OPT_KEY, commitInstantTime2)
+      .load(basePath)
+    assertEquals(uniqueKeyCnt, hoodieIncViewDF2.count())
+    val countsPerCommit2 = hoodieIncViewDF2.groupBy("_hoodie_commit_time").count().collect()
+    assertEquals(1, countsPerCommit2.length)
+    assertEquals(commitInstantTime2, countsPerCommit2(0).get(0))
   }
 
   @Test def testDropInsertDup(): Unit = {
@@ -208,6 +278,42 @@ class TestDataSource {
     assertEquals(hoodieIncViewDF2.count(), insert2NewKeyCnt)
   }
 
+  @Test def testBulkInsertRows(): Unit = {
+    // Bulk Insert Operation, writing rows
+    val records1 = DataSourceTestUtils.convertToStringList(dataGen.generateInserts("000", 100)).toList
+    val inputDF1: Dataset[Row] = spark.read.json(spark.sparkContext.parallelize(records1, 2))
+    inputDF1.write.format("org.apache.hudi")
+      .options(commonOpts)
+      .option("hoodie.bulkinsert.shuffle.parallelism", "2")
+      .option(DataSourceWriteOptions.OPERATION_OPT_KEY, DataSourceWriteOptions.BULK_INSERT_OPERATION_OPT_VAL)
+      .option(DataSourceWriteOptions.ENABLE_ROW_WRITER_OPT_KEY, "true")
+      .mode(SaveMode.Overwrite)
+      .save(basePath)
+
+    assertTrue(HoodieDataSourceHelpers.hasNewCommits(fs, basePath, "000"))
+    val commitInstantTime1 = HoodieDataSourceHelpers.latestCommit(fs, basePath)
+    val hoodieROViewDF1 = spark.read.format("org.apache.hudi").load(basePath + "/*/*/*/*")
+    assertEquals(100, hoodieROViewDF1.count())
+    assertEquals(100, hoodieROViewDF1.filter(col("_hoodie_commit_time") === commitInstantTime1).count())
+    assertEquals(0, hoodieROViewDF1.filter(col("_hoodie_file_name").isNull
+      || col("_hoodie_commit_seqno").isNull).count())
+    assertEquals(inputDF1.select("_row_key").except(hoodieROViewDF1.select("_hoodie_record_key")).count(), 0)
+
+    // Upsert Operation, whose index lookup has to find the keys written as rows
+    val records2 = DataSourceTestUtils.convertToStringList(dataGen.generateUpdates("001", 100)).toList
+    val inputDF2: Dataset[Row] = spark.read.json(spark.sparkContext.parallelize(records2, 2))
+    val uniqueKeyCnt = inputDF2.select("_row_key").distinct().count()
+    inputDF2.write.format("org.apache.hudi")
+      .options(commonOpts)
+      .mode(SaveMode.Append)
+      .save(basePath)
+
+    val commitInstantTime2 = HoodieDataSourceHelpers.latestCommit(fs, basePath)
+    val hoodieROViewDF2 = spark.read.format("org.apache.hudi").load(basePath + "/*/*/*/*")
+    assertEquals(100, hoodieROViewDF2.count())
+    assertEquals(uniqueKeyCnt, hoodieROViewDF2.filter(col("_hoodie_commit_time") === commitInstantTime2).count())
+  }
+
   //@Test (TODO: re-enable after fixing noisyness)
   def testStructuredStreaming(): Unit = {
     fs.delete(new Path(basePath), true)
@@ -33,20 +33,28 @@ import org.apache.hudi.timeline.service.handlers.BaseFileHandler;
 import org.apache.hudi.timeline.service.handlers.FileSliceHandler;
 import org.apache.hudi.timeline.service.handlers.TimelineHandler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.Context;
 import io.javalin.Handler;
 import io.javalin.Javalin;
+import io.javalin.core.util.Header;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Main REST Handler class that handles local view staleness and delegates calls to slice/data-file/timeline handlers.
@@ -54,6 +62,9 @@ import java.util.stream.Collectors;
 public class FileSystemViewHandler {
 
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String JSON_CONTENT_TYPE = "application/json";
+  private static final String GZIP_ENCODING = "gzip";
+  private static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
   private static final Logger LOG = LogManager.getLogger(FileSystemViewHandler.class);
 
   private final FileSystemViewManager viewManager;
@@ -61,6 +72,8 @@ public class FileSystemViewHandler {
   private final TimelineHandler instantHandler;
   private final FileSliceHandler sliceHandler;
   private final BaseFileHandler dataFileHandler;
+  // Map from Base-Path to the metrics of requests served for the table
+  private final ConcurrentHashMap<String, TableRequestMetrics> tableRequestMetrics = new ConcurrentHashMap<>();
 
   public FileSystemViewHandler(Javalin app, Configuration conf, FileSystemViewManager viewManager) throws IOException {
     this.viewManager = viewManager;
@@ -74,6 +87,7 @@ public class FileSystemViewHandler {
     registerDataFilesAPI();
     registerFileSlicesAPI();
     registerTimelineAPI();
+    registerMetricsAPI();
   }
 
   /**
@@ -128,14 +142,33 @@ public class FileSystemViewHandler {
     return false;
   }
 
-  private void writeValueAsString(Context ctx, Object obj) throws JsonProcessingException {
+  private void writeValueAsString(Context ctx, Object obj) throws IOException {
     boolean prettyPrint = ctx.queryParam("pretty") != null;
     long beginJsonTs = System.currentTimeMillis();
-    String result =
-        prettyPrint ? OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(obj) : OBJECT_MAPPER.writeValueAsString(obj);
+    if (prettyPrint) {
+      ctx.result(OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(obj));
+    } else {
+      // serialize straight into the response, compressed if the client accepts it, instead of rendering one string
+      ctx.contentType(JSON_CONTENT_TYPE);
+      String acceptEncoding = ctx.header(Header.ACCEPT_ENCODING);
+      boolean gzip = acceptEncoding != null && acceptEncoding.contains(GZIP_ENCODING);
+      if (gzip) {
+        ctx.header(Header.CONTENT_ENCODING, GZIP_ENCODING);
+      }
+      OutputStream outputStream = gzip ? new GZIPOutputStream(ctx.res.getOutputStream(), RESPONSE_BUFFER_SIZE)
+          : new BufferedOutputStream(ctx.res.getOutputStream(), RESPONSE_BUFFER_SIZE);
+      // closes the output stream once the value is written
+      OBJECT_MAPPER.writeValue(outputStream, obj);
+    }
     long endJsonTs = System.currentTimeMillis();
     LOG.debug("Jsonify TimeTaken=" + (endJsonTs - beginJsonTs));
-    ctx.result(result);
+  }
+
+  /**
+   * Reads the json body of a batched request, holding the partitions or file groups to look up.
+   */
+  private static <T> T readBody(Context ctx, TypeReference<T> reference) throws IOException {
+    return OBJECT_MAPPER.readValue(ctx.bodyAsBytes(), reference);
   }
 
   /**
@@ -145,13 +178,13 @@ public class FileSystemViewHandler {
     app.get(RemoteHoodieTableFileSystemView.LAST_INSTANT, new ViewHandler(ctx -> {
       List<InstantDTO> dtos = instantHandler
           .getLastInstant(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getValue());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, false));
 
     app.get(RemoteHoodieTableFileSystemView.TIMELINE, new ViewHandler(ctx -> {
       TimelineDTO dto = instantHandler
           .getTimeline(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getValue());
-      writeValueAsString(ctx, dto);
+      return dto;
     }, false));
   }
 
@@ -163,7 +196,7 @@ public class FileSystemViewHandler {
       List<BaseFileDTO> dtos = dataFileHandler.getLatestDataFiles(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_PARTITION_DATA_FILE_URL, new ViewHandler(ctx -> {
@@ -171,13 +204,13 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.FILEID_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_ALL_DATA_FILES, new ViewHandler(ctx -> {
       List<BaseFileDTO> dtos = dataFileHandler
           .getLatestDataFiles(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_DATA_FILES_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -185,7 +218,15 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.LATEST_PARTITIONS_DATA_FILES_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
+      Map<String, List<BaseFileDTO>> dtos = dataFileHandler.getLatestDataFilesBeforeOrOn(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readBody(ctx, new TypeReference<List<String>>() {}),
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow());
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_DATA_FILE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -194,21 +235,21 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.INSTANT_PARAM),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.FILEID_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.ALL_DATA_FILES, new ViewHandler(ctx -> {
       List<BaseFileDTO> dtos = dataFileHandler.getAllDataFiles(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_DATA_FILES_RANGE_INSTANT_URL, new ViewHandler(ctx -> {
       List<BaseFileDTO> dtos = dataFileHandler.getLatestDataFilesInRange(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(), Arrays
               .asList(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INSTANTS_PARAM).getOrThrow().split(",")));
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
   }
 
@@ -220,7 +261,21 @@ public class FileSystemViewHandler {
       List<FileSliceDTO> dtos = sliceHandler.getLatestFileSlices(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.LATEST_PARTITIONS_SLICES_URL, new ViewHandler(ctx -> {
+      Map<String, List<FileSliceDTO>> dtos = sliceHandler.getLatestFileSlices(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readBody(ctx, new TypeReference<List<String>>() {}));
+      return dtos;
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.LATEST_FILEGROUPS_SLICES_URL, new ViewHandler(ctx -> {
+      Map<String, List<FileSliceDTO>> dtos = sliceHandler.getLatestFileSlicesForFileGroups(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readBody(ctx, new TypeReference<Map<String, List<String>>>() {}));
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_PARTITION_SLICE_URL, new ViewHandler(ctx -> {
@@ -228,28 +283,28 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.FILEID_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_PARTITION_UNCOMPACTED_SLICES_URL, new ViewHandler(ctx -> {
       List<FileSliceDTO> dtos = sliceHandler.getLatestUnCompactedFileSlices(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.ALL_SLICES_URL, new ViewHandler(ctx -> {
       List<FileSliceDTO> dtos = sliceHandler.getAllFileSlices(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_SLICES_RANGE_INSTANT_URL, new ViewHandler(ctx -> {
       List<FileSliceDTO> dtos = sliceHandler.getLatestFileSliceInRange(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(), Arrays
               .asList(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INSTANTS_PARAM).getOrThrow().split(",")));
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_SLICES_MERGED_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -257,7 +312,7 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_SLICES_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -268,42 +323,81 @@ public class FileSystemViewHandler {
           Boolean.parseBoolean(
               ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM)
                   .getOrThrow()));
-      writeValueAsString(ctx, dtos);
+      return dtos;
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.LATEST_PARTITIONS_SLICES_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
+      Map<String, List<FileSliceDTO>> dtos = sliceHandler.getLatestFileSlicesBeforeOrOn(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readBody(ctx, new TypeReference<List<String>>() {}),
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow(),
+          Boolean.parseBoolean(
+              ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM)
+                  .getOrThrow()));
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.PENDING_COMPACTION_OPS, new ViewHandler(ctx -> {
       List<CompactionOpDTO> dtos = sliceHandler.getPendingCompactionOperations(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.ALL_FILEGROUPS_FOR_PARTITION_URL, new ViewHandler(ctx -> {
       List<FileGroupDTO> dtos = sliceHandler.getAllFileGroups(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      return dtos;
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.ALL_FILEGROUPS_FOR_PARTITIONS_URL, new ViewHandler(ctx -> {
+      Map<String, List<FileGroupDTO>> dtos = sliceHandler.getAllFileGroups(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readBody(ctx, new TypeReference<List<String>>() {}));
+      return dtos;
     }, true));
 
     app.post(RemoteHoodieTableFileSystemView.REFRESH_TABLE, new ViewHandler(ctx -> {
       boolean success = sliceHandler
           .refreshTable(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow());
-      writeValueAsString(ctx, success);
+      return success;
     }, false));
   }
 
+  /**
+   * Register API exposing the metrics of each table served.
+   */
+  private void registerMetricsAPI() {
+    app.get(RemoteHoodieTableFileSystemView.TABLE_METRICS_URL, ctx -> {
+      Map<String, Map<String, Long>> metrics = viewManager.getTableViewStats();
+      tableRequestMetrics.forEach((basePath, requestMetrics) ->
+          metrics.computeIfAbsent(basePath, path -> new HashMap<>()).putAll(requestMetrics.toMap()));
+      writeValueAsString(ctx, metrics);
+    });
+  }
+
   private static boolean isRefreshCheckDisabledInQuery(Context ctxt) {
     return Boolean.parseBoolean(ctxt.queryParam(RemoteHoodieTableFileSystemView.REFRESH_OFF));
   }
 
+  /**
+   * Computes the result of a request, which is written as json once the refresh check passed.
+   */
+  @FunctionalInterface
+  private interface ResultHandler {
+
+    Object handle(Context context) throws Exception;
+  }
+
   /**
    * Used for logging and performing refresh check.
    */
   private class ViewHandler implements Handler {
 
-    private final Handler handler;
+    private final ResultHandler handler;
     private final boolean performRefreshCheck;
 
-    ViewHandler(Handler handler, boolean performRefreshCheck) {
+    ViewHandler(ResultHandler handler, boolean performRefreshCheck) {
       this.handler = handler;
       this.performRefreshCheck = performRefreshCheck;
     }
@@ -317,6 +411,9 @@ public class FileSystemViewHandler {
       long refreshCheckTimeTaken = 0;
       long handleTimeTaken = 0;
       long finalCheckTimeTaken = 0;
+      String basePath = context.queryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM);
+      // keeps the view of the table open while the request is served, should another table's load evict it
+      SyncableFileSystemView view = basePath != null ? viewManager.acquireFileSystemView(basePath) : null;
       try {
         if (refreshCheck) {
           long beginRefreshCheck = System.currentTimeMillis();
@@ -326,7 +423,7 @@ public class FileSystemViewHandler {
         }
 
         long handleBeginMs = System.currentTimeMillis();
-        handler.handle(context);
+        Object result = handler.handle(context);
         long handleEndMs = System.currentTimeMillis();
         handleTimeTaken = handleEndMs - handleBeginMs;
 
@@ -343,13 +440,23 @@ public class FileSystemViewHandler {
           long endFinalCheck = System.currentTimeMillis();
           finalCheckTimeTaken = endFinalCheck - beginFinalCheck;
         }
+
+        // the result is streamed to the client, so it is only written once the view is known to be up to date
+        writeValueAsString(context, result);
       } catch (RuntimeException re) {
         success = false;
         LOG.error("Got runtime exception servicing request " + context.queryString(), re);
         throw re;
       } finally {
+        if (view != null) {
+          viewManager.releaseFileSystemView(view);
+        }
         long endTs = System.currentTimeMillis();
         long timeTakenMillis = endTs - beginTs;
+        if (basePath != null) {
+          tableRequestMetrics.computeIfAbsent(basePath, path -> new TableRequestMetrics())
+              .update(success, synced, timeTakenMillis);
+        }
         LOG.info(String.format(
                 "TimeTakenMillis[Total=%d, Refresh=%d, handle=%d, Check=%d], "
                     + "Success=%s, Query=%s, Host=%s, synced=%s",
@@ -358,4 +465,35 @@ public class FileSystemViewHandler {
       }
     }
   }
+
+  /**
+   * Metrics of the requests served for a table.
+   */
+  private static class TableRequestMetrics {
+
+    private final AtomicLong numRequests = new AtomicLong();
+    private final AtomicLong numFailures = new AtomicLong();
+    private final AtomicLong numSyncs = new AtomicLong();
+    private final AtomicLong totalTimeMs = new AtomicLong();
+
+    void update(boolean success, boolean synced, long timeTakenMillis) {
+      numRequests.incrementAndGet();
+      if (!success) {
+        numFailures.incrementAndGet();
+      }
+      if (synced) {
+        numSyncs.incrementAndGet();
+      }
+      totalTimeMs.addAndGet(timeTakenMillis);
+    }
+
+    Map<String, Long> toMap() {
+      Map<String, Long> metrics = new HashMap<>();
+      metrics.put("numRequests", numRequests.get());
+      metrics.put("numFailures", numFailures.get());
+      metrics.put("numSyncs", numSyncs.get());
+      metrics.put("totalTimeMs", totalTimeMs.get());
+      return metrics;
+    }
+  }
 }
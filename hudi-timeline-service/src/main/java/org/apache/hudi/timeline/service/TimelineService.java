@@ -94,6 +94,26 @@ public class TimelineService {
     @Parameter(names = {"--rocksdb-path", "-rp"}, description = "Root directory for RocksDB")
     public String rocksDBPath = FileSystemViewStorageConfig.DEFAULT_ROCKSDB_BASE_PATH;
 
+    @Parameter(names = {"--max-view-tables", "-mt"},
+        description = "Maximum number of table views held at a time. Views of the least recently used tables"
+            + " beyond it are evicted and rebuilt on their next access")
+    public Integer maxViewTables = FileSystemViewStorageConfig.DEFAULT_MAX_TABLES;
+
+    @Parameter(names = {"--max-view-tables-mem", "-mtm"},
+        description = "View memory in MB that the number of table views is sized by. Memory use is not measured, the"
+            + " number of table views held at a time is capped to this value divided by --max-view-mem-per-table,"
+            + " on top of --max-view-tables. Used for SPILLABLE_DISK storage type")
+    public Long maxViewTablesMemInMB = Long.MAX_VALUE;
+
+    @Parameter(names = {"--enable-view-snapshots", "-vs"},
+        description = "Restore table views from snapshots when loaded, and write snapshots when evicted or on shutdown")
+    public Boolean enableViewSnapshots = false;
+
+    @Parameter(names = {"--view-snapshot-dir", "-vsd"},
+        description = "Directory to keep the view snapshots of all tables in. Defaults to the auxiliary folder of each"
+            + " table")
+    public String viewSnapshotDir = FileSystemViewStorageConfig.DEFAULT_FILESYSTEM_VIEW_SNAPSHOT_DIR;
+
     @Parameter(names = {"--help", "-h"})
     public Boolean help = false;
   }
@@ -118,20 +138,27 @@ public class TimelineService {
     switch (config.viewStorageType) {
       case MEMORY:
         FileSystemViewStorageConfig.Builder inMemConfBuilder = FileSystemViewStorageConfig.newBuilder();
-        inMemConfBuilder.withStorageType(FileSystemViewStorageType.MEMORY);
+        inMemConfBuilder.withStorageType(FileSystemViewStorageType.MEMORY)
+            .withMaxTables(config.maxViewTables)
+            .withViewSnapshotEnabled(config.enableViewSnapshots).withViewSnapshotDir(config.viewSnapshotDir);
         return FileSystemViewManager.createViewManager(conf, inMemConfBuilder.build());
       case SPILLABLE_DISK: {
         FileSystemViewStorageConfig.Builder spillableConfBuilder = FileSystemViewStorageConfig.newBuilder();
         spillableConfBuilder.withStorageType(FileSystemViewStorageType.SPILLABLE_DISK)
             .withBaseStoreDir(config.baseStorePathForFileGroups)
             .withMaxMemoryForView(config.maxViewMemPerTableInMB * 1024 * 1024L)
-            .withMemFractionForPendingCompaction(config.memFractionForCompactionPerTable);
+            .withMemFractionForPendingCompaction(config.memFractionForCompactionPerTable)
+            .withMaxTables((int) Math.max(1,
+                Math.min(config.maxViewTables, config.maxViewTablesMemInMB / config.maxViewMemPerTableInMB)))
+            .withViewSnapshotEnabled(config.enableViewSnapshots).withViewSnapshotDir(config.viewSnapshotDir);
         return FileSystemViewManager.createViewManager(conf, spillableConfBuilder.build());
       }
       case EMBEDDED_KV_STORE: {
         FileSystemViewStorageConfig.Builder rocksDBConfBuilder = FileSystemViewStorageConfig.newBuilder();
         rocksDBConfBuilder.withStorageType(FileSystemViewStorageType.EMBEDDED_KV_STORE)
-            .withRocksDBPath(config.rocksDBPath);
+            .withRocksDBPath(config.rocksDBPath)
+            .withMaxTables(config.maxViewTables)
+            .withViewSnapshotEnabled(config.enableViewSnapshots).withViewSnapshotDir(config.viewSnapshotDir);
         return FileSystemViewManager.createViewManager(conf, rocksDBConfBuilder.build());
       }
       default:
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -58,6 +59,12 @@ public class BaseFileHandler extends Handler {
         .map(BaseFileDTO::fromHoodieBaseFile).collect(Collectors.toList());
   }
 
+  public Map<String, List<BaseFileDTO>> getLatestDataFilesBeforeOrOn(String basePath, List<String> partitionPaths,
+      String maxInstantTime) {
+    return toDTOs(viewManager.getFileSystemView(basePath).getLatestBaseFilesBeforeOrOn(partitionPaths, maxInstantTime),
+        BaseFileDTO::fromHoodieBaseFile);
+  }
+
   public List<BaseFileDTO> getLatestDataFileOn(String basePath, String partitionPath, String instantTime,
                                                String fileId) {
     List<BaseFileDTO> result = new ArrayList<>();
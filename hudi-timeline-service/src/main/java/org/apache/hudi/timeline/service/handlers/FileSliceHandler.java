@@ -18,6 +18,8 @@
 
 package org.apache.hudi.timeline.service.handlers;
 
+import org.apache.hudi.common.model.FileSlice;
+import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.table.timeline.dto.CompactionOpDTO;
 import org.apache.hudi.common.table.timeline.dto.FileGroupDTO;
 import org.apache.hudi.common.table.timeline.dto.FileSliceDTO;
@@ -29,6 +31,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -89,6 +92,33 @@ public class FileSliceHandler extends Handler {
         .collect(Collectors.toList());
   }
 
+  public Map<String, List<FileSliceDTO>> getLatestFileSlices(String basePath, List<String> partitionPaths) {
+    return toDTOs(viewManager.getFileSystemView(basePath).getLatestFileSlices(partitionPaths),
+        FileSliceDTO::fromFileSlice);
+  }
+
+  public Map<String, List<FileSliceDTO>> getLatestFileSlicesBeforeOrOn(String basePath, List<String> partitionPaths,
+      String maxInstantTime, boolean includeFileSlicesInPendingCompaction) {
+    return toDTOs(viewManager.getFileSystemView(basePath)
+        .getLatestFileSlicesBeforeOrOn(partitionPaths, maxInstantTime, includeFileSlicesInPendingCompaction),
+        FileSliceDTO::fromFileSlice);
+  }
+
+  public Map<String, List<FileSliceDTO>> getLatestFileSlicesForFileGroups(String basePath,
+      Map<String, List<String>> partitionToFileIds) {
+    List<HoodieFileGroupId> fileGroupIds = partitionToFileIds.entrySet().stream()
+        .flatMap(e -> e.getValue().stream().map(fileId -> new HoodieFileGroupId(e.getKey(), fileId)))
+        .collect(Collectors.toList());
+    return viewManager.getFileSystemView(basePath).getLatestFileSlicesForFileGroups(fileGroupIds).values().stream()
+        .collect(Collectors.groupingBy(FileSlice::getPartitionPath,
+            Collectors.mapping(FileSliceDTO::fromFileSlice, Collectors.toList())));
+  }
+
+  public Map<String, List<FileGroupDTO>> getAllFileGroups(String basePath, List<String> partitionPaths) {
+    return toDTOs(viewManager.getFileSystemView(basePath).getAllFileGroups(partitionPaths),
+        FileGroupDTO::fromFileGroup);
+  }
+
   public boolean refreshTable(String basePath) {
     viewManager.clearFileSystemView(basePath);
     return true;
@@ -24,6 +24,11 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public abstract class Handler {
 
@@ -36,4 +41,14 @@ public abstract class Handler {
     this.fileSystem = FileSystem.get(conf);
     this.viewManager = viewManager;
   }
+
+  /**
+   * Converts the per partition results of a batched view call to their DTOs.
+   */
+  protected static <T, D> Map<String, List<D>> toDTOs(Map<String, List<T>> partitionToValues, Function<T, D> converter) {
+    Map<String, List<D>> result = new HashMap<>();
+    partitionToValues.forEach((partitionPath, values) ->
+        result.put(partitionPath, values.stream().map(converter).collect(Collectors.toList())));
+    return result;
+  }
 }
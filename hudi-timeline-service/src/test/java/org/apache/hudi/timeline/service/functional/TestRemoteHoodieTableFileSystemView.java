@@ -26,10 +26,22 @@ import org.apache.hudi.common.table.view.FileSystemViewStorageType;
 import org.apache.hudi.common.table.view.RemoteHoodieTableFileSystemView;
 import org.apache.hudi.common.table.view.SyncableFileSystemView;
 import org.apache.hudi.common.table.view.TestHoodieTableFileSystemView;
+import org.apache.hudi.common.util.FileIOUtils;
 import org.apache.hudi.timeline.service.TimelineService;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Bring up a remote Timeline Server and run all test-cases of TestHoodieTableFileSystemView against it.
@@ -55,4 +67,39 @@ public class TestRemoteHoodieTableFileSystemView extends TestHoodieTableFileSyst
     view = new RemoteHoodieTableFileSystemView("localhost", server.getServerPort(), metaClient);
     return view;
   }
+
+  @Override
+  @Test
+  public void testRestoreFromSnapshot() {
+    // Snapshots are taken and restored by the views held in the timeline server, not by remote views
+  }
+
+  @Override
+  @Test
+  public void testConcurrentSnapshotWrites() {
+    // Snapshots are written by the views held in the timeline server, not by remote views
+  }
+
+  @Test
+  public void testResponseEncodingNegotiation() throws IOException {
+    getFileSystemView(metaClient.getActiveTimeline());
+    URL url = new URL(String.format("http://localhost:%d%s?%s=%s", server.getServerPort(),
+        RemoteHoodieTableFileSystemView.TIMELINE, RemoteHoodieTableFileSystemView.BASEPATH_PARAM,
+        URLEncoder.encode(basePath, "UTF-8")));
+
+    HttpURLConnection plainConnection = (HttpURLConnection) url.openConnection();
+    assertNull(plainConnection.getHeaderField("Content-Encoding"));
+    String plainContent;
+    try (InputStream inputStream = plainConnection.getInputStream()) {
+      plainContent = FileIOUtils.readAsUTFString(inputStream);
+    }
+
+    HttpURLConnection gzipConnection = (HttpURLConnection) url.openConnection();
+    gzipConnection.setRequestProperty("Accept-Encoding", "gzip");
+    assertEquals("gzip", gzipConnection.getHeaderField("Content-Encoding"));
+    try (InputStream inputStream = new GZIPInputStream(gzipConnection.getInputStream())) {
+      assertEquals(plainContent, FileIOUtils.readAsUTFString(inputStream));
+    }
+    server.close();
+  }
 }
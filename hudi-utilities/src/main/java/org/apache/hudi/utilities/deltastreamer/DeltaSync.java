@@ -24,6 +24,7 @@ import org.apache.hudi.client.HoodieWriteClient;
 import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.common.config.TypedProperties;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieKey;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
@@ -72,6 +73,7 @@ import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import scala.Tuple2;
 import scala.collection.JavaConversions;
 
 import static org.apache.hudi.utilities.schema.RowBasedSchemaProvider.HOODIE_RECORD_NAMESPACE;
@@ -268,12 +270,12 @@ public class DeltaSync implements Serializable {
     }
     LOG.info("Checkpoint to resume from : " + resumeCheckpointStr);
 
-    final Option<JavaRDD<GenericRecord>> avroRDDOptional;
+    final Option<JavaRDD<Tuple2<HoodieKey, GenericRecord>>> avroRDDOptional;
     final String checkpointStr;
     final SchemaProvider schemaProvider;
     if (transformer.isPresent()) {
       // Transformation is needed. Fetch New rows in Row Format, apply transformation and then convert them
-      // to generic records for writing
+      // to generic records for writing, generating the keys straight out of the rows when the key generator can
       InputBatch<Dataset<Row>> dataAndCheckpoint =
           formatAdapter.fetchNewDataInRowFormat(resumeCheckpointStr, cfg.sourceLimit);
 
@@ -285,13 +287,15 @@ public class DeltaSync implements Serializable {
         // pass in the schema for the Row-to-Avro conversion
         // to avoid nullability mismatch between Avro schema and Row schema
         avroRDDOptional = transformed
-            .map(t -> AvroConversionUtils.createRdd(
+            .map(t -> AvroConversionUtils.createRddWithKeys(
                 t, this.schemaProvider.getTargetSchema(),
-                HOODIE_RECORD_STRUCT_NAME, HOODIE_RECORD_NAMESPACE).toJavaRDD());
+                HOODIE_RECORD_STRUCT_NAME, HOODIE_RECORD_NAMESPACE, keyGenerator).toJavaRDD());
       } else {
         avroRDDOptional = transformed
-            .map(t -> AvroConversionUtils.createRdd(
-                t, HOODIE_RECORD_STRUCT_NAME, HOODIE_RECORD_NAMESPACE).toJavaRDD());
+            .map(t -> AvroConversionUtils.createRddWithKeys(
+                t, AvroConversionUtils.convertStructTypeToAvroSchema(
+                    t.schema(), HOODIE_RECORD_STRUCT_NAME, HOODIE_RECORD_NAMESPACE),
+                HOODIE_RECORD_STRUCT_NAME, HOODIE_RECORD_NAMESPACE, keyGenerator).toJavaRDD());
       }
 
       // Use Transformed Row's schema if not overridden. If target schema is not specified
@@ -304,7 +308,8 @@ public class DeltaSync implements Serializable {
       // Pull the data from the source & prepare the write
       InputBatch<JavaRDD<GenericRecord>> dataAndCheckpoint =
           formatAdapter.fetchNewDataInAvroFormat(resumeCheckpointStr, cfg.sourceLimit);
-      avroRDDOptional = dataAndCheckpoint.getBatch();
+      avroRDDOptional = dataAndCheckpoint.getBatch()
+          .map(rdd -> rdd.map(gr -> new Tuple2<>(keyGenerator.getKey(gr), gr)));
       checkpointStr = dataAndCheckpoint.getCheckpointForNextBatch();
       schemaProvider = dataAndCheckpoint.getSchemaProvider();
     }
@@ -320,11 +325,12 @@ public class DeltaSync implements Serializable {
       return Pair.of(schemaProvider, Pair.of(checkpointStr, jssc.emptyRDD()));
     }
 
-    JavaRDD<GenericRecord> avroRDD = avroRDDOptional.get();
-    JavaRDD<HoodieRecord> records = avroRDD.map(gr -> {
+    JavaRDD<Tuple2<HoodieKey, GenericRecord>> avroRDD = avroRDDOptional.get();
+    JavaRDD<HoodieRecord> records = avroRDD.map(keyAndRecord -> {
+      GenericRecord gr = keyAndRecord._2();
       HoodieRecordPayload payload = DataSourceUtils.createPayload(cfg.payloadClassName, gr,
           (Comparable) DataSourceUtils.getNestedFieldVal(gr, cfg.sourceOrderingField, false));
-      return new HoodieRecord<>(keyGenerator.getKey(gr), payload);
+      return new HoodieRecord<>(keyAndRecord._1(), payload);
     });
 
     return Pair.of(schemaProvider, Pair.of(checkpointStr, records));